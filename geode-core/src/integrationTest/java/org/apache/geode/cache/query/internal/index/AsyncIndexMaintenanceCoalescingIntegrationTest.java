@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.internal.DistributionConfig.GEMFIRE_PREFIX;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class AsyncIndexMaintenanceCoalescingIntegrationTest {
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  @After
+  public void tearDown() {
+    IndexManager.testHook = null;
+    System.clearProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreads");
+    System.clearProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceReadBarrierMillis");
+  }
+
+  private static void blockUpdaterAtFirstUpdate(CountDownLatch updaterBlocked,
+      CountDownLatch releaseUpdater) {
+    IndexManager.testHook = spot -> {
+      if (spot == 5 && Thread.currentThread().getName().startsWith("OqlIndexUpdater")
+          && updaterBlocked.getCount() > 0) {
+        updaterBlocked.countDown();
+        try {
+          releaseUpdater.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+  }
+
+  @Test
+  public void repeatedUpdatesToAnEntryAreCoalescedWhileQueued() throws Exception {
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region = cache.<String, Portfolio>createRegionFactory(
+        RegionShortcut.REPLICATE).setIndexMaintenanceSynchronous(false).create("portfolios");
+    QueryService qs = cache.getQueryService();
+    Index index = qs.createIndex("idIndex", "p.ID", "/portfolios p");
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+
+    CountDownLatch updaterBlocked = new CountDownLatch(1);
+    CountDownLatch releaseUpdater = new CountDownLatch(1);
+    blockUpdaterAtFirstUpdate(updaterBlocked, releaseUpdater);
+
+    region.put("KEY", new Portfolio(0));
+    assertThat(updaterBlocked.await(30, TimeUnit.SECONDS)).isTrue();
+    for (int i = 1; i <= 10; i++) {
+      region.put("KEY", new Portfolio(i));
+    }
+    releaseUpdater.countDown();
+
+    await().until(indexManager::isIndexMaintenanceDone);
+    assertThat(indexManager.getUpdaterThread().getCoalescedTasks()).isEqualTo(9);
+    await().untilAsserted(() -> {
+      SelectResults results =
+          (SelectResults) qs.newQuery("select * from /portfolios p where p.ID = 10").execute();
+      assertThat(results.size()).isEqualTo(1);
+    });
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(1);
+  }
+
+  @Test
+  public void updatesAreAppliedByAllUpdaterThreadsOfTheRegion() throws Exception {
+    System.setProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreads", "4");
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region = cache.<String, Portfolio>createRegionFactory(
+        RegionShortcut.REPLICATE).setIndexMaintenanceSynchronous(false).create("portfolios");
+    QueryService qs = cache.getQueryService();
+    Index index = qs.createIndex("idIndex", "p.ID", "/portfolios p");
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+
+    for (int i = 0; i < 1000; i++) {
+      region.put("KEY-" + i, new Portfolio(i));
+    }
+
+    await().untilAsserted(() -> {
+      assertThat(indexManager.isIndexMaintenanceDone()).isTrue();
+      assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(1000);
+    });
+    SelectResults results =
+        (SelectResults) qs.newQuery("select * from /portfolios p where p.ID >= 900").execute();
+    assertThat(results.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void allUpdaterThreadsAreReturnedAndStoppedWithTheRegion() throws Exception {
+    System.setProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreads", "4");
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region = cache.<String, Portfolio>createRegionFactory(
+        RegionShortcut.REPLICATE).setIndexMaintenanceSynchronous(false).create("portfolios");
+    cache.getQueryService().createIndex("idIndex", "p.ID", "/portfolios p");
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+
+    List<IndexManager.IndexUpdaterThread> updaters = indexManager.getUpdaterThreads();
+    assertThat(updaters).hasSize(4);
+    assertThat(updaters).allMatch(Thread::isAlive);
+
+    region.close();
+
+    assertThat(updaters).noneMatch(Thread::isAlive);
+  }
+
+  @Test
+  public void indexesAreRecreatedWhileAllUpdaterThreadsWait() throws Exception {
+    System.setProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreads", "4");
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region = cache.<String, Portfolio>createRegionFactory(
+        RegionShortcut.REPLICATE).setIndexMaintenanceSynchronous(false).create("portfolios");
+    Index index = cache.getQueryService().createIndex("idIndex", "p.ID", "/portfolios p");
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+
+    for (int i = 0; i < 1000; i++) {
+      region.put("KEY-" + i, new Portfolio(i));
+    }
+    region.clear();
+    for (int i = 0; i < 100; i++) {
+      region.put("NEW-KEY-" + i, new Portfolio(i));
+    }
+
+    await().untilAsserted(() -> {
+      assertThat(indexManager.isIndexMaintenanceDone()).isTrue();
+      assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(100);
+    });
+  }
+
+  @Test
+  public void readBarrierMakesQueriesWaitForQueuedUpdates() throws Exception {
+    System.setProperty(GEMFIRE_PREFIX + "AsynchIndexMaintenanceReadBarrierMillis", "30000");
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region = cache.<String, Portfolio>createRegionFactory(
+        RegionShortcut.REPLICATE).setIndexMaintenanceSynchronous(false).create("portfolios");
+    QueryService qs = cache.getQueryService();
+    qs.createIndex("idIndex", "p.ID", "/portfolios p");
+
+    CountDownLatch updaterBlocked = new CountDownLatch(1);
+    CountDownLatch releaseUpdater = new CountDownLatch(1);
+    blockUpdaterAtFirstUpdate(updaterBlocked, releaseUpdater);
+
+    region.put("KEY", new Portfolio(0));
+    assertThat(updaterBlocked.await(30, TimeUnit.SECONDS)).isTrue();
+    region.put("OTHER-KEY", new Portfolio(10));
+
+    CompletableFuture<Integer> querySize = CompletableFuture.supplyAsync(() -> {
+      try {
+        return ((SelectResults) qs.newQuery("select * from /portfolios p where p.ID = 10")
+            .execute()).size();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Thread.sleep(500);
+    assertThat(querySize).isNotDone();
+
+    releaseUpdater.countDown();
+
+    assertThat(querySize.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.QueryObserverAdapter;
+import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class CountFromIndexIntegrationTest {
+
+  private static final int NUM_ENTRIES = 200;
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  @After
+  public void tearDown() {
+    QueryObserverHolder.reset();
+  }
+
+  @Test
+  public void countStarIsAnsweredFromIndexOnAReplicatedRegion() throws Exception {
+    verifyCountStarQueries(RegionShortcut.REPLICATE);
+  }
+
+  @Test
+  public void countStarIsAnsweredFromIndexOnAPartitionedRegion() throws Exception {
+    verifyCountStarQueries(RegionShortcut.PARTITION);
+  }
+
+  @Test
+  public void junctionsAreCountedFromIndexesOnAReplicatedRegion() throws Exception {
+    verifyJunctionCountStarQueries(RegionShortcut.REPLICATE);
+  }
+
+  @Test
+  public void junctionsAreCountedFromIndexesOnAPartitionedRegion() throws Exception {
+    verifyJunctionCountStarQueries(RegionShortcut.PARTITION);
+  }
+
+  private Region<String, Portfolio> createPortfolios(RegionShortcut shortcut) {
+    Region<String, Portfolio> region = serverStarterRule.getCache()
+        .<String, Portfolio>createRegionFactory(shortcut).create("portfolios");
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      region.put("KEY-" + i, new Portfolio(i));
+    }
+    return region;
+  }
+
+  private void verifyCountStarQueries(RegionShortcut shortcut) throws Exception {
+    Region<String, Portfolio> region = createPortfolios(shortcut);
+    QueryService queryService = serverStarterRule.getCache().getQueryService();
+    Index index = queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    IndexLookupObserver observer = new IndexLookupObserver();
+    QueryObserverHolder.setInstance(observer);
+
+    assertThat(count(queryService, "select count(*) from /portfolios p where p.status = 'active'"))
+        .isEqualTo(NUM_ENTRIES / 2);
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status IN SET('active', 'inactive', 'active')"))
+            .isEqualTo(NUM_ENTRIES);
+    assertThat(count(queryService, "select count(*) from /portfolios p where p.status = 'none'"))
+        .isEqualTo(0);
+    // the counts were taken from the index without collecting the matching entries
+    assertThat(observer.lookups).isGreaterThanOrEqualTo(3);
+    assertThat(observer.entriesLookedUp).isZero();
+
+    // a junction with a condition that is not an indexed equality is filtered, so its entries are
+    // collected and counted
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' and p.ID >= 0"))
+            .isEqualTo(NUM_ENTRIES / 2);
+    assertThat(observer.entriesLookedUp).isEqualTo(NUM_ENTRIES / 2);
+    observer.entriesLookedUp = 0;
+
+    region.destroy("KEY-0");
+    region.put("KEY-1", new Portfolio(0));
+    assertThat(count(queryService, "select count(*) from /portfolios p where p.status = 'active'"))
+        .isEqualTo(NUM_ENTRIES / 2);
+    assertThat(
+        count(queryService, "select count(*) from /portfolios p where p.status = 'inactive'"))
+            .isEqualTo(NUM_ENTRIES / 2 - 1);
+    assertThat(index.getStatistics().getTotalUses()).isGreaterThanOrEqualTo(5);
+    assertThat(observer.entriesLookedUp).isZero();
+  }
+
+  private void verifyJunctionCountStarQueries(RegionShortcut shortcut) throws Exception {
+    createPortfolios(shortcut);
+    QueryService queryService = serverStarterRule.getCache().getQueryService();
+    queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    queryService.createIndex("typeIndex", "p.\"type\"", "/portfolios p");
+    queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+    IndexLookupObserver observer = new IndexLookupObserver();
+    QueryObserverHolder.setInstance(observer);
+
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' and p.\"type\" = 'type0'"))
+            .isEqualTo(expectedCount(i -> i % 2 == 0 && i % 3 == 0));
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' or p.ID IN SET(1, 3, 4)"))
+            .isEqualTo(expectedCount(i -> i % 2 == 0 || i == 1 || i == 3));
+    assertThat(count(queryService, "select count(*) from /portfolios p"
+        + " where (p.status = 'inactive' or p.ID = 0) and p.\"type\" IN SET('type1', 'type2')"))
+            .isEqualTo(expectedCount(i -> (i % 2 == 1 || i == 0) && i % 3 != 0));
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' and p.status = 'inactive'"))
+            .isEqualTo(0);
+    // the counts were taken from the indexes without collecting the matching entries
+    assertThat(observer.lookups).isGreaterThanOrEqualTo(7);
+    assertThat(observer.entriesLookedUp).isZero();
+
+    // a range condition is not counted from the index, so the junction is filtered
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' and p.ID < 10"))
+            .isEqualTo(expectedCount(i -> i % 2 == 0 && i < 10));
+    assertThat(observer.entriesLookedUp).isNotZero();
+    // a LIKE is compiled as an equality on its pattern, and is filtered too
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status LIKE 'act%' and p.\"type\" = 'type0'"))
+            .isEqualTo(expectedCount(i -> i % 2 == 0 && i % 3 == 0));
+    // as is a junction with a condition that has no index
+    assertThat(count(queryService,
+        "select count(*) from /portfolios p where p.status = 'active' or p.pkid = '1'"))
+            .isEqualTo(expectedCount(i -> i % 2 == 0 || i == 1));
+  }
+
+  private static int expectedCount(IntPredicate matches) {
+    return (int) IntStream.range(0, NUM_ENTRIES).filter(matches).count();
+  }
+
+  private int count(QueryService queryService, String queryString) throws Exception {
+    SelectResults<?> results = (SelectResults<?>) queryService.newQuery(queryString).execute();
+    assertThat(results).hasSize(1);
+    return (Integer) results.iterator().next();
+  }
+
+  private static class IndexLookupObserver extends QueryObserverAdapter {
+    private volatile int lookups;
+
+    /** The number of entries returned by the index lookups that collected their results */
+    private volatile int entriesLookedUp;
+
+    @Override
+    public void beforeIndexLookup(Index index, int oper, Object key) {
+      lookups++;
+    }
+
+    @Override
+    public synchronized void afterIndexLookup(Collection results) {
+      if (results != null) {
+        entriesLookedUp += results.size();
+      }
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class ParallelIndexPopulationIntegrationTest {
+
+  private static final int NUM_ENTRIES = 1000;
+
+  private int originalThreads;
+  private int originalBatchSize;
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  @Before
+  public void setUp() {
+    originalThreads = IndexManager.INDEX_POPULATION_THREADS;
+    originalBatchSize = IndexManager.INDEX_POPULATION_BATCH_SIZE;
+    IndexManager.INDEX_POPULATION_THREADS = 4;
+    IndexManager.INDEX_POPULATION_BATCH_SIZE = 7;
+  }
+
+  @After
+  public void tearDown() {
+    IndexManager.INDEX_POPULATION_THREADS = originalThreads;
+    IndexManager.INDEX_POPULATION_BATCH_SIZE = originalBatchSize;
+  }
+
+  @Test
+  public void definedIndexesArePopulatedWithEveryEntryOnAReplicatedRegion() throws Exception {
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region =
+        cache.<String, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("portfolios");
+    populateRegionAndCreateDefinedIndexes(cache, region);
+  }
+
+  @Test
+  public void definedIndexesArePopulatedWithEveryEntryOnAPartitionedRegion() throws Exception {
+    Cache cache = serverStarterRule.getCache();
+    Region<String, Portfolio> region =
+        cache.<String, Portfolio>createRegionFactory(RegionShortcut.PARTITION).create("portfolios");
+    populateRegionAndCreateDefinedIndexes(cache, region);
+  }
+
+  private void populateRegionAndCreateDefinedIndexes(Cache cache,
+      Region<String, Portfolio> region) throws Exception {
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      region.put("KEY-" + i, new Portfolio(i));
+    }
+
+    QueryService qs = cache.getQueryService();
+    qs.defineIndex("statusIndex", "p.status", "/portfolios p");
+    qs.defineIndex("idIndex", "p.ID", "/portfolios p");
+    qs.defineHashIndex("pkIndex", "p.pk", "/portfolios p");
+    qs.createDefinedIndexes();
+
+    for (Index index : qs.getIndexes(region)) {
+      assertThat(index.getStatistics().getNumberOfValues()).as(index.getName())
+          .isEqualTo(NUM_ENTRIES);
+    }
+
+    SelectResults active =
+        (SelectResults) qs.newQuery("select * from /portfolios p where p.status = 'active'")
+            .execute();
+    assertThat(active.size()).isEqualTo(NUM_ENTRIES / 2);
+
+    SelectResults range =
+        (SelectResults) qs.newQuery("select * from /portfolios p where p.ID >= 900").execute();
+    assertThat(range.size()).isEqualTo(100);
+
+    SelectResults byPk =
+        (SelectResults) qs.newQuery("select * from /portfolios p where p.pk = '42'").execute();
+    assertThat(byPk.size()).isEqualTo(1);
+  }
+}
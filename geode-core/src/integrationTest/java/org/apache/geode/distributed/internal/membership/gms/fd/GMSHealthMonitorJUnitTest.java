@@ -270,6 +270,35 @@ public class GMSHealthMonitorJUnitTest {
     System.out.println("testSuspectMembersCalledThroughMemberCheckThread ending");
   }
 
+  @Test
+  public void phiAccrualModeChecksNeighborThatStopsSendingHeartbeats() throws Exception {
+    gmsHealthMonitor.stop();
+    System.setProperty(GMSHealthMonitor.FAILURE_DETECTION_MODE_PROPERTY,
+        GMSHealthMonitor.PHI_ACCRUAL_MODE);
+    try {
+      gmsHealthMonitor = new GMSHealthMonitorTest();
+      gmsHealthMonitor.init(services);
+      gmsHealthMonitor.start();
+    } finally {
+      System.clearProperty(GMSHealthMonitor.FAILURE_DETECTION_MODE_PROPERTY);
+    }
+    installAView();
+    InternalDistributedMember neighbor = gmsHealthMonitor.getNextNeighbor();
+
+    for (int i = 0; i < 10; i++) {
+      HeartbeatMessage heartbeat = new HeartbeatMessage(-1);
+      heartbeat.setSender(neighbor);
+      gmsHealthMonitor.processMessage(heartbeat);
+      Thread.sleep(100);
+    }
+
+    assertThat(gmsHealthMonitor.isSuspectMember(neighbor)).isFalse();
+    assertThat(gmsHealthMonitor.getPhi(neighbor)).isLessThan(GMSHealthMonitor.PHI_THRESHOLD);
+    await().until(() -> gmsHealthMonitor.isSuspectMember(neighbor));
+    assertThat(gmsHealthMonitor.getPhi(neighbor))
+        .isGreaterThanOrEqualTo(GMSHealthMonitor.PHI_THRESHOLD);
+  }
+
   private NetView installAView() {
     System.out.println("installAView starting");
     NetView v = new NetView(mockMembers.get(0), 2, mockMembers);
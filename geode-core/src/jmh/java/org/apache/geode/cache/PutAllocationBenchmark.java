@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * This benchmark measures the allocation of updates on a region, with and without reuse of entry
+ * events. Compare the gc.alloc.rate.norm reported by the gc profiler of each run.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PutAllocationBenchmark {
+  private static final int ENTRIES = 10_000;
+
+  @Param({"LOCAL", "REPLICATE"})
+  public RegionShortcut shortcut;
+
+  @Param({"false", "true"})
+  public boolean disableEntryEventReuse;
+
+  Cache cache;
+  Region<Integer, String> region;
+  Integer[] keys;
+  String[] values;
+  int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // each set of params runs in its own fork, so this is seen when the region classes load
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_ENTRY_EVENT_REUSE",
+        Boolean.toString(disableEntryEventReuse));
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<Integer, String>createRegionFactory(shortcut).create("testRegion");
+    keys = new Integer[ENTRIES];
+    values = new String[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = i;
+      values[i] = "value" + i;
+      region.put(keys[i], values[i]);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String updateRegion() {
+    int i = next++ % ENTRIES;
+    return region.put(keys[i], values[i]);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.QueryBenchmarkData.ValueType;
+
+/**
+ * Measures an equi-join between two replicated regions, with and without indexes on the join
+ * condition. Joins between regions are only supported on partitioned regions inside a function
+ * execution, so only replicated regions are covered here.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EquiJoinQueryBenchmark {
+
+  private static final int NUM_ENTRIES = 10000;
+
+  private static final String QUERY =
+      "select p.id, s.sector from /portfolios p, /securities s where p.secId = s.secId and s.sector = 'sector1'";
+
+  @Param({"true", "false"})
+  public boolean indexed;
+
+  @Param
+  public ValueType valueType;
+
+  private Cache cache;
+
+  private Query query;
+
+  @Setup
+  public void setup() throws Exception {
+    cache = QueryBenchmarkData.createCache(valueType);
+    Region<Integer, Object> portfolios =
+        cache.<Integer, Object>createRegionFactory(RegionShortcut.REPLICATE).create("portfolios");
+    Region<String, Object> securities =
+        cache.<String, Object>createRegionFactory(RegionShortcut.REPLICATE).create("securities");
+    QueryBenchmarkData.populatePortfolios(portfolios, valueType, NUM_ENTRIES);
+    QueryBenchmarkData.populateSecurities(securities, valueType);
+
+    QueryService queryService = cache.getQueryService();
+    if (indexed) {
+      queryService.createIndex("portfolioSecIdIndex", "p.secId", "/portfolios p");
+      queryService.createIndex("securitySecIdIndex", "s.secId", "/securities s");
+    }
+    query = queryService.newQuery(QUERY);
+
+    // Run the query once to make sure it returns results
+    if (((SelectResults) query.execute()).isEmpty()) {
+      throw new IllegalStateException("No results for " + QUERY);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public Object query() throws Exception {
+    return query.execute();
+  }
+}
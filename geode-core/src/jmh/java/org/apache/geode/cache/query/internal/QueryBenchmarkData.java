@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.io.Serializable;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.PdxReader;
+import org.apache.geode.pdx.PdxSerializable;
+import org.apache.geode.pdx.PdxWriter;
+
+/**
+ * Shared data set for the OQL benchmarks. Every entry has an int id, a low-cardinality status, a
+ * security id that joins with the securities region and a price for aggregates. The same data is
+ * available as plain serializable domain objects or as PDX, read serialized, so that the cost of
+ * each representation can be compared.
+ */
+public class QueryBenchmarkData {
+
+  public static final int NUM_STATUSES = 10;
+
+  public static final int NUM_SECURITIES = 100;
+
+  public enum ValueType {
+    DOMAIN, PDX
+  }
+
+  public static Cache createCache(ValueType valueType) {
+    return new CacheFactory().set("mcast-port", "0").set("locators", "")
+        .setPdxReadSerialized(valueType == ValueType.PDX).create();
+  }
+
+  public static void populatePortfolios(Region<Integer, Object> region, ValueType valueType,
+      int numEntries) {
+    for (int i = 0; i < numEntries; i++) {
+      String status = "status" + (i % NUM_STATUSES);
+      String secId = "SEC" + (i % NUM_SECURITIES);
+      double price = i % 1000;
+      region.put(i, valueType == ValueType.PDX ? new PdxPortfolio(i, status, secId, price)
+          : new Portfolio(i, status, secId, price));
+    }
+  }
+
+  public static void populateSecurities(Region<String, Object> region, ValueType valueType) {
+    for (int i = 0; i < NUM_SECURITIES; i++) {
+      String secId = "SEC" + i;
+      String sector = "sector" + (i % NUM_STATUSES);
+      region.put(secId, valueType == ValueType.PDX ? new PdxSecurity(secId, sector)
+          : new Security(secId, sector));
+    }
+  }
+
+  public static class Portfolio implements Serializable {
+    protected int id;
+    protected String status;
+    protected String secId;
+    protected double price;
+
+    public Portfolio() {}
+
+    public Portfolio(int id, String status, String secId, double price) {
+      this.id = id;
+      this.status = status;
+      this.secId = secId;
+      this.price = price;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    public String getSecId() {
+      return secId;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+  }
+
+  public static class PdxPortfolio extends Portfolio implements PdxSerializable {
+
+    public PdxPortfolio() {}
+
+    public PdxPortfolio(int id, String status, String secId, double price) {
+      super(id, status, secId, price);
+    }
+
+    @Override
+    public void toData(PdxWriter writer) {
+      writer.writeInt("id", id).writeString("status", status).writeString("secId", secId)
+          .writeDouble("price", price);
+    }
+
+    @Override
+    public void fromData(PdxReader reader) {
+      id = reader.readInt("id");
+      status = reader.readString("status");
+      secId = reader.readString("secId");
+      price = reader.readDouble("price");
+    }
+  }
+
+  public static class Security implements Serializable {
+    protected String secId;
+    protected String sector;
+
+    public Security() {}
+
+    public Security(String secId, String sector) {
+      this.secId = secId;
+      this.sector = sector;
+    }
+
+    public String getSecId() {
+      return secId;
+    }
+
+    public String getSector() {
+      return sector;
+    }
+  }
+
+  public static class PdxSecurity extends Security implements PdxSerializable {
+
+    public PdxSecurity() {}
+
+    public PdxSecurity(String secId, String sector) {
+      super(secId, sector);
+    }
+
+    @Override
+    public void toData(PdxWriter writer) {
+      writer.writeString("secId", secId).writeString("sector", sector);
+    }
+
+    @Override
+    public void fromData(PdxReader reader) {
+      secId = reader.readString("secId");
+      sector = reader.readString("sector");
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.QueryBenchmarkData.ValueType;
+
+/**
+ * Measures single region OQL queries of different shapes, with and without indexes, over domain
+ * objects and PDX, on a replicated region and on a local multi-bucket partitioned region. The
+ * partitioned region runs go through the partitioned region query evaluator and so include the
+ * cost of merging the per-bucket results.
+ *
+ * Run with the gc profiler (enabled by default in the jmh task) to see the allocation rate per
+ * query.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryExecutionBenchmark {
+
+  private static final int NUM_ENTRIES = 10000;
+
+  public enum QueryShape {
+    EQUALITY("select * from /portfolios p where p.status = 'status3'"),
+    RANGE("select * from /portfolios p where p.id >= 1000 and p.id < 2000"),
+    IN("select * from /portfolios p where p.status IN SET('status1', 'status2')"),
+    LIKE("select * from /portfolios p where p.status LIKE 'status1%'"),
+    ORDER_BY_LIMIT(
+        "select distinct * from /portfolios p where p.id >= 5000 order by p.id desc limit 100"),
+    GROUP_BY(
+        "select p.status, count(*), sum(p.price) from /portfolios p where p.id >= 0 group by p.status"),
+    DISTINCT("select distinct p.secId from /portfolios p where p.id >= 0");
+
+    private final String queryString;
+
+    QueryShape(String queryString) {
+      this.queryString = queryString;
+    }
+  }
+
+  @Param
+  public QueryShape queryShape;
+
+  @Param({"true", "false"})
+  public boolean indexed;
+
+  @Param({"REPLICATE", "PARTITION"})
+  public RegionShortcut regionShortcut;
+
+  @Param
+  public ValueType valueType;
+
+  private Cache cache;
+
+  private Query query;
+
+  @Setup
+  public void setup() throws Exception {
+    cache = QueryBenchmarkData.createCache(valueType);
+    Region<Integer, Object> region =
+        cache.<Integer, Object>createRegionFactory(regionShortcut).create("portfolios");
+    QueryBenchmarkData.populatePortfolios(region, valueType, NUM_ENTRIES);
+
+    QueryService queryService = cache.getQueryService();
+    if (indexed) {
+      queryService.createIndex("idIndex", "p.id", "/portfolios p");
+      queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    }
+    query = queryService.newQuery(queryShape.queryString);
+
+    // Run the query once to make sure it is valid for this region type and returns results
+    if (((SelectResults) query.execute()).isEmpty()) {
+      throw new IllegalStateException("No results for " + queryShape.queryString);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public Object query() throws Exception {
+    return query.execute();
+  }
+}
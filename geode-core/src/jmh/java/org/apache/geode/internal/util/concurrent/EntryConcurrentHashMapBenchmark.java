@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the segment-locked {@link CustomEntryConcurrentHashMap} with the
+ * {@link LockFreeEntryConcurrentHashMap} that region maps can use instead, under gets alone, under
+ * a mix of gets and updates, and while filling a map from empty.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntryConcurrentHashMapBenchmark {
+  private static final int ENTRIES = 100_000;
+
+  @Param({"CustomEntryConcurrentHashMap", "LockFreeEntryConcurrentHashMap"})
+  public String mapType;
+
+  ConcurrentMapWithReusableEntries<Integer, Integer> map;
+  Integer[] keys;
+
+  ConcurrentMapWithReusableEntries<Integer, Integer> createMap() {
+    if (mapType.equals("LockFreeEntryConcurrentHashMap")) {
+      return new LockFreeEntryConcurrentHashMap<>(16, 0.75f, 16);
+    }
+    return new CustomEntryConcurrentHashMap<>(16, 0.75f, 16);
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = createMap();
+    keys = new Integer[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = i;
+      map.put(keys[i], keys[i]);
+    }
+  }
+
+  @Benchmark
+  public Integer get() {
+    return map.get(keys[ThreadLocalRandom.current().nextInt(ENTRIES)]);
+  }
+
+  @Benchmark
+  public Integer getMostlyWithUpdates() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Integer key = keys[random.nextInt(ENTRIES)];
+    int operation = random.nextInt(10);
+    if (operation == 0) {
+      return map.remove(key);
+    } else if (operation == 1) {
+      return map.putIfAbsent(key, key);
+    }
+    return map.get(key);
+  }
+
+  /**
+   * Fills a new map from empty, so that its table is resized many times.
+   */
+  @Benchmark
+  @Threads(1)
+  @OperationsPerInvocation(ENTRIES)
+  public ConcurrentMapWithReusableEntries<Integer, Integer> fillFromEmpty() {
+    ConcurrentMapWithReusableEntries<Integer, Integer> newMap = createMap();
+    for (Integer key : keys) {
+      newMap.put(key, key);
+    }
+    return newMap;
+  }
+}
@@ -16,6 +16,8 @@ package org.apache.geode.cache;
 
 import javax.print.attribute.EnumSyntax;
 
+import org.apache.geode.annotations.Experimental;
+
 /**
  * The algorithm used to determine when to perform an {@link org.apache.geode.cache.EvictionAction}
  *
@@ -64,12 +66,35 @@ public final class EvictionAlgorithm extends EnumSyntax {
    */
   public static final EvictionAlgorithm LIFO_MEMORY = new EvictionAlgorithm(5);
 
+  /**
+   * An algorithm that considers the number of Entries in the Region before invoking its
+   * {@link EvictionAction}. A new entry only takes the place of the least recently used one if it
+   * is estimated to be used more frequently, so that a scan of the Region does not evict the
+   * entries that are used the most.
+   *
+   * @since Geode 1.9.0
+   */
+  @Experimental
+  public static final EvictionAlgorithm LFU_ENTRY = new EvictionAlgorithm(6);
+
+  /**
+   * An algorithm that considers the amount of bytes consumed by the Region before invoking its
+   * {@link EvictionAction}. A new entry only takes the place of the least recently used one if it
+   * is estimated to be used more frequently, so that a scan of the Region does not evict the
+   * entries that are used the most.
+   *
+   * @since Geode 1.9.0
+   */
+  @Experimental
+  public static final EvictionAlgorithm LFU_MEMORY = new EvictionAlgorithm(7);
+
   private EvictionAlgorithm(int val) {
     super(val);
   }
 
   private static final String[] stringTable = {"none", "lru-entry-count", "lru-heap-percentage",
-      "lru-memory-size", "lifo-entry-count", "lifo-memory-size"};
+      "lru-memory-size", "lifo-entry-count", "lifo-memory-size", "lfu-entry-count",
+      "lfu-memory-size"};
 
   @Override
   protected String[] getStringTable() {
@@ -77,7 +102,7 @@ public final class EvictionAlgorithm extends EnumSyntax {
   }
 
   private static final EvictionAlgorithm[] enumValueTable =
-      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY,};
+      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY, LFU_ENTRY, LFU_MEMORY,};
 
   @Override
   protected EnumSyntax[] getEnumValueTable() {
@@ -138,4 +163,14 @@ public final class EvictionAlgorithm extends EnumSyntax {
   public boolean isLIFO() {
     return this == LIFO_ENTRY || this == LIFO_MEMORY;
   }
+
+  /**
+   * Returns true if this object uses a frequency-based admission algorithm.
+   *
+   * @since Geode 1.9.0
+   */
+  @Experimental
+  public boolean isLFU() {
+    return this == LFU_ENTRY || this == LFU_MEMORY;
+  }
 }
@@ -16,6 +16,7 @@
 package org.apache.geode.cache;
 
 import org.apache.geode.DataSerializable;
+import org.apache.geode.annotations.Experimental;
 import org.apache.geode.cache.control.ResourceManager;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.cache.EvictionAttributesImpl;
@@ -483,6 +484,55 @@ public abstract class EvictionAttributes implements DataSerializable {
     return buffer.toString();
   }
 
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#LFU_ENTRY entry LFU} eviction attributes with
+   * given <code>evictionAction</code> and given <code>maximumEntries</code>. Once the Region is
+   * full, a new entry only replaces the least recently used entry if it is estimated to be used
+   * more frequently; otherwise the new entry itself is evicted.
+   * <p>
+   * Uses of an entry are counted when it is created and when eviction finds it used since it was
+   * last looked at. An entry that is used many times between two evictions that look at it is
+   * counted as used once.
+   *
+   * @param maximumEntries the number of entries to keep in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#LFU_ENTRY entry LFU} eviction attributes with given
+   *         <code>evictionAction</code> and given <code>maximumEntries</code>
+   * @since Geode 1.9.0
+   */
+  @Experimental
+  public static EvictionAttributes createLFUEntryAttributes(int maximumEntries,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.LFU_ENTRY)
+        .setAction(evictionAction).setMaximum(maximumEntries);
+  }
+
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#LFU_MEMORY memory LFU} eviction attributes
+   * with given <code>evictionAction</code>, given <code>sizer</code>, and given
+   * <code>maximumMegabytes</code>. Once the Region is full, a new entry only replaces the least
+   * recently used entries if it is estimated to be used more frequently; otherwise the new entry
+   * itself is evicted.
+   * <p>
+   * Uses of an entry are counted when it is created and when eviction finds it used since it was
+   * last looked at. An entry that is used many times between two evictions that look at it is
+   * counted as used once.
+   *
+   * @param maximumMegabytes the maximum allowed bytes in the Region
+   * @param sizer calculates the size in bytes of the key and value for an entry.
+   * @param evictionAction the action to take when the maximum has been reached.
+   * @return {@linkplain EvictionAlgorithm#LFU_MEMORY memory LFU} eviction attributes with given
+   *         <code>evictionAction</code>, given <code>sizer</code>, and given
+   *         <code>maximumMegabytes</code>
+   * @since Geode 1.9.0
+   */
+  @Experimental
+  public static EvictionAttributes createLFUMemoryAttributes(int maximumMegabytes,
+      ObjectSizer sizer, EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.LFU_MEMORY)
+        .setAction(evictionAction).setMaximum(maximumMegabytes).setObjectSizer(sizer);
+  }
+
   /**
    * @return an EvictionAttributes for the LIFOCapacityController
    * @since GemFire 5.7
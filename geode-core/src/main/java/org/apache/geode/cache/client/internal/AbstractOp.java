@@ -87,6 +87,7 @@ public abstract class AbstractOp implements Op {
     }
     getMessage().setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
         cnx.getCommBuffer(), cnx.getStats());
+    getMessage().setCompressParts(cnx.getServerAcceptsCompressedParts());
     try {
       sendMessage(cnx);
     } finally {
@@ -203,6 +204,7 @@ public abstract class AbstractOp implements Op {
       } else {
         try {
           msg.receive();
+          cnx.setServerAcceptsCompressedParts(msg.getPeerAcceptsCompressedParts());
         } finally {
           msg.unsetComms();
           processSecureBytes(cnx, msg);
@@ -191,6 +191,7 @@ public class AuthenticateUserOp {
         } else {
           try {
             msg.receive();
+            cnx.setServerAcceptsCompressedParts(msg.getPeerAcceptsCompressedParts());
           } finally {
             msg.unsetComms();
             processSecureBytes(cnx, msg);
@@ -82,4 +82,14 @@ public interface Connection {
   void setConnectionID(long id);
 
   long getConnectionID();
+
+  /**
+   * Returns true if the server said it accepts compressed message parts in its last reply on this
+   * connection.
+   */
+  default boolean getServerAcceptsCompressedParts() {
+    return false;
+  }
+
+  default void setServerAcceptsCompressedParts(boolean accepts) {}
 }
@@ -78,6 +78,8 @@ public class ConnectionImpl implements Connection {
   // handshake
   private short wanSiteVersion = -1;
 
+  private volatile boolean serverAcceptsCompressedParts;
+
   private final InternalDistributedSystem ds;
 
   private OutputStream out;
@@ -304,6 +306,16 @@ public class ConnectionImpl implements Connection {
     return this.connectionID;
   }
 
+  @Override
+  public boolean getServerAcceptsCompressedParts() {
+    return this.serverAcceptsCompressedParts;
+  }
+
+  @Override
+  public void setServerAcceptsCompressedParts(boolean accepts) {
+    this.serverAcceptsCompressedParts = accepts;
+  }
+
   protected byte[] encryptBytes(byte[] messageBytes) throws Exception {
     return handshake.getEncryptor().encryptBytes(messageBytes);
   }
@@ -442,6 +442,7 @@ public class PutOp {
         } else {
           try {
             msg.receive();
+            cnx.setServerAcceptsCompressedParts(msg.getPeerAcceptsCompressedParts());
           } finally {
             msg.unsetComms();
             processSecureBytes(cnx, msg);
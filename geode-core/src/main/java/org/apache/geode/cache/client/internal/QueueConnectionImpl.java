@@ -221,4 +221,14 @@ public class QueueConnectionImpl implements Connection {
   public long getConnectionID() {
     return ((Connection) this.clientToServerConn.get()).getConnectionID();
   }
+
+  @Override
+  public boolean getServerAcceptsCompressedParts() {
+    return getConnection().getServerAcceptsCompressedParts();
+  }
+
+  @Override
+  public void setServerAcceptsCompressedParts(boolean accepts) {
+    getConnection().setServerAcceptsCompressedParts(accepts);
+  }
 }
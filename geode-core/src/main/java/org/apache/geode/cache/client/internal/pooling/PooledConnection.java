@@ -352,4 +352,14 @@ public class PooledConnection implements Connection {
   public long getConnectionID() {
     return this.connection.getConnectionID();
   }
+
+  @Override
+  public boolean getServerAcceptsCompressedParts() {
+    return getConnection().getServerAcceptsCompressedParts();
+  }
+
+  @Override
+  public void setServerAcceptsCompressedParts(boolean accepts) {
+    getConnection().setServerAcceptsCompressedParts(accepts);
+  }
 }
@@ -15,6 +15,7 @@
 package org.apache.geode.cache.query.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +29,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.CompactRangeIndex;
 import org.apache.geode.cache.query.internal.index.IndexData;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
@@ -36,6 +38,7 @@ import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.PdxString;
@@ -316,6 +319,82 @@ public class CompiledComparison extends AbstractCompiledValue
 
   }
 
+  /**
+   * Returns the number of entries satisfying this equality condition, counted from a compact range
+   * index without reading the entry values, or -1 if the condition has to be filter evaluated.
+   * Used for count(*) queries whose where clause is this single condition.
+   */
+  int countFromIndex(ExecutionContext context) throws TypeMismatchException,
+      AmbiguousNameException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    IndexInfo indexInfo = getEqualityIndexInfo(context);
+    if (indexInfo == null) {
+      return -1;
+    }
+    Object key = indexInfo.evaluateIndexKey(context);
+    if (key == null) {
+      return -1;
+    }
+    if (key.equals(QueryService.UNDEFINED)) {
+      return 0;
+    }
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    observer.beforeIndexLookup(indexInfo._index, TOK_EQ, key);
+    try {
+      return ((CompactRangeIndex) indexInfo._index).countEntries(key, context);
+    } finally {
+      observer.afterIndexLookup(null);
+    }
+  }
+
+  /**
+   * Adds the region entries satisfying this equality condition to the collection, taken from a
+   * compact range index without reading the entry values. Returns false if the condition has to be
+   * filter evaluated. Used for count(*) queries whose where clause is a junction of conditions.
+   */
+  boolean addEntriesFromIndex(ExecutionContext context, Collection<RegionEntry> entries)
+      throws TypeMismatchException, AmbiguousNameException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    IndexInfo indexInfo = getEqualityIndexInfo(context);
+    if (indexInfo == null) {
+      return false;
+    }
+    Object key = indexInfo.evaluateIndexKey(context);
+    if (key == null) {
+      return false;
+    }
+    if (key.equals(QueryService.UNDEFINED)) {
+      return true;
+    }
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    observer.beforeIndexLookup(indexInfo._index, TOK_EQ, key);
+    try {
+      return ((CompactRangeIndex) indexInfo._index).addEntries(key, context, entries);
+    } finally {
+      observer.afterIndexLookup(null);
+    }
+  }
+
+  /**
+   * Returns the index info of this condition if it is an equality on a compact range index of the
+   * current scope, or null.
+   */
+  private IndexInfo getEqualityIndexInfo(ExecutionContext context) throws TypeMismatchException,
+      AmbiguousNameException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    // a LIKE is compiled with an EQ operator but its key is a pattern
+    if (this instanceof CompiledLike || !isDependentOnCurrentScope(context)) {
+      return null;
+    }
+    IndexInfo[] idxInfo = getIndexInfo(context);
+    if (idxInfo == null || idxInfo.length != 1 || idxInfo[0]._matchLevel != 0
+        || !(idxInfo[0]._index instanceof CompactRangeIndex)
+        || reflectOnOperator(idxInfo[0]._key()) != TOK_EQ) {
+      return null;
+    }
+    return idxInfo[0];
+  }
+
   /** **************** PRIVATE METHODS ************************** */
   /**
    * evaluate as a filter, involving a single iterator. Use an index if possible.
@@ -37,6 +37,7 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.CompactRangeIndex;
 import org.apache.geode.cache.query.internal.index.IndexData;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
@@ -45,6 +46,7 @@ import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.pdx.internal.PdxString;
 
@@ -402,6 +404,105 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
         indpndntItrs == null ? null : indpndntItrs[0], context, projAttrib, null, false);
   }
 
+  /**
+   * Returns the number of entries whose value is in the collection, counted from a compact range
+   * index without reading the entry values, or -1 if the condition has to be filter evaluated.
+   * Used for count(*) queries whose where clause is this single condition.
+   */
+  int countFromIndex(ExecutionContext context) throws TypeMismatchException,
+      AmbiguousNameException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    CompactRangeIndex index = getCountableIndex(context);
+    if (index == null) {
+      return -1;
+    }
+    Set<?> keys = getCountableKeys(context);
+    if (keys == null) {
+      return -1;
+    }
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    observer.beforeIndexLookup(index, TOK_EQ, keys);
+    try {
+      int count = 0;
+      for (Object key : keys) {
+        int keyCount = index.countEntries(key, context);
+        if (keyCount < 0) {
+          return -1;
+        }
+        count += keyCount;
+      }
+      return count;
+    } finally {
+      observer.afterIndexLookup(null);
+    }
+  }
+
+  /**
+   * Adds the region entries whose value is in the collection to the given collection, taken from a
+   * compact range index without reading the entry values. Returns false if the condition has to be
+   * filter evaluated. Used for count(*) queries whose where clause is a junction of conditions.
+   */
+  boolean addEntriesFromIndex(ExecutionContext context, Collection<RegionEntry> entries)
+      throws TypeMismatchException, AmbiguousNameException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    CompactRangeIndex index = getCountableIndex(context);
+    if (index == null) {
+      return false;
+    }
+    Set<?> keys = getCountableKeys(context);
+    if (keys == null) {
+      return false;
+    }
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    observer.beforeIndexLookup(index, TOK_EQ, keys);
+    try {
+      for (Object key : keys) {
+        if (!index.addEntries(key, context, entries)) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      observer.afterIndexLookup(null);
+    }
+  }
+
+  /**
+   * Returns the compact range index this condition can be counted from, or null.
+   */
+  private CompactRangeIndex getCountableIndex(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    if (!isDependentOnCurrentScope(context)) {
+      return null;
+    }
+    IndexInfo[] idxInfo = getIndexInfo(context);
+    if (idxInfo == null || idxInfo.length != 1 || idxInfo[0]._matchLevel != 0
+        || !(idxInfo[0]._index instanceof CompactRangeIndex)) {
+      return null;
+    }
+    return (CompactRangeIndex) idxInfo[0]._index;
+  }
+
+  /**
+   * Returns the distinct values of the collection to look up in the index, or null if the
+   * collection is a map or holds null or UNDEFINED.
+   */
+  private Set<?> getCountableKeys(ExecutionContext context) throws TypeMismatchException,
+      AmbiguousNameException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    Object evalColln = evaluateColln(context);
+    if (!(evalColln instanceof Collection) || evalColln instanceof Map) {
+      return null;
+    }
+    // Removing duplicates from the collection
+    Set<?> keys = new HashSet<>((Collection<?>) evalColln);
+    if (keys.contains(null) || keys.contains(QueryService.UNDEFINED)) {
+      return null;
+    }
+    return keys;
+  }
+
   /**
    * evaluate as a filter, involving a single iterator. Use an index if possible.
    *
@@ -41,6 +41,7 @@ import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.cache.RegionEntry;
 
 /**
  * Conjunctions and Disjunctions (LITERAL_and LITERAL_or) As a part of feature development to ensure
@@ -424,6 +425,54 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return resultPlanInfo;
   }
 
+  /**
+   * Returns the region entries satisfying this junction, taken from compact range indexes without
+   * reading the entry values, or null if the junction has to be filter evaluated. The entries of
+   * each operand are intersected for AND and combined for OR, so every operand has to be an
+   * equality or IN condition on an index, or a junction of such conditions. Used for count(*)
+   * queries.
+   */
+  Set<RegionEntry> entriesFromIndex(ExecutionContext context) throws TypeMismatchException,
+      AmbiguousNameException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    Set<RegionEntry> result = null;
+    for (CompiledValue operand : _operands) {
+      Set<RegionEntry> operandEntries;
+      if (operand instanceof CompiledJunction) {
+        operandEntries = ((CompiledJunction) operand).entriesFromIndex(context);
+        if (operandEntries == null) {
+          return null;
+        }
+      } else {
+        // OR adds to the entries found so far
+        operandEntries = _operator == LITERAL_or && result != null ? result : new HashSet<>();
+        boolean added;
+        if (operand instanceof CompiledComparison) {
+          added = ((CompiledComparison) operand).addEntriesFromIndex(context, operandEntries);
+        } else if (operand instanceof CompiledIn) {
+          added = ((CompiledIn) operand).addEntriesFromIndex(context, operandEntries);
+        } else {
+          added = false;
+        }
+        if (!added) {
+          return null;
+        }
+      }
+      if (result == null) {
+        result = operandEntries;
+      } else if (_operator == LITERAL_and) {
+        result.retainAll(operandEntries);
+      } else if (result != operandEntries) {
+        result.addAll(operandEntries);
+      }
+      if (_operator == LITERAL_and && result.isEmpty()) {
+        // no entry can satisfy the remaining operands as well
+        break;
+      }
+    }
+    return result;
+  }
+
   /* Package methods */
   public int getOperator() {
     return _operator;
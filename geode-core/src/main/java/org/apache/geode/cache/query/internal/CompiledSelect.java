@@ -47,6 +47,7 @@ import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.PdxString;
 
@@ -419,6 +420,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       Integer limitValue = evaluateLimitValue(context, this.limit);
       SelectResults result = null;
       boolean evalAsFilters = false;
+      int indexCount = -1;
       if (this.whereClause == null) {
         result = doIterationEvaluate(context, false);
       } else {
@@ -480,6 +482,12 @@ public class CompiledSelect extends AbstractCompiledValue {
             context.setOneIndexLookup(planInfo.indexes.size() == 1);
             if (evalAsFilters) {
               ((QueryExecutionContext) context).setIndexUsed(true);
+              indexCount = countFromIndex(context, numInd, planInfo, limitValue);
+            }
+            if (indexCount >= 0) {
+              result = new ResultsBag(new ObjectTypeImpl(Integer.class),
+                  context.getCachePerfStats());
+            } else if (evalAsFilters) {
               // Ignore order by attribs for a while
 
               boolean canApplyOrderByAtIndex = false;
@@ -591,7 +599,9 @@ public class CompiledSelect extends AbstractCompiledValue {
         if (this.count) {
           SelectResults res = result;
 
-          if ((this.distinct || evalAsFilters || countStartQueryResult == 0)) {
+          if (indexCount >= 0) {
+            ((Bag) res).addAndGetOccurence(indexCount);
+          } else if ((this.distinct || evalAsFilters || countStartQueryResult == 0)) {
             // Retrun results as it is as distinct is applied
             // at coordinator node for PR queries.
             if (context.getBucketList() != null && this.distinct) {
@@ -618,6 +628,35 @@ public class CompiledSelect extends AbstractCompiledValue {
     }
   }
 
+  /**
+   * Returns the result of a non distinct count(*) query whose where clause is an equality or IN
+   * condition on a compact range index, or an AND/OR junction of such conditions, counted from the
+   * indexes without reading the values of the matching entries. A junction is counted by
+   * intersecting or combining the region entries each condition finds in its index. Returns -1 if
+   * the query has to be evaluated by filtering, for instance because a condition is not an
+   * equality or IN, or is not on a compact range index.
+   */
+  private int countFromIndex(ExecutionContext context, int numInd, PlanInfo planInfo,
+      int limitValue) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    if (!this.count || this.distinct || isGroupBy() || this.orderByAttrs != null
+        || limitValue >= 0 || numInd != 1 || this.iterators.size() != 1
+        || planInfo.indexes.isEmpty() || context.isCqQueryContext()) {
+      return -1;
+    }
+    if (this.whereClause instanceof CompiledComparison) {
+      return ((CompiledComparison) this.whereClause).countFromIndex(context);
+    }
+    if (this.whereClause instanceof CompiledIn) {
+      return ((CompiledIn) this.whereClause).countFromIndex(context);
+    }
+    if (this.whereClause instanceof CompiledJunction) {
+      Set<RegionEntry> entries = ((CompiledJunction) this.whereClause).entriesFromIndex(context);
+      return entries == null ? -1 : entries.size();
+    }
+    return -1;
+  }
+
   /**
    * The index is locked during query to prevent it from being removed by another thread. So we have
    * to release the lock only after whole query is finished as one query can use an index multiple
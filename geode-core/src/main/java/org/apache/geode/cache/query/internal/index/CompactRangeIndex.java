@@ -16,6 +16,7 @@ package org.apache.geode.cache.query.internal.index;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -62,11 +63,14 @@ import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeap;
+import org.apache.geode.internal.cache.partitioned.Bucket;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.pdx.internal.PdxString;
@@ -297,6 +301,93 @@ public class CompactRangeIndex extends AbstractIndex {
     return evaluateEntry(indexInfo, context, keyVal);
   }
 
+  /**
+   * Returns the number of region entries whose indexed expression equals the key, counted from the
+   * index without reading the entry values. This lets a count(*) query with a single equality
+   * condition be answered from the index alone. Returns -1 if the entries have to be evaluated,
+   * for instance because one of them is being updated.
+   */
+  public int countEntries(Object key, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    if (IndexManager.IS_TEST_EXPANSION) {
+      return -1;
+    }
+    key = getCountKey(key);
+    long start = updateIndexUseStats();
+    try {
+      int count = 0;
+      for (CompactRangeIndex index : getIndexesToCount(context)) {
+        if (!(index.indexStore instanceof MemoryIndexStore)) {
+          return -1;
+        }
+        int indexCount = ((MemoryIndexStore) index.indexStore)
+            .countEntries(index.getPdxStringForIndexedPdxKeys(key));
+        if (indexCount < 0) {
+          return -1;
+        }
+        count += indexCount;
+      }
+      return count;
+    } finally {
+      updateIndexUseEndStats(start);
+    }
+  }
+
+  /**
+   * Adds the region entries whose indexed expression equals the key to the collection, taken from
+   * the index without reading the entry values. This lets a count(*) query whose conditions are
+   * joined with AND or OR be answered by combining the entries of each condition. Returns false if
+   * the entries have to be evaluated, for instance because one of them is being updated.
+   */
+  public boolean addEntries(Object key, ExecutionContext context,
+      Collection<RegionEntry> entries)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    if (IndexManager.IS_TEST_EXPANSION) {
+      return false;
+    }
+    key = getCountKey(key);
+    long start = updateIndexUseStats();
+    try {
+      for (CompactRangeIndex index : getIndexesToCount(context)) {
+        if (!(index.indexStore instanceof MemoryIndexStore)
+            || !((MemoryIndexStore) index.indexStore)
+                .addEntries(index.getPdxStringForIndexedPdxKeys(key), entries)) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      updateIndexUseEndStats(start);
+    }
+  }
+
+  private Object getCountKey(Object key) throws TypeMismatchException {
+    if (key == null) {
+      key = IndexManager.NULL;
+    }
+    return TypeUtils.indexKeyFor(key);
+  }
+
+  /**
+   * Returns the indexes of the buckets being queried if this is a bucket index, or this index.
+   */
+  private List<CompactRangeIndex> getIndexesToCount(ExecutionContext context)
+      throws QueryInvocationTargetException {
+    if (context.getBucketList() == null || !(this.region instanceof BucketRegion)) {
+      return Collections.singletonList(this);
+    }
+    PartitionedRegion pr = ((Bucket) this.region).getPartitionedRegion();
+    List<CompactRangeIndex> indexes = new ArrayList<>(context.getBucketList().size());
+    for (Object bucketId : context.getBucketList()) {
+      AbstractIndex bucketIndex =
+          PartitionedIndex.getBucketIndex(pr, this.indexName, (Integer) bucketId);
+      if (bucketIndex != null) {
+        indexes.add((CompactRangeIndex) bucketIndex);
+      }
+    }
+    return indexes;
+  }
+
   public int getSizeEstimate(Object key, int operator, int matchLevel)
       throws TypeMismatchException {
     // Get approx size;
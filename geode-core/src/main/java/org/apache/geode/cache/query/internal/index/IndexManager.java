@@ -19,20 +19,27 @@ import static org.apache.geode.internal.lang.SystemUtils.getLineSeparator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
 
@@ -72,6 +79,7 @@ import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 import org.apache.geode.internal.logging.LoggingThread;
 
 public class IndexManager {
@@ -101,12 +109,39 @@ public class IndexManager {
   private final ConcurrentMap indexes = new ConcurrentHashMap();
   // TODO Asif : Fix the appropriate size of the Map & the concurrency level
   private ConcurrentMap canonicalizedIteratorNameMap = new ConcurrentHashMap();
-  private IndexUpdaterThread updater;
+  private IndexUpdaterThread[] updaters;
 
   // Threshold for Queue.
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * Number of updater threads per region when indexes are maintained asynchronously. Updates are
+   * assigned to a thread by the hash of the entry key so that all updates to one entry are applied
+   * in order.
+   */
+  private final int INDEX_MAINTENANCE_THREADS = Math.max(1,
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreads", 1));
+
+  /**
+   * The longest, in milliseconds, that a query waits for the asynchronous index updates queued
+   * before it looked for an index to be applied. This bounds how stale the indexes a query uses can
+   * be while updates keep up. Zero, the default, lets queries use the indexes as they are.
+   */
+  private final long INDEX_MAINTENANCE_READ_BARRIER_MILLIS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceReadBarrierMillis", 0);
+
+  /**
+   * Number of threads used to populate newly created or recovered indexes. When greater than one
+   * the region entries are split into batches that are added to all the indexes in parallel.
+   */
+  public static int INDEX_POPULATION_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.populationThreads", 1);
+
+  /** Number of region entries handed to an index population thread at a time. */
+  public static int INDEX_POPULATION_BATCH_SIZE = Math.max(1,
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.populationBatchSize", 1000));
+
   public static boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
@@ -166,9 +201,15 @@ public class IndexManager {
         region.getAttributes().getEvictionAttributes().getAction().isOverflowToDisk();
     this.offHeap = region.getAttributes().getOffHeap();
     if (!indexMaintenanceSynchronous) {
-      updater = new IndexUpdaterThread(this.INDEX_MAINTENANCE_BUFFER,
-          "OqlIndexUpdater:" + region.getFullPath());
-      updater.start();
+      updaters = new IndexUpdaterThread[this.INDEX_MAINTENANCE_THREADS];
+      for (int i = 0; i < updaters.length; i++) {
+        String threadName = "OqlIndexUpdater:" + region.getFullPath();
+        if (i > 0) {
+          threadName += ":" + i;
+        }
+        updaters[i] = new IndexUpdaterThread(this.INDEX_MAINTENANCE_BUFFER, threadName);
+        updaters[i].start();
+      }
     }
   }
 
@@ -234,10 +275,78 @@ public class IndexManager {
   }
 
   /**
-   * Used by tests to access the updater thread to determine its progress
+   * Used by tests to access the updater thread to determine its progress. When the region has
+   * several updater threads this is only the first of them, see {@link #getUpdaterThreads()}.
    */
   public IndexUpdaterThread getUpdaterThread() {
-    return this.updater;
+    return this.updaters == null ? null : this.updaters[0];
+  }
+
+  /**
+   * Returns all the updater threads of the region, or an empty list if indexes are maintained
+   * synchronously.
+   */
+  public List<IndexUpdaterThread> getUpdaterThreads() {
+    if (this.updaters == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(Arrays.asList(this.updaters));
+  }
+
+  /**
+   * Waits, for at most the read barrier, until the updates queued on every updater thread have been
+   * applied to the indexes. Does nothing if indexes are maintained synchronously or the read barrier
+   * is not set.
+   */
+  void waitForQueuedUpdates() {
+    if (this.updaters == null || INDEX_MAINTENANCE_READ_BARRIER_MILLIS <= 0) {
+      return;
+    }
+    long[] queuedTasks = new long[this.updaters.length];
+    for (int i = 0; i < this.updaters.length; i++) {
+      if (this.updaters[i] == Thread.currentThread()) {
+        // an updater never waits for itself
+        return;
+      }
+      queuedTasks[i] = this.updaters[i].getQueuedTasks();
+    }
+    long deadline =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(INDEX_MAINTENANCE_READ_BARRIER_MILLIS);
+    try {
+      for (int i = 0; i < this.updaters.length; i++) {
+        if (!this.updaters[i].awaitAppliedTasks(queuedTasks[i], deadline)) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Used by tests to determine if all the updater threads have finished updating the indexes
+   */
+  public boolean isIndexMaintenanceDone() {
+    if (this.updaters != null) {
+      for (IndexUpdaterThread updater : this.updaters) {
+        if (!updater.isDone()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the updater thread that maintains the indexes for the given entry. All updates for the
+   * same key go to the same thread so they are applied in the order they were made.
+   */
+  private IndexUpdaterThread getUpdaterThread(RegionEntry entry) {
+    if (this.updaters.length == 1) {
+      return this.updaters[0];
+    }
+    int hash = entry.getKey().hashCode();
+    return this.updaters[(hash & Integer.MAX_VALUE) % this.updaters.length];
   }
 
   // @todo need more specific list of exceptions
@@ -521,6 +630,7 @@ public class IndexManager {
   public IndexData getIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    waitForQueuedUpdates();
     IndexData indxData = null;
     int qItrSize = definitions.length;
     Iterator it = this.indexes.values().iterator();
@@ -583,6 +693,7 @@ public class IndexManager {
   public IndexData getBestMatchIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    waitForQueuedUpdates();
 
     Index bestIndex = null;
     Index bestPRIndex = null;
@@ -878,8 +989,13 @@ public class IndexManager {
     if (isIndexMaintenanceTypeSynchronous()) {
       recreateAllIndexesForRegion();
     } else {
-      // System.out.println("Aynchronous update");
-      updater.addTask(RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
+      // Every updater gets the task so that updates queued before the clear are applied before
+      // the indexes are recreated by the last updater to reach it.
+      IndexUpdateTask recreateTask =
+          new IndexUpdateTask(RECREATE_INDEX, null, IndexProtocol.OTHER_OP, false, updaters.length);
+      for (IndexUpdaterThread updater : this.updaters) {
+        updater.addTask(recreateTask);
+      }
     }
   }
 
@@ -891,52 +1007,117 @@ public class IndexManager {
     if (region.getCache().getLogger().infoEnabled()) {
       region.getCache().getLogger().info("Populating indexes for region " + region.getName());
     }
-    boolean throwException = false;
-    HashMap<String, Exception> exceptionsMap = new HashMap<String, Exception>();
+    Map<String, Exception> exceptionsMap = new ConcurrentHashMap<String, Exception>();
     boolean oldReadSerialized = this.cache.getPdxReadSerializedOverride();
     this.cache.setPdxReadSerializedOverride(true);
     try {
       Iterator entryIter = ((LocalRegion) region).getBestIterator(true);
-      while (entryIter.hasNext()) {
-        RegionEntry entry = (RegionEntry) entryIter.next();
-        if (entry == null || entry.isInvalidOrRemoved()) {
-          continue;
+      if (INDEX_POPULATION_THREADS > 1) {
+        populateIndexesInParallel(entryIter, indexSet, exceptionsMap);
+      } else {
+        while (entryIter.hasNext()) {
+          addEntryToIndexes((RegionEntry) entryIter.next(), indexSet, exceptionsMap);
         }
-        // Fault in the value once before index update so that every index
-        // update does not have
-        // to read the value from disk every time.
-        entry.getValue((LocalRegion) this.region);
-        Iterator<Index> indexSetIterator = indexSet.iterator();
-        while (indexSetIterator.hasNext()) {
-          AbstractIndex index = (AbstractIndex) indexSetIterator.next();
-          if (!index.isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
-            if (logger.isDebugEnabled()) {
-              logger.debug("Adding to index :{}{} value :{}", index.getName(),
-                  this.region.getFullPath(), entry.getKey());
-            }
-            long start = ((AbstractIndex) index).updateIndexUpdateStats();
+      }
+      if (!exceptionsMap.isEmpty()) {
+        indexSet.removeIf(index -> exceptionsMap.containsKey(index.getName()));
+      }
+      setPopulateFlagForIndexes(indexSet);
+      if (!exceptionsMap.isEmpty()) {
+        throw new MultiIndexCreationException(new HashMap<String, Exception>(exceptionsMap));
+      }
+    } finally {
+      this.cache.setPdxReadSerializedOverride(oldReadSerialized);
+      notifyAfterUpdate();
+    }
+  }
+
+  /**
+   * Splits the region entries into batches of {@link #INDEX_POPULATION_BATCH_SIZE} and adds each
+   * batch to all of the indexes on one of {@link #INDEX_POPULATION_THREADS} threads. The calling
+   * thread iterates the region and runs a batch itself whenever the workers fall behind, so at most
+   * a few batches are held in memory at a time.
+   */
+  private void populateIndexesInParallel(Iterator<?> entryIter, Collection<Index> indexSet,
+      Map<String, Exception> exceptionsMap) {
+    ExecutorService populators = LoggingExecutors.newFixedThreadPoolWithFeedSize(
+        "OqlIndexPopulator:" + region.getFullPath(), INDEX_POPULATION_THREADS,
+        INDEX_POPULATION_THREADS);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    try {
+      List<RegionEntry> batch = new ArrayList<>(INDEX_POPULATION_BATCH_SIZE);
+      while (entryIter.hasNext() && failure.get() == null) {
+        batch.add((RegionEntry) entryIter.next());
+        if (batch.size() == INDEX_POPULATION_BATCH_SIZE || !entryIter.hasNext()) {
+          final List<RegionEntry> entries = batch;
+          populators.execute(() -> {
+            boolean oldReadSerialized = this.cache.getPdxReadSerializedOverride();
+            this.cache.setPdxReadSerializedOverride(true);
             try {
-              index.addIndexMapping(entry);
-            } catch (IMQException e) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("Adding to index failed for: {}, {}", index.getName(), e.getMessage(),
-                    e);
+              for (RegionEntry entry : entries) {
+                addEntryToIndexes(entry, indexSet, exceptionsMap);
               }
-              exceptionsMap.put(index.indexName, e);
-              indexSetIterator.remove();
-              throwException = true;
+            } catch (RuntimeException e) {
+              failure.compareAndSet(null, e);
+            } finally {
+              this.cache.setPdxReadSerializedOverride(oldReadSerialized);
             }
-            ((AbstractIndex) index).updateIndexUpdateStats(start);
-          }
+          });
+          batch = new ArrayList<>(INDEX_POPULATION_BATCH_SIZE);
         }
       }
-      setPopulateFlagForIndexes(indexSet);
-      if (throwException) {
-        throw new MultiIndexCreationException(exceptionsMap);
+    } finally {
+      populators.shutdown();
+    }
+    boolean interrupted = false;
+    try {
+      while (!populators.isTerminated()) {
+        try {
+          populators.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
       }
     } finally {
-      this.cache.setPdxReadSerializedOverride(oldReadSerialized);
-      notifyAfterUpdate();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  /**
+   * Adds a single region entry to every index in the given set that is not yet populated. The value
+   * is faulted in once so that each index does not have to read it from disk again. An index that
+   * fails is recorded in the exceptions map and skipped for the remaining entries.
+   */
+  private void addEntryToIndexes(RegionEntry entry, Collection<Index> indexSet,
+      Map<String, Exception> exceptionsMap) {
+    if (entry == null || entry.isInvalidOrRemoved()) {
+      return;
+    }
+    entry.getValue((LocalRegion) this.region);
+    for (Index ind : indexSet) {
+      AbstractIndex index = (AbstractIndex) ind;
+      if (!index.isPopulated() && index.getType() != IndexType.PRIMARY_KEY
+          && !exceptionsMap.containsKey(index.getName())) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Adding to index :{}{} value :{}", index.getName(),
+              this.region.getFullPath(), entry.getKey());
+        }
+        long start = index.updateIndexUpdateStats();
+        try {
+          index.addIndexMapping(entry);
+        } catch (IMQException e) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Adding to index failed for: {}, {}", index.getName(), e.getMessage(), e);
+          }
+          exceptionsMap.putIfAbsent(index.getName(), e);
+        }
+        index.updateIndexUpdateStats(start);
+      }
     }
   }
 
@@ -980,8 +1161,7 @@ public class IndexManager {
       // System.out.println("Synchronous update");
       processAction(entry, action, opCode);
     } else {
-      // System.out.println("Aynchronous update");
-      updater.addTask(action, entry, opCode);
+      getUpdaterThread(entry).addTask(action, entry, opCode);
     }
   }
 
@@ -1288,8 +1468,11 @@ public class IndexManager {
    */
   public void destroy() throws QueryException {
     this.indexes.clear();
-    if (!isIndexMaintenanceTypeSynchronous())
-      updater.shutdown();
+    if (!isIndexMaintenanceTypeSynchronous()) {
+      for (IndexUpdaterThread updater : this.updaters) {
+        updater.shutdown();
+      }
+    }
   }
 
   /**
@@ -1394,7 +1577,33 @@ public class IndexManager {
 
     private volatile boolean shutdownRequested = false;
 
-    private volatile BlockingQueue pendingTasks;
+    private volatile BlockingQueue<IndexUpdateTask> pendingTasks;
+
+    /**
+     * The most recently queued task for each entry. A new task that repeats the last one queued for
+     * the same entry is dropped while that one has not started, since the index is updated from the
+     * current value of the entry when the task runs.
+     */
+    private final ConcurrentMap<RegionEntry, IndexUpdateTask> lastQueuedTasks =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Entries whose BEFORE_UPDATE_OP removal has been received but whose AFTER_UPDATE_OP update has
+     * not. The two are queued as one task so that they are applied together.
+     */
+    private final Set<RegionEntry> updatesInProgress = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong coalescedTasks = new AtomicLong();
+
+    /** The number of tasks added to the queue, and the number of those that have been applied */
+    private final AtomicLong queuedTasks = new AtomicLong();
+
+    private volatile long appliedTasks;
+
+    /** The number of threads waiting in {@link #awaitAppliedTasks} */
+    private final AtomicInteger appliedTasksWaiters = new AtomicInteger();
+
+    private final Object appliedTasksLock = new Object();
 
     /**
      * Creates instance of IndexUpdaterThread
@@ -1404,19 +1613,102 @@ public class IndexManager {
       // Check if threshold is set.
       if (updateThreshold > 0) {
         // Create a bounded queue.
-        pendingTasks = new ArrayBlockingQueue(updateThreshold);
+        pendingTasks = new ArrayBlockingQueue<>(updateThreshold);
       } else {
         // Create non-bounded queue.
-        pendingTasks = new LinkedBlockingQueue();
+        pendingTasks = new LinkedBlockingQueue<>();
       }
     }
 
+    /**
+     * Queues an index update for the entry. Callers hold the lock on the entry, so the tasks for one
+     * entry are added by one thread at a time.
+     */
     public void addTask(int action, RegionEntry entry, int opCode) {
-      Object[] task = new Object[3];
-      task[0] = action;
-      task[1] = entry;
-      task[2] = opCode;
-      pendingTasks.add(task);
+      if (entry == null) {
+        addTask(new IndexUpdateTask(action, null, opCode, false, 1));
+        return;
+      }
+      if (action == REMOVE_ENTRY && opCode == IndexProtocol.BEFORE_UPDATE_OP) {
+        updatesInProgress.add(entry);
+        return;
+      }
+      boolean removeBeforeUpdate = updatesInProgress.remove(entry);
+      if (removeBeforeUpdate
+          && (action != UPDATE_ENTRY || opCode != IndexProtocol.AFTER_UPDATE_OP)) {
+        // the update that started with the removal was never completed, so apply it on its own
+        addTask(new IndexUpdateTask(REMOVE_ENTRY, entry, IndexProtocol.BEFORE_UPDATE_OP, false, 1));
+        removeBeforeUpdate = false;
+      }
+      IndexUpdateTask lastQueued = lastQueuedTasks.get(entry);
+      if (lastQueued != null
+          && lastQueued.isCoalescableWith(action, opCode, removeBeforeUpdate)) {
+        coalescedTasks.incrementAndGet();
+        return;
+      }
+      addTask(new IndexUpdateTask(action, entry, opCode, removeBeforeUpdate, 1));
+    }
+
+    void addTask(IndexUpdateTask task) {
+      if (task.entry == null) {
+        pendingTasks.add(task);
+        queuedTasks.incrementAndGet();
+        return;
+      }
+      lastQueuedTasks.put(task.entry, task);
+      try {
+        pendingTasks.add(task);
+      } catch (RuntimeException e) {
+        lastQueuedTasks.remove(task.entry, task);
+        throw e;
+      }
+      queuedTasks.incrementAndGet();
+    }
+
+    long getQueuedTasks() {
+      return queuedTasks.get();
+    }
+
+    /**
+     * Waits until the given number of tasks have been applied, the deadline has passed or the thread
+     * has stopped. Returns true if the tasks have been applied.
+     */
+    boolean awaitAppliedTasks(long tasks, long deadlineNanos) throws InterruptedException {
+      if (appliedTasks >= tasks) {
+        return true;
+      }
+      appliedTasksWaiters.incrementAndGet();
+      try {
+        synchronized (appliedTasksLock) {
+          while (appliedTasks < tasks && this.running) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+              return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(appliedTasksLock, remaining);
+          }
+        }
+      } finally {
+        appliedTasksWaiters.decrementAndGet();
+      }
+      return appliedTasks >= tasks;
+    }
+
+    private void taskApplied() {
+      appliedTasks++;
+      if (appliedTasksWaiters.get() > 0) {
+        synchronized (appliedTasksLock) {
+          appliedTasksLock.notifyAll();
+        }
+      }
+    }
+
+    /**
+     * Returns the number of updates that were dropped because the same update to the same entry
+     * was already queued.
+     */
+    public long getCoalescedTasks() {
+      return coalescedTasks.get();
     }
 
     /**
@@ -1449,33 +1741,54 @@ public class IndexManager {
             break;
           }
           try {
-            Object[] task = (Object[]) pendingTasks.take();
+            IndexUpdateTask task = pendingTasks.take();
             if (this.shutdownRequested) {
               break;
             }
+            if (task.entry != null) {
+              task.started = true;
+              lastQueuedTasks.remove(task.entry, task);
+            }
             updateIndexes(task);
+            taskApplied();
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
           }
         }
       } finally {
         this.running = false;
+        synchronized (appliedTasksLock) {
+          appliedTasksLock.notifyAll();
+        }
       }
     }
 
-    private void updateIndexes(Object[] task) {
-      int action = (Integer) task[0];
-      RegionEntry entry = (RegionEntry) task[1];
-      int opCode = (Integer) task[2];
+    private void updateIndexes(IndexUpdateTask task) {
+      int action = task.action;
+      RegionEntry entry = task.entry;
+      int opCode = task.opCode;
       // System.out.println("entry = "+entry.getKey());
       if (entry != null || action == RECREATE_INDEX) {
         try {
           if (action == RECREATE_INDEX) {
-            recreateAllIndexesForRegion();
+            // all the updaters stop at the task so that none applies a later update to the indexes
+            // while they are recreated
+            if (task.arrive()) {
+              try {
+                recreateAllIndexesForRegion();
+              } finally {
+                task.recreated();
+              }
+            } else {
+              awaitRecreate(task);
+            }
           } else {
             if (entry != null) {
               entry.setUpdateInProgress(true);
             }
+            if (task.removeBeforeUpdate) {
+              processAction(entry, REMOVE_ENTRY, IndexProtocol.BEFORE_UPDATE_OP);
+            }
             processAction(entry, action, opCode);
           }
         } catch (Exception e) {
@@ -1488,6 +1801,20 @@ public class IndexManager {
       }
     }
 
+    private void awaitRecreate(IndexUpdateTask task) {
+      try {
+        while (!task.awaitRecreated(100, TimeUnit.MILLISECONDS)) {
+          if (this.shutdownRequested
+              || ((LocalRegion) region).getCancelCriterion().isCancelInProgress()) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        // the thread is being shut down, let the main loop see the interrupt
+        Thread.currentThread().interrupt();
+      }
+    }
+
     /**
      * Used by tests to determine if the updater thread has finished updating its indexes. The list
      * is cleared without synchronization, which makes this methods somewhat unsafe from a threading
@@ -1499,6 +1826,58 @@ public class IndexManager {
 
   }
 
+  /**
+   * An index update queued for an {@link IndexUpdaterThread}. An update that was preceded by a
+   * BEFORE_UPDATE_OP removal runs that removal first. A {@link #RECREATE_INDEX} task is queued on
+   * every updater thread of the region and is run by the last one to reach it, while the others
+   * wait for the indexes to be recreated before they go on.
+   */
+  static class IndexUpdateTask {
+
+    final int action;
+
+    final RegionEntry entry;
+
+    final int opCode;
+
+    final boolean removeBeforeUpdate;
+
+    volatile boolean started = false;
+
+    private final AtomicInteger remainingUpdaters;
+
+    private final CountDownLatch recreatedLatch = new CountDownLatch(1);
+
+    IndexUpdateTask(int action, RegionEntry entry, int opCode, boolean removeBeforeUpdate,
+        int numUpdaters) {
+      this.action = action;
+      this.entry = entry;
+      this.opCode = opCode;
+      this.removeBeforeUpdate = removeBeforeUpdate;
+      this.remainingUpdaters = new AtomicInteger(numUpdaters);
+    }
+
+    boolean isCoalescableWith(int action, int opCode, boolean removeBeforeUpdate) {
+      return !this.started && this.action == action && this.opCode == opCode
+          && this.removeBeforeUpdate == removeBeforeUpdate;
+    }
+
+    /**
+     * Returns true if the calling updater is the last one to reach this task.
+     */
+    boolean arrive() {
+      return this.remainingUpdaters.decrementAndGet() == 0;
+    }
+
+    void recreated() {
+      this.recreatedLatch.countDown();
+    }
+
+    boolean awaitRecreated(long timeout, TimeUnit unit) throws InterruptedException {
+      return this.recreatedLatch.await(timeout, unit);
+    }
+  }
+
   /**
    * Index Task used to create the index. This is used along with the FutureTask to take care of,
    * same index creation request from multiple threads. At any time only one thread succeeds and
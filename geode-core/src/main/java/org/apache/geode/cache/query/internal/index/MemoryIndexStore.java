@@ -556,6 +556,67 @@ public class MemoryIndexStore implements IndexStore {
     return true;
   }
 
+  /**
+   * Returns the number of region entries mapped to the index key without reading their values, or
+   * -1 if any of them is being updated or removed and has to be evaluated against the query.
+   */
+  public int countEntries(Object indexKey) {
+    long countStartTime = cache.cacheTimeMillis();
+    Object obj = valueToEntriesMap.get(indexKey);
+    if (obj == null) {
+      return 0;
+    }
+    if (obj == TRANSITIONING_TOKEN) {
+      return -1;
+    }
+    if (obj instanceof RegionEntry) {
+      return isCountable((RegionEntry) obj, countStartTime) ? 1 : -1;
+    }
+    int count = 0;
+    for (Object entry : (Collection) obj) {
+      if (!isCountable((RegionEntry) entry, countStartTime)) {
+        return -1;
+      }
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Adds the region entries mapped to the index key to the collection without reading their
+   * values. Returns false if any of them is being updated or removed and has to be evaluated
+   * against the query.
+   */
+  public boolean addEntries(Object indexKey, Collection<RegionEntry> entries) {
+    long addStartTime = cache.cacheTimeMillis();
+    Object obj = valueToEntriesMap.get(indexKey);
+    if (obj == null) {
+      return true;
+    }
+    if (obj == TRANSITIONING_TOKEN) {
+      return false;
+    }
+    if (obj instanceof RegionEntry) {
+      if (!isCountable((RegionEntry) obj, addStartTime)) {
+        return false;
+      }
+      entries.add((RegionEntry) obj);
+      return true;
+    }
+    for (Object entry : (Collection) obj) {
+      if (!isCountable((RegionEntry) entry, addStartTime)) {
+        return false;
+      }
+      entries.add((RegionEntry) entry);
+    }
+    return true;
+  }
+
+  private boolean isCountable(RegionEntry entry, long countStartTime) {
+    return !entry.isInvalidOrRemoved() && !entry.isUpdateInProgress()
+        && !IndexManager.needsRecalculation(countStartTime, entry.getLastModified());
+  }
+
   @Override
   public int size(Object key) {
     Object obj = valueToEntriesMap.get(key);
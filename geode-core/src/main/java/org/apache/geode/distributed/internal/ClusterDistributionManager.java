@@ -157,7 +157,18 @@ public class ClusterDistributionManager implements DistributionManager {
   public static final int MAX_FE_THREADS = Integer.getInteger("DistributionManager.MAX_FE_THREADS",
       Math.max(Runtime.getRuntime().availableProcessors() * 4, 16)).intValue();
 
-
+  /**
+   * Run the partitioned region and function execution pools on virtual threads when the JVM
+   * supports them (Java 21 and later). MAX_PR_THREADS and MAX_FE_THREADS then limit how many
+   * messages each pool processes at a time instead of how many platform threads it creates. The
+   * serial executors keep their platform threads since they rely on a single thread for ordering.
+   * The high priority and waiting pools also keep their platform threads: their messages wait
+   * inside synchronized blocks, for instance in the distributed lock grantor, which pins the carrier
+   * thread of a virtual thread on Java 21. Messages of the virtual thread pools still pin their
+   * carrier while they hold region entry and reply processor monitors.
+   */
+  private static final boolean USE_VIRTUAL_THREADS =
+      Boolean.getBoolean("DistributionManager.USE_VIRTUAL_THREADS");
 
   private static final int INCOMING_QUEUE_LIMIT =
       Integer.getInteger("DistributionManager.INCOMING_QUEUE_LIMIT", 80000).intValue();
@@ -728,6 +739,8 @@ public class ClusterDistributionManager implements DistributionManager {
             MAX_WAITING_THREADS, this.stats.getWaitingPoolHelper(), threadMonitor, poolQueue);
       }
 
+      final boolean virtualThreads = useVirtualThreads();
+
       // should this pool using the waiting pool stats?
       this.prMetaDataCleanupThreadPool =
           LoggingExecutors.newThreadPoolWithFeedStatistics("PrMetaData cleanup Message Processor ",
@@ -735,7 +748,13 @@ public class ClusterDistributionManager implements DistributionManager {
               MAX_PR_META_DATA_CLEANUP_THREADS, this.stats.getWaitingPoolHelper(), threadMonitor,
               0, this.stats.getWaitingQueueHelper());
 
-      if (MAX_PR_THREADS > 1) {
+      if (virtualThreads && MAX_PR_THREADS > 1) {
+        this.partitionedRegionPool = LoggingExecutors.newVirtualThreadPoolWithFeedStatistics(
+            "PartitionedRegion Message Processor",
+            thread -> stats.incPartitionedRegionThreadStarts(), this::doPartitionRegionThread,
+            MAX_PR_THREADS, this.stats.getPartitionedRegionPoolHelper(), threadMonitor,
+            this.stats.getPartitionedRegionQueueHelper());
+      } else if (MAX_PR_THREADS > 1) {
         this.partitionedRegionPool =
             LoggingExecutors.newThreadPoolWithFeedStatistics("PartitionedRegion Message Processor",
                 thread -> stats.incPartitionedRegionThreadStarts(), this::doPartitionRegionThread,
@@ -748,7 +767,13 @@ public class ClusterDistributionManager implements DistributionManager {
             this.stats.getPartitionedRegionPoolHelper(), threadMonitor,
             INCOMING_QUEUE_LIMIT, this.stats.getPartitionedRegionQueueHelper());
       }
-      if (MAX_FE_THREADS > 1) {
+      if (virtualThreads && MAX_FE_THREADS > 1) {
+        this.functionExecutionPool = LoggingExecutors.newVirtualThreadPoolWithFeedStatistics(
+            FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
+            thread -> stats.incFunctionExecutionThreadStarts(), this::doFunctionExecutionThread,
+            MAX_FE_THREADS, this.stats.getFunctionExecutionPoolHelper(), threadMonitor,
+            this.stats.getFunctionExecutionQueueHelper());
+      } else if (MAX_FE_THREADS > 1) {
         this.functionExecutionPool =
             LoggingExecutors.newFunctionThreadPoolWithFeedStatistics(
                 FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
@@ -1735,6 +1760,29 @@ public class ClusterDistributionManager implements DistributionManager {
     }
   }
 
+  private static boolean useVirtualThreads() {
+    if (!USE_VIRTUAL_THREADS) {
+      return false;
+    }
+    if (!VirtualThreadExecutorWithDMStats.isSupported()) {
+      logger.warn(
+          "DistributionManager.USE_VIRTUAL_THREADS is set but this JVM does not support virtual threads. Using platform thread pools.");
+      return false;
+    }
+    logger.info("Processing partitioned region and function execution messages on virtual threads");
+    return true;
+  }
+
+  /**
+   * Returns the number of threads that are processing messages in one of this manager's pools.
+   */
+  static int getActiveCount(ExecutorService executor) {
+    if (executor instanceof VirtualThreadExecutorWithDMStats) {
+      return ((VirtualThreadExecutorWithDMStats) executor).getActiveCount();
+    }
+    return ((ThreadPoolExecutor) executor).getActiveCount();
+  }
+
   /**
    * Cheap tool to examine an executor to see if it is still working
    *
@@ -1744,7 +1792,7 @@ public class ClusterDistributionManager implements DistributionManager {
     if (tpe == null) {
       return false;
     } else {
-      int ac = ((ThreadPoolExecutor) tpe).getActiveCount();
+      int ac = getActiveCount(tpe);
       // boolean result = tpe.getActiveCount() > 0;
       if (ac > 0) {
         if (logger.isDebugEnabled()) {
@@ -2678,6 +2726,9 @@ public class ClusterDistributionManager implements DistributionManager {
       if (this.serialQueuedExecutorPool != null) {
         serialQueuedExecutorPool.handleMemberDeparture(theId);
       }
+      if (this.stats.getReplyLatencyStats() != null) {
+        this.stats.getReplyLatencyStats().memberDeparted(theId);
+      }
     }
   }
 
@@ -2784,6 +2835,7 @@ public class ClusterDistributionManager implements DistributionManager {
   Set<InternalDistributedMember> sendOutgoing(DistributionMessage message)
       throws NotSerializableException {
     long startTime = DistributionStats.getStatTime();
+    ReplyProcessor21.requestSent(message);
 
     Set<InternalDistributedMember> result =
         sendViaMembershipManager(message.getRecipients(), message,
@@ -14,6 +14,8 @@
  */
 package org.apache.geode.distributed.internal;
 
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
 /**
  * Defines the interface used to access and modify DM statistics.
  *
@@ -538,6 +540,47 @@ public interface DMStats {
    */
   void incSenderBufferSize(int inc, boolean direct);
 
+  void incSelectorReaderConnections(long delta);
+
+  void incSelectorReaderDispatches();
+
+  void incSelectorReaderSelectTime(long nanos);
+
+  void incSelectorReaderBusyTime(long nanos);
+
+  void incFrameCompressionTime(long nanos);
+
+  /**
+   * Counts a message frame that was sent compressed, and the bytes that saved.
+   */
+  void incCompressedFramesSent(long bytesSaved);
+
+  /**
+   * Counts a compressed message frame that was received, and the time it took to decompress it.
+   */
+  void incFrameDecompressionTime(long nanos);
+
+  /**
+   * Records the latency of a reply to a message of the given class from the given member.
+   *
+   * @see ReplyLatencyStats
+   */
+  void incReplyLatency(Class<?> messageType, InternalDistributedMember member, long nanos);
+
+  /**
+   * Sets the suspicion level of the given member computed by the phi accrual failure detector, and
+   * the mean and standard deviation of the heartbeat intervals it was computed from.
+   *
+   * @see FailureDetectionStats
+   */
+  void setFailureDetectionPhi(InternalDistributedMember member, double phi, long intervalMean,
+      long intervalStdDeviation);
+
+  /**
+   * Removes the suspicion level of a member that is no longer monitored.
+   */
+  void removeFailureDetectionPhi(InternalDistributedMember member);
+
   /**
    * @since GemFire 5.0.2.4
    */
@@ -21,6 +21,7 @@ import org.apache.geode.Statistics;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.StatisticsType;
 import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -188,6 +189,17 @@ public class DistributionStats implements DMStats {
   private static final int senderDirectBufferSizeId;
   private static final int senderHeapBufferSizeId;
 
+  private static final int selectorReaderConnectionsId;
+  private static final int selectorReaderDispatchesId;
+  private static final int selectorReaderSelectTimeId;
+  private static final int selectorReaderBusyTimeId;
+
+  private static final int compressedFramesSentId;
+  private static final int frameCompressionBytesSavedId;
+  private static final int frameCompressionTimeId;
+  private static final int compressedFramesReceivedId;
+  private static final int frameDecompressionTimeId;
+
   private static final int messagesBeingReceivedId;
   private static final int messageBytesBeingReceivedId;
 
@@ -647,6 +659,31 @@ public class DistributionStats implements DMStats {
         f.createLongGauge("receiverHeapBufferSize", receiverHeapBufferSizeDesc, "bytes"),
         f.createLongGauge("senderDirectBufferSize", senderDirectBufferSizeDesc, "bytes"),
         f.createLongGauge("senderHeapBufferSize", senderHeapBufferSizeDesc, "bytes"),
+        f.createLongGauge("selectorReaderConnections",
+            "Current number of thread-owned receivers handed to the p2p selector reader.",
+            "sockets"),
+        f.createLongCounter("selectorReaderDispatches",
+            "Total number of times the p2p selector reader handed a readable receiver to a reader thread.",
+            "operations"),
+        f.createLongCounter("selectorReaderSelectTime",
+            "Total amount of time, in nanoseconds, p2p selector reader threads spent waiting for receivers to become readable.",
+            "nanoseconds", false),
+        f.createLongCounter("selectorReaderBusyTime",
+            "Total amount of time, in nanoseconds, p2p selector reader threads spent registering and dispatching receivers.",
+            "nanoseconds", false),
+        f.createLongCounter("compressedFramesSent",
+            "Total number of p2p message frames sent compressed.", "operations"),
+        f.createLongCounter("frameCompressionBytesSaved",
+            "Total number of bytes compressing p2p message frames kept off the network.",
+            "bytes"),
+        f.createLongCounter("frameCompressionTime",
+            "Total amount of time, in nanoseconds, spent compressing p2p message frames.",
+            "nanoseconds", false),
+        f.createLongCounter("compressedFramesReceived",
+            "Total number of compressed p2p message frames received.", "operations"),
+        f.createLongCounter("frameDecompressionTime",
+            "Total amount of time, in nanoseconds, spent decompressing p2p message frames.",
+            "nanoseconds", false),
         f.createIntGauge("socketLocksInProgress",
             "Current number of threads waiting to lock a socket", "threads", false),
         f.createIntCounter("socketLocks", "Total number of times a socket has been locked.",
@@ -875,6 +912,17 @@ public class DistributionStats implements DMStats {
     senderDirectBufferSizeId = type.nameToId("senderDirectBufferSize");
     senderHeapBufferSizeId = type.nameToId("senderHeapBufferSize");
 
+    selectorReaderConnectionsId = type.nameToId("selectorReaderConnections");
+    selectorReaderDispatchesId = type.nameToId("selectorReaderDispatches");
+    selectorReaderSelectTimeId = type.nameToId("selectorReaderSelectTime");
+    selectorReaderBusyTimeId = type.nameToId("selectorReaderBusyTime");
+
+    compressedFramesSentId = type.nameToId("compressedFramesSent");
+    frameCompressionBytesSavedId = type.nameToId("frameCompressionBytesSaved");
+    frameCompressionTimeId = type.nameToId("frameCompressionTime");
+    compressedFramesReceivedId = type.nameToId("compressedFramesReceived");
+    frameDecompressionTimeId = type.nameToId("frameDecompressionTime");
+
     socketLocksInProgressId = type.nameToId("socketLocksInProgress");
     socketLocksId = type.nameToId("socketLocks");
     socketLockTimeId = type.nameToId("socketLockTime");
@@ -933,6 +981,12 @@ public class DistributionStats implements DMStats {
   /** The Statistics object that we delegate most behavior to */
   private final Statistics stats;
 
+  /** latency histograms per request message class and per replying member */
+  private final ReplyLatencyStats replyLatencyStats;
+
+  /** suspicion levels of the phi accrual failure detector per member */
+  private final FailureDetectionStats failureDetectionStats;
+
   // private final HistogramStats replyHandoffHistogram;
   // private final HistogramStats replyWaitHistogram;
 
@@ -944,6 +998,8 @@ public class DistributionStats implements DMStats {
    */
   public DistributionStats(StatisticsFactory f, long statId) {
     this.stats = f.createAtomicStatistics(type, "distributionStats", statId);
+    this.replyLatencyStats = new ReplyLatencyStats(f);
+    this.failureDetectionStats = new FailureDetectionStats(f);
     // this.replyHandoffHistogram = new HistogramStats("ReplyHandOff", "nanoseconds", f,
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
@@ -958,6 +1014,8 @@ public class DistributionStats implements DMStats {
    */
   public DistributionStats(Statistics stats) {
     this.stats = stats;
+    this.replyLatencyStats = null;
+    this.failureDetectionStats = null;
     // this.replyHandoffHistogram = null;
     // this.replyWaitHistogram = null;
   }
@@ -975,6 +1033,12 @@ public class DistributionStats implements DMStats {
 
   public void close() {
     this.stats.close();
+    if (this.replyLatencyStats != null) {
+      this.replyLatencyStats.close();
+    }
+    if (this.failureDetectionStats != null) {
+      this.failureDetectionStats.close();
+    }
   }
 
   /**
@@ -2102,6 +2166,73 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  @Override
+  public void incSelectorReaderConnections(long delta) {
+    stats.incLong(selectorReaderConnectionsId, delta);
+  }
+
+  @Override
+  public void incSelectorReaderDispatches() {
+    stats.incLong(selectorReaderDispatchesId, 1);
+  }
+
+  @Override
+  public void incSelectorReaderSelectTime(long nanos) {
+    stats.incLong(selectorReaderSelectTimeId, nanos);
+  }
+
+  @Override
+  public void incSelectorReaderBusyTime(long nanos) {
+    stats.incLong(selectorReaderBusyTimeId, nanos);
+  }
+
+  @Override
+  public void incFrameCompressionTime(long nanos) {
+    stats.incLong(frameCompressionTimeId, nanos);
+  }
+
+  @Override
+  public void incCompressedFramesSent(long bytesSaved) {
+    stats.incLong(compressedFramesSentId, 1);
+    stats.incLong(frameCompressionBytesSavedId, bytesSaved);
+  }
+
+  @Override
+  public void incFrameDecompressionTime(long nanos) {
+    stats.incLong(compressedFramesReceivedId, 1);
+    stats.incLong(frameDecompressionTimeId, nanos);
+  }
+
+  @Override
+  public void incReplyLatency(Class<?> messageType, InternalDistributedMember member,
+      long nanos) {
+    if (this.replyLatencyStats != null) {
+      this.replyLatencyStats.record(messageType, member, nanos);
+    }
+  }
+
+  /**
+   * Returns the reply latency histograms, or null if this instance was created by a test.
+   */
+  public ReplyLatencyStats getReplyLatencyStats() {
+    return this.replyLatencyStats;
+  }
+
+  @Override
+  public void setFailureDetectionPhi(InternalDistributedMember member, double phi,
+      long intervalMean, long intervalStdDeviation) {
+    if (this.failureDetectionStats != null) {
+      this.failureDetectionStats.setPhi(member, phi, intervalMean, intervalStdDeviation);
+    }
+  }
+
+  @Override
+  public void removeFailureDetectionPhi(InternalDistributedMember member) {
+    if (this.failureDetectionStats != null) {
+      this.failureDetectionStats.memberDeparted(member);
+    }
+  }
+
   /**
    * @since GemFire 5.0.2.4
    */
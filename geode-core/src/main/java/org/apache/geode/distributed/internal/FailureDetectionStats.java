@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * The suspicion levels computed by the phi accrual failure detector of the membership health
+ * monitor. Each member that sends heartbeats to this member has a <code>Statistics</code> instance
+ * of type "FailureDetectionStats" holding its phi and the heartbeat intervals phi is computed from.
+ */
+public class FailureDetectionStats {
+
+  private static final StatisticsType type;
+
+  private static final int phiId;
+  private static final int heartbeatIntervalMeanId;
+  private static final int heartbeatIntervalStdDeviationId;
+
+  static {
+    String statName = "FailureDetectionStats";
+    String statDescription =
+        "The suspicion level of one member computed from the heartbeats it sends";
+
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    StatisticDescriptor[] descriptors = new StatisticDescriptor[] {
+        f.createDoubleGauge("phi",
+            "The suspicion level of the member. A phi of 1 means a 10% chance that the member"
+                + " is still alive, 2 means 1%, 3 means 0.1% and so on.",
+            "phi"),
+        f.createLongGauge("heartbeatIntervalMean",
+            "The mean time between the recent heartbeats from the member.", "milliseconds"),
+        f.createLongGauge("heartbeatIntervalStdDeviation",
+            "The standard deviation of the time between the recent heartbeats from the member.",
+            "milliseconds")};
+    type = f.createType(statName, statDescription, descriptors);
+
+    phiId = type.nameToId("phi");
+    heartbeatIntervalMeanId = type.nameToId("heartbeatIntervalMean");
+    heartbeatIntervalStdDeviationId = type.nameToId("heartbeatIntervalStdDeviation");
+  }
+
+  private final StatisticsFactory factory;
+
+  private final Map<InternalDistributedMember, Statistics> byMember = new ConcurrentHashMap<>();
+
+  private volatile boolean closed;
+
+  public FailureDetectionStats(StatisticsFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Sets the phi of the given member and the heartbeat intervals it was computed from.
+   */
+  public void setPhi(InternalDistributedMember member, double phi, long intervalMean,
+      long intervalStdDeviation) {
+    if (this.closed) {
+      return;
+    }
+    Statistics stats = this.byMember.get(member);
+    if (stats == null) {
+      stats = this.byMember.computeIfAbsent(member,
+          k -> this.factory.createAtomicStatistics(type, k.toString()));
+    }
+    stats.setDouble(phiId, phi);
+    stats.setLong(heartbeatIntervalMeanId, intervalMean);
+    stats.setLong(heartbeatIntervalStdDeviationId, intervalStdDeviation);
+  }
+
+  /**
+   * Closes the statistics of the given member, which is no longer monitored.
+   */
+  public void memberDeparted(InternalDistributedMember member) {
+    Statistics stats = this.byMember.remove(member);
+    if (stats != null) {
+      stats.close();
+    }
+  }
+
+  public void close() {
+    this.closed = true;
+    for (Statistics stats : this.byMember.values()) {
+      stats.close();
+    }
+    this.byMember.clear();
+  }
+}
@@ -784,6 +784,38 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incSenderBufferSize(int inc, boolean direct) {}
 
+    @Override
+    public void incSelectorReaderConnections(long delta) {}
+
+    @Override
+    public void incSelectorReaderDispatches() {}
+
+    @Override
+    public void incSelectorReaderSelectTime(long nanos) {}
+
+    @Override
+    public void incSelectorReaderBusyTime(long nanos) {}
+
+    @Override
+    public void incFrameCompressionTime(long nanos) {}
+
+    @Override
+    public void incCompressedFramesSent(long bytesSaved) {}
+
+    @Override
+    public void incFrameDecompressionTime(long nanos) {}
+
+    @Override
+    public void incReplyLatency(Class<?> messageType, InternalDistributedMember member,
+        long nanos) {}
+
+    @Override
+    public void setFailureDetectionPhi(InternalDistributedMember member, double phi,
+        long intervalMean, long intervalStdDeviation) {}
+
+    @Override
+    public void removeFailureDetectionPhi(InternalDistributedMember member) {}
+
     @Override
     public long startSocketLock() {
       return 0;
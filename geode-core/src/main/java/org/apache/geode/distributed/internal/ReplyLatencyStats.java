@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Latency histograms of the replies received by {@link ReplyProcessor21}s, kept for each class of
+ * request message and for each member that replied. The latency of a reply is the time from when
+ * the request was first sent to when the reply was processed.
+ * <p>
+ * Each histogram is a <code>Statistics</code> instance of type "ReplyLatencyStats" with a counter
+ * for every bucket, so recording a reply only increments three counters and the histograms are
+ * archived like any other statistic. The buckets have fixed limits from 50 microseconds to 10
+ * seconds, in 1-2-5 steps. The slowest replies of the last minute or two are also
+ * remembered for {@link #getSlowestReplies()}.
+ */
+public class ReplyLatencyStats {
+
+  /** the upper limits, in nanoseconds, of every bucket but the last */
+  static final long[] BUCKET_LIMITS = {50_000L, 100_000L, 200_000L, 500_000L, 1_000_000L,
+      2_000_000L, 5_000_000L, 10_000_000L, 20_000_000L, 50_000_000L, 100_000_000L,
+      200_000_000L, 500_000_000L, 1_000_000_000L, 2_000_000_000L, 5_000_000_000L,
+      10_000_000_000L};
+
+  /** the number of slow replies remembered for each window */
+  static final int SLOWEST_REPLIES = 20;
+
+  /** the length of a slowest replies window */
+  static final long SLOWEST_REPLIES_WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+  private static final StatisticsType type;
+
+  private static final int repliesId;
+  private static final int replyTimeId;
+  private static final int firstBucketId;
+
+  static {
+    String statName = "ReplyLatencyStats";
+    String statDescription =
+        "A histogram of the latency of replies to one type of message or from one member";
+
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    StatisticDescriptor[] descriptors = new StatisticDescriptor[BUCKET_LIMITS.length + 3];
+    descriptors[0] =
+        f.createLongCounter("replies", "Total number of replies received.", "replies");
+    descriptors[1] = f.createLongCounter("replyTime",
+        "Total time from sending a request to processing its replies.", "nanoseconds", false);
+    for (int i = 0; i <= BUCKET_LIMITS.length; i++) {
+      descriptors[i + 2] = f.createLongCounter(getBucketName(i),
+          "Number of replies received " + getBucketDescription(i) + " after the request was sent.",
+          "replies", false);
+    }
+    type = f.createType(statName, statDescription, descriptors);
+
+    repliesId = type.nameToId("replies");
+    replyTimeId = type.nameToId("replyTime");
+    firstBucketId = type.nameToId(getBucketName(0));
+  }
+
+  private static String getBucketName(int bucket) {
+    if (bucket == BUCKET_LIMITS.length) {
+      return "repliesOver" + formatLimit(BUCKET_LIMITS[bucket - 1]);
+    }
+    return "repliesWithin" + formatLimit(BUCKET_LIMITS[bucket]);
+  }
+
+  private static String getBucketDescription(int bucket) {
+    if (bucket == BUCKET_LIMITS.length) {
+      return "more than " + formatLimit(BUCKET_LIMITS[bucket - 1]);
+    }
+    return "within " + formatLimit(BUCKET_LIMITS[bucket]);
+  }
+
+  private static String formatLimit(long nanos) {
+    if (nanos < 1_000_000L) {
+      return (nanos / 1_000L) + "us";
+    }
+    if (nanos < 1_000_000_000L) {
+      return (nanos / 1_000_000L) + "ms";
+    }
+    return (nanos / 1_000_000_000L) + "s";
+  }
+
+  static int getBucket(long nanos) {
+    int bucket = Arrays.binarySearch(BUCKET_LIMITS, nanos);
+    return bucket >= 0 ? bucket : -bucket - 1;
+  }
+
+  private final StatisticsFactory factory;
+
+  private final Map<Class<?>, Statistics> byMessageType = new ConcurrentHashMap<>();
+
+  private final Map<InternalDistributedMember, Statistics> byMember = new ConcurrentHashMap<>();
+
+  /** slowest replies of the current window, sorted slowest first */
+  private final List<SlowReply> slowestReplies = new ArrayList<>(SLOWEST_REPLIES);
+
+  /** slowest replies of the previous window */
+  private List<SlowReply> previousSlowestReplies = new ArrayList<>(SLOWEST_REPLIES);
+
+  /** when the current slowest replies window ends, in System.nanoTime() terms */
+  private volatile long windowEnd = System.nanoTime() + SLOWEST_REPLIES_WINDOW;
+
+  /** the latency a reply must exceed to be added to a full slowest replies window */
+  private volatile long slowReplyThreshold;
+
+  private volatile boolean closed;
+
+  public ReplyLatencyStats(StatisticsFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Records a reply to a message of the given class from the given member.
+   *
+   * @param messageType the class of the request message
+   * @param member the member that sent the reply
+   * @param nanos the time from sending the request to processing the reply
+   */
+  public void record(Class<?> messageType, InternalDistributedMember member, long nanos) {
+    if (this.closed) {
+      return;
+    }
+    int bucket = getBucket(nanos);
+    record(getMessageTypeStats(messageType), bucket, nanos);
+    record(getMemberStats(member), bucket, nanos);
+    if (nanos > this.slowReplyThreshold || System.nanoTime() - this.windowEnd >= 0) {
+      recordSlowReply(messageType, member, nanos);
+    }
+  }
+
+  private void record(Statistics stats, int bucket, long nanos) {
+    stats.incLong(repliesId, 1);
+    stats.incLong(replyTimeId, nanos);
+    stats.incLong(firstBucketId + bucket, 1);
+  }
+
+  private Statistics getMessageTypeStats(Class<?> messageType) {
+    Statistics stats = this.byMessageType.get(messageType);
+    if (stats == null) {
+      stats = this.byMessageType.computeIfAbsent(messageType,
+          k -> this.factory.createAtomicStatistics(type, getShortClassName(k)));
+    }
+    return stats;
+  }
+
+  private Statistics getMemberStats(InternalDistributedMember member) {
+    Statistics stats = this.byMember.get(member);
+    if (stats == null) {
+      stats = this.byMember.computeIfAbsent(member,
+          k -> this.factory.createAtomicStatistics(type, k.toString()));
+    }
+    return stats;
+  }
+
+  private static String getShortClassName(Class<?> c) {
+    String name = c.getName();
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  private synchronized void recordSlowReply(Class<?> messageType,
+      InternalDistributedMember member, long nanos) {
+    long now = System.nanoTime();
+    if (now - this.windowEnd >= 0) {
+      this.previousSlowestReplies = new ArrayList<>(this.slowestReplies);
+      this.slowestReplies.clear();
+      this.windowEnd = now + SLOWEST_REPLIES_WINDOW;
+      this.slowReplyThreshold = 0;
+    }
+    int size = this.slowestReplies.size();
+    if (size == SLOWEST_REPLIES) {
+      if (nanos <= this.slowestReplies.get(size - 1).nanos) {
+        return;
+      }
+      this.slowestReplies.remove(size - 1);
+    }
+    int index = 0;
+    while (index < this.slowestReplies.size() && this.slowestReplies.get(index).nanos >= nanos) {
+      index++;
+    }
+    this.slowestReplies.add(index,
+        new SlowReply(getShortClassName(messageType), member, nanos, System.currentTimeMillis()));
+    if (this.slowestReplies.size() == SLOWEST_REPLIES) {
+      this.slowReplyThreshold = this.slowestReplies.get(SLOWEST_REPLIES - 1).nanos;
+    }
+  }
+
+  /**
+   * Closes the histogram of the given member, which has left the distributed system.
+   */
+  public void memberDeparted(InternalDistributedMember member) {
+    Statistics stats = this.byMember.remove(member);
+    if (stats != null) {
+      stats.close();
+    }
+  }
+
+  public void close() {
+    this.closed = true;
+    for (Statistics stats : this.byMessageType.values()) {
+      stats.close();
+    }
+    for (Statistics stats : this.byMember.values()) {
+      stats.close();
+    }
+    this.byMessageType.clear();
+    this.byMember.clear();
+  }
+
+  /**
+   * Returns one line for each message type and each member with the number of replies and their
+   * median, 90th, 99th and 99.9th percentile latency.
+   */
+  public String[] getLatencySummary() {
+    List<String> result = new ArrayList<>();
+    for (Map.Entry<Class<?>, Statistics> entry : this.byMessageType.entrySet()) {
+      result.add("message " + getShortClassName(entry.getKey()) + ": "
+          + summarize(entry.getValue()));
+    }
+    for (Map.Entry<InternalDistributedMember, Statistics> entry : this.byMember.entrySet()) {
+      result.add("member " + entry.getKey() + ": " + summarize(entry.getValue()));
+    }
+    return result.toArray(new String[0]);
+  }
+
+  private static String summarize(Statistics stats) {
+    long[] buckets = new long[BUCKET_LIMITS.length + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = stats.getLong(firstBucketId + i);
+    }
+    long replies = stats.getLong(repliesId);
+    long average = replies == 0 ? 0 : stats.getLong(replyTimeId) / replies;
+    return "replies=" + replies + " average=" + formatNanos(average) + " p50="
+        + formatPercentile(buckets, 0.5) + " p90=" + formatPercentile(buckets, 0.9) + " p99="
+        + formatPercentile(buckets, 0.99) + " p99.9=" + formatPercentile(buckets, 0.999);
+  }
+
+  /**
+   * Returns the upper limit of the bucket holding the given percentile, or -1 if it is in the last
+   * bucket, which has no limit.
+   */
+  static long getPercentile(long[] buckets, double percentile) {
+    long total = 0;
+    for (long count : buckets) {
+      total += count;
+    }
+    long rank = (long) Math.ceil(total * percentile);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+      seen += buckets[i];
+      if (seen >= rank) {
+        return BUCKET_LIMITS[i];
+      }
+    }
+    return -1;
+  }
+
+  private static String formatPercentile(long[] buckets, double percentile) {
+    long limit = getPercentile(buckets, percentile);
+    if (limit < 0) {
+      return ">" + formatNanos(BUCKET_LIMITS[BUCKET_LIMITS.length - 1]);
+    }
+    return "<=" + formatNanos(limit);
+  }
+
+  private static String formatNanos(long nanos) {
+    return String.format("%.3fms", nanos / 1_000_000.0);
+  }
+
+  /**
+   * Returns the slowest replies of the last one to two minutes, slowest first.
+   */
+  public String[] getSlowestReplies() {
+    List<SlowReply> replies;
+    synchronized (this) {
+      long sinceWindowEnd = System.nanoTime() - this.windowEnd;
+      if (sinceWindowEnd < 0) {
+        replies = new ArrayList<>(this.slowestReplies);
+        replies.addAll(this.previousSlowestReplies);
+      } else if (sinceWindowEnd < SLOWEST_REPLIES_WINDOW) {
+        replies = new ArrayList<>(this.slowestReplies);
+      } else {
+        replies = new ArrayList<>();
+      }
+    }
+    replies.sort(Comparator.comparingLong((SlowReply r) -> r.nanos).reversed());
+    String[] result = new String[replies.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = replies.get(i).toString();
+    }
+    return result;
+  }
+
+  private static class SlowReply {
+    private final String messageType;
+    private final InternalDistributedMember member;
+    private final long nanos;
+    private final long timestamp;
+
+    SlowReply(String messageType, InternalDistributedMember member, long nanos, long timestamp) {
+      this.messageType = messageType;
+      this.member = member;
+      this.nanos = nanos;
+      this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+      return formatNanos(this.nanos) + " " + this.messageType + " from " + this.member + " at "
+          + new Date(this.timestamp);
+    }
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.geode.distributed.internal.membership.InternalDistributedMembe
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.DSFIDNotFoundException;
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.DirectReplyMessage;
 import org.apache.geode.internal.cache.versions.ConcurrentCacheModificationException;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.util.Breadcrumbs;
@@ -142,6 +143,12 @@ public class ReplyProcessor21 implements MembershipListener {
   /** Start time for ack-wait-threshold, in millis */
   private long initTime;
 
+  /** The class of the first request sent for this processor, for reply latency stats */
+  private volatile Class<?> requestType;
+
+  /** When the first request was sent, in nanos */
+  private volatile long requestSendTime;
+
   /**
    * whether this reply processor should perform severe-alert processing for the message being ack'd
    */
@@ -195,6 +202,26 @@ public class ReplyProcessor21 implements MembershipListener {
     return (ReplyProcessor21) keeper.retrieve(processorId);
   }
 
+  /**
+   * Notes that the given message is being sent so that the latency of the replies to it can be
+   * recorded by the processor that waits for them, if there is one.
+   *
+   * @see DMStats#incReplyLatency
+   */
+  static void requestSent(DistributionMessage msg) {
+    ReplyProcessor21 processor = null;
+    if (msg instanceof DirectReplyMessage) {
+      processor = ((DirectReplyMessage) msg).getDirectReplyProcessor();
+    }
+    if (processor == null && msg.getProcessorId() > 0) {
+      processor = getProcessor(msg.getProcessorId());
+    }
+    if (processor != null && processor.requestType == null) {
+      processor.requestSendTime = System.nanoTime();
+      processor.requestType = msg.getClass();
+    }
+  }
+
   /////////////////////// Constructors //////////////////////
 
   /**
@@ -406,7 +433,9 @@ public class ReplyProcessor21 implements MembershipListener {
     }
 
     final InternalDistributedMember sender = msg.getSender();
-    if (!removeMember(sender, false) && warn) {
+    if (removeMember(sender, false)) {
+      recordReplyLatency(sender);
+    } else if (warn) {
       // if the member hasn't left the system, something is wrong
       final DistributionManager dm = getDistributionManager(); // fix for bug 33253
       Set ids = getDistributionManagerIds();
@@ -425,6 +454,14 @@ public class ReplyProcessor21 implements MembershipListener {
   }
 
 
+  private void recordReplyLatency(InternalDistributedMember sender) {
+    final Class<?> type = this.requestType;
+    if (type != null) {
+      getDistributionManager().getStats().incReplyLatency(type, sender,
+          System.nanoTime() - this.requestSendTime);
+    }
+  }
+
   protected synchronized void processException(DistributionMessage msg, ReplyException ex) {
     processException(ex);
   }
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.internal.logging.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.internal.logging.LoggingUncaughtExceptionHandler;
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+
+/**
+ * An executor that runs every task on its own virtual thread, with a semaphore limiting how many
+ * tasks run at the same time. Tasks waiting for a permit are reported as queued.
+ * <p>
+ * A task submitted by a task of the same executor takes a free permit if there is one, and
+ * otherwise waits for one of a second set of permits reserved for such nested tasks, so that tasks
+ * that wait for work they submitted themselves, like nested function executions, can not deadlock
+ * the executor. At most twice the maximum concurrency of tasks run at the same time.
+ * <p>
+ * On Java 21 a virtual thread that blocks while holding a monitor, or waits in
+ * {@link Object#wait()}, pins the platform thread carrying it. Only use this executor for pools
+ * whose tasks hold monitors briefly; tasks that wait inside synchronized blocks, like the
+ * distributed lock grantor, belong on platform threads.
+ * <p>
+ * Virtual threads are only available on Java 21 and later, so they are looked up reflectively.
+ * Use {@link #isSupported()} before creating an instance.
+ */
+public class VirtualThreadExecutorWithDMStats extends AbstractExecutorService {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final Method OF_VIRTUAL = findOfVirtual();
+
+  private final ThreadFactory threadFactory;
+  private final ThreadInitializer threadInitializer;
+  private final CommandWrapper commandWrapper;
+  private final Semaphore permits;
+  /** permits for nested tasks that found no free permit in {@link #permits} */
+  private final Semaphore nestedPermits;
+  private final PoolStatHelper poolStats;
+  private final QueueStatHelper queueStats;
+  private final ThreadsMonitoring threadMonitoring;
+
+  /** tasks that have been handed to a thread and have not completed */
+  private final AtomicInteger taskCount = new AtomicInteger();
+  /** threads waiting for a permit, mapped to their task */
+  private final Map<Thread, Runnable> waiting = new ConcurrentHashMap<>();
+  /** threads that hold a permit */
+  private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+  private volatile boolean shutdown;
+
+  public VirtualThreadExecutorWithDMStats(String threadName, ThreadInitializer threadInitializer,
+      CommandWrapper commandWrapper, int maxConcurrency, PoolStatHelper poolStats,
+      QueueStatHelper queueStats, ThreadsMonitoring threadMonitoring) {
+    this(createThreadFactory(threadName), threadInitializer, commandWrapper, maxConcurrency,
+        poolStats, queueStats, threadMonitoring);
+  }
+
+  /**
+   * Creates an executor that starts its tasks on threads from the given factory instead of on
+   * virtual threads.
+   */
+  VirtualThreadExecutorWithDMStats(ThreadFactory threadFactory,
+      ThreadInitializer threadInitializer, CommandWrapper commandWrapper, int maxConcurrency,
+      PoolStatHelper poolStats, QueueStatHelper queueStats, ThreadsMonitoring threadMonitoring) {
+    this.threadFactory = threadFactory;
+    this.threadInitializer = threadInitializer;
+    this.commandWrapper = commandWrapper;
+    // fair, so that tasks get their permits in the order they were submitted like in a queue
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.nestedPermits = new Semaphore(maxConcurrency, true);
+    this.poolStats = poolStats;
+    this.queueStats = queueStats;
+    this.threadMonitoring = threadMonitoring;
+  }
+
+  /**
+   * Returns true if this JVM supports virtual threads.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  private static Method findOfVirtual() {
+    if (getJavaFeatureVersion() < 21) {
+      // Java 19 and 20 only have virtual threads as a preview feature
+      return null;
+    }
+    try {
+      return Thread.class.getMethod("ofVirtual");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the feature release of the running Java, such as 8 or 21.
+   */
+  static int getJavaFeatureVersion() {
+    String version = System.getProperty("java.specification.version", "");
+    if (version.startsWith("1.")) {
+      version = version.substring(2);
+    }
+    try {
+      return Integer.parseInt(version);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static ThreadFactory createThreadFactory(String threadName) {
+    if (OF_VIRTUAL == null) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder,
+          threadName, 1L);
+      builder = builderClass
+          .getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+          .invoke(builder, LoggingUncaughtExceptionHandler.getInstance());
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create virtual threads", e);
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (command == null) {
+      throw new NullPointerException();
+    }
+    this.taskCount.incrementAndGet();
+    if (this.shutdown) {
+      taskDone();
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    final boolean nested = this.running.contains(Thread.currentThread());
+    Thread thread = this.threadFactory.newThread(() -> runTask(command, nested));
+    if (this.threadInitializer != null) {
+      this.threadInitializer.initialize(thread);
+    }
+    if (this.queueStats != null) {
+      this.queueStats.add();
+    }
+    this.waiting.put(thread, command);
+    thread.start();
+  }
+
+  private void runTask(Runnable command, boolean nested) {
+    Thread thread = Thread.currentThread();
+    Semaphore acquired = null;
+    try {
+      if (!nested) {
+        this.permits.acquire();
+        acquired = this.permits;
+      } else if (this.permits.tryAcquire()) {
+        acquired = this.permits;
+      } else {
+        this.nestedPermits.acquire();
+        acquired = this.nestedPermits;
+      }
+    } catch (InterruptedException e) {
+      // shutdownNow; the task is returned by shutdownNow
+    } finally {
+      this.waiting.remove(thread);
+      if (this.queueStats != null) {
+        this.queueStats.remove();
+      }
+    }
+    if (acquired == null) {
+      taskDone();
+      return;
+    }
+    this.running.add(thread);
+    if (this.poolStats != null) {
+      this.poolStats.startJob();
+    }
+    if (this.threadMonitoring != null) {
+      this.threadMonitoring.startMonitor(ThreadsMonitoring.Mode.PooledExecutor);
+    }
+    try {
+      if (this.commandWrapper != null) {
+        this.commandWrapper.invoke(command);
+      } else {
+        command.run();
+      }
+    } finally {
+      if (this.threadMonitoring != null) {
+        this.threadMonitoring.endMonitor();
+      }
+      if (this.poolStats != null) {
+        this.poolStats.endJob();
+      }
+      this.running.remove(thread);
+      acquired.release();
+      taskDone();
+    }
+  }
+
+  private void taskDone() {
+    if (this.taskCount.decrementAndGet() == 0 && this.shutdown) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of tasks that are running, not counting the ones waiting for a permit.
+   */
+  public int getActiveCount() {
+    return this.running.size();
+  }
+
+  @Override
+  public void shutdown() {
+    this.shutdown = true;
+    if (this.taskCount.get() == 0) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Interrupts every task and returns the ones that had not started running.
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    List<Runnable> notStarted = new ArrayList<>();
+    for (Map.Entry<Thread, Runnable> entry : this.waiting.entrySet()) {
+      notStarted.add(entry.getValue());
+      entry.getKey().interrupt();
+    }
+    for (Thread thread : this.running) {
+      thread.interrupt();
+    }
+    if (logger.isDebugEnabled() && !notStarted.isEmpty()) {
+      logger.debug("{} tasks were not started before shutdown", notStarted.size());
+    }
+    return Collections.unmodifiableList(notStarted);
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return this.shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return this.shutdown && this.taskCount.get() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (this) {
+      while (!isTerminated()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+    }
+    return true;
+  }
+}
@@ -709,6 +709,10 @@ public class DLockGrantor {
       handleLockBatch(request);
       return;
     }
+    if (request.getObjectName() instanceof DLockNameBatch) {
+      handleLockNameBatch(request);
+      return;
+    }
 
     waitWhileInitializing(); // calcWaitMillisFromNow
 
@@ -756,6 +760,103 @@ public class DLockGrantor {
     }
   }
 
+  /**
+   * Handles a request for all of the locks named by a {@link DLockNameBatch}. The locks are granted
+   * together with one lease if none of them is held or waited for. Otherwise the request fails
+   * like a try-lock and the requestor falls back to requesting the locks one at a time.
+   * <p>
+   * Each name is granted like a separate lock request using the lockId of the batch request, so
+   * the names can later be released, re-entered or recovered one at a time.
+   * <p>
+   * Acquires destroyReadLock. Synchronizes on grantTokens, suspendLock and each grant token, but
+   * never on more than one grant token at a time.
+   *
+   * @param request the lock request naming a DLockNameBatch
+   * @throws LockGrantorDestroyedException if grantor is destroyed
+   */
+  private void handleLockNameBatch(DLockRequestMessage request) throws InterruptedException {
+    waitWhileInitializing();
+
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockGrantor.handleLockNameBatch] {}", request);
+    }
+
+    if (!acquireDestroyReadLock(0)) {
+      waitUntilDestroyed();
+      checkDestroyed();
+    }
+    try {
+      DLockLessorDepartureHandler dLockLessorDepartureHandler =
+          this.dlock.getDLockLessorDepartureHandler();
+      if (dLockLessorDepartureHandler != null) {
+        dLockLessorDepartureHandler.waitForInProcessDepartures();
+      }
+      checkDestroyed();
+
+      final Object[] names = ((DLockNameBatch) request.getObjectName()).getNames();
+      if (!acquireBatchLockPermission(request, names.length)) {
+        request.respondWithTryLockFailed(request.getObjectName());
+        return;
+      }
+
+      final InternalDistributedMember owner = request.getSender();
+      final RemoteThread rThread = request.getRemoteThread();
+      final int lockId = request.getLockId();
+      int granted = 0;
+      boolean responded = false;
+      try {
+        long leaseExpireTime = -1;
+        for (; granted < names.length; granted++) {
+          DLockGrantToken grant = getOrCreateGrant(names[granted]);
+          try {
+            synchronized (grant) {
+              if (grant.isDestroyed() || grant.isGranted(true) || grant.hasWaitingRequests()) {
+                break;
+              }
+              if (leaseExpireTime == -1) {
+                leaseExpireTime = grant.calcLeaseExpireTime(request.getLeaseTime());
+              }
+              grant.grantLock(owner, leaseExpireTime, lockId, rThread);
+            }
+          } finally {
+            grant.decAccess();
+          }
+        }
+
+        if (granted == names.length) {
+          synchronized (request) {
+            if (!request.respondedNoSync() && this.dm.isCurrentMember(owner)) {
+              // if the request was local and has been interrupted, this releases the batch
+              request.respondWithGrant(leaseExpireTime);
+              responded = true;
+            }
+          }
+          if (responded && leaseExpireTime < Long.MAX_VALUE) {
+            long now = DLockService.getLockTimeStamp(this.dm);
+            this.thread.checkTimeToWait(leaseExpireTime - now, true);
+          }
+        }
+      } finally {
+        if (!responded) {
+          // release the names granted so far, which grants them to any requests that queued
+          // up for them meanwhile, and give back the permission to lock the others
+          for (int i = 0; i < granted; i++) {
+            getAndReleaseGrantIfLockedBy(names[i], owner, lockId);
+          }
+          for (int i = granted; i < names.length; i++) {
+            postReleaseLock(rThread, names[i]);
+          }
+          drainPermittedRequests();
+          if (!request.responded()) {
+            request.respondWithTryLockFailed(request.getObjectName());
+          }
+        }
+      }
+    } finally {
+      releaseDestroyReadLock();
+    }
+  }
+
   /**
    * Internally handles a lock request which has permission to proceed.
    * <p>
@@ -973,7 +1074,14 @@ public class DLockGrantor {
     }
     try {
       checkDestroyed();
-      getAndReleaseGrantIfLockedBy(name, owner, lockId);
+      if (name instanceof DLockNameBatch) {
+        // orphaned grant of a batch of locks
+        for (Object batchedName : ((DLockNameBatch) name).getNames()) {
+          getAndReleaseGrantIfLockedBy(batchedName, owner, lockId);
+        }
+      } else {
+        getAndReleaseGrantIfLockedBy(name, owner, lockId);
+      }
     } finally {
       releaseDestroyReadLock();
     }
@@ -1029,6 +1137,15 @@ public class DLockGrantor {
     }
     try {
       checkDestroyed();
+      if (name instanceof DLockNameBatch) {
+        for (Object batchedName : ((DLockNameBatch) name).getNames()) {
+          DLockGrantToken grant = getGrantToken(batchedName);
+          if (grant != null) {
+            removeGrantIfUnused(grant);
+          }
+        }
+        return;
+      }
       DLockGrantToken grant = getGrantToken(name);
       if (grant != null) {
         removeGrantIfUnused(grant);
@@ -2195,6 +2312,38 @@ public class DLockGrantor {
     return permitLockRequest;
   }
 
+  /**
+   * Returns true if a batch of count locks may be granted to the requesting thread, counting each
+   * of them as a read lock. Unlike {@link #acquireReadLockPermission(DLockRequestMessage)} the
+   * request is never added to suspendQueue, since a batch is not scheduled.
+   * <p>
+   * Synchronizes on suspendLock.
+   *
+   * @param request the lock request for the batch of locks
+   * @param count the number of locks in the batch
+   */
+  private boolean acquireBatchLockPermission(DLockRequestMessage request, int count) {
+    final RemoteThread rThread = request.getRemoteThread();
+    Assert.assertTrue(rThread != null);
+    synchronized (suspendLock) {
+      checkDestroyed();
+      if (!dm.isCurrentMember(request.getSender())) {
+        logger.info(LogMarker.DLS_MARKER, "Ignoring lock request from non-member: %s", request);
+        return false;
+      }
+      Integer integer = (Integer) readLockCountMap.get(rThread);
+      int readLockCount = integer == null ? 0 : integer.intValue();
+      boolean threadHoldsLock = readLockCount > 0 || isLockingSuspendedBy(rThread);
+      if (!threadHoldsLock && (isLockingSuspended() || writeLockWaiters > 0)) {
+        return false;
+      }
+      readLockCountMap.put(rThread, Integer.valueOf(readLockCount + count));
+      totalReadLockCount += count;
+      checkTotalReadLockCount();
+      return true;
+    } // suspendLock sync
+  }
+
   /**
    * Returns true if lock request has permission to proceed; else adds the request to the end of
    * suspendQueue and returns false.
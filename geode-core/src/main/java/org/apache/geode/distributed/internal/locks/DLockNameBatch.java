@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.Version;
+
+/**
+ * The names of several locks requested from the grantor in one lock request. The grantor grants
+ * all of the names or none of them. Each granted name is then held, re-entered and released like
+ * a lock that was granted on its own.
+ */
+public class DLockNameBatch implements DataSerializableFixedID {
+
+  /** the names in the order of {@link #compareNames(Object, Object)} */
+  private Object[] names;
+
+  public DLockNameBatch() {}
+
+  DLockNameBatch(Object[] names) {
+    this.names = names;
+  }
+
+  Object[] getNames() {
+    return this.names;
+  }
+
+  /**
+   * Returns the distinct names in the order of {@link #compareNames(Object, Object)}.
+   *
+   * @throws IllegalArgumentException if a name is null or is the suspend locking token
+   */
+  static List<Object> sortNames(Collection<?> names) {
+    TreeSet<Object> sorted = new TreeSet<>(DLockNameBatch::compareNames);
+    for (Object name : names) {
+      if (name == null) {
+        throw new IllegalArgumentException("Lock names must not be null");
+      }
+      if (DLockService.SUSPEND_LOCKING_TOKEN.equals(name)) {
+        throw new IllegalArgumentException("Locking cannot be suspended in a batch of locks");
+      }
+      sorted.add(name);
+    }
+    return new ArrayList<>(sorted);
+  }
+
+  /**
+   * Orders lock names the same way in every member, so that threads that lock overlapping sets of
+   * names in this order cannot deadlock each other. Lock names must already have hash codes that
+   * agree in every member for the grantor to find them.
+   */
+  static int compareNames(Object name1, Object name2) {
+    if (name1.equals(name2)) {
+      return 0;
+    }
+    int result = Integer.compare(name1.hashCode(), name2.hashCode());
+    if (result == 0 && name1.getClass() == name2.getClass() && name1 instanceof Comparable) {
+      // both names are of the same class, so name1 accepts name2
+      @SuppressWarnings("unchecked")
+      Comparable<Object> comparable = (Comparable<Object>) name1;
+      result = comparable.compareTo(name2);
+    }
+    if (result == 0) {
+      result = name1.getClass().getName().compareTo(name2.getClass().getName());
+    }
+    if (result == 0) {
+      result = name1.toString().compareTo(name2.toString());
+    }
+    return result;
+  }
+
+  @Override
+  public int getDSFID() {
+    return DLOCK_NAME_BATCH;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    DataSerializer.writeObjectArray(this.names, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.names = DataSerializer.readObjectArray(in);
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof DLockNameBatch)) {
+      return false;
+    }
+    return Arrays.equals(this.names, ((DLockNameBatch) other).names);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.names);
+  }
+
+  @Override
+  public String toString() {
+    return "DLockNameBatch" + Arrays.toString(this.names);
+  }
+}
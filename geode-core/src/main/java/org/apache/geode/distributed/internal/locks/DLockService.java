@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -1442,6 +1443,13 @@ public class DLockService extends DistributedLockService {
 
           LockGrantorId theLockGrantorId = getLockGrantorId();
 
+          if (reentrant && theLockGrantorId.isLocal(getSerialNumber())
+              && reenterLockLocally(token, threadId, lockId, recursionBefore, requestLeaseTime)) {
+            gotLock = true;
+            keepTrying = false;
+            continue;
+          }
+
           if (reentrant) {
             Assert.assertTrue(lockId > -1, "Reentrant lock must have lockId > -1");
             // lockId = token.getLockId(); // keep lockId
@@ -1572,6 +1580,37 @@ public class DLockService extends DistributedLockService {
     }
   }
 
+  /**
+   * Re-enters a lock held by the calling thread without a request to the local grantor if the
+   * lease already held lasts at least as long as the requested one. The grantor would keep the
+   * later of the two expiration times, so its grant would not change.
+   *
+   * @return true if the lock was re-entered
+   */
+  private boolean reenterLockLocally(DLockToken token, int threadId, int lockId,
+      int recursionBefore, long requestLeaseTime) {
+    synchronized (token) {
+      token.checkForExpiration();
+      if (!token.isLeaseHeldByCurrentThread() || token.getLeaseId() != lockId) {
+        return false;
+      }
+      long leaseExpireTime = token.getLeaseExpireTime();
+      if (leaseExpireTime != Long.MAX_VALUE) {
+        if (requestLeaseTime == Long.MAX_VALUE) {
+          return false;
+        }
+        long requestLeaseExpireTime = token.getCurrentTime() + requestLeaseTime;
+        if (requestLeaseExpireTime < requestLeaseTime || requestLeaseExpireTime > leaseExpireTime) {
+          return false;
+        }
+      }
+      RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
+      token.grantLock(leaseExpireTime, lockId, recursionBefore + 1, rThread);
+      getStats().incLocalLockReentries();
+      return true;
+    }
+  }
+
   private boolean grantLocalDLockAfterObtainingRemoteLock(Object name, DLockToken token,
       int threadId, long leaseExpireTime, int lockId, LockGrantorId theLockGrantorId,
       DLockRequestProcessor processor, int recursion) {
@@ -1832,6 +1871,228 @@ public class DLockService extends DistributedLockService {
     }
   }
 
+  /**
+   * Acquires all of the named locks for the calling thread, or none of them. The names are locked
+   * in the same order in every member, so threads that lock overlapping sets of names with this
+   * method cannot deadlock each other.
+   * <p>
+   * The names not already held by the calling thread are first requested from the grantor in a
+   * single request, which the grantor grants only if none of them is held or waited for.
+   * Otherwise they are locked one at a time in order. Each name is then held like a lock acquired
+   * with {@link #lock(Object, long, long)}, and may be released with {@link #unlock(Object)}
+   * independently of the others.
+   *
+   * @param names the names of the locks to acquire
+   * @param waitTimeMillis the number of milliseconds to try to acquire all of the locks before
+   *        giving up and returning false. A value of -1 causes this method to block until the locks
+   *        are acquired.
+   * @param leaseTimeMillis the number of milliseconds to hold each lock after granting it, or -1
+   *        to hold the locks until they are explicitly unlocked
+   * @return true if all of the locks were acquired, false if none were
+   * @throws IllegalArgumentException if a name is null or is the suspend locking token
+   */
+  public boolean lockAll(Collection<?> names, long waitTimeMillis, long leaseTimeMillis) {
+    checkDestroyed();
+    final List<Object> sortedNames = DLockNameBatch.sortNames(names);
+
+    long waitLimit = Long.MAX_VALUE;
+    if (waitTimeMillis != -1) {
+      waitLimit = getLockTimeStamp(this.dm) + waitTimeMillis;
+      if (waitLimit < 0) {
+        waitLimit = Long.MAX_VALUE;
+      }
+    }
+
+    // names already held by this thread are only re-entered
+    final boolean[] held = new boolean[sortedNames.size()];
+    final List<Object> batchNames = new ArrayList<>(sortedNames.size());
+    for (int i = 0; i < held.length; i++) {
+      held[i] = isHeldByCurrentThread(sortedNames.get(i));
+      if (!held[i]) {
+        batchNames.add(sortedNames.get(i));
+      }
+    }
+
+    final List<Object> locked = new ArrayList<>(sortedNames.size());
+    boolean lockedAll = false;
+    try {
+      boolean batchGranted = batchNames.size() > 1 && lockBatch(batchNames, leaseTimeMillis);
+      if (batchGranted) {
+        locked.addAll(batchNames);
+      }
+      for (int i = 0; i < held.length; i++) {
+        if (batchGranted && !held[i]) {
+          continue;
+        }
+        long waitMillis = -1;
+        if (waitLimit != Long.MAX_VALUE) {
+          waitMillis = Math.max(waitLimit - getLockTimeStamp(this.dm), 0);
+        }
+        if (!lock(sortedNames.get(i), waitMillis, leaseTimeMillis)) {
+          return false;
+        }
+        locked.add(sortedNames.get(i));
+      }
+      lockedAll = true;
+      return true;
+    } finally {
+      if (!lockedAll) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+          unlock(locked.get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases all of the named locks held by the calling thread, in the reverse of the order that
+   * {@link #lockAll(Collection, long, long)} acquires them. The other locks are still released if
+   * one of them is not held.
+   *
+   * @param names the names of the locks to release
+   * @throws LockNotHeldException if the calling thread does not hold one of the locks
+   * @throws LeaseExpiredException if the lease of one of the locks has expired
+   */
+  public void unlockAll(Collection<?> names) throws LockNotHeldException, LeaseExpiredException {
+    final List<Object> sortedNames = DLockNameBatch.sortNames(names);
+    RuntimeException failure = null;
+    for (int i = sortedNames.size() - 1; i >= 0; i--) {
+      try {
+        unlock(sortedNames.get(i));
+      } catch (LockNotHeldException | LeaseExpiredException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Requests all of the named locks from the grantor at once, as a {@link DLockNameBatch}. Returns
+   * false without waiting if the grantor does not grant all of them, or if it is a member that
+   * does not know about batches of names.
+   *
+   * @param names the names of locks not held by the calling thread, in order
+   * @param leaseTimeMillis the number of milliseconds to hold each lock, or -1 for no limit
+   * @return true if all of the locks were granted
+   */
+  private boolean lockBatch(List<Object> names, long leaseTimeMillis) {
+    final long statStart = getStats().startLockWait();
+    final long startTime = getLockTimeStamp(this.dm);
+    final long requestLeaseTime = leaseTimeMillis == -1 ? Long.MAX_VALUE : leaseTimeMillis;
+    final DLockNameBatch batch = new DLockNameBatch(names.toArray());
+
+    final DLockToken[] batchTokens = new DLockToken[names.size()];
+    for (int i = 0; i < batchTokens.length; i++) {
+      batchTokens[i] = getOrCreateToken(names.get(i));
+    }
+    boolean gotLocks = false;
+    int activeLocksAdded = 0;
+    try {
+      ThreadRequestState requestState = this.threadRequestState.get();
+      if (requestState == null) {
+        requestState = new ThreadRequestState(incThreadSequence(), false);
+        this.threadRequestState.set(requestState);
+      } else {
+        requestState.interruptible = false;
+      }
+      final int threadId = requestState.threadId;
+
+      for (; activeLocksAdded < batchTokens.length; activeLocksAdded++) {
+        incActiveLocks();
+      }
+
+      LockGrantorId theLockGrantorId = getLockGrantorId();
+      if (theLockGrantorId.getLockGrantorMember().getVersionObject()
+          .compareTo(Version.GEODE_190) < 0) {
+        return false;
+      }
+
+      DLockRequestProcessor processor = createRequestProcessor(theLockGrantorId, batch, threadId,
+          startTime, requestLeaseTime, 0, false, true);
+      int lockId = processor.getProcessorId();
+      try {
+        gotLocks = processor.requestLock(false, lockId);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+        logger.trace(LogMarker.DLS_VERBOSE, "Grantor {} replied {} to {}", theLockGrantorId,
+            processor.getResponseCodeString(), batch);
+      }
+
+      if (gotLocks) {
+        gotLocks = grantLocalDLocksAfterObtainingRemoteLocks(names, batchTokens, threadId,
+            processor.getLeaseExpireTime(), lockId, theLockGrantorId, processor);
+        if (gotLocks) {
+          getStats().incLockBatchesGranted();
+        }
+      } else if (processor.repliedDestroyed()) {
+        checkDestroyed(); // throws LockServiceDestroyedException
+      }
+      // if the grantor has changed, the locks are requested one at a time from the new one
+      return gotLocks;
+    } finally {
+      getStats().endLockWait(statStart, gotLocks);
+      if (!gotLocks) {
+        for (int i = 0; i < activeLocksAdded; i++) {
+          decActiveLocks();
+        }
+        for (DLockToken token : batchTokens) {
+          synchronized (token) {
+            token.decUsage();
+          }
+          freeResources(token.getName());
+        }
+      }
+    }
+  }
+
+  /**
+   * Grants the local lock tokens of a batch of locks granted by the grantor.
+   *
+   * @return false if the grantor has changed or this service was destroyed meanwhile
+   */
+  private boolean grantLocalDLocksAfterObtainingRemoteLocks(List<Object> names,
+      DLockToken[] batchTokens, int threadId, long leaseExpireTime, int lockId,
+      LockGrantorId theLockGrantorId, DLockRequestProcessor processor) {
+    boolean needToReleaseOrphanedGrant = false;
+
+    Assert.assertHoldsLock(this.destroyLock, false);
+    synchronized (this.lockGrantorIdLock) {
+      if (!checkLockGrantorId(theLockGrantorId)) {
+        // race: grantor changed
+        if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+          logger.trace(LogMarker.DLS_VERBOSE,
+              "Cannot honor grant from {} because {} is now a grantor.", theLockGrantorId,
+              this.lockGrantorId);
+        }
+      } else if (isDestroyed()) {
+        // race: dls was destroyed
+        needToReleaseOrphanedGrant = true;
+      } else {
+        synchronized (this.tokens) {
+          checkDestroyed();
+          RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
+          for (int i = 0; i < batchTokens.length; i++) {
+            Assert.assertTrue(batchTokens[i] == basicGetToken(names.get(i)));
+            batchTokens[i].grantLock(leaseExpireTime, lockId, 0, rThread);
+          }
+          return true;
+        } // tokens sync
+      }
+    }
+
+    if (needToReleaseOrphanedGrant) {
+      processor.getResponse().releaseOrphanedGrant(this.dm);
+    }
+    return false;
+  }
+
   /**
    * Query the grantor for current leasing information of a lock. Returns the current lease info.
    *
@@ -2522,7 +2783,7 @@ public class DLockService extends DistributedLockService {
     }
   }
 
-  private final ThreadLocal threadRequestState = new ThreadLocal();
+  private final ThreadLocal<ThreadRequestState> threadRequestState = new ThreadLocal<>();
 
   private final UnsafeThreadLocal<Object> blockedOn = new UnsafeThreadLocal<Object>();
 
@@ -2538,7 +2799,7 @@ public class DLockService extends DistributedLockService {
     return requestState.interruptible;
   }
 
-  ThreadLocal getThreadRequestState() {
+  ThreadLocal<ThreadRequestState> getThreadRequestState() {
     return threadRequestState;
   }
 
@@ -104,6 +104,8 @@ public class DLockStats implements DistributedLockStats {
   private static final int becomeGrantorRequestsId;
   private static final int freeResourcesCompletedId;
   private static final int freeResourcesFailedId;
+  private static final int lockBatchesGrantedId;
+  private static final int localLockReentriesId;
 
   /** returns the current nano time, if time stats are enabled */
   static long getStatTime() {
@@ -241,6 +243,13 @@ public class DLockStats implements DistributedLockStats {
     final String freeResourcesFailedDesc =
         "Total number of times this member has attempted to free resources for a distributed lock which remained in use.";
 
+    final String lockBatchesGrantedDesc =
+        "Total number of batches of distributed locks granted with a single request to the"
+            + " grantor.";
+    final String localLockReentriesDesc =
+        "Total number of times a held distributed lock was re-entered without a request to the"
+            + " local grantor.";
+
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
     type = f.createType(statName, statDescription, new StatisticDescriptor[] {
@@ -324,7 +333,9 @@ public class DLockStats implements DistributedLockStats {
         f.createLongCounter("lockReleaseTime", lockReleaseTimeDesc, "nanoseconds", false),
         f.createIntCounter("becomeGrantorRequests", becomeGrantorRequestsDesc, "operations"),
         f.createIntCounter("freeResourcesCompleted", freeResourcesCompletedDesc, "operations"),
-        f.createIntCounter("freeResourcesFailed", freeResourcesFailedDesc, "operations"),});
+        f.createIntCounter("freeResourcesFailed", freeResourcesFailedDesc, "operations"),
+        f.createIntCounter("lockBatchesGranted", lockBatchesGrantedDesc, "operations"),
+        f.createIntCounter("localLockReentries", localLockReentriesDesc, "operations"),});
 
     // Initialize id fields
     grantorsId = type.nameToId("grantors");
@@ -394,6 +405,8 @@ public class DLockStats implements DistributedLockStats {
     becomeGrantorRequestsId = type.nameToId("becomeGrantorRequests");
     freeResourcesCompletedId = type.nameToId("freeResourcesCompleted");
     freeResourcesFailedId = type.nameToId("freeResourcesFailed");
+    lockBatchesGrantedId = type.nameToId("lockBatchesGranted");
+    localLockReentriesId = type.nameToId("localLockReentries");
   } // static block
 
   /** The Statistics object that we delegate most behavior to */
@@ -971,6 +984,22 @@ public class DLockStats implements DistributedLockStats {
     this.stats.incInt(freeResourcesFailedId, 1);
   }
 
+  public int getLockBatchesGranted() {
+    return this.stats.getInt(lockBatchesGrantedId);
+  }
+
+  public void incLockBatchesGranted() {
+    this.stats.incInt(lockBatchesGrantedId, 1);
+  }
+
+  public int getLocalLockReentries() {
+    return this.stats.getInt(localLockReentriesId);
+  }
+
+  public void incLocalLockReentries() {
+    this.stats.incInt(localLockReentriesId, 1);
+  }
+
   // -------------------------------------------------------------------------
   // StatHelpers for dedicated dlock executors
   // -------------------------------------------------------------------------
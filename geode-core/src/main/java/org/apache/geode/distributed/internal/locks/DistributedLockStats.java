@@ -267,4 +267,14 @@ public interface DistributedLockStats {
   int getFreeResourcesFailed();
 
   void incFreeResourcesFailed();
+
+  // total number of batches of locks granted with a single request to the grantor
+  int getLockBatchesGranted();
+
+  void incLockBatchesGranted();
+
+  // total number of times a held lock was re-entered without a request to the local grantor
+  int getLocalLockReentries();
+
+  void incLocalLockReentries();
 }
@@ -369,6 +369,18 @@ public class DummyDLockStats implements DistributedLockStats {
 
   public void incFreeResourcesFailed() {}
 
+  public int getLockBatchesGranted() {
+    return -1;
+  }
+
+  public void incLockBatchesGranted() {}
+
+  public int getLocalLockReentries() {
+    return -1;
+  }
+
+  public void incLocalLockReentries() {}
+
   public static class DummyPoolStatHelper implements PoolStatHelper {
     public void startJob() {}
 
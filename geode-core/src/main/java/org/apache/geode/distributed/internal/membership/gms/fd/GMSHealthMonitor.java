@@ -132,6 +132,48 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   public static final long MEMBER_SUSPECT_COLLECTION_INTERVAL =
       Long.getLong("geode.suspect-member-collection-interval", 200);
 
+  /**
+   * The failure detection mode, "timeout" or "phi-accrual". In timeout mode a member is checked
+   * once it has not been heard from for about member-timeout/LOGICAL_INTERVAL. In phi-accrual mode
+   * a member is checked once its {@link PhiAccrualFailureDetector phi} reaches PHI_THRESHOLD, so
+   * members with steady heartbeats are checked sooner and members with irregular heartbeats later.
+   * Members that have not sent enough heartbeats yet are watched in timeout mode.
+   */
+  public static final String FAILURE_DETECTION_MODE_PROPERTY = "geode.failure-detection-mode";
+
+  public static final String TIMEOUT_MODE = "timeout";
+
+  public static final String PHI_ACCRUAL_MODE = "phi-accrual";
+
+  /**
+   * The phi at which a member is checked in phi-accrual mode
+   */
+  public static final double PHI_THRESHOLD = getDouble("geode.phi-accrual-threshold", 8.0);
+
+  /**
+   * The number of heartbeat intervals the phi of a member is computed from
+   */
+  public static final int PHI_SAMPLE_SIZE =
+      Integer.getInteger("geode.phi-accrual-sample-size", 100);
+
+  /**
+   * The least standard deviation of heartbeat intervals used to compute phi, in milliseconds
+   */
+  public static final long PHI_MIN_STD_DEVIATION =
+      Long.getLong("geode.phi-accrual-min-std-deviation", 200);
+
+  /**
+   * Milliseconds added to the mean heartbeat interval used to compute phi
+   */
+  public static final long PHI_ACCEPTABLE_PAUSE =
+      Long.getLong("geode.phi-accrual-acceptable-pause", 0);
+
+  /**
+   * How often phi is computed in phi-accrual mode, in milliseconds
+   */
+  public static final long PHI_CHECK_INTERVAL =
+      Long.getLong("geode.phi-accrual-check-interval", 100);
+
   private volatile long currentTimeStamp;
 
   /**
@@ -145,6 +187,18 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   final ConcurrentMap<InternalDistributedMember, TimeStamp> memberTimeStamps =
       new ConcurrentHashMap<>();
 
+  /**
+   * true if members are checked based on their phi rather than the time since their last contact
+   */
+  private boolean usePhiAccrual;
+
+  /**
+   * Heartbeat history of the members that send periodic heartbeats to this member, in phi-accrual
+   * mode
+   */
+  final ConcurrentMap<InternalDistributedMember, PhiAccrualFailureDetector> phiDetectors =
+      new ConcurrentHashMap<>();
+
   /**
    * Members currently being suspected and the view they were suspected in
    */
@@ -247,6 +301,10 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       // this is the start of interval to record member activity
       GMSHealthMonitor.this.currentTimeStamp = currentTime;
 
+      if (usePhiAccrual) {
+        recordPhis(currentTime);
+      }
+
       if (neighbour != null) {
         TimeStamp nextNeighborTS;
         synchronized (GMSHealthMonitor.this) {
@@ -259,6 +317,18 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
           return;
         }
 
+        if (usePhiAccrual) {
+          PhiAccrualFailureDetector detector = phiDetectors.get(neighbour);
+          if (detector != null && detector.isAvailable()) {
+            double phi = detector.phi(currentTime);
+            if (phi >= PHI_THRESHOLD) {
+              logger.debug("Checking member {} with phi {}", neighbour, phi);
+              checkMember(neighbour);
+            }
+            return;
+          }
+        }
+
         long interval = memberTimeoutInMillis / GMSHealthMonitor.LOGICAL_INTERVAL;
         long lastTS = currentTime - nextNeighborTS.getTime();
         if (lastTS + interval >= memberTimeoutInMillis) {
@@ -386,6 +456,12 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     if (cTS != null && cTS.getTime() < timeStamp) {
       cTS.setTime(timeStamp);
     }
+    if (usePhiAccrual) {
+      PhiAccrualFailureDetector detector = phiDetectors.get(sender);
+      if (detector != null) {
+        detector.contact(timeStamp);
+      }
+    }
     if (suspectedMemberIds.containsKey(sender)) {
       memberUnsuspected(sender);
       setNextNeighbor(currentView, null);
@@ -393,6 +469,48 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   }
 
 
+  /**
+   * Record a periodic heartbeat from a member in its phi accrual history
+   */
+  private void heartbeatReceived(InternalDistributedMember sender, long timeStamp) {
+    PhiAccrualFailureDetector detector = phiDetectors.get(sender);
+    if (detector == null) {
+      detector = phiDetectors.computeIfAbsent(sender, k -> new PhiAccrualFailureDetector(
+          PHI_SAMPLE_SIZE, PHI_MIN_STD_DEVIATION, PHI_ACCEPTABLE_PAUSE));
+    }
+    detector.heartbeat(timeStamp);
+  }
+
+  private void recordPhis(long currentTime) {
+    for (Map.Entry<InternalDistributedMember, PhiAccrualFailureDetector> entry : phiDetectors
+        .entrySet()) {
+      PhiAccrualFailureDetector detector = entry.getValue();
+      if (detector.isAvailable()) {
+        stats.setFailureDetectionPhi(entry.getKey(), detector.phi(currentTime),
+            Math.round(detector.getIntervalMean()),
+            Math.round(detector.getIntervalStdDeviation()));
+      }
+    }
+  }
+
+  /** test method */
+  double getPhi(InternalDistributedMember member) {
+    PhiAccrualFailureDetector detector = phiDetectors.get(member);
+    return detector == null ? 0 : detector.phi(System.currentTimeMillis());
+  }
+
+  private static double getDouble(String property, double defaultValue) {
+    String value = System.getProperty(property);
+    if (value != null) {
+      try {
+        return Double.parseDouble(value);
+      } catch (NumberFormatException e) {
+        logger.warn("Ignoring {}={}, which is not a number", property, value);
+      }
+    }
+    return defaultValue;
+  }
+
   private HeartbeatRequestMessage constructHeartbeatRequestMessage(
       final InternalDistributedMember mbr) {
     final int reqId = requestId.getAndIncrement();
@@ -613,6 +731,9 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     checkExecutor = LoggingExecutors.newCachedThreadPool("Geode Failure Detection thread ", true);
     Monitor m = this.new Monitor(memberTimeout);
     long delay = memberTimeout / LOGICAL_INTERVAL;
+    if (usePhiAccrual) {
+      delay = Math.max(Math.min(delay, PHI_CHECK_INTERVAL), 1);
+    }
     monitorFuture = scheduler.scheduleAtFixedRate(m, delay, delay, TimeUnit.MILLISECONDS);
     serverSocketExecutor =
         LoggingExecutors.newCachedThreadPool("Geode Failure Detection Server thread ", true);
@@ -776,6 +897,14 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
         it.remove();
       }
     }
+    for (Iterator<InternalDistributedMember> it = phiDetectors.keySet().iterator(); it
+        .hasNext();) {
+      InternalDistributedMember mbr = it.next();
+      if (!newView.contains(mbr)) {
+        it.remove();
+        stats.removeFailureDetectionPhi(mbr);
+      }
+    }
     for (Iterator<InternalDistributedMember> it = suspectedMemberIds.keySet().iterator(); it
         .hasNext();) {
       if (!newView.contains(it.next())) {
@@ -861,6 +990,12 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     isStopping = false;
     services = s;
     memberTimeout = s.getConfig().getMemberTimeout();
+    String mode = System.getProperty(FAILURE_DETECTION_MODE_PROPERTY, TIMEOUT_MODE);
+    usePhiAccrual = PHI_ACCRUAL_MODE.equalsIgnoreCase(mode.trim());
+    if (!usePhiAccrual && !TIMEOUT_MODE.equalsIgnoreCase(mode.trim())) {
+      logger.warn("Unknown {} {}. Using {} failure detection.", FAILURE_DETECTION_MODE_PROPERTY,
+          mode, TIMEOUT_MODE);
+    }
     this.stats = services.getStatistics();
     services.getMessenger().addHandler(HeartbeatRequestMessage.class, this);
     services.getMessenger().addHandler(HeartbeatMessage.class, this);
@@ -1086,7 +1221,11 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
     }
     // we got heartbeat lets update timestamp
-    contactedBy(m.getSender(), System.currentTimeMillis());
+    long now = System.currentTimeMillis();
+    if (usePhiAccrual && m.getRequestId() < 0) {
+      heartbeatReceived(m.getSender(), now);
+    }
+    contactedBy(m.getSender(), now);
   }
 
   /**
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+/**
+ * Phi accrual failure detection for one member, as described in "The phi accrual failure
+ * detector" by Hayashibara et al.
+ * <p>
+ * The detector keeps the intervals between the last heartbeats received from the member and
+ * assumes they are normally distributed. Phi is the suspicion level that the member has failed,
+ * given the time since it was last heard from: a phi of 1 means the chance that a heartbeat will
+ * still arrive is 10%, a phi of 2 means 1%, a phi of 3 means 0.1% and so on. Members with steady
+ * heartbeats are suspected soon after they stop, while members whose heartbeats are irregular,
+ * due to GC or network pauses, are given more time.
+ * <p>
+ * Only periodic heartbeats are sampled. Other contact with the member postpones suspicion without
+ * changing the heartbeat history.
+ */
+public class PhiAccrualFailureDetector {
+
+  /** the number of intervals needed before phi is computed */
+  static final int MIN_SAMPLES = 3;
+
+  /** the intervals between heartbeats, oldest first starting at nextSample once it has wrapped */
+  private final long[] intervals;
+
+  private final long minStdDeviation;
+
+  private final long acceptablePause;
+
+  private int samples;
+
+  private int nextSample;
+
+  private long intervalSum;
+
+  private long intervalSquareSum;
+
+  /** the time of the last heartbeat, or -1 if none was received */
+  private long lastHeartbeat = -1;
+
+  /** the time of the last contact, including heartbeats */
+  private long lastContact = -1;
+
+  /**
+   * @param sampleSize the number of heartbeat intervals to keep
+   * @param minStdDeviation the least standard deviation of the intervals, in milliseconds. Keeps
+   *        phi from rising too fast when heartbeats are very regular.
+   * @param acceptablePause milliseconds added to the mean interval, for pauses the heartbeat
+   *        history does not show
+   */
+  public PhiAccrualFailureDetector(int sampleSize, long minStdDeviation, long acceptablePause) {
+    this.intervals = new long[Math.max(sampleSize, MIN_SAMPLES)];
+    this.minStdDeviation = Math.max(minStdDeviation, 1);
+    this.acceptablePause = acceptablePause;
+  }
+
+  /**
+   * Records a periodic heartbeat from the member.
+   */
+  public synchronized void heartbeat(long timeStamp) {
+    if (this.lastHeartbeat >= 0 && timeStamp > this.lastHeartbeat) {
+      addInterval(timeStamp - this.lastHeartbeat);
+    }
+    if (timeStamp > this.lastHeartbeat) {
+      this.lastHeartbeat = timeStamp;
+    }
+    contact(timeStamp);
+  }
+
+  /**
+   * Records other contact with the member.
+   */
+  public synchronized void contact(long timeStamp) {
+    if (timeStamp > this.lastContact) {
+      this.lastContact = timeStamp;
+    }
+  }
+
+  private void addInterval(long interval) {
+    if (this.samples == this.intervals.length) {
+      long oldest = this.intervals[this.nextSample];
+      this.intervalSum -= oldest;
+      this.intervalSquareSum -= oldest * oldest;
+    } else {
+      this.samples++;
+    }
+    this.intervals[this.nextSample] = interval;
+    this.nextSample = (this.nextSample + 1) % this.intervals.length;
+    this.intervalSum += interval;
+    this.intervalSquareSum += interval * interval;
+  }
+
+  /**
+   * Returns true if enough heartbeats have been received to compute phi.
+   */
+  public synchronized boolean isAvailable() {
+    return this.samples >= MIN_SAMPLES;
+  }
+
+  /**
+   * Returns the mean interval between heartbeats in milliseconds.
+   */
+  public synchronized double getIntervalMean() {
+    return this.samples == 0 ? 0 : (double) this.intervalSum / this.samples;
+  }
+
+  /**
+   * Returns the standard deviation of the intervals between heartbeats in milliseconds, but not
+   * less than the minimum standard deviation.
+   */
+  public synchronized double getIntervalStdDeviation() {
+    if (this.samples == 0) {
+      return this.minStdDeviation;
+    }
+    double mean = getIntervalMean();
+    double variance = (double) this.intervalSquareSum / this.samples - mean * mean;
+    return Math.max(Math.sqrt(Math.max(variance, 0)), this.minStdDeviation);
+  }
+
+  /**
+   * Returns the suspicion level of the member at the given time, or 0 if it is not available.
+   */
+  public synchronized double phi(long now) {
+    if (!isAvailable()) {
+      return 0;
+    }
+    return phi(now - this.lastContact, getIntervalMean() + this.acceptablePause,
+        getIntervalStdDeviation());
+  }
+
+  /**
+   * Returns -log10 of the chance that a heartbeat arrives after the given time, for normally
+   * distributed intervals. This uses a logistic approximation of the normal distribution, which is
+   * within 0.02% of it and does not lose precision in the tail like 1 - cdf does.
+   */
+  static double phi(long timeSinceLastContact, double mean, double stdDeviation) {
+    double y = (timeSinceLastContact - mean) / stdDeviation;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    if (timeSinceLastContact > mean) {
+      return -Math.log10(e / (1.0 + e));
+    } else {
+      return -Math.log10(1.0 - 1.0 / (1.0 + e));
+    }
+  }
+}
@@ -89,6 +89,7 @@ import org.apache.geode.internal.cache.xmlcache.CacheXmlGenerator;
 import org.apache.geode.internal.logging.LoggingThread;
 import org.apache.geode.internal.logging.log4j.AlertAppender;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.offheap.Releasable;
 import org.apache.geode.internal.shared.StringPrintWriter;
 import org.apache.geode.internal.tcp.ConnectExceptions;
 import org.apache.geode.internal.tcp.MemberShunnedException;
@@ -1096,6 +1097,10 @@ public class GMSMembershipManager implements MembershipManager, Manager {
         logger.trace(LogMarker.DISTRIBUTION_VIEWS_VERBOSE,
             "Membership: Ignoring message from shunned member <{}>:{}", m, msg);
       }
+      if (msg instanceof Releasable) {
+        // the message may hold off-heap memory that it would have released when processed
+        ((Releasable) msg).release();
+      }
       throw new MemberShunnedException(m);
     }
 
@@ -71,6 +71,7 @@ import org.apache.geode.distributed.internal.StartupMessage;
 import org.apache.geode.distributed.internal.StartupResponseMessage;
 import org.apache.geode.distributed.internal.StartupResponseWithVersionMessage;
 import org.apache.geode.distributed.internal.WaitForViewInstallation;
+import org.apache.geode.distributed.internal.locks.DLockNameBatch;
 import org.apache.geode.distributed.internal.locks.DLockQueryProcessor;
 import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.DLockRecoverGrantorMessage;
 import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.DLockRecoverGrantorReplyMessage;
@@ -937,6 +938,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
     registerDSFID(ABORT_BACKUP_REQUEST, AbortBackupRequest.class);
+    registerDSFID(DLOCK_NAME_BATCH, DLockNameBatch.class);
   }
 
   /**
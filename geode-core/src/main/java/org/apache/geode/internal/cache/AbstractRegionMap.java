@@ -78,6 +78,7 @@ import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.LockFreeEntryConcurrentHashMap;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -115,7 +116,8 @@ public abstract class AbstractRegionMap
     _setAttributes(attr);
     setOwner(owner);
     setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
-        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator(),
+        attr.lockFreeEntryMap));
 
     boolean isDisk;
     boolean withVersioning;
@@ -140,8 +142,12 @@ public abstract class AbstractRegionMap
 
   private ConcurrentMapWithReusableEntries<Object, Object> createConcurrentMapWithReusableEntries(
       int initialCapacity, float loadFactor, int concurrencyLevel, boolean isIdentityMap,
-      CustomEntryConcurrentHashMap.HashEntryCreator<Object, Object> entryCreator) {
-    if (entryCreator != null) {
+      CustomEntryConcurrentHashMap.HashEntryCreator<Object, Object> entryCreator,
+      boolean lockFreeEntryMap) {
+    if (lockFreeEntryMap) {
+      return new LockFreeEntryConcurrentHashMap<>(initialCapacity, loadFactor, concurrencyLevel,
+          isIdentityMap, entryCreator);
+    } else if (entryCreator != null) {
       return new CustomEntryConcurrentHashMap<>(initialCapacity, loadFactor, concurrencyLevel,
           isIdentityMap, entryCreator);
     } else {
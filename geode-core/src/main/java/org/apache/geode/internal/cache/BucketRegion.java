@@ -353,6 +353,11 @@ public class BucketRegion extends DistributedRegion implements Bucket {
     return eventId;
   }
 
+  @Override
+  boolean canReuseEntryEvents() {
+    return false;
+  }
+
   @Override
   protected boolean needsTombstoneGCKeysForClients(EventID eventID, FilterInfo clientRouting) {
     if (eventID == null) {
@@ -2143,6 +2148,10 @@ public class BucketRegion extends DistributedRegion implements Bucket {
       this.partitionedRegion.getPrStats().incDataStoreEntryCount(-sizeBeforeClear);
       prDs.updateMemoryStats(-oldMemValue);
     }
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.recalculate();
+    }
   }
 
   @Override
@@ -2159,30 +2168,50 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   @Override
   public void updateSizeOnPut(Object key, int oldSize, int newSize) {
     updateBucket2Size(oldSize, newSize, SizeOp.UPDATE);
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.updated(oldSize, newSize);
+    }
   }
 
   @Override
   public void updateSizeOnCreate(Object key, int newSize) {
     this.partitionedRegion.getPrStats().incDataStoreEntryCount(1);
     updateBucket2Size(0, newSize, SizeOp.CREATE);
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.created(key, newSize);
+    }
   }
 
   @Override
   public void updateSizeOnRemove(Object key, int oldSize) {
     this.partitionedRegion.getPrStats().incDataStoreEntryCount(-1);
     updateBucket2Size(oldSize, 0, SizeOp.DESTROY);
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.removed(key, oldSize);
+    }
   }
 
   @Override
   public int updateSizeOnEvict(Object key, int oldSize) {
     int newDiskSize = oldSize;
     updateBucket2Size(oldSize, newDiskSize, SizeOp.EVICT);
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.evicted(oldSize);
+    }
     return newDiskSize;
   }
 
   @Override
   public void updateSizeOnFaultIn(Object key, int newMemSize, int oldDiskSize) {
     updateBucket2Size(oldDiskSize, newMemSize, SizeOp.FAULT_IN);
+    RegionMemoryAccounting memoryAccounting = getMemoryAccounting();
+    if (memoryAccounting != null) {
+      memoryAccounting.faultedIn(newMemSize);
+    }
   }
 
   @Override
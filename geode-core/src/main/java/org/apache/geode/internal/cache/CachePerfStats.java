@@ -157,6 +157,10 @@ public class CachePerfStats {
   protected static final int compressionPreCompressedBytesId;
   protected static final int compressionPostCompressedBytesId;
 
+  protected static final int reserializationsAvoidedId;
+  protected static final int reserializationsId;
+  protected static final int serializedValueCacheBytesId;
+
   /** The Statistics object that we delegate most behavior to */
   protected final Statistics stats;
 
@@ -324,6 +328,12 @@ public class CachePerfStats {
         "The total number of bytes before compressing.";
     final String compressionPostCompressedBytesDesc =
         "The total number of bytes after compressing.";
+    final String reserializationsAvoidedDesc =
+        "The total number of times a deserialized value was sent using serialized bytes kept for it instead of serializing it again.";
+    final String reserializationsDesc =
+        "The total number of times a deserialized value had to be serialized again because its serialized bytes were not kept.";
+    final String serializedValueCacheBytesDesc =
+        "The number of bytes used to keep the serialized form of deserialized values.";
     final String evictByCriteria_evictionsDesc = "The total number of entries evicted";// total
                                                                                        // actual
                                                                                        // evictions
@@ -494,6 +504,11 @@ public class CachePerfStats {
             f.createLongCounter("preCompressedBytes", compressionPreCompresssedBytesDesc, "bytes"),
             f.createLongCounter("postCompressedBytes", compressionPostCompressedBytesDesc, "bytes"),
 
+            f.createLongCounter("reserializationsAvoided", reserializationsAvoidedDesc,
+                "operations"),
+            f.createLongCounter("reserializations", reserializationsDesc, "operations"),
+            f.createLongGauge("serializedValueCacheBytes", serializedValueCacheBytesDesc, "bytes"),
+
             f.createLongCounter("evictByCriteria_evictions", evictByCriteria_evictionsDesc,
                 "operations"),
             f.createLongCounter("evictByCriteria_evictionTime", evictByCriteria_evictionTimeDesc,
@@ -625,6 +640,10 @@ public class CachePerfStats {
     compressionDecompressionsId = type.nameToId("decompressions");
     compressionPreCompressedBytesId = type.nameToId("preCompressedBytes");
     compressionPostCompressedBytesId = type.nameToId("postCompressedBytes");
+
+    reserializationsAvoidedId = type.nameToId("reserializationsAvoided");
+    reserializationsId = type.nameToId("reserializations");
+    serializedValueCacheBytesId = type.nameToId("serializedValueCacheBytes");
   }
 
   //////////////////////// Constructors ////////////////////////
@@ -642,6 +661,12 @@ public class CachePerfStats {
    */
   public CachePerfStats(StatisticsFactory factory) {
     stats = factory.createAtomicStatistics(type, "cachePerfStats");
+    SerializedValueCache serializedValueCache = SerializedValueCache.getInstance();
+    if (serializedValueCache != null) {
+      stats.setLongSupplier(reserializationsAvoidedId, serializedValueCache::getHits);
+      stats.setLongSupplier(reserializationsId, serializedValueCache::getMisses);
+      stats.setLongSupplier(serializedValueCacheBytesId, serializedValueCache::getBytes);
+    }
   }
 
   /**
@@ -899,6 +924,18 @@ public class CachePerfStats {
     return stats.getLong(compressionPostCompressedBytesId);
   }
 
+  public long getReserializationsAvoided() {
+    return stats.getLong(reserializationsAvoidedId);
+  }
+
+  public long getReserializations() {
+    return stats.getLong(reserializationsId);
+  }
+
+  public long getSerializedValueCacheBytes() {
+    return stats.getLong(serializedValueCacheBytesId);
+  }
+
   ////////////////////// Updating Stats //////////////////////
 
   public long startCompression() {
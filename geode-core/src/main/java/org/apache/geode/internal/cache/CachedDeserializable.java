@@ -79,6 +79,14 @@ public interface CachedDeserializable extends Sizeable {
    */
   Object getValue();
 
+  /**
+   * Returns the serialized form of the value as a byte[] if it can be had without serializing the
+   * value again, otherwise returns the same as {@link #getValue()}.
+   */
+  default Object getValuePreferringSerialized() {
+    return getValue();
+  }
+
   /**
    * Write out the value contained in this instance to the stream as a byte array (versus serialized
    * form). Anything reading from the stream will have to perform two operations to reconstitute the
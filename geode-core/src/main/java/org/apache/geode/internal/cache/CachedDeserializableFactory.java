@@ -37,6 +37,19 @@ public class CachedDeserializableFactory {
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PREFER_SERIALIZED");
   public static boolean STORE_ALL_VALUE_FORMS =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "STORE_ALL_VALUE_FORMS");
+  /**
+   * When true, small serialized values of immutable types such as Integer, Long and short Strings
+   * are stored on the heap in their deserialized form instead of in a CachedDeserializable, saving
+   * the wrapper and its byte array for each entry.
+   */
+  public static boolean INLINE_SMALL_VALUES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "INLINE_SMALL_VALUES");
+
+  /**
+   * The largest serialized size of a value that {@link #inlineSmallValue(Object)} stores
+   * deserialized.
+   */
+  static final int MAXIMUM_INLINE_VALUE_SIZE = 16;
 
   /**
    * Creates and returns an instance of CachedDeserializable that contains the specified byte array.
@@ -55,6 +68,38 @@ public class CachedDeserializableFactory {
     }
   }
 
+  /**
+   * Returns the deserialized form of the given value if it is a CachedDeserializable holding a
+   * small serialized Boolean, Character, number or String, otherwise returns the value. Since those
+   * types are immutable and serialize to the same bytes every time, the deserialized form can be
+   * stored in place of the wrapper without changing what readers of the entry see. Small Integers,
+   * Longs and Booleans are also shared between entries by the JDK's caches of their instances.
+   */
+  public static Object inlineSmallValue(Object value) {
+    if (!INLINE_SMALL_VALUES || !PREFER_DESERIALIZED || STORE_ALL_VALUE_FORMS
+        || !(value instanceof VMCachedDeserializable)) {
+      return value;
+    }
+    Object form = ((VMCachedDeserializable) value).getValue();
+    if (!(form instanceof byte[])) {
+      return value;
+    }
+    byte[] serializedValue = (byte[]) form;
+    if (serializedValue.length == 0 || serializedValue.length > MAXIMUM_INLINE_VALUE_SIZE
+        || !isInlineType(serializedValue[0])) {
+      return value;
+    }
+    return EntryEventImpl.deserialize(serializedValue);
+  }
+
+  private static boolean isInlineType(byte header) {
+    return header == DSCODE.BOOLEAN.toByte() || header == DSCODE.CHARACTER.toByte()
+        || header == DSCODE.BYTE.toByte() || header == DSCODE.SHORT.toByte()
+        || header == DSCODE.INTEGER.toByte() || header == DSCODE.LONG.toByte()
+        || header == DSCODE.FLOAT.toByte() || header == DSCODE.DOUBLE.toByte()
+        || header == DSCODE.STRING.toByte() || header == DSCODE.STRING_BYTES.toByte();
+  }
+
   private static boolean isPdxEncoded(byte[] v) {
     // assert v != null;
     if (v.length > 0) {
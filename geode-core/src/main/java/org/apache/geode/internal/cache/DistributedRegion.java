@@ -713,6 +713,11 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
     return !doesNotDistribute() && super.shouldSyncForCrashedMember(id);
   }
 
+  @Override
+  boolean canReuseEntryEvents() {
+    return super.canReuseEntryEvents() && !requiresReliabilityCheck();
+  }
+
   @Override
   public boolean requiresReliabilityCheck() {
     return this.requiresReliabilityCheck;
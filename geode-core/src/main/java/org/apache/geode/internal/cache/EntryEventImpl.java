@@ -181,6 +181,14 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
 
   private transient boolean isPendingSecondaryExpireDestroy = false;
 
+  /** true if this event was created by {@link #createReusable} */
+  private transient boolean reusable = false;
+
+  /**
+   * The recycled event of each thread that {@link #createReusable} hands out next.
+   */
+  private static final ThreadLocal<EntryEventImpl> recycledEvent = new ThreadLocal<>();
+
   public static final Object SUSPECT_TOKEN = new Object();
 
   public EntryEventImpl() {
@@ -401,6 +409,52 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
         distributedMember, generateCallbacks, initializeId);
   }
 
+  /**
+   * Creates an EntryEventImpl like {@link #create(InternalRegion, Operation, Object, Object,
+   * Object, boolean, DistributedMember)} with originRemote false, but reuses the event the current
+   * thread last passed to {@link #recycle()} if there is one. Only use this for operations that
+   * call recycle when done and for regions whose events never outlive the operation. The region
+   * must not be a partitioned region since the key info of the event is reused too.
+   */
+  @Retained
+  public static EntryEventImpl createReusable(InternalRegion region, Operation op, Object key,
+      @Retained(ENTRY_EVENT_NEW_VALUE) Object newValue, Object callbackArgument,
+      DistributedMember distributedMember) {
+    EntryEventImpl event = recycledEvent.get();
+    if (event == null) {
+      event = create(region, op, key, newValue, callbackArgument, false, distributedMember);
+    } else {
+      recycledEvent.set(null);
+      event.reinitialize(region, op, key, newValue, callbackArgument, distributedMember);
+    }
+    event.reusable = true;
+    return event;
+  }
+
+  /**
+   * Does what the constructor used by {@link #createReusable} does to a recycled event.
+   */
+  private void reinitialize(InternalRegion region, Operation op, Object key, Object newVal,
+      Object callbackArgument, DistributedMember distributedMember) {
+    this.region = region;
+    this.op = op;
+    this.keyInfo.setKey(key);
+    this.keyInfo.setCallbackArg(callbackArgument);
+    this.keyInfo.setBucketId(KeyInfo.UNKNOWN_BUCKET);
+
+    if (!Token.isInvalid(newVal)) {
+      basicSetNewValue(newVal, false);
+    }
+
+    this.txId = region.getTXId();
+    if (newVal == Token.LOCAL_INVALID) {
+      setLocalInvalid(true);
+    }
+    setOriginRemote(false);
+    setGenerateCallbacks(true);
+    this.distributedMember = distributedMember;
+  }
+
   /**
    * Creates a PutAllEvent given the distributed operation, the region, and the entry data.
    *
@@ -2818,6 +2872,63 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     }
   }
 
+  public boolean isReusable() {
+    return this.reusable;
+  }
+
+  /**
+   * Releases this event. If it was created by {@link #createReusable} it is also cleared and kept
+   * for the next event the current thread creates with createReusable. The caller must be the
+   * creator of the event and nothing may refer to the event once this is called.
+   */
+  @Released({ENTRY_EVENT_NEW_VALUE, ENTRY_EVENT_OLD_VALUE})
+  public void recycle() {
+    release();
+    if (!this.reusable || getClass() != EntryEventImpl.class
+        || this.keyInfo.getClass() != KeyInfo.class || this.keyInfo.getValue() != null) {
+      return;
+    }
+    clearForReuse();
+    recycledEvent.set(this);
+  }
+
+  /**
+   * Sets every field back to its initial value, except keyInfo which is cleared for reuse.
+   */
+  void clearForReuse() {
+    this.region = null;
+    this.re = null;
+    this.keyInfo.setKey(null);
+    this.keyInfo.setCallbackArg(null);
+    this.eventID = null;
+    this.newValue = null;
+    this.cachedSerializedNewValue = null;
+    this.oldValue = null;
+    this.eventFlags = 0x0000;
+    this.txId = null;
+    this.op = null;
+    this.eventType = null;
+    this.putAllOp = null;
+    this.removeAllOp = null;
+    this.distributedMember = null;
+    this.causedByMessage = null;
+    this.context = null;
+    this.deltaBytes = null;
+    this.filterInfo = null;
+    this.newValueBytes = null;
+    this.oldValueBytes = null;
+    this.versionTag = null;
+    this.isEvicted = false;
+    this.isPendingSecondaryExpireDestroy = false;
+    this.reusable = false;
+    this.readOldValueFromDisk = false;
+    this.newValueBucketSize = 0;
+    this.tailKey = -1L;
+    this.nextRegionVersion = -1L;
+    this.invokeCallbacksThread = null;
+    this.offHeapOk = true;
+  }
+
   /**
    * Return true if this EntryEvent may have off-heap references.
    */
@@ -110,6 +110,12 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
    */
   private static volatile byte[] client_side_event_identity = null;
 
+  /**
+   * the identity of a member that does not have its port yet, such as a loner. It is not kept in
+   * client_side_event_identity since it has to be serialized again once the port is known.
+   */
+  private static volatile PortlessIdentity portlessIdentity = null;
+
   /**
    * An array containing the helper class objects which are used to create optimized byte array for
    * an eventID , which can be sent on the network
@@ -153,6 +159,7 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
 
   public static void unsetDS() {
     system = null;
+    portlessIdentity = null;
   }
 
   /**
@@ -550,12 +557,20 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
           "Attempting to handshake with CacheServer before creating DistributedSystem and Cache.");
     }
     if (EventID.system != sys) {
+      PortlessIdentity portless = portlessIdentity;
+      if (portless != null && portless.system == sys
+          && portless.member == sys.getDistributedMember()
+          && ((InternalDistributedMember) portless.member).getPort() == 0) {
+        return portless.identity;
+      }
       // DS already exists... make sure it's for current DS connection
       EventID.systemMemberId = sys.getDistributedMember();
+      byte[] identity;
       try {
         HeapDataOutputStream hdos = new HeapDataOutputStream(256, Version.CURRENT);
         ((InternalDistributedMember) EventID.systemMemberId).writeEssentialData(hdos);
-        client_side_event_identity = hdos.toByteArray();
+        identity = hdos.toByteArray();
+        client_side_event_identity = identity;
       } catch (IOException ioe) {
         throw new InternalGemFireException(
             "Unable to serialize identity",
@@ -563,12 +578,29 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
       }
       if (((InternalDistributedMember) EventID.systemMemberId).getPort() != 0) {
         EventID.system = sys;
+        portlessIdentity = null;
+      } else {
+        portlessIdentity =
+            new PortlessIdentity(sys, EventID.systemMemberId, identity);
       }
+      return identity;
     }
     return EventID.client_side_event_identity;
 
   }
 
+  private static class PortlessIdentity {
+    private final DistributedSystem system;
+    private final DistributedMember member;
+    private final byte[] identity;
+
+    PortlessIdentity(DistributedSystem system, DistributedMember member, byte[] identity) {
+      this.system = system;
+      this.member = member;
+      this.identity = identity;
+    }
+  }
+
   /**
    * Returns the number of bytes needed to store the given value. This calculation is needed to
    * create the optimized byte-array for an eventId, which will be sent across the network
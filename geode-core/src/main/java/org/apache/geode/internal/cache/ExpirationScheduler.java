@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
@@ -23,10 +24,18 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * ExpirationScheduler uses a single instance of java.util.Timer (and therefore a single thread) per
  * VM to schedule and execute region and entry expiration tasks.
+ *
+ * <p>
+ * When the gemfire.EXPIRY_TIMING_WHEEL_TICK_MS system property is set, entry expiration tasks are
+ * scheduled on an {@link ExpiryTimingWheel} with ticks of that many milliseconds instead, and the
+ * due tasks are expired in batches by gemfire.EXPIRY_TIMING_WHEEL_THREADS threads. Entries then
+ * expire up to one tick late, but adding and cancelling their tasks no longer waits for the lock of
+ * the timer. Region expiration tasks always use the timer.
  */
 
 public class ExpirationScheduler {
@@ -37,8 +46,30 @@ public class ExpirationScheduler {
   private static final int MAX_PENDING_CANCELS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PENDING_CANCELS", 10000).intValue();
 
+  private static final long TIMING_WHEEL_TICK_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_TICK_MS", 0);
+
+  private static final int TIMING_WHEEL_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_THREADS",
+          Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+  /** Schedules the entry expiration tasks if it is not null */
+  private final ExpiryTimingWheel timingWheel;
+
+  private final ExecutorService timingWheelExecutor;
+
   public ExpirationScheduler(InternalDistributedSystem ds) {
     this.timer = new SystemTimer(ds, true);
+    if (TIMING_WHEEL_TICK_MILLIS > 0) {
+      this.timingWheelExecutor =
+          LoggingExecutors.newFixedThreadPool("Expiry Wheel ", true, TIMING_WHEEL_THREADS);
+      this.timingWheel =
+          new ExpiryTimingWheel(TIMING_WHEEL_TICK_MILLIS, System::nanoTime, timingWheelExecutor);
+      this.timingWheel.start();
+    } else {
+      this.timingWheelExecutor = null;
+      this.timingWheel = null;
+    }
   }
 
   public void forcePurge() {
@@ -91,11 +122,28 @@ public class ExpirationScheduler {
 
   /** schedules the given entry expiration task and returns true; returns false if not scheduled */
   public boolean addEntryExpiryTask(EntryExpiryTask task) {
-    return addExpiryTask(task) != null;
+    if (timingWheel == null) {
+      return addExpiryTask(task) != null;
+    }
+    try {
+      long expiryMillis = task.getExpiryMillis();
+      if (logger.isTraceEnabled()) {
+        logger.trace("Scheduling  {}  to fire in  {}  ms", task, expiryMillis);
+      }
+      return timingWheel.addTask(task, expiryMillis);
+    } catch (EntryNotFoundException e) {
+      // ignore - there are unsynchronized paths that allow an entry to
+      // be destroyed out from under us.
+      return false;
+    }
   }
 
   /** @see java.util.Timer#cancel() */
   public void cancel() {
     timer.cancel();
+    if (timingWheel != null) {
+      timingWheel.cancel();
+      timingWheelExecutor.shutdown();
+    }
   }
 }
@@ -16,6 +16,7 @@ package org.apache.geode.internal.cache;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.apache.logging.log4j.Logger;
 
@@ -45,6 +46,22 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
 
   private static final ExecutorService executor;
 
+  private static final int NOT_ON_WHEEL = 0;
+  private static final int ON_WHEEL = 1;
+  private static final int OFF_WHEEL = 2;
+
+  private static final AtomicIntegerFieldUpdater<ExpiryTask> wheelStateUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(ExpiryTask.class, "wheelState");
+
+  /**
+   * Whether this task waits on an {@link ExpiryTimingWheel}, which unlike the timer cannot see
+   * that a task has been cancelled.
+   */
+  private volatile int wheelState = NOT_ON_WHEEL;
+
+  /** The tick this task is due at; only used by the thread of the timing wheel */
+  long wheelDeadline;
+
   static {
     // default to inline expiry to fix bug 37115
     int nThreads = Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_THREADS", 0);
@@ -57,7 +74,7 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
     }
   }
 
-  private static void doExpiryThread(Runnable command) {
+  static void doExpiryThread(Runnable command) {
     ConnectionTable.threadWantsSharedResources();
     try {
       command.run();
@@ -301,6 +318,9 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
   @Override
   public boolean cancel() {
     boolean superCancel = super.cancel();
+    if (wheelStateUpdater.getAndSet(this, OFF_WHEEL) == ON_WHEEL) {
+      superCancel = true;
+    }
     LocalRegion lr = getLocalRegion();
     if (lr != null) {
       if (superCancel) {
@@ -310,6 +330,26 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
     return superCancel;
   }
 
+  /**
+   * Marks this task as waiting on a timing wheel. Returns false if it has already been cancelled.
+   */
+  final boolean putOnWheel() {
+    return wheelStateUpdater.compareAndSet(this, NOT_ON_WHEEL, ON_WHEEL);
+  }
+
+  /**
+   * Takes this task off the timing wheel so that it can be run. Returns false if it has been
+   * cancelled.
+   */
+  final boolean takeOffWheel() {
+    return wheelStateUpdater.compareAndSet(this, ON_WHEEL, OFF_WHEEL);
+  }
+
+  /** Returns true if this task waits on a timing wheel and has not been cancelled */
+  final boolean isOnWheel() {
+    return wheelState == ON_WHEEL;
+  }
+
   /**
    * An ExpiryTask is sent run() to perform its task. Note that this run() method should never throw
    * an exception - otherwise, it takes out the java.util.Timer thread, causing an exception
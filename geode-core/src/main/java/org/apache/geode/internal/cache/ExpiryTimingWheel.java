@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThread;
+
+/**
+ * ExpiryTimingWheel schedules expiration tasks on a hierarchical timing wheel. Time is divided into
+ * ticks of a fixed number of milliseconds, and a task is put in the bucket of the tick it is due
+ * at or, when that is far away, in a bucket of a coarser wheel whose buckets span many ticks. Each
+ * time a wheel has gone round, the next bucket of the coarser wheel is spread over the finer
+ * wheels. Adding a task therefore takes the same time however many tasks are waiting, where a
+ * java.util.Timer keeps all of them in one heap behind one lock.
+ *
+ * <p>
+ * Tasks are handed to the wheel through a queue and only the thread of the wheel touches the
+ * buckets. At each tick that thread takes the tasks that are due, skips those that have been
+ * cancelled since they were added, and runs the others in batches on the given executor. A task
+ * may run up to one tick after it is due, but never before.
+ */
+class ExpiryTimingWheel {
+  private static final Logger logger = LogService.getLogger();
+
+  static final int BUCKET_BITS = 6;
+
+  static final int BUCKETS = 1 << BUCKET_BITS;
+
+  private static final int BUCKET_MASK = BUCKETS - 1;
+
+  /** Six wheels of 64 buckets cover 2^36 ticks */
+  static final int WHEELS = 6;
+
+  private static final long MAXIMUM_DELAY_TICKS = (1L << (BUCKET_BITS * WHEELS)) - 1;
+
+  /** Keeps the deadline of a task from overflowing */
+  private static final long MAXIMUM_DELAY_NANOS = Long.MAX_VALUE / 4;
+
+  /** The number of due tasks run one after the other by one thread of the executor */
+  static final int BATCH_SIZE = 256;
+
+  private final long tickNanos;
+
+  private final LongSupplier nanoClock;
+
+  private final long startNanos;
+
+  private final Executor executor;
+
+  private final ConcurrentLinkedQueue<ExpiryTask> addedTasks = new ConcurrentLinkedQueue<>();
+
+  /** The buckets of each wheel, each created when a task is first put in it */
+  private final List<ExpiryTask>[][] buckets;
+
+  /** The next tick whose tasks have not been expired yet */
+  private long nextTick;
+
+  private volatile boolean cancelled;
+
+  private Thread thread;
+
+  /**
+   * @param tickMillis the length of a tick
+   * @param nanoClock returns the current time as {@link System#nanoTime()} does
+   * @param executor runs the batches of due tasks
+   */
+  @SuppressWarnings("unchecked")
+  ExpiryTimingWheel(long tickMillis, LongSupplier nanoClock, Executor executor) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive but was " + tickMillis);
+    }
+    this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+    this.nanoClock = nanoClock;
+    this.startNanos = nanoClock.getAsLong();
+    this.executor = executor;
+    this.buckets = (List<ExpiryTask>[][]) new List<?>[WHEELS][BUCKETS];
+  }
+
+  /**
+   * Starts the thread that expires the due tasks at each tick.
+   */
+  synchronized void start() {
+    if (thread == null) {
+      thread = new LoggingThread("Expiry Timing Wheel", this::runTicks);
+      thread.start();
+    }
+  }
+
+  /**
+   * Stops the thread of the wheel. Tasks that are waiting are not run, and tasks added afterwards
+   * are refused.
+   */
+  void cancel() {
+    cancelled = true;
+    Thread thread;
+    synchronized (this) {
+      thread = this.thread;
+    }
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Schedules the task to run once the given number of milliseconds have passed. Returns false if
+   * the task has been cancelled or the wheel has been stopped.
+   */
+  boolean addTask(ExpiryTask task, long delayMillis) {
+    if (cancelled || !task.putOnWheel()) {
+      return false;
+    }
+    long delayNanos =
+        Math.min(MILLISECONDS.toNanos(Math.max(delayMillis, 0)), MAXIMUM_DELAY_NANOS);
+    // round up so that the task never runs before it is due
+    task.wheelDeadline = (elapsedNanos() + delayNanos + tickNanos - 1) / tickNanos;
+    addedTasks.add(task);
+    return true;
+  }
+
+  private long elapsedNanos() {
+    return nanoClock.getAsLong() - startNanos;
+  }
+
+  private void runTicks() {
+    while (!cancelled) {
+      LockSupport.parkNanos(this, tickNanos - elapsedNanos() % tickNanos);
+      if (cancelled) {
+        return;
+      }
+      try {
+        expireDueTasks();
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        // If this ever returns, rethrow the error. We're poisoned
+        // now, so don't let this thread continue.
+        throw err;
+      } catch (Throwable t) {
+        // Whenever you catch Error or Throwable, you must also
+        // catch VirtualMachineError (see above). However, there is
+        // _still_ a possibility that you are dealing with a cascading
+        // error condition, so you also need to check to see if the JVM
+        // is still usable:
+        SystemFailure.checkFailure();
+        logger.fatal("Exception in expiration timing wheel", t);
+      }
+    }
+  }
+
+  /**
+   * Moves the added tasks into the wheels, expires every tick that has passed, and hands the tasks
+   * that are due to the executor. Returns the number of tasks that were due.
+   */
+  synchronized int expireDueTasks() {
+    List<ExpiryTask> dueTasks = new ArrayList<>();
+    for (ExpiryTask task; (task = addedTasks.poll()) != null;) {
+      schedule(task, dueTasks);
+    }
+    long currentTick = elapsedNanos() / tickNanos;
+    while (nextTick <= currentTick) {
+      expireTick(dueTasks);
+      nextTick++;
+    }
+    runInBatches(dueTasks);
+    return dueTasks.size();
+  }
+
+  private void expireTick(List<ExpiryTask> dueTasks) {
+    // when the finer wheels have gone round, spread the next bucket of the coarser wheel over them
+    for (int wheel = 1; wheel < WHEELS && (nextTick & ((1L << (BUCKET_BITS * wheel)) - 1)) == 0;
+        wheel++) {
+      List<ExpiryTask> bucket = takeBucket(wheel, bucketIndex(nextTick, wheel));
+      if (bucket != null) {
+        for (ExpiryTask task : bucket) {
+          if (task.isOnWheel()) {
+            schedule(task, dueTasks);
+          }
+        }
+      }
+    }
+    List<ExpiryTask> bucket = takeBucket(0, bucketIndex(nextTick, 0));
+    if (bucket != null) {
+      for (ExpiryTask task : bucket) {
+        schedule(task, dueTasks);
+      }
+    }
+  }
+
+  /**
+   * Puts the task in the bucket of the finest wheel that reaches its deadline, or in the due tasks
+   * if its deadline has passed.
+   */
+  private void schedule(ExpiryTask task, List<ExpiryTask> dueTasks) {
+    long delay = task.wheelDeadline - nextTick;
+    if (delay <= 0) {
+      if (task.takeOffWheel()) {
+        dueTasks.add(task);
+      }
+      return;
+    }
+    // a task due further away than the wheels reach goes round again when it comes up
+    long deadline = nextTick + Math.min(delay, MAXIMUM_DELAY_TICKS);
+    int wheel = 0;
+    while (delay >= 1L << (BUCKET_BITS * (wheel + 1)) && wheel < WHEELS - 1) {
+      wheel++;
+    }
+    int index = bucketIndex(deadline, wheel);
+    List<ExpiryTask> bucket = buckets[wheel][index];
+    if (bucket == null) {
+      bucket = new ArrayList<>();
+      buckets[wheel][index] = bucket;
+    }
+    bucket.add(task);
+  }
+
+  private static int bucketIndex(long tick, int wheel) {
+    return (int) (tick >>> (BUCKET_BITS * wheel)) & BUCKET_MASK;
+  }
+
+  private List<ExpiryTask> takeBucket(int wheel, int index) {
+    List<ExpiryTask> bucket = buckets[wheel][index];
+    buckets[wheel][index] = null;
+    return bucket;
+  }
+
+  private void runInBatches(List<ExpiryTask> dueTasks) {
+    for (int start = 0; start < dueTasks.size(); start += BATCH_SIZE) {
+      List<ExpiryTask> batch =
+          dueTasks.subList(start, Math.min(start + BATCH_SIZE, dueTasks.size()));
+      try {
+        executor.execute(() -> ExpiryTask.doExpiryThread(() -> {
+          for (ExpiryTask task : batch) {
+            task.run();
+          }
+        }));
+      } catch (RejectedExecutionException e) {
+        // the executor has been shut down because the cache is closing
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of tasks that have been added or are waiting in a bucket, including those
+   * cancelled since they were added.
+   */
+  synchronized int size() {
+    int size = addedTasks.size();
+    for (List<ExpiryTask>[] wheel : buckets) {
+      for (List<ExpiryTask> bucket : wheel) {
+        if (bucket != null) {
+          size += bucket.size();
+        }
+      }
+    }
+    return size;
+  }
+}
@@ -70,6 +70,11 @@ public class HARegion extends DistributedRegion {
     return false;
   }
 
+  @Override
+  boolean canReuseEntryEvents() {
+    return false;
+  }
+
   @Override
   public boolean doesNotDistribute() {
     return true;
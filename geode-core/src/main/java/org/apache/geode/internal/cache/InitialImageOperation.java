@@ -22,17 +22,24 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
@@ -131,6 +138,20 @@ public class InitialImageOperation {
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAX_PARALLEL_GIIS", 5)
           .intValue();
 
+  /**
+   * Number of series an image provider splits a full image into. Each series is packed and sent by
+   * its own thread, taking batches of entries from a single iteration of the region. The chunks of
+   * all series share the CHUNK_PERMITS of the request.
+   */
+  public static int PARALLEL_SERIES =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.PARALLEL_SERIES", 1)
+          .intValue();
+
+  /**
+   * Minimum number of entries for each series, so that small regions are sent as one series
+   */
+  static final int PARALLEL_SERIES_MIN_ENTRIES = 10000;
+
   /**
    * the region we are fetching
    */
@@ -320,7 +341,7 @@ public class InitialImageOperation {
       if (FORCE_FULL_GII || recipient.getVersionObject().compareTo(Version.GFE_80) < 0) {
         allowDeltaGII = false;
       }
-      Set keysOfUnfinishedOps = null;
+      Set<Object> keysOfUnfinishedOps = null;
       RegionVersionVector received_rvv = null;
       RegionVersionVector remote_rvv = null;
       if (this.region.getConcurrencyChecksEnabled()
@@ -1053,12 +1074,13 @@ public class InitialImageOperation {
    * @param localRVV RVV recovered from disk
    * @return set for keys of unfinished operations.
    */
-  protected Set processReceivedRVV(RegionVersionVector remoteRVV, RegionVersionVector localRVV) {
+  protected Set<Object> processReceivedRVV(RegionVersionVector remoteRVV,
+      RegionVersionVector localRVV) {
     if (remoteRVV == null) {
       return null;
     }
     // calculate keys for unfinished ops
-    HashSet keys = new HashSet();
+    HashSet<Object> keys = new HashSet<>();
     if (this.region.getDataPolicy().withPersistence()
         && localRVV.isNewerThanOrCanFillExceptionsFor(remoteRVV)) {
       // only search for unfinished keys when localRVV has something newer
@@ -1561,7 +1583,7 @@ public class InitialImageOperation {
     protected transient boolean severeAlertEnabled;
 
     /* key list for unfinished operations */
-    protected Set unfinishedKeys;
+    protected Set<Object> unfinishedKeys;
 
     /** The versions in which this message was modified */
     private static final Version[] dsfidVersions = null;
@@ -1663,9 +1685,6 @@ public class InitialImageOperation {
           }
         }
 
-        final int numSeries = 1; // @todo ericz parallelize using series
-        final int seriesNum = 0;
-
         // chunkEntries returns false if didn't finish
         if (isGiiDebugEnabled) {
           logger.trace(LogMarker.INITIAL_IMAGE_VERBOSE,
@@ -1744,48 +1763,16 @@ public class InitialImageOperation {
             }
           }
           final RegionVersionHolder holderToSend = holderToSync;
-          boolean finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
-              (HashSet) this.unfinishedKeys, flowControl, new ObjectIntProcedure() {
-                int msgNum = 0;
-
-                boolean last = false;
-
-                /**
-                 * @param entList ArrayList of entries
-                 * @param b positive if last chunk
-                 * @return true to continue to next chunk
-                 */
-                public boolean executeWith(Object entList, int b) {
-                  if (rgn.getCache().isClosed()) {
-                    return false;
-                  }
-
-                  if (this.last) {
-                    throw new InternalGemFireError(
-                        "Already processed last chunk");
-                  }
-
-                  List entries = (List) entList;
-                  this.last = b > 0 && !lclAbortTest; // if abortTest, then never send last flag set
-                                                      // to true
-                  try {
-                    boolean abort = rgn.isDestroyed();
-                    if (!abort) {
-                      int flowControlId = flowControl.getId();
-                      Map<VersionSource, Long> gcVersions = null;
-                      if (this.last && rgn.getVersionVector() != null) {
-                        gcVersions = rgn.getVersionVector().getMemberToGCVersion();
-                      }
-                      replyWithData(dm, entries, seriesNum, msgNum++, numSeries, this.last,
-                          flowControlId,
-                          versionVector != null, holderToSend, gcVersions);
-                    }
-                    return !abort;
-                  } catch (CancelException e) {
-                    return false;
-                  }
-                }
-              });
+          final int numSeries = getNumSeries(rgn);
+          boolean finished;
+          if (numSeries == 1) {
+            finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
+                this.unfinishedKeys, flowControl, new ImageChunkSender(dm, rgn, 0, 1,
+                    flowControl, holderToSend, lclAbortTest, new AtomicInteger(1), null));
+          } else {
+            finished = chunkEntriesInParallel(dm, rgn, numSeries, flowControl, holderToSend,
+                lclAbortTest);
+          }
 
 
           if (isGiiDebugEnabled) {
@@ -1887,8 +1874,33 @@ public class InitialImageOperation {
      * @return true if finished all chunks, false if stopped early
      */
     protected boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
-        boolean includeValues, RegionVersionVector versionVector, HashSet unfinishedKeys,
+        boolean includeValues, RegionVersionVector versionVector, Set<Object> unfinishedKeys,
         InitialImageFlowControl flowControl, ObjectIntProcedure proc) throws IOException {
+      Set<VersionSource> foundIds = new HashSet<VersionSource>();
+      Iterator<RegionEntry> it;
+      if (versionVector != null) {
+        // deltaGII
+        it = rgn.entries.regionEntries().iterator();
+      } else {
+        it = rgn.getBestIterator(includeValues);
+      }
+      boolean finished = chunkEntries(rgn, chunkSizeInBytes, includeValues, versionVector,
+          unfinishedKeys, flowControl, proc, it, 0, foundIds);
+      removeOldMembers(rgn, foundIds);
+      return finished;
+    }
+
+    /**
+     * Serialize the entries of one series into byte[] chunks.
+     *
+     * @param it the entries to send in this series
+     * @param foundIds collects the version sources of the entries that were sent
+     * @return true if finished all chunks of the series, false if stopped early
+     */
+    private boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
+        boolean includeValues, RegionVersionVector versionVector, Set<Object> unfinishedKeys,
+        InitialImageFlowControl flowControl, ObjectIntProcedure proc, Iterator<RegionEntry> it,
+        int seriesNum, Set<VersionSource> foundIds) throws IOException {
       boolean keepGoing = true;
       boolean sentLastChunk = false;
       int MAX_ENTRIES_PER_CHUNK = chunkSizeInBytes / 100;
@@ -1908,27 +1920,19 @@ public class InitialImageOperation {
         in = new ByteArrayDataInput();
       }
       VersionSource myId = rgn.getVersionMember();
-      Set<VersionSource> foundIds = new HashSet<VersionSource>();
-      if (internalDuringPackingImage != null
+      if (seriesNum == 0 && internalDuringPackingImage != null
           && this.regionPath.endsWith(internalDuringPackingImage.getRegionName())) {
         internalDuringPackingImage.run();
       }
 
       try {
-        Iterator it = null;
-        if (versionVector != null) {
-          // deltaGII
-          it = rgn.entries.regionEntries().iterator();
-        } else {
-          it = rgn.getBestIterator(includeValues);
-        }
         do {
           flowControl.acquirePermit();
           int currentChunkSize = 0;
 
           while (chunkEntries.size() < MAX_ENTRIES_PER_CHUNK && currentChunkSize < chunkSizeInBytes
               && it.hasNext()) {
-            RegionEntry mapEntry = (RegionEntry) it.next();
+            RegionEntry mapEntry = it.next();
             Object key = mapEntry.getKey();
             if (rgn.checkEntryNotValid(mapEntry)) { // entry was just removed
               continue;
@@ -2010,12 +2014,6 @@ public class InitialImageOperation {
           // if this region is destroyed while we are sending data, then abort.
         } while (keepGoing && it.hasNext());
 
-        if (foundIds.size() > 0) {
-          RegionVersionVector vv = rgn.getVersionVector();
-          if (vv != null) {
-            vv.removeOldMembers(foundIds);
-          }
-        }
         // return false if we were told to abort
         return sentLastChunk;
       } finally {
@@ -2025,6 +2023,246 @@ public class InitialImageOperation {
       }
     }
 
+    private void removeOldMembers(DistributedRegion rgn, Set<VersionSource> foundIds) {
+      if (foundIds.size() > 0) {
+        RegionVersionVector vv = rgn.getVersionVector();
+        if (vv != null) {
+          vv.removeOldMembers(foundIds);
+        }
+      }
+    }
+
+    /**
+     * Returns the number of series to send the image of the given region in. Delta images and
+     * images of queues are always sent as one series.
+     */
+    private int getNumSeries(DistributedRegion rgn) {
+      if (PARALLEL_SERIES <= 1 || this.versionVector != null || rgn instanceof HARegion
+          || rgn instanceof BucketRegionQueue || rgn.isUsedForSerialGatewaySenderQueue()) {
+        return 1;
+      }
+      int numSeries =
+          Math.min(PARALLEL_SERIES, rgn.getRegionMap().size() / PARALLEL_SERIES_MIN_ENTRIES);
+      return Math.max(numSeries, 1);
+    }
+
+    /**
+     * Sends the image in the given number of series. Series 0 is sent by this thread and the others
+     * by threads of the waiting pool. The region is iterated once, and the series take batches of
+     * entries from that iteration. If one series stops early the others are stopped too.
+     *
+     * @return true if finished all chunks of all series, false if stopped early
+     */
+    boolean chunkEntriesInParallel(ClusterDistributionManager dm, DistributedRegion rgn,
+        int numSeries, InitialImageFlowControl flowControl, RegionVersionHolder holderToSend,
+        boolean lclAbortTest) throws IOException {
+      final AtomicInteger seriesInProgress = new AtomicInteger(numSeries);
+      final AtomicBoolean aborted = new AtomicBoolean();
+      final Set<VersionSource> foundIds = ConcurrentHashMap.newKeySet();
+      final List<Future<Boolean>> otherSeries = new ArrayList<>(numSeries - 1);
+      final SharedEntryIterator entries =
+          new SharedEntryIterator(rgn.getBestIterator(!keysOnly));
+      boolean finished = false;
+      try {
+        for (int seriesNum = 1; seriesNum < numSeries; seriesNum++) {
+          final ImageChunkSender proc = new ImageChunkSender(dm, rgn, seriesNum, numSeries,
+              flowControl, holderToSend, lclAbortTest, seriesInProgress, aborted);
+          otherSeries.add(dm.getWaitingThreadPool()
+              .submit(() -> chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
+                  this.unfinishedKeys, flowControl, proc, entries.newSeriesIterator(),
+                  proc.seriesNum, foundIds)));
+        }
+        ImageChunkSender proc = new ImageChunkSender(dm, rgn, 0, numSeries, flowControl,
+            holderToSend, lclAbortTest, seriesInProgress, aborted);
+        finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
+            this.unfinishedKeys, flowControl, proc, entries.newSeriesIterator(), 0, foundIds);
+      } finally {
+        if (!finished) {
+          aborted.set(true);
+        }
+        finished = waitForSeries(otherSeries, aborted) && finished;
+      }
+      removeOldMembers(rgn, foundIds);
+      return finished;
+    }
+
+    /**
+     * Waits for the given series to end and rethrows the first exception one of them threw.
+     *
+     * @return true if all of them finished
+     */
+    private boolean waitForSeries(List<Future<Boolean>> series, AtomicBoolean aborted)
+        throws IOException {
+      boolean finished = true;
+      Throwable failure = null;
+      boolean interrupted = false;
+      try {
+        for (Future<Boolean> future : series) {
+          while (true) {
+            try {
+              if (!future.get()) {
+                finished = false;
+                aborted.set(true);
+              }
+              break;
+            } catch (InterruptedException e) {
+              interrupted = true;
+            } catch (ExecutionException e) {
+              finished = false;
+              aborted.set(true);
+              if (failure == null) {
+                failure = e.getCause();
+              }
+              break;
+            }
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw new InternalGemFireException(failure);
+      }
+      return finished;
+    }
+
+    /**
+     * Hands out the entries of one region iterator in batches to the threads that send the series
+     * of an image.
+     */
+    private static class SharedEntryIterator {
+      private static final int BATCH_SIZE = 100;
+
+      private final Iterator<RegionEntry> entries;
+
+      SharedEntryIterator(Iterator<RegionEntry> entries) {
+        this.entries = entries;
+      }
+
+      /**
+       * Returns an iterator for one series. It takes the next batch of entries when it has sent the
+       * previous one, and ends when the region iterator has no more entries.
+       */
+      Iterator<RegionEntry> newSeriesIterator() {
+        return new Iterator<RegionEntry>() {
+          private final Deque<RegionEntry> batch = new ArrayDeque<>(BATCH_SIZE);
+
+          @Override
+          public boolean hasNext() {
+            if (this.batch.isEmpty()) {
+              takeBatch(this.batch);
+            }
+            return !this.batch.isEmpty();
+          }
+
+          @Override
+          public RegionEntry next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return this.batch.poll();
+          }
+        };
+      }
+
+      private synchronized void takeBatch(Deque<RegionEntry> batch) {
+        for (int i = 0; i < BATCH_SIZE && this.entries.hasNext(); i++) {
+          batch.add(this.entries.next());
+        }
+      }
+    }
+
+    /**
+     * Sends the chunks of one series of an image.
+     */
+    private class ImageChunkSender implements ObjectIntProcedure {
+      private final ClusterDistributionManager dm;
+      private final DistributedRegion rgn;
+      private final int seriesNum;
+      private final int numSeries;
+      private final InitialImageFlowControl flowControl;
+      private final RegionVersionHolder holderToSend;
+      private final boolean lclAbortTest;
+      /** series that have not sent their last chunk */
+      private final AtomicInteger seriesInProgress;
+      /** set if any series stopped early, null if there is only one series */
+      private final AtomicBoolean aborted;
+
+      private int msgNum = 0;
+
+      private boolean last = false;
+
+      ImageChunkSender(ClusterDistributionManager dm, DistributedRegion rgn, int seriesNum,
+          int numSeries, InitialImageFlowControl flowControl, RegionVersionHolder holderToSend,
+          boolean lclAbortTest, AtomicInteger seriesInProgress, AtomicBoolean aborted) {
+        this.dm = dm;
+        this.rgn = rgn;
+        this.seriesNum = seriesNum;
+        this.numSeries = numSeries;
+        this.flowControl = flowControl;
+        this.holderToSend = holderToSend;
+        this.lclAbortTest = lclAbortTest;
+        this.seriesInProgress = seriesInProgress;
+        this.aborted = aborted;
+      }
+
+      /**
+       * @param entList ArrayList of entries
+       * @param b positive if last chunk
+       * @return true to continue to next chunk
+       */
+      public boolean executeWith(Object entList, int b) {
+        if (rgn.getCache().isClosed()) {
+          return false;
+        }
+        if (aborted != null && aborted.get()) {
+          return false;
+        }
+
+        if (this.last) {
+          throw new InternalGemFireError("Already processed last chunk");
+        }
+
+        List entries = (List) entList;
+        this.last = b > 0 && !lclAbortTest; // if abortTest, then never send last flag set
+                                            // to true
+        try {
+          boolean abort = rgn.isDestroyed();
+          if (!abort) {
+            int flowControlId = flowControl.getId();
+            if (this.last) {
+              // the GC versions go with the last chunk of the series that ends last, so the last
+              // chunks are sent one at a time and a series only counts as ended once its last
+              // chunk has been sent
+              synchronized (seriesInProgress) {
+                Map<VersionSource, Long> gcVersions = null;
+                if (seriesInProgress.get() == 1 && rgn.getVersionVector() != null) {
+                  gcVersions = rgn.getVersionVector().getMemberToGCVersion();
+                }
+                replyWithData(dm, entries, seriesNum, msgNum++, numSeries, true, flowControlId,
+                    versionVector != null, holderToSend, gcVersions);
+                seriesInProgress.decrementAndGet();
+              }
+            } else {
+              replyWithData(dm, entries, seriesNum, msgNum++, numSeries, false, flowControlId,
+                  versionVector != null, holderToSend, null);
+            }
+          }
+          return !abort;
+        } catch (CancelException e) {
+          return false;
+        }
+      }
+    }
+
     private void replyNoData(ClusterDistributionManager dm, boolean isDeltaGII,
         Map<VersionSource, Long> gcVersions) {
       ImageReplyMessage.send(getSender(), this.processorId, null, dm, null, 0, 0, 1, true, 0,
@@ -2071,7 +2309,7 @@ public class InitialImageOperation {
       this.lostMemberVersionID = (VersionSource) DataSerializer.readObject(in);
       this.versionVector = (RegionVersionVector) DataSerializer.readObject(in);
       this.lostMemberID = (InternalDistributedMember) DataSerializer.readObject(in);
-      this.unfinishedKeys = (Set) DataSerializer.readObject(in);
+      this.unfinishedKeys = DataSerializer.readObject(in);
     }
 
     @Override
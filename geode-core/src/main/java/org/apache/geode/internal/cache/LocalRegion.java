@@ -365,6 +365,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       Pattern.compile("^import .*",
           Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL)};
 
+  /**
+   * Set to true to have every put create a new entry event, see {@link #canReuseEntryEvents()}
+   */
+  static final boolean DISABLE_ENTRY_EVENT_REUSE =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_ENTRY_EVENT_REUSE");
+
   public static final String EXPIRY_MS_PROPERTY =
       DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_UNITS_MS";
 
@@ -458,6 +464,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   private final boolean hasOwnStats;
 
+  /** Accounts for the memory held by the entries of this region, or null if it is disabled */
+  private final RegionMemoryAccounting memoryAccounting;
+
   private final ImageState imageState;
 
   private final EventTracker eventTracker;
@@ -693,6 +702,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     eventTracker = createEventTracker();
 
     versionVector = createRegionVersionVector();
+    this.memoryAccounting = RegionMemoryAccounting.create(this, cache.getDistributedSystem());
   }
 
   private void addCacheServiceProfiles(InternalRegionArguments internalRegionArgs) {
@@ -719,6 +729,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       ma.loadFactor = this.loadFactor;
       ma.initialCapacity = this.initialCapacity;
       ma.concurrencyLevel = this.concurrencyLevel;
+      PartitionedRegion partitionedRegion = internalRegionArgs.getPartitionedRegion();
+      ma.lockFreeEntryMap = RegionMapFactory.useLockFreeEntryMap(
+          partitionedRegion != null ? partitionedRegion.getFullPath() : getFullPath());
       result = RegionMapFactory.createVM(this, ma, internalRegionArgs);
     }
     return result;
@@ -1621,10 +1634,25 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     try {
       return validatedPut(event, startPut);
     } finally {
-      event.release();
+      if (event.isReusable() && canReuseEntryEvents()) {
+        event.recycle();
+      } else {
+        event.release();
+      }
     }
   }
 
+  /**
+   * Returns true if the entry events of puts on this region never outlive the put, so the thread
+   * doing the put can reuse the event for its next put. Events are handed to cache listeners and
+   * writers, transactions and event queues, which may all keep them, and off-heap values need the
+   * event to be released exactly once.
+   */
+  boolean canReuseEntryEvents() {
+    return !DISABLE_ENTRY_EVENT_REUSE && !getOffHeap() && !hasServerProxy() && !isTX()
+        && !hasListener() && basicGetWriter() == null && getAllGatewaySenderIds().isEmpty();
+  }
+
   Object validatedPut(EntryEventImpl event, long startPut)
       throws TimeoutException, CacheWriterException {
 
@@ -1666,8 +1694,14 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     // an id will be generated by default. Null was passed in anyway.
     // generate EventID
     @Retained
-    final EntryEventImpl event = EntryEventImpl.create(this, Operation.UPDATE, key, value,
-        aCallbackArgument, false, getMyId());
+    final EntryEventImpl event;
+    if (canReuseEntryEvents()) {
+      event = EntryEventImpl.createReusable(this, Operation.UPDATE, key, value,
+          aCallbackArgument, getMyId());
+    } else {
+      event = EntryEventImpl.create(this, Operation.UPDATE, key, value, aCallbackArgument, false,
+          getMyId());
+    }
     boolean eventReturned = false;
     try {
       extractDeltaIntoEvent(value, event);
@@ -2729,6 +2763,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       if (this.hasOwnStats) {
         this.cachePerfStats.close();
       }
+      if (this.memoryAccounting != null) {
+        this.memoryAccounting.close();
+      }
     }
   }
 
@@ -10754,50 +10791,73 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   }
 
   void updateSizeOnClearRegion(int sizeBeforeClear) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.recalculate();
+    }
   }
 
   /**
-   * Calculate and return the size of a value for updating the bucket size. Zero is always returned
-   * for non-bucket regions.
+   * Calculate and return the size of a value for updating the bucket size. Zero is returned for
+   * non-bucket regions unless their memory is accounted for.
    */
   @Override
   public int calculateValueSize(Object value) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      return RegionMemoryAccounting.sizeOfValue(value);
+    }
     return 0;
   }
 
   @Override
   public int calculateRegionEntryValueSize(RegionEntry regionEntry) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      return RegionMemoryAccounting.sizeOfValue(regionEntry.getValue()); // OFFHEAP _getValue ok
+    }
     return 0;
   }
 
   @Override
   public void updateSizeOnPut(Object key, int oldSize, int newSize) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.updated(oldSize, newSize);
+    }
   }
 
   @Override
   public void updateSizeOnCreate(Object key, int newSize) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.created(key, newSize);
+    }
   }
 
   @Override
   public void updateSizeOnRemove(Object key, int oldSize) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.removed(key, oldSize);
+    }
   }
 
   // TODO: return value is never used
   @Override
   public int updateSizeOnEvict(Object key, int oldSize) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.evicted(oldSize);
+    }
     return 0;
   }
 
   @Override
   public void updateSizeOnFaultIn(Object key, int newSize, int bytesOnDisk) {
-    // Only needed by BucketRegion
+    if (this.memoryAccounting != null) {
+      this.memoryAccounting.faultedIn(newSize);
+    }
+  }
+
+  /**
+   * Returns the accounting of the memory held by this region, or null if it is disabled.
+   */
+  public RegionMemoryAccounting getMemoryAccounting() {
+    return this.memoryAccounting;
   }
 
   @Override
@@ -532,6 +532,15 @@ public class PartitionedRegion extends LocalRegion
     return result;
   }
 
+  /**
+   * The key info of partitioned region events holds the value and bucket id for routing, so it
+   * can not be reused.
+   */
+  @Override
+  boolean canReuseEntryEvents() {
+    return false;
+  }
+
   @Override
   public boolean remove(Object key, Object value, Object callbackArg) {
     final long startTime = PartitionedRegionStats.startTime();
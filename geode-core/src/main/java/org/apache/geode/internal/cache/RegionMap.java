@@ -35,6 +35,7 @@ import org.apache.geode.internal.cache.versions.VersionHolder;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
+import org.apache.geode.internal.util.concurrent.LockFreeEntryConcurrentHashMap;
 
 /**
  * Internal interface used by {@link LocalRegion} to access the map that holds its entries. Note
@@ -66,6 +67,9 @@ public interface RegionMap extends EvictableMap {
 
     /** whether "api" statistics are enabled */
     boolean statisticsEnabled = false;
+
+    /** whether the entries are kept in a {@link LockFreeEntryConcurrentHashMap} */
+    boolean lockFreeEntryMap = false;
   }
 
   RegionEntryFactory getEntryFactory();
@@ -15,7 +15,8 @@
 
 package org.apache.geode.internal.cache;
 
-
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.util.concurrent.LockFreeEntryConcurrentHashMap;
 
 /**
  * Used to produce instances of RegionMap
@@ -25,6 +26,23 @@ package org.apache.geode.internal.cache;
  *
  */
 class RegionMapFactory {
+  /**
+   * Makes the maps of all regions keep their entries in a {@link LockFreeEntryConcurrentHashMap}.
+   * The map of a single region can be chosen with the system property named after the full path
+   * of the region followed by ":LOCK_FREE_ENTRY_MAP".
+   */
+  static final String LOCK_FREE_ENTRY_MAP_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "LOCK_FREE_ENTRY_MAP";
+
+  /**
+   * Returns true if the map of the region with the given full path, or of the partitioned region
+   * of a bucket, should keep its entries in a {@link LockFreeEntryConcurrentHashMap}.
+   */
+  static boolean useLockFreeEntryMap(String regionPath) {
+    return Boolean.getBoolean(LOCK_FREE_ENTRY_MAP_PROPERTY)
+        || Boolean.getBoolean(regionPath + ":LOCK_FREE_ENTRY_MAP");
+  }
+
   /**
    * Creates a RegionMap that is stored in the VM.
    *
@@ -59,6 +77,8 @@ class RegionMapFactory {
     ma.loadFactor = owner.getLoadFactor();
     ma.initialCapacity = owner.getInitialCapacity();
     ma.concurrencyLevel = owner.getConcurrencyLevel();
+    ma.lockFreeEntryMap =
+        useLockFreeEntryMap(owner.isBucket() ? owner.getPrName() : owner.getName());
     if (owner.getLruAlgorithm() != 0) {
       return new VMLRURegionMap(owner, ma, internalRegionArgs);
     } else {
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexStatistics;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * RegionMemoryAccounting keeps an estimate of the memory held by the entries of a region, split
+ * into the entries themselves, their keys, their values on and off the heap, the indexes of the
+ * region and its tombstones. It is meant for capacity planning and is cheap enough to leave on.
+ *
+ * <p>
+ * Key and value bytes are counted as entries are created, updated, destroyed, evicted and faulted
+ * in, through the same calls that keep the size of a bucket. Keys and values are sized with
+ * {@link ObjectSizer#SIZE_CLASS_ONCE}, so that an object of a class other than the well known ones
+ * is only walked the first time its class is seen. Keys that are inlined in their entry take no
+ * bytes of their own. The other figures are worked out when they are asked for: the entry and
+ * tombstone bytes from the number of entries and the size of the entry class, which is only
+ * measured once, and the index bytes from the number of keys and values of each index.
+ *
+ * <p>
+ * Each bucket keeps its own accounting and that of a partitioned region is the sum of its local
+ * buckets. Accounting is disabled unless {@link #ENABLED_PROPERTY} is set.
+ */
+public class RegionMemoryAccounting {
+
+  public static final String ENABLED_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "regionMemoryAccounting";
+
+  public static boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+  /** The estimated bytes of the map entry that an index keeps for each of its keys */
+  static final int PER_INDEX_KEY_OVERHEAD = 48;
+
+  /** The estimated bytes an index takes to refer to one of the entries it holds */
+  static final int PER_INDEX_VALUE_OVERHEAD = 32;
+
+  private static final StatisticsType type;
+
+  private static final int entryOverheadBytesId;
+  private static final int keyBytesId;
+  private static final int valueHeapBytesId;
+  private static final int valueOffHeapBytesId;
+  private static final int indexBytesId;
+  private static final int tombstoneBytesId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("RegionMemoryStats",
+        "Estimated memory held by the entries of a region, by what it is used for",
+        new StatisticDescriptor[] {
+            f.createLongGauge("entryOverheadBytes",
+                "The estimated bytes taken by the entry objects of the region, not counting their keys and values.",
+                "bytes"),
+            f.createLongGauge("keyBytes",
+                "The estimated bytes taken by the keys of the region that are not inlined in their entry.",
+                "bytes"),
+            f.createLongGauge("valueHeapBytes",
+                "The estimated bytes of heap taken by the values of the region.", "bytes"),
+            f.createLongGauge("valueOffHeapBytes",
+                "The bytes of off-heap memory taken by the values of the region.", "bytes"),
+            f.createLongGauge("indexBytes",
+                "The estimated bytes taken by the indexes of the region, not counting the keys and values they share with the region.",
+                "bytes"),
+            f.createLongGauge("tombstoneBytes",
+                "The estimated bytes taken by the tombstones of the region and their bookkeeping.",
+                "bytes")});
+
+    entryOverheadBytesId = type.nameToId("entryOverheadBytes");
+    keyBytesId = type.nameToId("keyBytes");
+    valueHeapBytesId = type.nameToId("valueHeapBytes");
+    valueOffHeapBytesId = type.nameToId("valueOffHeapBytes");
+    indexBytesId = type.nameToId("indexBytes");
+    tombstoneBytesId = type.nameToId("tombstoneBytes");
+  }
+
+  private final LocalRegion region;
+
+  private final LongAdder keyBytes = new LongAdder();
+
+  private final LongAdder valueBytes = new LongAdder();
+
+  /** The size of the entry class, measured the first time it is needed */
+  private volatile int entryOverhead = -1;
+
+  private Statistics stats;
+
+  RegionMemoryAccounting(LocalRegion region) {
+    this.region = region;
+  }
+
+  /**
+   * Returns the accounting of the region, or null if accounting is disabled. Statistics are only
+   * created for regions that are neither buckets nor internal regions.
+   */
+  static RegionMemoryAccounting create(LocalRegion region, StatisticsFactory statisticsFactory) {
+    if (!ENABLED) {
+      return null;
+    }
+    RegionMemoryAccounting accounting = new RegionMemoryAccounting(region);
+    if (statisticsFactory != null && !region.isUsedForPartitionedRegionBucket()
+        && !region.isInternalRegion()) {
+      accounting.createStatistics(statisticsFactory);
+    }
+    return accounting;
+  }
+
+  private void createStatistics(StatisticsFactory statisticsFactory) {
+    stats = statisticsFactory.createAtomicStatistics(type, region.getFullPath());
+    stats.setLongSupplier(entryOverheadBytesId, this::getEntryOverheadBytes);
+    stats.setLongSupplier(keyBytesId, this::getKeyBytes);
+    stats.setLongSupplier(valueHeapBytesId, this::getValueHeapBytes);
+    stats.setLongSupplier(valueOffHeapBytesId, this::getValueOffHeapBytes);
+    stats.setLongSupplier(indexBytesId, this::getIndexBytes);
+    stats.setLongSupplier(tombstoneBytesId, this::getTombstoneBytes);
+  }
+
+  void close() {
+    if (stats != null) {
+      stats.close();
+    }
+  }
+
+  /**
+   * Returns the bytes taken by a key of the region, or zero if the key is inlined in its entry.
+   */
+  static int sizeOfKey(Object key) {
+    if (isInlined(key)) {
+      return 0;
+    }
+    return CachedDeserializableFactory.calcMemSize(key, ObjectSizer.SIZE_CLASS_ONCE, false);
+  }
+
+  private static boolean isInlined(Object key) {
+    if (!InlineKeyHelper.INLINE_REGION_KEYS) {
+      return false;
+    }
+    return key instanceof Integer || key instanceof Long || key instanceof UUID
+        || key instanceof String && InlineKeyHelper.canStringBeInlineEncoded((String) key) != null;
+  }
+
+  /**
+   * Returns the bytes taken by a value as it is kept in an entry of the region.
+   */
+  static int sizeOfValue(Object value) {
+    if (value == null || value instanceof Token) {
+      return 0;
+    }
+    try {
+      return CachedDeserializableFactory.calcMemSize(value, ObjectSizer.SIZE_CLASS_ONCE, false);
+    } catch (IllegalArgumentException e) {
+      return 0;
+    }
+  }
+
+  void created(Object key, int valueSize) {
+    keyBytes.add(sizeOfKey(key));
+    valueBytes.add(valueSize);
+  }
+
+  void updated(int oldValueSize, int newValueSize) {
+    valueBytes.add(newValueSize - oldValueSize);
+  }
+
+  void removed(Object key, int oldValueSize) {
+    keyBytes.add(-sizeOfKey(key));
+    valueBytes.add(-oldValueSize);
+  }
+
+  void evicted(int oldValueSize) {
+    valueBytes.add(-oldValueSize);
+  }
+
+  void faultedIn(int newValueSize) {
+    valueBytes.add(newValueSize);
+  }
+
+  /**
+   * Counts the keys and values of the region again. Called once the region has been cleared, which
+   * may keep some of the entries.
+   */
+  void recalculate() {
+    long keys = 0;
+    long values = 0;
+    for (RegionEntry entry : region.getRegionMap().regionEntries()) {
+      if (entry.isRemoved()) {
+        continue;
+      }
+      keys += sizeOfKey(entry.getKey());
+      values += region.calculateRegionEntryValueSize(entry);
+    }
+    keyBytes.reset();
+    valueBytes.reset();
+    keyBytes.add(keys);
+    valueBytes.add(values);
+  }
+
+  private long sumOverBuckets(ToLongFunction<RegionMemoryAccounting> bytes) {
+    PartitionedRegionDataStore dataStore = ((PartitionedRegion) region).getDataStore();
+    long sum = 0;
+    if (dataStore != null) {
+      for (BucketRegion bucket : dataStore.getAllLocalBucketRegions()) {
+        RegionMemoryAccounting accounting = bucket.getMemoryAccounting();
+        if (accounting != null) {
+          sum += bytes.applyAsLong(accounting);
+        }
+      }
+    }
+    return sum;
+  }
+
+  private int getEntryOverhead() {
+    int overhead = entryOverhead;
+    if (overhead < 0) {
+      overhead = region.getRegionMap().getEntryOverhead();
+      entryOverhead = overhead;
+    }
+    return overhead;
+  }
+
+  private long getLiveEntryCount() {
+    return Math.max(0, region.getRegionMap().size() - region.getTombstoneCount());
+  }
+
+  /**
+   * Returns the bytes taken by the entry objects, not counting their keys and values.
+   */
+  public long getEntryOverheadBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getEntryOverheadBytes);
+    }
+    return getLiveEntryCount() * getEntryOverhead();
+  }
+
+  public long getKeyBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getKeyBytes);
+    }
+    return keyBytes.sum();
+  }
+
+  public long getValueHeapBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getValueHeapBytes);
+    }
+    return region.getOffHeap() ? 0 : valueBytes.sum();
+  }
+
+  public long getValueOffHeapBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getValueOffHeapBytes);
+    }
+    return region.getOffHeap() ? valueBytes.sum() : 0;
+  }
+
+  /**
+   * Returns an estimate of the bytes taken by the indexes, from the number of keys and values of
+   * each of them. The keys and values that an index shares with the region are not counted again.
+   */
+  public long getIndexBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getIndexBytes);
+    }
+    IndexManager indexManager = region.getIndexManager();
+    if (indexManager == null) {
+      return 0;
+    }
+    long bytes = 0;
+    for (Object index : indexManager.getIndexes()) {
+      IndexStatistics statistics = ((Index) index).getStatistics();
+      if (statistics != null) {
+        bytes += statistics.getNumberOfKeys() * PER_INDEX_KEY_OVERHEAD
+            + statistics.getNumberOfValues() * PER_INDEX_VALUE_OVERHEAD;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the bytes taken by the tombstones, including the entries that hold them and what the
+   * tombstone service keeps to expire them.
+   */
+  public long getTombstoneBytes() {
+    if (region instanceof PartitionedRegion) {
+      return sumOverBuckets(RegionMemoryAccounting::getTombstoneBytes);
+    }
+    return (long) region.getTombstoneCount()
+        * (getEntryOverhead() + TombstoneService.Tombstone.PER_TOMBSTONE_OVERHEAD);
+  }
+
+  /**
+   * Returns the sum of all the bytes this accounting knows about.
+   */
+  public long getTotalBytes() {
+    return getEntryOverheadBytes() + getKeyBytes() + getValueHeapBytes() + getValueOffHeapBytes()
+        + getIndexBytes() + getTombstoneBytes();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.size.Sizeable;
+
+/**
+ * SerializedValueCache keeps the serialized form of values whose {@link VMCachedDeserializable} has
+ * changed to the deserialized form because the value was read locally. Peers and clients that get
+ * such a value are then sent the kept bytes instead of having the value serialized again for each
+ * of them.
+ *
+ * <p>
+ * The cache holds at most the configured number of bytes. Once it is full, values are aged out like
+ * the clock of an lru list: a value that has been sent since it was last looked at is kept for
+ * another round, any other is removed. Values are looked up by the identity of their
+ * VMCachedDeserializable, which is only weakly referenced so that the cache does not keep the
+ * values of entries that have been updated or destroyed. Those age out like unused values.
+ *
+ * <p>
+ * The cache is shared by every region of the member and is disabled unless
+ * {@link #MAXIMUM_BYTES_PROPERTY} is set.
+ */
+class SerializedValueCache {
+
+  static final String MAXIMUM_BYTES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "serializedValueCacheBytes";
+
+  /** The share of the cache that a single value may take */
+  static final int MAXIMUM_VALUE_FRACTION = 8;
+
+  private static final SerializedValueCache instance =
+      create(Long.getLong(MAXIMUM_BYTES_PROPERTY, 0));
+
+  private final long maximumBytes;
+
+  private final ConcurrentHashMap<Integer, CachedValue> values = new ConcurrentHashMap<>();
+
+  /** The cached values in the order the clock visits them */
+  private final ConcurrentLinkedQueue<CachedValue> clock = new ConcurrentLinkedQueue<>();
+
+  private final AtomicLong bytes = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  SerializedValueCache(long maximumBytes) {
+    this.maximumBytes = maximumBytes;
+  }
+
+  private static SerializedValueCache create(long maximumBytes) {
+    return maximumBytes > 0 ? new SerializedValueCache(maximumBytes) : null;
+  }
+
+  /**
+   * Returns the cache shared by the regions of this member, or null if it is disabled.
+   */
+  static SerializedValueCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the serialized form kept for the value, or null if it is not cached.
+   */
+  byte[] get(VMCachedDeserializable value) {
+    CachedValue cachedValue = values.get(System.identityHashCode(value));
+    if (cachedValue != null && cachedValue.get() == value) {
+      cachedValue.used = true;
+      hits.increment();
+      return cachedValue.serializedValue;
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Keeps the serialized form of the value, aging out other values if the cache is full.
+   */
+  void put(VMCachedDeserializable value, byte[] serializedValue) {
+    int size = CachedDeserializableFactory.getByteSize(serializedValue) + CachedValue.OVERHEAD;
+    if (size > maximumBytes / MAXIMUM_VALUE_FRACTION) {
+      return;
+    }
+    CachedValue cachedValue = new CachedValue(value, serializedValue, size);
+    CachedValue replaced = values.put(cachedValue.key, cachedValue);
+    bytes.addAndGet(replaced == null ? size : size - replaced.size);
+    clock.add(cachedValue);
+    while (bytes.get() > maximumBytes) {
+      CachedValue hand = clock.poll();
+      if (hand == null) {
+        break;
+      }
+      if (hand.used && hand.get() != null) {
+        hand.used = false;
+        clock.add(hand);
+      } else if (values.remove(hand.key, hand)) {
+        bytes.addAndGet(-hand.size);
+      }
+    }
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  long getBytes() {
+    return bytes.get();
+  }
+
+  int size() {
+    return values.size();
+  }
+
+  static class CachedValue extends WeakReference<VMCachedDeserializable> {
+    /** The object, its weak reference and the map node that hold a serialized value */
+    static final int OVERHEAD = 3 * Sizeable.PER_OBJECT_OVERHEAD + 32;
+
+    final Integer key;
+
+    final byte[] serializedValue;
+
+    final int size;
+
+    volatile boolean used;
+
+    CachedValue(VMCachedDeserializable value, byte[] serializedValue, int size) {
+      super(value);
+      this.key = System.identityHashCode(value);
+      this.serializedValue = serializedValue;
+      this.size = size;
+    }
+  }
+}
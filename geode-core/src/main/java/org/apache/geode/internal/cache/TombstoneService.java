@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,17 +24,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireError;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.distributed.internal.CacheTime;
@@ -42,6 +49,7 @@ import org.apache.geode.internal.cache.versions.CompactVersionHolder;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 import org.apache.geode.internal.logging.LoggingThread;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
@@ -88,6 +96,20 @@ public class TombstoneService {
   public static int EXPIRED_TOMBSTONE_LIMIT =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "tombstone-gc-threshold", 100000);
 
+  /**
+   * The number of threads that process a batch of expired tombstones for replicated regions, each
+   * taking one region or bucket at a time to remove its tombstones and to send its GC message. The
+   * default is half the number of processors.
+   */
+  public static int TOMBSTONE_GC_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "tombstone-gc-threads",
+          Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+  /**
+   * The maximum number of tombstones a sweeper expires before checking its batch again
+   */
+  static final int EXPIRED_TOMBSTONES_PER_CHECK = 1000;
+
   /**
    * The interval to scan for expired tombstones in the queues
    */
@@ -320,7 +342,7 @@ public class TombstoneService {
     return this.replicatedTombstoneSweeper.getBlockGCLock();
   }
 
-  private static class Tombstone extends CompactVersionHolder {
+  static class Tombstone extends CompactVersionHolder {
     // tombstone overhead size
     public static int PER_TOMBSTONE_OVERHEAD = ReflectionSingleObjectSizer.REFERENCE_SIZE // queue's
                                                                                           // reference
@@ -406,10 +428,18 @@ public class TombstoneService {
      */
     private final ExecutorService executor;
     /**
-     * tombstones that have expired and are awaiting batch removal.
+     * Processes the regions of a batch in parallel, or null to process them one after the other.
+     */
+    private final ExecutorService gcExecutor;
+    /**
+     * tombstones that have expired and are awaiting batch removal, by region.
      */
-    private final List<Tombstone> expiredTombstones;
+    private final Map<LocalRegion, List<Tombstone>> expiredTombstones;
     private final Object expiredTombstonesLock = new Object();
+    /**
+     * The number of tombstones in expiredTombstones
+     */
+    private volatile int expiredTombstoneCount;
 
     /**
      * Force batch expiration
@@ -440,8 +470,22 @@ public class TombstoneService {
         CancelCriterion cancelCriterion, ExecutorService executor) {
       super(cacheTime, stats, cancelCriterion, REPLICATE_TOMBSTONE_TIMEOUT,
           "Replicate/Partition Region Garbage Collector");
-      this.expiredTombstones = new ArrayList<Tombstone>();
+      this.expiredTombstones = new HashMap<>();
       this.executor = executor;
+      if (TOMBSTONE_GC_THREADS > 1) {
+        this.gcExecutor =
+            LoggingExecutors.newFixedThreadPool("Tombstone GC ", true, TOMBSTONE_GC_THREADS);
+      } else {
+        this.gcExecutor = null;
+      }
+    }
+
+    @Override
+    void stop() {
+      super.stop();
+      if (gcExecutor != null) {
+        gcExecutor.shutdown();
+      }
     }
 
     public int decrementGCBlockCount() {
@@ -471,22 +515,79 @@ public class TombstoneService {
       boolean result = false;
       long removalSize = 0;
       synchronized (expiredTombstonesLock) {
-        // Iterate in reverse order to optimize lots of removes.
-        // Since expiredTombstones is an ArrayList removing from
-        // low indexes requires moving everything at a higher index down.
-        for (int idx = expiredTombstones.size() - 1; idx >= 0; idx--) {
-          Tombstone t = expiredTombstones.get(idx);
-          if (predicate.test(t)) {
-            removalSize += t.getSize();
-            expiredTombstones.remove(idx);
-            result = true;
+        int removed = 0;
+        for (Iterator<List<Tombstone>> it = expiredTombstones.values().iterator(); it.hasNext();) {
+          List<Tombstone> regionTombstones = it.next();
+          // Iterate in reverse order to optimize lots of removes.
+          // Since expiredTombstones is an ArrayList removing from
+          // low indexes requires moving everything at a higher index down.
+          for (int idx = regionTombstones.size() - 1; idx >= 0; idx--) {
+            Tombstone t = regionTombstones.get(idx);
+            if (predicate.test(t)) {
+              removalSize += t.getSize();
+              regionTombstones.remove(idx);
+              removed++;
+              result = true;
+            }
+          }
+          if (regionTombstones.isEmpty()) {
+            it.remove();
           }
         }
+        expiredTombstoneCount -= removed;
       }
       updateMemoryEstimate(-removalSize);
       return result;
     }
 
+    /**
+     * Calls the action for each of the items, on the threads of the gc executor if there is more
+     * than one, and returns once all the calls have completed.
+     */
+    private <T> void forEachInParallel(Collection<T> items, Consumer<T> action) {
+      if (gcExecutor == null || items.size() <= 1) {
+        items.forEach(action);
+        return;
+      }
+      List<Future<?>> futures = new ArrayList<>(items.size());
+      for (T item : items) {
+        try {
+          futures.add(gcExecutor.submit(() -> action.accept(item)));
+        } catch (RejectedExecutionException e) {
+          // the sweeper has been stopped
+          action.accept(item);
+        }
+      }
+      // wait for every call, even when interrupted, since the caller goes on to change the items
+      boolean interrupted = false;
+      Throwable failure = null;
+      for (Future<?> future : futures) {
+        while (true) {
+          try {
+            future.get();
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            if (failure == null) {
+              failure = e.getCause();
+            }
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw new InternalGemFireError(failure);
+      }
+    }
+
     /** expire a batch of tombstones */
     private void expireBatch() {
       // fix for bug #46087 - OOME due to too many GC threads
@@ -515,22 +616,23 @@ public class TombstoneService {
           // memory overhead for a set is much higher than an ArrayList
           // BUT we send it to clients and the old
           // version of them expects it to be a Set.
-          final Map<DistributedRegion, Set<Object>> reapedKeys = new HashMap<>();
+          final Map<DistributedRegion, Set<Object>> reapedKeys = new ConcurrentHashMap<>();
 
           // Update the GC RVV for all of the affected regions.
           // We need to do this so that we can persist the GC RVV before
           // we start removing entries from the map.
           synchronized (expiredTombstonesLock) {
-            for (Tombstone t : expiredTombstones) {
-              DistributedRegion tr = (DistributedRegion) t.region;
-              tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
-              if (!reapedKeys.containsKey(tr)) {
-                reapedKeys.put(tr, Collections.emptySet());
+            for (Map.Entry<LocalRegion, List<Tombstone>> mapEntry : expiredTombstones
+                .entrySet()) {
+              DistributedRegion tr = (DistributedRegion) mapEntry.getKey();
+              for (Tombstone t : mapEntry.getValue()) {
+                tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
               }
+              reapedKeys.put(tr, Collections.emptySet());
             }
           }
 
-          for (DistributedRegion r : reapedKeys.keySet()) {
+          forEachInParallel(reapedKeys.keySet(), r -> {
             // Remove any exceptions from the RVV that are older than the GC version
             r.getVersionVector().pruneOldExceptions();
 
@@ -541,25 +643,40 @@ public class TombstoneService {
             if (r.getDataPolicy().withPersistence()) {
               r.getDiskRegion().writeRVVGC(r);
             }
-          }
+          });
 
-          // Remove the tombstones from the in memory region map.
-          removeExpiredIf(t -> {
-            // for PR buckets we have to keep track of the keys removed because clients have
-            // them all lumped in a single non-PR region
-            DistributedRegion tr = (DistributedRegion) t.region;
-            boolean tombstoneWasStillInRegionMap =
-                tr.getRegionMap().removeTombstone(t.entry, t, false, true);
-            if (tombstoneWasStillInRegionMap && hasToTrackKeysForClients(tr)) {
-              Set<Object> keys = reapedKeys.get(tr);
-              if (keys.isEmpty()) {
-                keys = new HashSet<Object>();
+          // Remove the tombstones from the in memory region maps, one region per thread.
+          long removalSize = 0;
+          synchronized (expiredTombstonesLock) {
+            forEachInParallel(expiredTombstones.entrySet(), mapEntry -> {
+              // for PR buckets we have to keep track of the keys removed because clients have
+              // them all lumped in a single non-PR region
+              DistributedRegion tr = (DistributedRegion) mapEntry.getKey();
+              boolean trackKeys = hasToTrackKeysForClients(tr);
+              Set<Object> keys = null;
+              for (Tombstone t : mapEntry.getValue()) {
+                boolean tombstoneWasStillInRegionMap =
+                    tr.getRegionMap().removeTombstone(t.entry, t, false, true);
+                if (tombstoneWasStillInRegionMap && trackKeys) {
+                  if (keys == null) {
+                    keys = new HashSet<Object>();
+                  }
+                  keys.add(t.entry.getKey());
+                }
+              }
+              if (keys != null) {
                 reapedKeys.put(tr, keys);
               }
-              keys.add(t.entry.getKey());
+            });
+            for (List<Tombstone> regionTombstones : expiredTombstones.values()) {
+              for (Tombstone t : regionTombstones) {
+                removalSize += t.getSize();
+              }
             }
-            return true;
-          });
+            expiredTombstones.clear();
+            expiredTombstoneCount = 0;
+          }
+          updateMemoryEstimate(-removalSize);
 
           // do messaging in a pool so this thread is not stuck trying to
           // communicate with other members
@@ -567,11 +684,8 @@ public class TombstoneService {
             public void run() {
               try {
                 // this thread should not reference other sweeper state, which is not synchronized
-                for (Map.Entry<DistributedRegion, Set<Object>> mapEntry : reapedKeys.entrySet()) {
-                  DistributedRegion r = mapEntry.getKey();
-                  Set<Object> rKeysReaped = mapEntry.getValue();
-                  r.distributeTombstoneGC(rKeysReaped);
-                }
+                forEachInParallel(reapedKeys.entrySet(),
+                    mapEntry -> mapEntry.getKey().distributeTombstoneGC(mapEntry.getValue()));
               } finally {
                 batchExpirationInProgress = false;
               }
@@ -617,14 +731,16 @@ public class TombstoneService {
       if (testHook_forceBatchExpireCall != null) {
         return true;
       }
-      if (expiredTombstones.size() >= EXPIRED_TOMBSTONE_LIMIT) {
-        return true;
-      }
-      return false;
+      return isExpiredBatchFull();
+    }
+
+    @Override
+    protected boolean isExpiredBatchFull() {
+      return expiredTombstoneCount >= EXPIRED_TOMBSTONE_LIMIT;
     }
 
     private void testHookIfIdleExpireBatch() {
-      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && !this.expiredTombstones.isEmpty()) {
+      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && this.expiredTombstoneCount > 0) {
         expireBatch();
       }
     }
@@ -644,7 +760,7 @@ public class TombstoneService {
       if (this.batchExpirationInProgress) {
         return;
       }
-      if (this.expiredTombstones.size() <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
+      if (this.expiredTombstoneCount <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
         return;
       }
       if (FORCE_GC_MEMORY_EVENTS || isFreeMemoryLow()) {
@@ -682,7 +798,8 @@ public class TombstoneService {
             tombstone);
       }
       synchronized (expiredTombstonesLock) {
-        expiredTombstones.add(tombstone);
+        expiredTombstones.computeIfAbsent(tombstone.region, k -> new ArrayList<>()).add(tombstone);
+        expiredTombstoneCount++;
       }
     }
 
@@ -693,8 +810,8 @@ public class TombstoneService {
 
     @Override
     public String toString() {
-      return super.toString() + " batchedExpiredTombstones[" + expiredTombstones.size() + "] = "
-          + expiredTombstones.toString();
+      return super.toString() + " batchedExpiredTombstones[" + expiredTombstoneCount + "] = "
+          + expiredTombstones.values().toString();
     }
 
     @Override
@@ -723,7 +840,7 @@ public class TombstoneService {
 
     @Override
     public long getScheduledTombstoneCount() {
-      return super.getScheduledTombstoneCount() + this.expiredTombstones.size();
+      return super.getScheduledTombstoneCount() + this.expiredTombstoneCount;
     }
   }
 
@@ -980,11 +1097,18 @@ public class TombstoneService {
           handleNoUnexpiredTombstones();
           sleepTime = EXPIRY_TIME;
         } else {
-          if (logger.isTraceEnabled(LogMarker.TOMBSTONE_VERBOSE)) {
-            logger.trace(LogMarker.TOMBSTONE_VERBOSE, "oldest unexpired tombstone is {}", oldest);
-          }
-          long msTillHeadTombstoneExpires = oldest.getVersionTimeStamp() + EXPIRY_TIME - now;
-          if (hasExpired(msTillHeadTombstoneExpires)) {
+          // expire the tombstones at the head of the queue while they are due, so that the queue
+          // keeps up with a storm of destroys
+          for (int expired = 0; oldest != null; oldest = tombstones.peek()) {
+            if (logger.isTraceEnabled(LogMarker.TOMBSTONE_VERBOSE)) {
+              logger.trace(LogMarker.TOMBSTONE_VERBOSE, "oldest unexpired tombstone is {}",
+                  oldest);
+            }
+            long msTillHeadTombstoneExpires = oldest.getVersionTimeStamp() + EXPIRY_TIME - now;
+            if (!hasExpired(msTillHeadTombstoneExpires)) {
+              sleepTime = msTillHeadTombstoneExpires;
+              break;
+            }
             try {
               tombstones.remove();
               expireTombstone(oldest);
@@ -993,8 +1117,9 @@ public class TombstoneService {
             } catch (Exception e) {
               logger.warn("Unexpected exception while processing tombstones", e);
             }
-          } else {
-            sleepTime = msTillHeadTombstoneExpires;
+            if (++expired >= EXPIRED_TOMBSTONES_PER_CHECK || isExpiredBatchFull()) {
+              break;
+            }
           }
         }
       } finally {
@@ -1024,6 +1149,11 @@ public class TombstoneService {
     /** see if the already expired tombstones should be processed */
     protected abstract void checkExpiredTombstoneGC();
 
+    /** returns true if the already expired tombstones should be processed before expiring more */
+    protected boolean isExpiredBatchFull() {
+      return false;
+    }
+
     protected abstract void handleNoUnexpiredTombstones();
 
     protected abstract boolean hasExpired(long msTillTombstoneExpires);
@@ -20,16 +20,20 @@ import static org.apache.geode.internal.offheap.annotations.OffHeapIdentifier.EN
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.OutOfOffHeapMemoryException;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
 import org.apache.geode.distributed.internal.ConflationKey;
 import org.apache.geode.distributed.internal.DirectReplyProcessor;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.ReplyException;
 import org.apache.geode.distributed.internal.ReplyMessage;
@@ -38,8 +42,14 @@ import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.EntryEventImpl.NewValueImporter;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.OffHeapStoredObject;
+import org.apache.geode.internal.offheap.Releasable;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
+import org.apache.geode.internal.tcp.ByteBufferInputStream;
 
 /**
  * Handles distribution messaging for updating an entry in a region.
@@ -48,6 +58,14 @@ import org.apache.geode.internal.offheap.annotations.Unretained;
 public class UpdateOperation extends AbstractUpdateOperation {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * New values at least this many bytes long that are received for an off-heap region are copied
+   * straight from the message buffer into off-heap memory, instead of into a heap byte array that
+   * is copied off-heap again when the entry is stored. A negative value disables this.
+   */
+  static final int OFF_HEAP_DIRECT_VALUE_THRESHOLD = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DIRECT_VALUE_THRESHOLD", 1024);
+
   /** Creates a new instance of UpdateOperation */
   public UpdateOperation(EntryEventImpl event, long lastModifiedTime) {
     super(event, lastModifiedTime);
@@ -100,7 +118,8 @@ public class UpdateOperation extends AbstractUpdateOperation {
     }
   }
 
-  public static class UpdateMessage extends AbstractUpdateMessage implements NewValueImporter {
+  public static class UpdateMessage extends AbstractUpdateMessage
+      implements NewValueImporter, Releasable {
 
     /**
      * Indicates if and when the new value should be deserialized on the the receiver
@@ -118,6 +137,13 @@ public class UpdateOperation extends AbstractUpdateOperation {
     @Unretained(ENTRY_EVENT_NEW_VALUE)
     protected transient Object newValueObj;
 
+    /**
+     * The new value if fromData read it straight into off-heap memory. Released once the message
+     * has been processed.
+     */
+    @Retained
+    private transient StoredObject offHeapNewValue;
+
     private byte[] deltaBytes;
 
     private boolean sendDeltaWithFullValue = true;
@@ -188,7 +214,10 @@ public class UpdateOperation extends AbstractUpdateOperation {
           // New value will be set once it is generated with fromDelta() inside
           // EntryEventImpl.processDeltaBytes()
           ev.setNewValue(this.newValueObj);
+        } else if (this.offHeapNewValue != null && isOffHeapWithoutCompressor(rgn)) {
+          ev.setNewValue(this.offHeapNewValue);
         } else {
+          moveNewValueToHeap();
           setNewValueInEvent(this.newValue, this.newValueObj, ev, this.deserializationPolicy);
         }
         if (this.filterRouting != null) {
@@ -326,6 +355,9 @@ public class UpdateOperation extends AbstractUpdateOperation {
       } else if (this.newValueObj != null) {
         buff.append("; newValueObj=");
         buff.append(this.newValueObj);
+      } else if (this.offHeapNewValue != null) {
+        buff.append("; newValue=(").append(this.offHeapNewValue.getDataSize())
+            .append(" bytes off-heap)");
       } else {
         buff.append("; newValue=");
         // buff.append(this.newValue);
@@ -363,12 +395,117 @@ public class UpdateOperation extends AbstractUpdateOperation {
       this.deserializationPolicy = (byte) (extraFlags & DESERIALIZATION_POLICY_MASK);
       if (hasDelta()) {
         this.deltaBytes = DataSerializer.readByteArray(in);
+      } else if ((extraFlags & HAS_DELTA_WITH_FULL_VALUE) != 0) {
+        this.newValue = DataSerializer.readByteArray(in);
+        this.deltaBytes = DataSerializer.readByteArray(in);
       } else {
+        readNewValue(in);
+      }
+    }
+
+    /**
+     * Reads the new value, straight into off-heap memory if {@link #readOffHeapValue} can.
+     */
+    void readNewValue(DataInput in) throws IOException {
+      this.offHeapNewValue = readOffHeapValue(in);
+      if (this.offHeapNewValue == null) {
         this.newValue = DataSerializer.readByteArray(in);
-        if ((extraFlags & HAS_DELTA_WITH_FULL_VALUE) != 0) {
-          this.deltaBytes = DataSerializer.readByteArray(in);
+      }
+    }
+
+    /**
+     * Reads a value written by {@link DistributedCacheOperation#writeValue} straight from the
+     * message buffer into off-heap memory if this member has off-heap memory and the value is at
+     * least {@link #OFF_HEAP_DIRECT_VALUE_THRESHOLD} bytes long. Otherwise returns null without
+     * consuming any input. The region is not known until the message is processed, so
+     * {@link #createEvent} moves the value back to the heap if the region does not store it
+     * off-heap.
+     */
+    @Retained
+    private StoredObject readOffHeapValue(DataInput in) throws IOException {
+      if (OFF_HEAP_DIRECT_VALUE_THRESHOLD < 0 || !(in instanceof ByteBufferInputStream)) {
+        return null;
+      }
+      MemoryAllocatorImpl allocator = MemoryAllocatorImpl.getAllocatorIfCreated();
+      if (allocator == null) {
+        return null;
+      }
+      ByteBufferInputStream bbis = (ByteBufferInputStream) in;
+      ByteBuffer bb = bbis.getBuffer().getBackingByteBuffer();
+      if (bb == null) {
+        return null;
+      }
+      int start = bbis.position();
+      int length = InternalDataSerializer.readArrayLength(in);
+      if (length < OFF_HEAP_DIRECT_VALUE_THRESHOLD) {
+        bbis.position(start);
+        return null;
+      }
+      OffHeapStoredObject value;
+      try {
+        value = (OffHeapStoredObject) allocator.allocate(length);
+      } catch (OutOfOffHeapMemoryException e) {
+        // leave it to the region to report when the entry is stored
+        bbis.position(start);
+        return null;
+      }
+      boolean copied = false;
+      try {
+        value.writeDataBytes(0, bb, length);
+        value.setSerialized(this.deserializationPolicy != DESERIALIZATION_POLICY_NONE);
+        copied = true;
+      } finally {
+        if (!copied) {
+          value.release();
         }
       }
+      return value;
+    }
+
+    @Unretained
+    StoredObject getOffHeapNewValue() {
+      return this.offHeapNewValue;
+    }
+
+    private static boolean isOffHeapWithoutCompressor(LocalRegion region) {
+      return region.getOffHeap() && region.getCompressor() == null;
+    }
+
+    /**
+     * Copies a new value that was read into off-heap memory to a heap byte array and releases the
+     * off-heap copy. Used when the region turns out not to store its values off-heap.
+     */
+    void moveNewValueToHeap() {
+      StoredObject value = this.offHeapNewValue;
+      if (value != null) {
+        byte[] bytes = new byte[value.getDataSize()];
+        value.readDataBytes(0, bytes);
+        this.newValue = bytes;
+        release();
+      }
+    }
+
+    @Override
+    protected void process(final ClusterDistributionManager dm) {
+      try {
+        super.process(dm);
+      } finally {
+        release();
+      }
+    }
+
+    /**
+     * Releases the new value if it was read into off-heap memory. The event created from this
+     * message holds its own reference to it.
+     */
+    @Override
+    @Released
+    public void release() {
+      StoredObject value = this.offHeapNewValue;
+      if (value != null) {
+        this.offHeapNewValue = null;
+        value.release();
+      }
     }
 
     @Override
@@ -530,7 +667,15 @@ public class UpdateOperation extends AbstractUpdateOperation {
     @Override
     public void fromData(DataInput in) throws IOException, ClassNotFoundException {
       super.fromData(in);
-      this.clientID = ClientProxyMembershipID.readCanonicalized(in);
+      boolean finished = false;
+      try {
+        this.clientID = ClientProxyMembershipID.readCanonicalized(in);
+        finished = true;
+      } finally {
+        if (!finished) {
+          release();
+        }
+      }
     }
 
     @Override
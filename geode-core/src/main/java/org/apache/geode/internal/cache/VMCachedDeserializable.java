@@ -35,6 +35,9 @@ import org.apache.geode.pdx.PdxInstance;
  */
 public class VMCachedDeserializable implements CachedDeserializable, DataSerializableFixedID {
 
+  private static final SerializedValueCache serializedValueCache =
+      SerializedValueCache.getInstance();
+
   /** The cached value */
   private volatile Object value;
   private int valueSize; // only set in constructor or fromData
@@ -106,13 +109,15 @@ public class VMCachedDeserializable implements CachedDeserializable, DataSeriali
           v = this.value;
           if (!(v instanceof byte[]))
             return v;
-          v = EntryEventImpl.deserialize((byte[]) v);
+          byte[] serializedValue = (byte[]) v;
+          v = EntryEventImpl.deserialize(serializedValue);
           if (threadAlreadySynced && !isCacheListenerInvoked) {
             // to fix bug 43355 and 43409 don't change the value form
             // if the thread that called us was already synced.
             return v;
           }
           if (!(v instanceof PdxInstance)) {
+            keepSerializedValue(serializedValue);
             this.value = v;
             if (regionMap != null) {
               callFinish = regionMap.beginChangeValueForm(le, this, v);
@@ -128,8 +133,10 @@ public class VMCachedDeserializable implements CachedDeserializable, DataSeriali
           v = this.value;
           if (!(v instanceof byte[]))
             return v;
-          v = EntryEventImpl.deserialize((byte[]) v);
+          byte[] serializedValue = (byte[]) v;
+          v = EntryEventImpl.deserialize(serializedValue);
           if (!(v instanceof PdxInstance)) {
+            keepSerializedValue(serializedValue);
             this.value = v;
           }
           // ObjectSizer os = null;
@@ -186,9 +193,40 @@ public class VMCachedDeserializable implements CachedDeserializable, DataSeriali
     Object v = this.value;
     if (v instanceof byte[])
       return (byte[]) v;
+    if (serializedValueCache != null) {
+      byte[] serializedValue = serializedValueCache.get(this);
+      if (serializedValue == null) {
+        serializedValue = EntryEventImpl.serialize(v);
+        serializedValueCache.put(this, serializedValue);
+      }
+      return serializedValue;
+    }
     return EntryEventImpl.serialize(v);
   }
 
+  /**
+   * Keeps the serialized form in the {@link SerializedValueCache}, if there is one, when the value
+   * changes to its deserialized form.
+   */
+  private void keepSerializedValue(byte[] serializedValue) {
+    if (serializedValueCache != null) {
+      serializedValueCache.put(this, serializedValue);
+    }
+  }
+
+  /**
+   * Returns the serialized form if it is kept in the {@link SerializedValueCache}, so that sending
+   * the value does not serialize it again.
+   */
+  @Override
+  public Object getValuePreferringSerialized() {
+    Object v = this.value;
+    if (serializedValueCache == null || v instanceof byte[]) {
+      return v;
+    }
+    return getSerializedValue();
+  }
+
   /**
    * Return current value regardless of whether it is serialized or deserialized: if it was
    * serialized than it is a byte[], otherwise it is not a byte[].
@@ -218,7 +256,7 @@ public class VMCachedDeserializable implements CachedDeserializable, DataSeriali
 
   public void toData(DataOutput out) throws IOException {
     // fix for bug 38309
-    DataSerializer.writeObjectAsByteArray(getValue(), out);
+    DataSerializer.writeObjectAsByteArray(getValuePreferringSerialized(), out);
   }
 
   String getShortClassName() {
@@ -160,6 +160,10 @@ public class VMLRURegionMap extends AbstractRegionMap {
         // no need to worry about the value changing form with entry LRU.
         return false;
       }
+      if (getEvictionController().keepsSerializedSize()) {
+        // approximate sizing keeps the size of the serialized form
+        return false;
+      }
       Object curVal = le.getValue(); // OFFHEAP: _getValue ok
       if (curVal != cd) {
         if (cd instanceof StoredObject) {
@@ -75,6 +75,12 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
   // Internal for polling the JVM for changes in heap memory usage.
   private static final int POLLER_INTERVAL = Integer.getInteger(POLLER_INTERVAL_PROP, 500);
 
+  // Property for starting eviction when heap usage is projected to reach the eviction threshold
+  // within this many milliseconds, based on the rate memory is promoted to the tenured pool.
+  // Eviction only starts once the threshold is crossed when this is 0, the default.
+  public static final String PROACTIVE_EVICTION_HORIZON_PROP =
+      DistributionConfig.GEMFIRE_PREFIX + "heapProactiveEvictionHorizon";
+
   // This holds a new event as it transitions from updateStateAndSendEvent(...) to fillInProfile()
   private ThreadLocal<MemoryEvent> upcomingEvent = new ThreadLocal<MemoryEvent>();
 
@@ -161,6 +167,9 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
   private final InternalCache cache;
   private final ResourceManagerStats stats;
 
+  private final long proactiveEvictionHorizon = Long.getLong(PROACTIVE_EVICTION_HORIZON_PROP, 0);
+  private final TenuredGrowthRate tenuredGrowthRate = new TenuredGrowthRate();
+
   private static boolean testDisableMemoryUpdates = false;
   private static long testBytesUsedForThresholdSet = -1;
 
@@ -465,8 +474,16 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
   public void updateStateAndSendEvent(long bytesUsed) {
     this.stats.changeTenuredHeapUsed(bytesUsed);
     synchronized (this) {
+      long projectedBytesUsed = projectBytesUsed(bytesUsed);
       MemoryState oldState = this.mostRecentEvent.getState();
       MemoryState newState = this.thresholds.computeNextState(oldState, bytesUsed);
+      if (newState.isNormal()
+          && this.thresholds.computeNextState(oldState, projectedBytesUsed).isEviction()) {
+        // Start evicting before the threshold is crossed. The critical state is left to the
+        // bytes actually used.
+        newState = newState == MemoryState.NORMAL ? MemoryState.EVICTION
+            : MemoryState.EVICTION_CRITICAL_DISABLED;
+      }
       if (oldState != newState) {
         setUsageThresholdOnMXBean(bytesUsed);
 
@@ -474,7 +491,7 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
           this.currentState = newState;
 
           MemoryEvent event = new MemoryEvent(ResourceType.HEAP_MEMORY, oldState, newState,
-              this.cache.getMyId(), bytesUsed, true, this.thresholds);
+              this.cache.getMyId(), bytesUsed, projectedBytesUsed, true, this.thresholds);
 
           this.upcomingEvent.set(event);
           processLocalEvent(event);
@@ -486,13 +503,26 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
         // again with an updated number of bytes used.
       } else if (!oldState.isNormal() && bytesUsed != this.mostRecentEvent.getBytesUsed()) {
         MemoryEvent event = new MemoryEvent(ResourceType.HEAP_MEMORY, oldState, newState,
-            this.cache.getMyId(), bytesUsed, true, this.thresholds);
+            this.cache.getMyId(), bytesUsed, projectedBytesUsed, true, this.thresholds);
         this.upcomingEvent.set(event);
         processLocalEvent(event);
       }
     }
   }
 
+  /**
+   * Returns the number of bytes of heap expected to be used once the proactive eviction horizon has
+   * passed, or bytesUsed if proactive eviction is disabled.
+   */
+  private long projectBytesUsed(long bytesUsed) {
+    if (this.proactiveEvictionHorizon <= 0) {
+      return bytesUsed;
+    }
+    this.tenuredGrowthRate.sample(System.nanoTime(), bytesUsed);
+    this.stats.changeTenuredHeapGrowthRate(this.tenuredGrowthRate.getBytesPerSecond());
+    return this.tenuredGrowthRate.project(bytesUsed, this.proactiveEvictionHorizon);
+  }
+
   /**
    * Update resource manager stats based upon the given event.
    *
@@ -508,6 +538,9 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
 
       if (event.getState().isEviction() && !event.getPreviousState().isEviction()) {
         this.stats.incEvictionStartEvents();
+        if (event.getBytesUsed() < event.getThresholds().getEvictionThresholdBytes()) {
+          this.stats.incProactiveEvictionStartEvents();
+        }
       } else if (!event.getState().isEviction() && event.getPreviousState().isEviction()) {
         this.stats.incEvictionStopEvents();
       }
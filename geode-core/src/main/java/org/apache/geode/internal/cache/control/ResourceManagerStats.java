@@ -68,6 +68,8 @@ public class ResourceManagerStats {
   private static final int evictionThresholdId;
   private static final int offHeapEvictionThresholdId;
   private static final int tenuredHeapUsageId;
+  private static final int tenuredHeapGrowthRateId;
+  private static final int proactiveEvictionStartEventsId;
   private static final int resourceEventsDeliveredId;
   private static final int resourceEventQueueSizeId;
   private static final int thresholdEventProcessorThreadJobsId;
@@ -178,6 +180,12 @@ public class ResourceManagerStats {
                 "The currently set off-heap eviction threshold value in bytes", "bytes"),
             f.createLongGauge("tenuredHeapUsed", "Total memory used in the tenured/old space",
                 "bytes"),
+            f.createLongGauge("tenuredHeapGrowthRate",
+                "The estimated rate at which memory is promoted to the tenured/old space",
+                "bytes/second"),
+            f.createIntGauge("proactiveEvictionStartEvents",
+                "Total number of times eviction started before heap usage went over eviction threshold.",
+                "events"),
             f.createIntCounter("resourceEventsDelivered",
                 "Total number of resource events delivered to listeners", "events"),
             f.createIntGauge("resourceEventQueueSize",
@@ -226,6 +234,8 @@ public class ResourceManagerStats {
     evictionThresholdId = type.nameToId("evictionThreshold");
     offHeapEvictionThresholdId = type.nameToId("offHeapEvictionThreshold");
     tenuredHeapUsageId = type.nameToId("tenuredHeapUsed");
+    tenuredHeapGrowthRateId = type.nameToId("tenuredHeapGrowthRate");
+    proactiveEvictionStartEventsId = type.nameToId("proactiveEvictionStartEvents");
     resourceEventsDeliveredId = type.nameToId("resourceEventsDelivered");
     resourceEventQueueSizeId = type.nameToId("resourceEventQueueSize");
     thresholdEventProcessorThreadJobsId = type.nameToId("thresholdEventProcessorThreadJobs");
@@ -509,6 +519,22 @@ public class ResourceManagerStats {
     return this.stats.getLong(tenuredHeapUsageId);
   }
 
+  public void changeTenuredHeapGrowthRate(long newValue) {
+    this.stats.setLong(tenuredHeapGrowthRateId, newValue);
+  }
+
+  public long getTenuredHeapGrowthRate() {
+    return this.stats.getLong(tenuredHeapGrowthRateId);
+  }
+
+  public void incProactiveEvictionStartEvents() {
+    this.stats.incInt(proactiveEvictionStartEventsId, 1);
+  }
+
+  public int getProactiveEvictionStartEvents() {
+    return this.stats.getInt(proactiveEvictionStartEventsId);
+  }
+
   public void incResourceEventQueueSize(int delta) {
     this.stats.incInt(resourceEventQueueSizeId, delta);
   }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * TenuredGrowthRate estimates how fast memory is promoted to the tenured space from successive
+ * samples of the tenured heap used. The growth between two samples is folded into an exponentially
+ * weighted moving average, so that a single burst of promotion does not by itself look like a
+ * trend. A drop in usage means the tenured space was collected, not that memory is being promoted
+ * at a negative rate, so it only becomes the base for the next sample.
+ *
+ * <p>
+ * This class is not thread safe; callers synchronize access to it.
+ */
+class TenuredGrowthRate {
+
+  /** The weight of the newest sample in the average */
+  static final double SAMPLE_WEIGHT = 0.25;
+
+  /**
+   * Samples closer together than this, such as a usage notification right after a poll, are
+   * ignored since the little growth between them says nothing about the rate.
+   */
+  static final long MINIMUM_SAMPLE_INTERVAL_NANOS = MILLISECONDS.toNanos(100);
+
+  private long lastSampleNanos;
+
+  private long lastBytesUsed = -1;
+
+  private double bytesPerNano;
+
+  /**
+   * Records the number of bytes of tenured heap used at the given {@link System#nanoTime()}.
+   */
+  void sample(long nanoTime, long bytesUsed) {
+    if (this.lastBytesUsed != -1) {
+      long elapsedNanos = nanoTime - this.lastSampleNanos;
+      if (elapsedNanos < MINIMUM_SAMPLE_INTERVAL_NANOS) {
+        return;
+      }
+      if (bytesUsed >= this.lastBytesUsed) {
+        double sampleBytesPerNano = (double) (bytesUsed - this.lastBytesUsed) / elapsedNanos;
+        this.bytesPerNano =
+            SAMPLE_WEIGHT * sampleBytesPerNano + (1 - SAMPLE_WEIGHT) * this.bytesPerNano;
+      }
+    }
+    this.lastSampleNanos = nanoTime;
+    this.lastBytesUsed = bytesUsed;
+  }
+
+  /**
+   * Returns the estimated number of bytes promoted to the tenured space each second.
+   */
+  long getBytesPerSecond() {
+    return (long) (this.bytesPerNano * SECONDS.toNanos(1));
+  }
+
+  /**
+   * Returns the number of bytes of tenured heap that will be used once the given number of
+   * milliseconds have passed if memory keeps being promoted at the estimated rate.
+   */
+  long project(long bytesUsed, long horizonMillis) {
+    return bytesUsed + (long) (this.bytesPerNano * MILLISECONDS.toNanos(horizonMillis));
+  }
+}
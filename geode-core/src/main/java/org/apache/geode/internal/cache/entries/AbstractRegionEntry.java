@@ -1400,6 +1400,7 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
       }
     } else {
       nv = compress(r, nv, event);
+      nv = CachedDeserializableFactory.inlineSmallValue(nv);
     }
     return nv;
   }
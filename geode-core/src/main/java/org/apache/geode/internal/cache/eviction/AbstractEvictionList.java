@@ -22,6 +22,7 @@ import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
 
 abstract class AbstractEvictionList implements EvictionList {
   private static final Logger logger = LogService.getLogger();
@@ -68,22 +69,34 @@ abstract class AbstractEvictionList implements EvictionList {
   }
 
   @Override
-  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
-    if (regionVersionVector != null) {
-      return; // when concurrency checks are enabled the clear operation removes entries iteratively
-    }
-
+  public void clear(RegionVersionVector<?> regionVersionVector, BucketRegion bucketRegion) {
     synchronized (this) {
-      if (bucketRegion != null) {
-        getStatistics().decrementCounter(bucketRegion.getCounter());
-        bucketRegion.resetCounter();
-      } else {
-        getStatistics().resetCounter();
+      if (regionVersionVector == null) {
+        resetCounters(getStatistics(), bucketRegion);
       }
-      initEmptyList();
+      clearNodes(regionVersionVector);
+    }
+  }
+
+  static void resetCounters(EvictionCounters counters, BucketRegion bucketRegion) {
+    if (bucketRegion != null) {
+      counters.decrementCounter(bucketRegion.getCounter());
+      bucketRegion.resetCounter();
+    } else {
+      counters.resetCounter();
     }
   }
 
+  /**
+   * Empties the list without touching the counters, which the caller resets.
+   */
+  void clearNodes(RegionVersionVector<?> regionVersionVector) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    initEmptyList();
+  }
+
   private synchronized void initEmptyList() {
     size.set(0);
     head.setNext(tail);
@@ -167,7 +180,28 @@ abstract class AbstractEvictionList implements EvictionList {
     return evictionNode;
   }
 
-  protected boolean isEvictable(EvictionNode evictionNode) {
+  /**
+   * Returns the first node of the list without removing it, or null if the list is empty. The list
+   * is not locked, so the node is only a hint of what would be evicted next.
+   */
+  EvictionNode peekHeadEntry() {
+    EvictionNode evictionNode = head.next();
+    return evictionNode == tail ? null : evictionNode;
+  }
+
+  /**
+   * Returns the hash of the key of a region entry, which stays the same when the entry is destroyed
+   * and created again, or the identity hash of any other node.
+   */
+  static int hashOf(EvictionNode evictionNode) {
+    if (evictionNode instanceof HashEntry) {
+      // region entries are added to the list only once they are in the region map
+      return ((HashEntry<?, ?>) evictionNode).getEntryHash();
+    }
+    return System.identityHashCode(evictionNode);
+  }
+
+  protected static boolean isEvictable(EvictionNode evictionNode) {
     if (evictionNode.isEvicted()) {
       if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
         logger.trace(LogMarker.LRU_CLOCK_VERBOSE,
@@ -70,4 +70,9 @@ public interface EvictionController {
 
   void setPerEntryOverhead(int entryOverhead);
 
+  /**
+   * Returns true if an entry keeps the size of its serialized value once the value is deserialized.
+   */
+  boolean keepsSerializedSize();
+
 }
@@ -45,7 +45,7 @@ public interface EvictionList {
   /**
    * called when an LRU map is cleared... resets stats and releases prev and next.
    */
-  void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion);
+  void clear(RegionVersionVector<?> regionVersionVector, BucketRegion bucketRegion);
 
   /**
    * Returns the number of EvictionNodes in the EvictionList.
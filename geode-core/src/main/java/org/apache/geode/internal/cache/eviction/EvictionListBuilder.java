@@ -22,6 +22,8 @@ public class EvictionListBuilder {
 
   private final boolean evictionScanAsync;
 
+  private final int evictionListShards;
+
   private final EvictionController controller;
 
   public EvictionListBuilder(EvictionController evictionController) {
@@ -29,17 +31,28 @@ public class EvictionListBuilder {
     Optional<Boolean> asyncScan =
         SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
     evictionScanAsync = asyncScan.orElse(true);
+    Optional<Integer> shards =
+        SystemPropertyHelper.getProductIntegerProperty(SystemPropertyHelper.EVICTION_LIST_SHARDS);
+    evictionListShards = shards.orElse(1);
   }
 
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
+    } else if (this.controller.getEvictionAlgorithm().isLFU()) {
+      return new TinyLFUList(this.controller);
+    } else if (evictionListShards > 1) {
+      return new ShardedEvictionList(this.controller, evictionListShards, this::createLRUList);
+    } else {
+      return createLRUList();
+    }
+  }
+
+  private AbstractEvictionList createLRUList() {
+    if (evictionScanAsync) {
+      return new LRUListWithAsyncSorting(this.controller);
     } else {
-      if (evictionScanAsync) {
-        return new LRUListWithAsyncSorting(this.controller);
-      } else {
-        return new LRUListWithSyncSorting(this.controller);
-      }
+      return new LRUListWithSyncSorting(this.controller);
     }
   }
 
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * FrequencySketch estimates how many times a hash has been recorded using a count-min sketch of
+ * four 4-bit counters per hash, sixteen of which are packed into each long of the table. An
+ * estimate may be too high because of collisions but is never too low, and a counter stops at 15.
+ * Once ten times as many hashes as the table has longs have been recorded, every counter is halved
+ * so that the estimates follow what has been used recently.
+ *
+ * <p>
+ * This class is not thread safe; callers synchronize access to it.
+ */
+class FrequencySketch {
+
+  static final int MAXIMUM_FREQUENCY = 15;
+
+  private static final long[] SEEDS =
+      {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  /** Keeps the low three bits of each counter after the table has been shifted right by one */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  /** Selects the lowest bit of each counter */
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private static final int MAXIMUM_TABLE_LENGTH = 1 << 26;
+
+  private long[] table;
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int size;
+
+  FrequencySketch() {
+    ensureCapacity(1);
+  }
+
+  /**
+   * Grows the table so that it can tell apart about the given number of hashes. Growing forgets
+   * every hash recorded so far.
+   */
+  void ensureCapacity(long maximumSize) {
+    int maximum = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_TABLE_LENGTH);
+    if (table != null && table.length >= maximum) {
+      return;
+    }
+    table = new long[Integer.highestOneBit(maximum - 1) << 1];
+    tableMask = table.length - 1;
+    sampleSize = 10 * table.length;
+    size = 0;
+  }
+
+  int getTableLength() {
+    return table.length;
+  }
+
+  /**
+   * Returns the estimated number of times the hash has been recorded, at most
+   * {@link #MAXIMUM_FREQUENCY}.
+   */
+  int frequency(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+    int frequency = MAXIMUM_FREQUENCY;
+    for (int i = 0; i < 4; i++) {
+      int offset = (start + i) << 2;
+      int count = (int) ((table[indexOf(spread, i)] >>> offset) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records one more use of the hash.
+   */
+  void increment(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(spread, i), start + i);
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Halves every counter, and the number of recorded hashes with them.
+   */
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int spread, int i) {
+    long hash = (spread + SEEDS[i]) * SEEDS[i];
+    hash += hash >>> 32;
+    return ((int) hash) & tableMask;
+  }
+
+  private static int spread(int hash) {
+    int spread = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    spread = ((spread >>> 16) ^ spread) * 0x45d9f3b;
+    return (spread >>> 16) ^ spread;
+  }
+}
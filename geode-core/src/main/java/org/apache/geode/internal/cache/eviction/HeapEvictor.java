@@ -321,9 +321,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
           // to update the number of fast loops to perform.
           synchronized (evictionLock) {
             numEvictionLoopsCompleted = 0;
-            numFastLoops = (int) ((event.getBytesUsed()
-                - event.getThresholds().getEvictionThresholdClearBytes() + getTotalBytesToEvict())
-                / getTotalBytesToEvict());
+            numFastLoops = computeNumFastLoops(event);
             evictionLock.notifyAll();
           }
 
@@ -338,9 +336,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
         }
 
         numEvictionLoopsCompleted = 0;
-        numFastLoops =
-            (int) ((event.getBytesUsed() - event.getThresholds().getEvictionThresholdClearBytes()
-                + getTotalBytesToEvict()) / getTotalBytesToEvict());
+        numFastLoops = computeNumFastLoops(event);
         if (logger.isDebugEnabled()) {
           logger.debug("Starting eviction in response to memory event: {}", event);
         }
@@ -408,6 +404,18 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
+  /**
+   * Returns the number of eviction loops needed to bring memory usage below the eviction threshold.
+   * When eviction was started before the threshold was crossed, the usage that is projected once
+   * memory has kept being allocated for a while is used instead, so that eviction keeps pace with
+   * the allocation rate.
+   */
+  private int computeNumFastLoops(MemoryEvent event) {
+    return (int) ((event.getProjectedBytesUsed()
+        - event.getThresholds().getEvictionThresholdClearBytes() + getTotalBytesToEvict())
+        / getTotalBytesToEvict());
+  }
+
   protected int getEvictionLoopDelayTime() {
     int delayTime = 850; // The waiting period when running fast loops
     if (numEvictionLoopsCompleted - numFastLoops > 2) {
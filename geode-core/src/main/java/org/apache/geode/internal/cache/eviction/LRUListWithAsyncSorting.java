@@ -21,7 +21,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
 
-import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
@@ -96,8 +95,8 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
   }
 
   @Override
-  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
-    super.clear(regionVersionVector, bucketRegion);
+  void clearNodes(RegionVersionVector<?> regionVersionVector) {
+    super.clearNodes(regionVersionVector);
     recentlyUsedCounter.set(0);
   }
 
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+
+/**
+ * ShardedEvictionList splits the LRU list of a region into several lists, each with its own lock,
+ * so that threads adding and removing entries do not all wait for the same lock. The list of an
+ * entry is chosen by the hash of the entry. To evict, the heads of all the lists are sampled and
+ * the entry is taken from the list whose head has not been recently used, preferring the longest
+ * list so that the lists stay about the same size.
+ */
+public class ShardedEvictionList implements EvictionList {
+
+  private final AbstractEvictionList[] shards;
+
+  private final int shardMask;
+
+  private final EvictionController controller;
+
+  /**
+   * @param shardCount the number of lists, rounded up to a power of two
+   * @param shardFactory creates each of the lists
+   */
+  ShardedEvictionList(EvictionController controller, int shardCount,
+      Supplier<AbstractEvictionList> shardFactory) {
+    this.controller = controller;
+    int count = Integer.highestOneBit(Math.max(shardCount, 1) - 1) << 1;
+    count = Math.max(count, 1);
+    this.shards = new AbstractEvictionList[count];
+    for (int i = 0; i < count; i++) {
+      this.shards[i] = shardFactory.get();
+    }
+    this.shardMask = count - 1;
+  }
+
+  int getShardCount() {
+    return shards.length;
+  }
+
+  AbstractEvictionList getShard(EvictionNode evictionNode) {
+    return shards[shardIndex(evictionNode)];
+  }
+
+  int shardIndex(EvictionNode evictionNode) {
+    int hash = AbstractEvictionList.hashOf(evictionNode);
+    return (hash ^ (hash >>> 16)) & shardMask;
+  }
+
+  @Override
+  public void closeStats() {
+    getStatistics().close();
+  }
+
+  @Override
+  public EvictionCounters getStatistics() {
+    return controller.getCounters();
+  }
+
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    getShard(evictionNode).appendEntry(evictionNode);
+  }
+
+  @Override
+  public void destroyEntry(EvictionNode evictionNode) {
+    getShard(evictionNode).destroyEntry(evictionNode);
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    int first = chooseShard();
+    for (int i = 0; i < shards.length; i++) {
+      EvictableEntry evictableEntry = shards[(first + i) & shardMask].getEvictableEntry();
+      if (evictableEntry != null) {
+        return evictableEntry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Samples the head of each list, starting from a random list so that evicting threads spread
+   * over the lists, and returns the index of the list to evict from.
+   */
+  int chooseShard() {
+    int start = shards.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(shards.length);
+    int best = start;
+    boolean bestHeadUnused = false;
+    int bestSize = 0;
+    for (int i = 0; i < shards.length; i++) {
+      int index = (start + i) & shardMask;
+      AbstractEvictionList shard = shards[index];
+      int size = shard.size();
+      EvictionNode head = shard.peekHeadEntry();
+      if (size <= 0 || head == null) {
+        continue;
+      }
+      boolean headUnused = !head.isRecentlyUsed();
+      if (bestSize == 0 || (headUnused && !bestHeadUnused)
+          || (headUnused == bestHeadUnused && size > bestSize)) {
+        best = index;
+        bestHeadUnused = headUnused;
+        bestSize = size;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public void clear(RegionVersionVector<?> regionVersionVector, BucketRegion bucketRegion) {
+    if (regionVersionVector == null) {
+      AbstractEvictionList.resetCounters(getStatistics(), bucketRegion);
+    }
+    for (AbstractEvictionList shard : shards) {
+      shard.clearNodes(regionVersionVector);
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (AbstractEvictionList shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // the entry is not known, so count it against any list: each list sees its share
+    int index = shards.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(shards.length);
+    shards[index].incrementRecentlyUsed();
+  }
+}
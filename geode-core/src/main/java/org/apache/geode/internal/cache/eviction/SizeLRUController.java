@@ -19,6 +19,8 @@ import org.apache.geode.cache.EvictionAlgorithm;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.cache.CachedDeserializableFactory;
 import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.size.SizeClassOnceObjectSizer;
 import org.apache.geode.internal.size.Sizeable;
 
 abstract class SizeLRUController extends AbstractEvictionController {
@@ -27,10 +29,30 @@ abstract class SizeLRUController extends AbstractEvictionController {
 
   private final ObjectSizer sizer;
 
+  private final boolean approximateSizing;
+
   SizeLRUController(EvictionCounters evictionCounters, EvictionAction evictionAction,
       ObjectSizer sizer, EvictionAlgorithm algorithm) {
     super(evictionCounters, evictionAction, algorithm);
-    this.sizer = sizer;
+    int sampleInterval = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SIZING_SAMPLE_INTERVAL).orElse(0);
+    this.approximateSizing = sampleInterval > 0;
+    if (approximateSizing && (sizer == null || sizer == ObjectSizer.SIZE_CLASS_ONCE
+        || sizer == ObjectSizer.REFLECTION_SIZE)) {
+      // the built in sizers walk the object graph, so only walk it for a sample of the values
+      this.sizer = SizeClassOnceObjectSizer.withSampleInterval(sampleInterval);
+    } else {
+      this.sizer = sizer;
+    }
+  }
+
+  ObjectSizer getSizer() {
+    return sizer;
+  }
+
+  @Override
+  public boolean keepsSerializedSize() {
+    return approximateSizing;
   }
 
   public int getPerEntryOverhead() {
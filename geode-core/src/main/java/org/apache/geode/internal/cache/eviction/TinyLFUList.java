@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * TinyLFUList adds new entries to a small window list, which holds about one percent of the
+ * entries. Entries that fall out of the window are appended to the main list and become the
+ * candidate for eviction along with the least recently used entry of the main list, the victim. A
+ * {@link FrequencySketch} estimates how often each of them has been used, and the candidate is
+ * only kept in place of the victim if it has been used more often. Entries that are used only once,
+ * such as by a scan of the region, are thus evicted before the entries that are used the most.
+ *
+ * <p>
+ * The sketch records an entry when it is added to the list, and each time its recently used bit is
+ * found set while looking for a victim or a candidate. Entries are recorded by the hash of their
+ * key, so that an entry that is evicted and created again keeps its history until the sketch ages
+ * it out.
+ *
+ * <p>
+ * When the candidate is evicted instead of the victim it is counted as a greedy return in the
+ * eviction statistics.
+ */
+class TinyLFUList implements EvictionList {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The percentage of the entries that are kept in the window */
+  static final int WINDOW_PERCENT = 1;
+
+  private final EvictionController controller;
+
+  private final Segment window;
+
+  private final Segment main;
+
+  /** The nodes in the window, so that a destroyed node is unlinked from the right list */
+  private final Set<EvictionNode> windowNodes =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  TinyLFUList(EvictionController controller) {
+    this.controller = controller;
+    this.window = new Segment();
+    this.main = new Segment();
+    if (controller.getEvictionAlgorithm() == EvictionAlgorithm.LFU_ENTRY) {
+      // the sketch forgets everything when it grows, so size it for the region up front
+      sketch.ensureCapacity(controller.getLimit());
+    }
+  }
+
+  @Override
+  public void closeStats() {
+    getStatistics().close();
+  }
+
+  @Override
+  public EvictionCounters getStatistics() {
+    return controller.getCounters();
+  }
+
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list, later uses are recorded through the recently used bit
+      return;
+    }
+
+    // adding the entry records the use that set its recently used bit
+    evictionNode.unsetRecentlyUsed();
+    sketch.increment(AbstractEvictionList.hashOf(evictionNode));
+    window.appendEntry(evictionNode);
+    windowNodes.add(evictionNode);
+    sketch.ensureCapacity(size());
+    while (window.size() > getWindowMaximum()) {
+      EvictionNode overflow = window.unlinkHeadEntry();
+      windowNodes.remove(overflow);
+      main.appendEntry(overflow);
+    }
+  }
+
+  int getWindowMaximum() {
+    return Math.max(1, size() * WINDOW_PERCENT / 100);
+  }
+
+  @Override
+  public synchronized void destroyEntry(EvictionNode evictionNode) {
+    boolean removed;
+    if (windowNodes.remove(evictionNode)) {
+      removed = window.removeEntry(evictionNode);
+    } else {
+      removed = main.removeEntry(evictionNode);
+    }
+    if (removed) {
+      getStatistics().incDestroys();
+    }
+  }
+
+  @Override
+  public synchronized EvictableEntry getEvictableEntry() {
+    long evaluations = 0;
+    try {
+      // the most recent entry to fall out of the window competes with the least recently used one
+      for (EvictionNode victim; (victim = main.peekHeadEntry()) != null;) {
+        evaluations++;
+        if (!AbstractEvictionList.isEvictable(victim)) {
+          main.unlinkEntry(victim);
+          continue;
+        }
+        if (recordIfRecentlyUsed(victim)) {
+          // give it a second chance like the other lru lists
+          main.unlinkEntry(victim);
+          main.appendEntry(victim);
+          continue;
+        }
+        EvictionNode candidate = main.peekTailEntry();
+        if (candidate != victim && AbstractEvictionList.isEvictable(candidate)) {
+          evaluations++;
+          recordIfRecentlyUsed(candidate);
+          int candidateFrequency = sketch.frequency(AbstractEvictionList.hashOf(candidate));
+          int victimFrequency = sketch.frequency(AbstractEvictionList.hashOf(victim));
+          if (candidateFrequency <= victimFrequency) {
+            if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+              logger.trace(LogMarker.LRU_CLOCK_VERBOSE,
+                  "rejecting candidate {} used {} times in favor of {} used {} times", candidate,
+                  candidateFrequency, victim, victimFrequency);
+            }
+            getStatistics().incGreedyReturns(1);
+            victim = candidate;
+          }
+        }
+        main.unlinkEntry(victim);
+        return (EvictableEntry) victim;
+      }
+
+      // the main list is empty so evict from the window
+      for (EvictionNode evictionNode; (evictionNode = window.unlinkHeadEntry()) != null;) {
+        evaluations++;
+        windowNodes.remove(evictionNode);
+        if (AbstractEvictionList.isEvictable(evictionNode)) {
+          return (EvictableEntry) evictionNode;
+        }
+      }
+      return null;
+    } finally {
+      getStatistics().incEvaluations(evaluations);
+    }
+  }
+
+  private boolean recordIfRecentlyUsed(EvictionNode evictionNode) {
+    if (!evictionNode.isRecentlyUsed()) {
+      return false;
+    }
+    evictionNode.unsetRecentlyUsed();
+    sketch.increment(AbstractEvictionList.hashOf(evictionNode));
+    return true;
+  }
+
+  synchronized int frequency(EvictionNode evictionNode) {
+    return sketch.frequency(AbstractEvictionList.hashOf(evictionNode));
+  }
+
+  @Override
+  public synchronized void clear(RegionVersionVector<?> regionVersionVector,
+      BucketRegion bucketRegion) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    AbstractEvictionList.resetCounters(getStatistics(), bucketRegion);
+    window.clear();
+    main.clear();
+    windowNodes.clear();
+  }
+
+  @Override
+  public int size() {
+    return window.size() + main.size();
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // the entry is not known here, so its use is recorded when its recently used bit is found set
+  }
+
+  /**
+   * One of the two lists, which only links its nodes in order. The enclosing list decides what to
+   * evict and updates the statistics, and holds its lock while calling any of these methods.
+   */
+  private static class Segment {
+
+    private final EvictionNode head = new GuardNode();
+
+    private final EvictionNode tail = new GuardNode();
+
+    /** Read without the lock of the enclosing list by {@link TinyLFUList#size()} */
+    private volatile int size;
+
+    Segment() {
+      clear();
+    }
+
+    int size() {
+      return size;
+    }
+
+    void clear() {
+      head.setNext(tail);
+      tail.setPrevious(head);
+      size = 0;
+    }
+
+    void appendEntry(EvictionNode evictionNode) {
+      evictionNode.setNext(tail);
+      evictionNode.setPrevious(tail.previous());
+      tail.previous().setNext(evictionNode);
+      tail.setPrevious(evictionNode);
+      size++;
+    }
+
+    /**
+     * Unlinks the node and returns true, or returns false if it is not in a list.
+     */
+    boolean removeEntry(EvictionNode evictionNode) {
+      if (evictionNode.next() == null) {
+        return false;
+      }
+      unlinkEntry(evictionNode);
+      return true;
+    }
+
+    void unlinkEntry(EvictionNode evictionNode) {
+      EvictionNode next = evictionNode.next();
+      EvictionNode previous = evictionNode.previous();
+      next.setPrevious(previous);
+      previous.setNext(next);
+      evictionNode.setNext(null);
+      evictionNode.setPrevious(null);
+      size--;
+    }
+
+    EvictionNode unlinkHeadEntry() {
+      EvictionNode evictionNode = peekHeadEntry();
+      if (evictionNode != null) {
+        unlinkEntry(evictionNode);
+      }
+      return evictionNode;
+    }
+
+    EvictionNode peekHeadEntry() {
+      EvictionNode evictionNode = head.next();
+      return evictionNode == tail ? null : evictionNode;
+    }
+
+    EvictionNode peekTailEntry() {
+      EvictionNode evictionNode = tail.previous();
+      return evictionNode == head ? null : evictionNode;
+    }
+  }
+}
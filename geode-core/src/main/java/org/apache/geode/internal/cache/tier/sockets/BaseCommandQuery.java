@@ -15,9 +15,9 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 
 import org.apache.geode.cache.RegionDestroyedException;
@@ -176,11 +176,9 @@ public abstract class BaseCommandQuery extends BaseCommand {
           }
         }
 
-        int numberOfChunks = (int) Math.ceil(selectResults.size() * 1.0 / MAXIMUM_CHUNK_SIZE);
-
         if (logger.isTraceEnabled()) {
-          logger.trace("{}: Query results size: {}: Entries in chunk: {}: Number of chunks: {}",
-              servConn.getName(), selectResults.size(), MAXIMUM_CHUNK_SIZE, numberOfChunks);
+          logger.trace("{}: Query results size: {}: Entries in chunk: {}", servConn.getName(),
+              selectResults.size(), MAXIMUM_CHUNK_SIZE);
         }
 
         long oldStart = start;
@@ -193,29 +191,8 @@ public abstract class BaseCommandQuery extends BaseCommand {
           queryResponseMsg.sendHeader();
         }
 
-        if (sendResults && numberOfChunks == 0) {
-          // Send 1 empty chunk
-          if (logger.isTraceEnabled()) {
-            logger.trace("{}: Creating chunk: 0", servConn.getName());
-          }
-          writeQueryResponseChunk(new Object[0], collectionType, true, servConn);
-          if (logger.isDebugEnabled()) {
-            logger.debug("{}: Sent chunk (1 of 1) of query response for query {}",
-                servConn.getName(), queryString);
-          }
-        } else {
-          // Send response to client.
-          // from 7.0, if the object is in the form of serialized byte array,
-          // send it as a part of ObjectPartList
-          if (hasSerializedObjects) {
-            sendResultsAsObjectPartList(numberOfChunks, servConn, selectResults.asList(), isStructs,
-                collectionType, queryString, cqQuery, sendCqResultsWithKey, sendResults,
-                securityService);
-          } else {
-            sendResultsAsObjectArray(selectResults, numberOfChunks, servConn, isStructs,
-                collectionType, queryString, cqQuery, sendCqResultsWithKey, sendResults);
-          }
-        }
+        sendQueryResults(selectResults, servConn, isStructs, collectionType, queryString,
+            cqQuery, sendCqResultsWithKey, sendResults, hasSerializedObjects, securityService);
 
         if (cqQuery != null) {
           // Set the CQ query result cache initialized flag.
@@ -347,37 +324,67 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
-  private void sendResultsAsObjectArray(SelectResults selectResults, int numberOfChunks,
-      ServerConnection servConn, boolean isStructs, CollectionType collectionType,
-      String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults)
-      throws IOException {
-    int resultIndex = 0;
-    // For CQ only as we dont want CQEntries which have null values.
-    int cqResultIndex = 0;
-    Object[] objs = selectResults.toArray();
-    for (int j = 0; j < numberOfChunks; j++) {
-      boolean incompleteArray = false;
+  /**
+   * Sends the results of a query to the client in chunks, after the header of the query response
+   * message has been sent. The last chunk is flagged as such, and empty results are sent as one
+   * empty last chunk.
+   */
+  void sendQueryResults(SelectResults<?> selectResults, ServerConnection servConn,
+      boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
+      boolean sendCqResultsWithKey, boolean sendResults, boolean hasSerializedObjects,
+      final SecurityService securityService) throws IOException {
+    if (sendResults && selectResults.isEmpty()) {
+      // Send 1 empty chunk
+      if (logger.isTraceEnabled()) {
+        logger.trace("{}: Creating chunk: 0", servConn.getName());
+      }
+      writeQueryResponseChunk(new Object[0], collectionType, true, servConn);
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: Sent chunk (1 of 1) of query response for query {}",
+            servConn.getName(), queryString);
+      }
+    } else if (hasSerializedObjects) {
+      // Send response to client.
+      // from 7.0, if the object is in the form of serialized byte array,
+      // send it as a part of ObjectPartList
+      sendResultsAsObjectPartList(selectResults, servConn, isStructs, collectionType, queryString,
+          cqQuery, sendCqResultsWithKey, sendResults, securityService);
+    } else {
+      sendResultsAsObjectArray(selectResults, servConn, isStructs, collectionType, queryString,
+          cqQuery, sendCqResultsWithKey, sendResults);
+    }
+  }
+
+  /**
+   * Sends the results in chunks of at most {@link #MAXIMUM_CHUNK_SIZE} entries. The results are
+   * walked with their iterator and each chunk is built only when it is about to be written, so a
+   * large result set is not copied into a second full-size array before being sent.
+   * <p>
+   * Only this server side copy is avoided: the query still produces its complete SelectResults
+   * before the first chunk is sent, chunks are written without waiting for the client to consume
+   * the previous ones, and the client collects every chunk before returning its results.
+   */
+  private void sendResultsAsObjectArray(SelectResults<?> selectResults, ServerConnection servConn,
+      boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
+      boolean sendCqResultsWithKey, boolean sendResults) throws IOException {
+    Iterator<?> resultsIterator = selectResults.iterator();
+    boolean lastChunk = false;
+    for (int j = 0; !lastChunk; j++) {
       if (logger.isTraceEnabled()) {
         logger.trace("{}: Creating chunk: {}", servConn.getName(), j);
       }
       Object[] results = new Object[MAXIMUM_CHUNK_SIZE];
-      for (int i = 0; i < MAXIMUM_CHUNK_SIZE; i++) {
-        if ((resultIndex) == objs.length) {
-          incompleteArray = true;
-          break;
-        }
+      int i = 0;
+      while (i < MAXIMUM_CHUNK_SIZE && resultsIterator.hasNext()) {
+        Object result = resultsIterator.next();
         if (logger.isTraceEnabled()) {
           logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs[resultIndex]);
+              (j * MAXIMUM_CHUNK_SIZE) + i, result);
         }
         if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs[resultIndex];
+          CqEntry e = (CqEntry) result;
           // The value may have become null because of entry invalidation.
           if (e.getValue() == null) {
-            resultIndex++;
-            // i will get incremented anyway so we need to decrement it back so
-            // that results[i] is not null.
-            i--;
             continue;
           }
           // Add the key into CQ results cache.
@@ -397,72 +404,60 @@ public abstract class BaseCommandQuery extends BaseCommand {
           }
         } else {
           // instance check added to fix bug 40516.
-          if (isStructs && (objs[resultIndex] instanceof Struct)) {
-            results[i] = ((Struct) objs[resultIndex]).getFieldValues();
+          if (isStructs && (result instanceof Struct)) {
+            results[i] = ((Struct) result).getFieldValues();
           } else {
-            results[i] = objs[resultIndex];
+            results[i] = result;
           }
         }
-        resultIndex++;
-        cqResultIndex++;
+        i++;
       }
+      lastChunk = !resultsIterator.hasNext();
       // Shrink array if necessary. This will occur if the number
       // of entries in the chunk does not divide evenly into the
       // number of entries in the result set.
-      if (incompleteArray) {
-        Object[] newResults;
-        if (cqQuery != null) {
-          newResults = new Object[cqResultIndex % MAXIMUM_CHUNK_SIZE];
-        } else {
-          newResults = new Object[resultIndex % MAXIMUM_CHUNK_SIZE];
-        }
-        for (int i = 0; i < newResults.length; i++) {
-          newResults[i] = results[i];
-        }
-        results = newResults;
+      if (i < MAXIMUM_CHUNK_SIZE) {
+        results = Arrays.copyOf(results, i);
       }
 
       if (sendResults) {
-        writeQueryResponseChunk(results, collectionType, (resultIndex == objs.length),
-            servConn);
+        writeQueryResponseChunk(results, collectionType, lastChunk, servConn);
 
         if (logger.isDebugEnabled()) {
-          logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
-              servConn.getName(), (j + 1), numberOfChunks, queryString);
+          logger.debug("{}: Sent chunk {}{} of query response for query: {}",
+              servConn.getName(), (j + 1), lastChunk ? " (last)" : "", queryString);
         }
       }
-      // If we have reached the last element of SelectResults then we should
-      // break out of loop here only.
-      if (resultIndex == objs.length) {
-        break;
-      }
     }
   }
 
-  private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn, List objs,
-      boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
-      boolean sendCqResultsWithKey, boolean sendResults, final SecurityService securityService)
-      throws IOException {
-    int resultIndex = 0;
+  /**
+   * Sends the results as chunks of {@link ObjectPartList}s, walking the results with their
+   * iterator in the same way as {@link #sendResultsAsObjectArray}.
+   */
+  private void sendResultsAsObjectPartList(SelectResults<?> selectResults,
+      ServerConnection servConn, boolean isStructs, CollectionType collectionType,
+      String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults,
+      final SecurityService securityService) throws IOException {
+    Iterator<?> resultsIterator = selectResults.iterator();
     Object result = null;
-    for (int j = 0; j < numberOfChunks; j++) {
+    boolean lastChunk = false;
+    for (int j = 0; !lastChunk; j++) {
       if (logger.isTraceEnabled()) {
         logger.trace("{}: Creating chunk: {}", servConn.getName(), j);
       }
       ObjectPartList serializedObjs = new ObjectPartList(MAXIMUM_CHUNK_SIZE, false);
-      for (int i = 0; i < MAXIMUM_CHUNK_SIZE; i++) {
-        if ((resultIndex) == objs.size()) {
-          break;
-        }
+      int i = 0;
+      while (i < MAXIMUM_CHUNK_SIZE && resultsIterator.hasNext()) {
+        Object next = resultsIterator.next();
         if (logger.isTraceEnabled()) {
           logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs.get(resultIndex));
+              (j * MAXIMUM_CHUNK_SIZE) + i, next);
         }
         if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs.get(resultIndex);
+          CqEntry e = (CqEntry) next;
           // The value may have become null because of entry invalidation.
           if (e.getValue() == null) {
-            resultIndex++;
             continue;
           }
 
@@ -482,22 +477,22 @@ public abstract class BaseCommandQuery extends BaseCommand {
             result = e.getValue();
           }
         } else {
-          result = objs.get(resultIndex);
+          result = next;
         }
         if (sendResults) {
           addToObjectPartList(serializedObjs, result, collectionType, false, servConn, isStructs,
               securityService);
         }
-        resultIndex++;
+        i++;
       }
+      lastChunk = !resultsIterator.hasNext();
 
       if (sendResults) {
-        writeQueryResponseChunk(serializedObjs, collectionType, ((j + 1) == numberOfChunks),
-            servConn);
+        writeQueryResponseChunk(serializedObjs, collectionType, lastChunk, servConn);
 
         if (logger.isDebugEnabled()) {
-          logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
-              servConn.getName(), (j + 1), numberOfChunks, queryString);
+          logger.debug("{}: Sent chunk {}{} of query response for query: {}",
+              servConn.getName(), (j + 1), lastChunk ? " (last)" : "", queryString);
         }
       }
     }
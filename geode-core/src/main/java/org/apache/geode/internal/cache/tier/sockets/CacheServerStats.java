@@ -201,6 +201,10 @@ public class CacheServerStats implements MessageStats {
 
   int receivedBytesId;
   int sentBytesId;
+  int compressedPartsSentId;
+  int compressionBytesSavedId;
+  int compressionTimeId;
+  int decompressionTimeId;
 
   int outOfOrderBatchIdsId;
   int abandonedWriteRequestsId;
@@ -445,6 +449,17 @@ public class CacheServerStats implements MessageStats {
             "Total number of bytes received from clients.", "bytes"),
         statisticsFactory.createLongCounter("sentBytes", "Total number of bytes sent to clients.",
             "bytes"),
+        statisticsFactory.createLongCounter("compressedPartsSent",
+            "Total number of message parts sent to clients compressed.", "operations"),
+        statisticsFactory.createLongCounter("compressionBytesSaved",
+            "Total number of bytes saved by compressing message parts sent to clients.",
+            "bytes"),
+        statisticsFactory.createLongCounter("compressionTime",
+            "Total time spent compressing message parts sent to clients.", "nanoseconds",
+            false),
+        statisticsFactory.createLongCounter("decompressionTime",
+            "Total time spent decompressing message parts received from clients.",
+            "nanoseconds", false),
         statisticsFactory.createIntGauge("messagesBeingReceived",
             "Current number of message being received off the network or being processed after reception.",
             "messages"),
@@ -587,6 +602,10 @@ public class CacheServerStats implements MessageStats {
 
     receivedBytesId = this.stats.nameToId("receivedBytes");
     sentBytesId = this.stats.nameToId("sentBytes");
+    compressedPartsSentId = this.stats.nameToId("compressedPartsSent");
+    compressionBytesSavedId = this.stats.nameToId("compressionBytesSaved");
+    compressionTimeId = this.stats.nameToId("compressionTime");
+    decompressionTimeId = this.stats.nameToId("decompressionTime");
 
     messagesBeingReceivedId = this.stats.nameToId("messagesBeingReceived");
     messageBytesBeingReceivedId = this.stats.nameToId("messageBytesBeingReceived");
@@ -938,6 +957,22 @@ public class CacheServerStats implements MessageStats {
     this.stats.incLong(sentBytesId, v);
   }
 
+  @Override
+  public void incCompressionTime(long nanos) {
+    this.stats.incLong(compressionTimeId, nanos);
+  }
+
+  @Override
+  public void incCompressedPartsSent(long bytesSaved) {
+    this.stats.incLong(compressedPartsSentId, 1);
+    this.stats.incLong(compressionBytesSavedId, bytesSaved);
+  }
+
+  @Override
+  public void incDecompressionTime(long nanos) {
+    this.stats.incLong(decompressionTimeId, nanos);
+  }
+
   public void incMessagesBeingReceived(int bytes) {
     stats.incInt(messagesBeingReceivedId, 1);
     if (bytes > 0) {
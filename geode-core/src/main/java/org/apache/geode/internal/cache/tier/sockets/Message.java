@@ -21,6 +21,7 @@ import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -38,6 +39,7 @@ import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
+import org.apache.geode.internal.tcp.WireCompressor;
 import org.apache.geode.internal.util.BlobHelper;
 
 /**
@@ -102,6 +104,26 @@ public class Message {
 
   private static final byte MESSAGE_IS_RETRY_MASK = (byte) 0xFB;
 
+  /**
+   * Set in the flags byte by members that can decompress parts. A server compresses the parts of
+   * its replies to requests that have it set, and a client compresses its requests once a reply
+   * on the same connection had it set. Stripped out during deserialization.
+   */
+  private static final byte MESSAGE_ACCEPTS_COMPRESSED_PARTS = (byte) 0x08;
+
+  private static final byte MESSAGE_ACCEPTS_COMPRESSED_PARTS_MASK = (byte) 0xF7;
+
+  /** set in the type code of a part whose bytes are compressed */
+  private static final byte PART_IS_COMPRESSED = (byte) 0x10;
+
+  /**
+   * Compresses large parts on connections whose peer accepts compressed parts. Clients and servers
+   * must name the same compressor. See {@link WireCompressor}.
+   */
+  private static final WireCompressor COMPRESSOR =
+      WireCompressor.fromProperties(DistributionConfig.GEMFIRE_PREFIX + "client.compressor",
+          DistributionConfig.GEMFIRE_PREFIX + "client.compressionThreshold");
+
   private static final int DEFAULT_CHUNK_SIZE = 1024;
 
   private static final byte[] TRUE = defineTrue();
@@ -148,6 +170,12 @@ public class Message {
   /** is this message a retry of a previously sent message? */
   private boolean isRetry;
 
+  /** did the sender of this message say it accepts compressed parts? */
+  private boolean peerAcceptsCompressedParts;
+
+  /** should parts be compressed when this client side message is sent? */
+  private boolean compressParts;
+
   private byte flags = 0x00;
   MessageStats messageStats = null;
   protected ServerConnection serverConnection = null;
@@ -162,10 +190,22 @@ public class Message {
 
   private Version version;
 
+  /** compresses and decompresses parts, or null if parts are never compressed */
+  private final WireCompressor compressor;
+
   /**
    * Creates a new message with the given number of parts
    */
   public Message(int numberOfParts, Version destVersion) {
+    this(numberOfParts, destVersion, COMPRESSOR);
+  }
+
+  /**
+   * Creates a new message with the given number of parts that compresses them with the given
+   * compressor instead of the one named by gemfire.client.compressor.
+   */
+  Message(int numberOfParts, Version destVersion, WireCompressor compressor) {
+    this.compressor = compressor;
     this.maxMessageSize = Integer.getInteger(MAX_MESSAGE_SIZE_PROPERTY, DEFAULT_MAX_MESSAGE_SIZE);
     this.version = destVersion;
     Assert.assertTrue(destVersion != null, "Attempt to create an unversioned message");
@@ -475,6 +515,7 @@ public class Message {
 
   public void clear() {
     this.isRetry = false;
+    this.peerAcceptsCompressedParts = false;
     int len = this.payloadLength;
     if (len != 0) {
       this.payloadLength = 0;
@@ -514,6 +555,9 @@ public class Message {
     if (this.isRetry) {
       flagsByte |= MESSAGE_IS_RETRY;
     }
+    if (this.compressor != null) {
+      flagsByte |= MESSAGE_ACCEPTS_COMPRESSED_PARTS;
+    }
     getCommBuffer().putInt(this.messageType).putInt(msgLen).putInt(this.numberOfParts)
         .putInt(this.transactionId).put(flagsByte);
   }
@@ -535,6 +579,84 @@ public class Message {
     this.isMetaRegion = isMetaRegion;
   }
 
+  /**
+   * Sets whether the parts of this client side message are compressed when it is sent. Server
+   * side messages follow what the client's last request said instead.
+   */
+  public void setCompressParts(boolean compressParts) {
+    this.compressParts = compressParts;
+  }
+
+  /**
+   * Returns true if the sender of this message can decompress parts.
+   */
+  public boolean getPeerAcceptsCompressedParts() {
+    return this.peerAcceptsCompressedParts;
+  }
+
+  private boolean shouldCompressParts() {
+    if (this.compressor == null) {
+      return false;
+    }
+    if (this.serverConnection != null) {
+      return this.serverConnection.getClientAcceptsCompressedParts();
+    }
+    return this.compressParts;
+  }
+
+  /**
+   * Returns the parts to send, with the ones that are long enough and get smaller replaced by
+   * compressed copies.
+   */
+  private Part[] compressParts() {
+    Part[] parts = this.partsList;
+    for (int i = 0; i < this.numberOfParts; i++) {
+      Part part = this.partsList[i];
+      int length = part.getLength();
+      if (!this.compressor.shouldCompress(length)) {
+        continue;
+      }
+      byte[] bytes = new byte[length];
+      part.writeTo(ByteBuffer.wrap(bytes));
+      long start = System.nanoTime();
+      byte[] compressed = this.compressor.compress(bytes);
+      if (this.messageStats != null) {
+        this.messageStats.incCompressionTime(System.nanoTime() - start);
+      }
+      if (compressed == null) {
+        continue;
+      }
+      if (parts == this.partsList) {
+        parts = Arrays.copyOf(this.partsList, this.partsList.length);
+      }
+      Part compressedPart = new Part();
+      compressedPart.init(compressed, (byte) (part.getTypeCode() | PART_IS_COMPRESSED));
+      parts[i] = compressedPart;
+      if (this.messageStats != null) {
+        this.messageStats.incCompressedPartsSent(length - compressed.length);
+      }
+    }
+    return parts;
+  }
+
+  private byte[] decompressPart(byte[] bytes) throws IOException {
+    if (this.compressor == null) {
+      throw new IOException("Received a compressed part but "
+          + DistributionConfig.GEMFIRE_PREFIX + "client.compressor is not set");
+    }
+    long start = System.nanoTime();
+    byte[] result;
+    try {
+      result = this.compressor.decompress(bytes);
+    } catch (RuntimeException e) {
+      throw new IOException("Unable to decompress part", e);
+    }
+    if (this.messageStats != null) {
+      this.messageStats.incDecompressionTime(System.nanoTime() - start);
+    }
+    return result;
+  }
+
   boolean getAndResetIsMetaRegion() {
     boolean isMetaRegion = this.isMetaRegion;
     this.isMetaRegion = false;
@@ -561,9 +683,10 @@ public class Message {
         long totalPartLen = 0;
         long headerLen = 0;
         int partsToTransmit = this.numberOfParts;
+        final Part[] parts = shouldCompressParts() ? compressParts() : this.partsList;
 
         for (int i = 0; i < this.numberOfParts; i++) {
-          Part part = this.partsList[i];
+          Part part = parts[i];
           headerLen += PART_HEADER_SIZE;
           totalPartLen += part.getLength();
         }
@@ -593,7 +716,7 @@ public class Message {
         commBuffer.clear();
         packHeaderInfoForSending(msgLen, securityPart != null);
         for (int i = 0; i < partsToTransmit; i++) {
-          Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+          Part part = i == this.numberOfParts ? securityPart : parts[i];
 
           if (commBuffer.remaining() < PART_HEADER_SIZE) {
             flushBuffer();
@@ -758,6 +881,11 @@ public class Message {
 
     this.isRetry = (bits & MESSAGE_IS_RETRY) != 0;
     bits &= MESSAGE_IS_RETRY_MASK;
+    this.peerAcceptsCompressedParts = (bits & MESSAGE_ACCEPTS_COMPRESSED_PARTS) != 0;
+    bits &= MESSAGE_ACCEPTS_COMPRESSED_PARTS_MASK;
+    if (this.serverConnection != null) {
+      this.serverConnection.setClientAcceptsCompressedParts(this.peerAcceptsCompressedParts);
+    }
     this.flags = bits;
     this.messageType = type;
 
@@ -928,6 +1056,10 @@ public class Message {
           }
         }
       }
+      if ((partType & PART_IS_COMPRESSED) != 0) {
+        partType &= ~PART_IS_COMPRESSED;
+        partBytes = decompressPart(partBytes);
+      }
       part.init(partBytes, partType);
     }
   }
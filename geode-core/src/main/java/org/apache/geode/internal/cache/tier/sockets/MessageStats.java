@@ -28,4 +28,13 @@ public interface MessageStats {
   void incMessagesBeingReceived(int bytes);
 
   void decMessagesBeingReceived(int bytes);
+
+  default void incCompressionTime(long nanos) {}
+
+  /**
+   * Records that a message part was sent compressed, saving the given number of bytes.
+   */
+  default void incCompressedPartsSent(long bytesSaved) {}
+
+  default void incDecompressionTime(long nanos) {}
 }
@@ -738,6 +738,20 @@ public abstract class ServerConnection implements Runnable {
   private int failureCount = 0;
   boolean processMessages = true;
 
+  /** did the last request from the client say it accepts compressed parts? */
+  private volatile boolean clientAcceptsCompressedParts;
+
+  void setClientAcceptsCompressedParts(boolean accepts) {
+    this.clientAcceptsCompressedParts = accepts;
+  }
+
+  /**
+   * Returns true if the parts of replies to the client may be compressed.
+   */
+  boolean getClientAcceptsCompressedParts() {
+    return this.clientAcceptsCompressedParts;
+  }
+
   protected void doHandshake() {
     // hitesh:to create new connection handshake
     if (verifyClientConnection()) {
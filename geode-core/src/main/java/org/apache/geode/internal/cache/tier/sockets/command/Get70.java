@@ -293,7 +293,7 @@ public class Get70 extends BaseCommand {
         isObject = false;
         data = cd.getDeserializedForReading();
       } else {
-        data = cd.getValue();
+        data = cd.getValuePreferringSerialized();
       }
     } else if (data == Token.REMOVED_PHASE1 || data == Token.REMOVED_PHASE2
         || data == Token.DESTROYED) {
@@ -355,7 +355,7 @@ public class Get70 extends BaseCommand {
       CachedDeserializable cd = (CachedDeserializable) data;
       isObject = cd.isSerialized();
       if (cd.usesHeapForStorage()) {
-        data = cd.getValue();
+        data = cd.getValuePreferringSerialized();
       }
     }
     Entry result = new Entry();
@@ -56,6 +56,27 @@ public class SystemPropertyHelper {
    */
   public static final String EVICTION_SCAN_THRESHOLD_PERCENT = "EvictionScanThresholdPercent";
 
+  /**
+   * This property allows the LRU list of each region to be split into the given number of lists,
+   * each with its own lock, so that concurrent creates and destroys contend less. The default is 1,
+   * which keeps a single list with exact LRU ordering. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.ShardedEvictionList}.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_LIST_SHARDS = "EvictionListShards";
+
+  /**
+   * When set to a positive number, memory and heap based eviction size values approximately. Values
+   * that the built in object sizers would size by walking their object graph are instead given the
+   * average size of their class, and about one in every so many of them is sized again to keep
+   * the average current. Values that are deserialized in the cache keep the size of their
+   * serialized form. The default is 0, which sizes every value exactly.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_SIZING_SAMPLE_INTERVAL = "EvictionSizingSampleInterval";
+
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
   public static final String EARLY_ENTRY_EVENT_SERIALIZATION = "earlyEntryEventSerialization";
@@ -42,6 +42,7 @@ import org.apache.geode.distributed.internal.PoolStatHelper;
 import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
 import org.apache.geode.distributed.internal.QueueStatHelper;
 import org.apache.geode.distributed.internal.SerialQueuedExecutorWithDMStats;
+import org.apache.geode.distributed.internal.VirtualThreadExecutorWithDMStats;
 import org.apache.geode.internal.ScheduledThreadPoolExecutorWithKeepAlive;
 import org.apache.geode.internal.logging.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.internal.logging.LoggingThreadFactory.ThreadInitializer;
@@ -110,6 +111,19 @@ public class LoggingExecutors {
         threadsMonitoring);
   }
 
+  /**
+   * Creates an executor that runs each task on its own virtual thread, running at most
+   * <code>maxConcurrency</code> tasks at a time. Only call this if
+   * {@link VirtualThreadExecutorWithDMStats#isSupported()} returns true.
+   */
+  public static ExecutorService newVirtualThreadPoolWithFeedStatistics(String threadName,
+      ThreadInitializer threadInitializer, CommandWrapper commandWrapper,
+      int maxConcurrency, PoolStatHelper poolStats,
+      ThreadsMonitoring threadsMonitoring, QueueStatHelper feedStats) {
+    return new VirtualThreadExecutorWithDMStats(threadName, threadInitializer, commandWrapper,
+        maxConcurrency, poolStats, feedStats, threadsMonitoring);
+  }
+
   private static BlockingQueue<Runnable> createFeedWithStatistics(int feedSize,
       QueueStatHelper feedStats) {
     BlockingQueue<Runnable> feed;
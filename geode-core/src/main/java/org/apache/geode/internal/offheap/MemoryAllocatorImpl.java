@@ -80,6 +80,13 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
     return result;
   }
 
+  /**
+   * Returns the allocator, or null if this member has no off-heap memory.
+   */
+  public static MemoryAllocatorImpl getAllocatorIfCreated() {
+    return singleton;
+  }
+
   private static final boolean DO_EXPENSIVE_VALIDATION =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DO_EXPENSIVE_VALIDATION");
 
@@ -16,6 +16,7 @@ package org.apache.geode.internal.offheap;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
 import org.apache.geode.cache.Region;
@@ -368,6 +369,30 @@ public class OffHeapStoredObject extends AbstractStoredObject
     AddressableMemoryManager.writeBytes(getBaseDataAddress() + offset, bytes, bytesOffset, size);
   }
 
+  /**
+   * Copies size bytes from the current position of the given buffer into this object's data and
+   * advances the buffer's position. A direct buffer is copied memory to memory.
+   */
+  public void writeDataBytes(int offset, ByteBuffer src, int size) {
+    assert offset + size <= getDataSize();
+    if (size > src.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    long srcAddr = AddressableMemoryManager.getDirectByteBufferAddress(src);
+    if (srcAddr != 0L) {
+      AddressableMemoryManager.copyMemory(srcAddr + src.position(),
+          getBaseDataAddress() + offset, size);
+    } else if (src.hasArray()) {
+      AddressableMemoryManager.writeBytes(getBaseDataAddress() + offset, src.array(),
+          src.arrayOffset() + src.position(), size);
+    } else {
+      byte[] bytes = new byte[size];
+      src.duplicate().get(bytes);
+      writeDataBytes(offset, bytes);
+    }
+    src.position(src.position() + size);
+  }
+
   @Override
   public void release() {
     release(this.memoryAddress);
@@ -19,6 +19,7 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.geode.cache.Declarable;
 import org.apache.geode.cache.util.ObjectSizer;
@@ -33,17 +34,32 @@ import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
  * should work well for objects that are fairly constant in size. For completely accurate sizing,
  * use {@link ReflectionObjectSizer}
  *
+ * An instance created with {@link #withSampleInterval(int)} instead sizes about one in every so
+ * many instances of a class again, and returns the average of the sizes it has measured for the
+ * other instances. This follows classes whose instances vary in size at a fraction of the cost of
+ * sizing each of them.
  *
  */
 public class SizeClassOnceObjectSizer implements ObjectSizer, Serializable, Declarable {
 
   private static final SizeClassOnceObjectSizer INSTANCE = new SizeClassOnceObjectSizer();
 
-  private final transient Map<Class, Integer> savedSizes =
-      new CopyOnWriteWeakHashMap<Class, Integer>();
+  private final transient Map<Class<?>, Integer> savedSizes =
+      new CopyOnWriteWeakHashMap<Class<?>, Integer>();
 
   private final transient ReflectionObjectSizer sizer = ReflectionObjectSizer.getInstance();
 
+  /**
+   * The average is taken over at most this many sizes, so that it follows the recent instances
+   */
+  static final int MAXIMUM_SAMPLES = 64;
+
+  /** About one in this many instances of a class is sized, or zero to size each class once */
+  private final transient int sampleInterval;
+
+  private final transient Map<Class<?>, SampledSize> sampledSizes =
+      new CopyOnWriteWeakHashMap<Class<?>, SampledSize>();
+
   public int sizeof(Object o) {
     if (o == null) {
       return 0;
@@ -54,7 +70,10 @@ public class SizeClassOnceObjectSizer implements ObjectSizer, Serializable, Decl
     }
 
     // Now do the sizing
-    Class clazz = o.getClass();
+    Class<?> clazz = o.getClass();
+    if (sampleInterval > 0) {
+      return sampledSizeof(o, clazz);
+    }
     Integer size = savedSizes.get(clazz);
     if (size == null) {
       size = Integer.valueOf(sizer.sizeof(o));
@@ -63,10 +82,45 @@ public class SizeClassOnceObjectSizer implements ObjectSizer, Serializable, Decl
     return size.intValue();
   }
 
+  private int sampledSizeof(Object o, Class<?> clazz) {
+    SampledSize sampledSize = sampledSizes.get(clazz);
+    if (sampledSize == null) {
+      int size = sizer.sizeof(o);
+      sampledSizes.put(clazz, new SampledSize(size));
+      return size;
+    }
+    if (ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+      return sampledSize.getAverage();
+    }
+    int size = sizer.sizeof(o);
+    sampledSize.add(size);
+    return size;
+  }
+
+  /**
+   * Returns the average size measured for the class, or -1 if no instance of it has been sized.
+   */
+  int getAverageSize(Class<?> clazz) {
+    SampledSize sampledSize = sampledSizes.get(clazz);
+    return sampledSize == null ? -1 : sampledSize.getAverage();
+  }
+
   public static SizeClassOnceObjectSizer getInstance() {
     return INSTANCE;
   }
 
+  /**
+   * Returns a new sizer that sizes about one in every sampleInterval instances of a class, and
+   * returns the average size of the class for the others. Each instance keeps its own sizes.
+   */
+  public static SizeClassOnceObjectSizer withSampleInterval(int sampleInterval) {
+    if (sampleInterval <= 0) {
+      throw new IllegalArgumentException(
+          "sampleInterval must be positive but was " + sampleInterval);
+    }
+    return new SizeClassOnceObjectSizer(sampleInterval);
+  }
+
   // This object is serializable because EvictionAttributes is serializable
   // We want to resolve to the same singleton when deserializing
   private void writeObject(java.io.ObjectOutputStream out) throws IOException {
@@ -81,11 +135,45 @@ public class SizeClassOnceObjectSizer implements ObjectSizer, Serializable, Decl
   }
 
   private SizeClassOnceObjectSizer() {
+    this(0);
+  }
 
+  private SizeClassOnceObjectSizer(int sampleInterval) {
+    this.sampleInterval = sampleInterval;
   }
 
   public void init(Properties props) {
     // TODO Auto-generated method stub
 
   }
+
+  /**
+   * The sizes measured for the instances of one class
+   */
+  private static class SampledSize {
+    private long total;
+
+    private int samples;
+
+    private volatile int average;
+
+    SampledSize(int size) {
+      add(size);
+    }
+
+    int getAverage() {
+      return average;
+    }
+
+    synchronized void add(int size) {
+      if (samples == MAXIMUM_SAMPLES) {
+        // halve the weight of the older sizes
+        total /= 2;
+        samples /= 2;
+      }
+      total += size;
+      samples++;
+      average = (int) (total / samples);
+    }
+  }
 }
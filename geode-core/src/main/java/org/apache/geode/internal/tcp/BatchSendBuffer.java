@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionStats;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThread;
+
+/**
+ * Combines the messages sent on a shared ordered connection into batches. Messages are copied into
+ * a fill buffer that is written once it holds flushSize bytes, or flushNanos after the first
+ * message was added to it, whichever comes first. While one buffer is written the other one is
+ * filled. Every message keeps its own header so the receiver reads a batch like any other sequence
+ * of messages.
+ * <p>
+ * A batch that reaches flushSize, and a message too large to be worth copying, is written by the
+ * sending thread, which sees any failure to write it. Other batches are written by a flusher
+ * thread. If that thread fails to write a batch it reports the failure to the connection and every
+ * later send fails with it.
+ */
+class BatchSendBuffer {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Writes a buffer to the socket of the connection.
+   */
+  @FunctionalInterface
+  interface SocketWriter {
+    void write(ByteBuffer buffer) throws IOException, ConnectionException;
+  }
+
+  private final SocketWriter writer;
+  private final DMStats stats;
+  private final int flushSize;
+  private final long flushNanos;
+  /** called with the exception if the flusher thread fails to write a batch */
+  private final Consumer<Exception> flushFailureHandler;
+
+  /** guards fillBuffer and batchStartNanos */
+  private final Object batchLock = new Object();
+  /** held while a batch is written so that batches go out in the order they were filled */
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private ByteBuffer fillBuffer;
+  private ByteBuffer sendBuffer;
+  /** when the first message was added to an empty fillBuffer */
+  private long batchStartNanos;
+  private volatile boolean timeToStop;
+  private volatile Exception flushFailure;
+
+  BatchSendBuffer(SocketWriter writer, DMStats stats, int bufferSize, int flushSize,
+      long flushNanos, boolean useDirectBuffers, Consumer<Exception> flushFailureHandler) {
+    this.writer = writer;
+    this.stats = stats;
+    this.flushSize = Math.min(bufferSize, flushSize);
+    this.flushNanos = flushNanos;
+    this.flushFailureHandler = flushFailureHandler;
+    if (useDirectBuffers) {
+      this.fillBuffer = ByteBuffer.allocateDirect(bufferSize);
+      this.sendBuffer = ByteBuffer.allocateDirect(bufferSize);
+    } else {
+      this.fillBuffer = ByteBuffer.allocate(bufferSize);
+      this.sendBuffer = ByteBuffer.allocate(bufferSize);
+    }
+  }
+
+  /**
+   * Starts the thread that writes batches once their oldest message has waited flushNanos.
+   */
+  void start(String threadName) {
+    new LoggingThread(threadName, this::runFlusher).start();
+  }
+
+  /**
+   * Stops the flusher thread. Whatever is left in the buffer is not written.
+   */
+  void close() {
+    synchronized (this.batchLock) {
+      this.timeToStop = true;
+      this.batchLock.notifyAll();
+    }
+  }
+
+  private void runFlusher() {
+    try {
+      while (!this.timeToStop) {
+        long waitNanos;
+        synchronized (this.batchLock) {
+          while (!this.timeToStop && this.fillBuffer.position() == 0) {
+            this.batchLock.wait(); // spurious wakeup ok
+          }
+          waitNanos = this.batchStartNanos + this.flushNanos - System.nanoTime();
+        }
+        if (this.timeToStop) {
+          break;
+        }
+        if (waitNanos > 0) {
+          // the buffer may have been flushed and refilled meanwhile, so check again
+          LockSupport.parkNanos(waitNanos);
+          continue;
+        }
+        try {
+          flush(null);
+        } catch (IOException | ConnectionException ex) {
+          this.flushFailure = ex;
+          this.flushFailureHandler.accept(ex);
+          break;
+        }
+      }
+    } catch (InterruptedException ex) {
+      // time for this thread to shutdown
+    }
+  }
+
+  /**
+   * Adds a serialized message to the batch. The message is written by this thread if it fills the
+   * batch, and by the flusher thread otherwise.
+   *
+   * @throws ConnectionException if the flusher thread has failed to write an earlier batch
+   */
+  void send(ByteBuffer src) throws IOException, ConnectionException {
+    checkFlushFailure();
+    final long start = DistributionStats.getStatTime();
+    try {
+      if (src.remaining() > this.flushSize) {
+        // not worth copying; write it right behind what is already batched
+        flush(src);
+        return;
+      }
+      for (;;) {
+        synchronized (this.batchLock) {
+          ByteBuffer dst = this.fillBuffer;
+          if (src.remaining() <= dst.remaining()) {
+            boolean wasEmpty = dst.position() == 0;
+            final long copyStart = DistributionStats.getStatTime();
+            dst.put(src);
+            this.stats.incBatchCopyTime(copyStart);
+            if (dst.position() < this.flushSize) {
+              if (wasEmpty) {
+                this.batchStartNanos = System.nanoTime();
+                this.batchLock.notifyAll();
+              }
+              return;
+            }
+            break;
+          }
+        }
+        // no room left in the current buffer
+        final long waitStart = DistributionStats.getStatTime();
+        flush(null);
+        this.stats.incBatchWaitTime(waitStart);
+      }
+      // this message filled the batch
+      flush(null);
+    } finally {
+      this.stats.incBatchSendTime(start);
+    }
+  }
+
+  private void checkFlushFailure() throws ConnectionException {
+    Exception failure = this.flushFailure;
+    if (failure != null) {
+      throw new ConnectionException(
+          String.format("Exception flushing batch send buffer: %s", failure), failure);
+    }
+  }
+
+  /**
+   * Writes whatever is left in the batch, unless another thread is already writing. Used when the
+   * connection is closed while the other member is still in the view.
+   */
+  void flushOnClose() {
+    if (this.flushLock.tryLock()) {
+      try {
+        flush(null);
+      } catch (IOException | ConnectionException ex) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Unable to flush batch send buffer while closing", ex);
+        }
+      } finally {
+        this.flushLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Writes the batch, followed by <code>extra</code> if it is not null.
+   */
+  private void flush(ByteBuffer extra) throws IOException, ConnectionException {
+    final long start = DistributionStats.getStatTime();
+    this.flushLock.lock();
+    try {
+      ByteBuffer toSend;
+      synchronized (this.batchLock) {
+        toSend = this.fillBuffer;
+        this.fillBuffer = this.sendBuffer;
+        this.sendBuffer = toSend;
+      }
+      if (toSend.position() > 0) {
+        toSend.flip();
+        try {
+          this.writer.write(toSend);
+        } finally {
+          toSend.clear();
+        }
+      }
+      if (extra != null) {
+        this.writer.write(extra);
+      }
+    } finally {
+      this.flushLock.unlock();
+      this.stats.incBatchFlushTime(start);
+    }
+  }
+}
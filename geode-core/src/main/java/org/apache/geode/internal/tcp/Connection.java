@@ -18,7 +18,9 @@ import static org.apache.geode.distributed.ConfigurationProperties.SECURITY_PEER
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -34,7 +36,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -42,6 +47,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -100,6 +106,8 @@ public class Connection implements Runnable {
   public static final int CHUNKED_MSG_TYPE = 0x4d; // a chunk of one logical msg
   public static final int END_CHUNKED_MSG_TYPE = 0x4e; // last in a series of chunks
   public static final int DIRECT_ACK_BIT = 0x20;
+  /** set on frames whose payload was compressed with the connection's {@link WireCompressor} */
+  public static final int COMPRESSED_BIT = 0x10;
 
   public static final int MSG_HEADER_SIZE_OFFSET = 0;
   public static final int MSG_HEADER_TYPE_OFFSET = 4;
@@ -182,7 +190,7 @@ public class Connection implements Runnable {
   private static final boolean DOMINO_THREAD_OWNED_SOCKETS =
       Boolean.getBoolean("p2p.ENABLE_DOMINO_THREAD_OWNED_SOCKETS");
 
-  private static final ThreadLocal isDominoThread = new ThreadLocal();
+  private static final ThreadLocal<Boolean> isDominoThread = new ThreadLocal<>();
 
   // return true if this thread is a reader thread
   public static boolean tipDomino() {
@@ -309,6 +317,12 @@ public class Connection implements Runnable {
 
   private volatile int replyCode = 0;
 
+  /**
+   * The compressor both ends of this connection offered during the handshake, or null if frames
+   * sent on it are never compressed
+   */
+  private volatile WireCompressor compressor;
+
   private static final byte REPLY_CODE_OK = (byte) 69;
   private static final byte REPLY_CODE_OK_WITH_ASYNC_INFO = (byte) 70;
 
@@ -317,6 +331,18 @@ public class Connection implements Runnable {
   /** message reader thread */
   private volatile Thread readerThread;
 
+  /** set if this receiver connection is read by a {@link P2PSelectorReader} */
+  private volatile P2PSelectorReader.Registration selectorRegistration;
+
+  /*
+   * Reader thread state set up by the handshake, taken on by each thread that reads this
+   * connection for a P2PSelectorReader. Only accessed by the thread reading the connection.
+   */
+  private int selectorDominoCount;
+  private boolean selectorDominoThread;
+  private boolean selectorThreadOwnsResources;
+  private Map<?, ?> selectorThreadOwnedConnections;
+
   /** whether the reader thread is, or should be, running */
   volatile boolean stopped = true;
 
@@ -386,6 +412,9 @@ public class Connection implements Runnable {
 
   boolean directAck;
 
+  /** whether the payload of the message being received is compressed */
+  boolean nioCompressed;
+
   short nioMsgId;
 
   /** whether the length of the next message has been established */
@@ -675,11 +704,17 @@ public class Connection implements Runnable {
     ByteBuffer my_okHandshakeBuf = null;
     if (this.isReceiver) {
       DistributionConfig cfg = owner.getConduit().config;
+      // echo the compressor name if the sender offered the one we use
+      byte[] compressorName = null;
+      if (this.compressor != null) {
+        compressorName = this.compressor.getName().getBytes(StandardCharsets.UTF_8);
+      }
+      int size = 128 + (compressorName == null ? 0 : compressorName.length);
       ByteBuffer bb;
       if (useNIO() && TCPConduit.useDirectBuffers) {
-        bb = ByteBuffer.allocateDirect(128);
+        bb = ByteBuffer.allocateDirect(size);
       } else {
-        bb = ByteBuffer.allocate(128);
+        bb = ByteBuffer.allocate(size);
       }
       bb.putInt(0); // reserve first 4 bytes for packet length
       bb.put((byte) NORMAL_MSG_TYPE);
@@ -690,6 +725,10 @@ public class Connection implements Runnable {
       bb.putInt(cfg.getAsyncMaxQueueSize());
       // write own product version
       Version.writeOrdinal(bb, Version.CURRENT.ordinal(), true);
+      if (compressorName != null) {
+        bb.putShort((short) compressorName.length);
+        bb.put(compressorName);
+      }
       // now set the msg length into position 0
       bb.putInt(0, calcHdrSize(bb.position() - MSG_HEADER_BYTES));
       if (useNIO()) {
@@ -901,6 +940,8 @@ public class Connection implements Runnable {
     // write the product version ordinal
     Version.CURRENT.writeOrdinal(connectHandshake, true);
     connectHandshake.writeInt(dominoCount.get() + 1);
+    // optional and ignored by older receivers, so HANDSHAKE_VERSION is not bumped for it
+    writeCompressorName(connectHandshake);
     // this writes the sending member + thread name that is stored in senderName
     // on the receiver to show the cause of reader thread creation
     // if (dominoCount.get() > 0) {
@@ -917,6 +958,64 @@ public class Connection implements Runnable {
     nioWriteFully(getSocket().getChannel(), connectHandshake.getContentBuffer(), false, null);
   }
 
+  /**
+   * Offers the conduit's compressor to the receiver. The receiver echoes the name in its handshake
+   * reply if it uses the same compressor.
+   */
+  private void writeCompressorName(DataOutput out) throws IOException {
+    WireCompressor myCompressor = this.owner.getConduit().getCompressor();
+    if (myCompressor != null) {
+      out.writeUTF(myCompressor.getName());
+    }
+  }
+
+  /**
+   * Reads the compressor name the peer may have added to its handshake, and compresses frames
+   * sent on this connection if it is the one this member uses.
+   */
+  private void readCompressorName(DataInput in, int available) throws IOException {
+    if (available <= 0) {
+      return;
+    }
+    String name = in.readUTF();
+    WireCompressor myCompressor = this.owner.getConduit().getCompressor();
+    if (myCompressor != null && myCompressor.getName().equals(name)) {
+      this.compressor = myCompressor;
+      if (logger.isDebugEnabled()) {
+        logger.debug("{} compressing frames with {}", p2pReaderName(), myCompressor);
+      }
+    }
+  }
+
+  /**
+   * Returns the compressor for frames sent on this connection, or null if they are sent raw.
+   */
+  WireCompressor getCompressor() {
+    return this.compressor;
+  }
+
+  /**
+   * Decompresses the payload of a frame that has the COMPRESSED_BIT set.
+   */
+  private byte[] decompressFrame(byte[] bytes) {
+    return decompressFrame(this.owner.getConduit(), bytes);
+  }
+
+  /**
+   * Decompresses the payload of a frame that has the COMPRESSED_BIT set with the compressor of the
+   * given conduit.
+   */
+  static byte[] decompressFrame(TCPConduit conduit, byte[] bytes) {
+    WireCompressor myCompressor = conduit.getCompressor();
+    if (myCompressor == null) {
+      throw new IllegalStateException("Received a compressed frame but p2p.compressor is not set");
+    }
+    long start = System.nanoTime();
+    byte[] result = myCompressor.decompress(bytes);
+    conduit.getStats().incFrameDecompressionTime(System.nanoTime() - start);
+    return result;
+  }
+
   private void handshakeStream() throws IOException {
     waitForAddressCompletion();
 
@@ -933,6 +1032,7 @@ public class Connection implements Runnable {
     os.writeLong(this.uniqueId);
     Version.CURRENT.writeOrdinal(os, true);
     os.writeInt(dominoCount.get() + 1);
+    writeCompressorName(os);
     os.flush();
 
     byte[] msg = baos.toByteArray();
@@ -1161,7 +1261,7 @@ public class Connection implements Runnable {
           String.format("Connection: failed construction for peer %s",
               remoteAddr));
     }
-    if (preserveOrder && BATCH_SENDS) {
+    if (sharedResource && preserveOrder && BATCH_SENDS) {
       conn.createBatchSendBuffer();
     }
     conn.finishedConnecting = true;
@@ -1286,35 +1386,46 @@ public class Connection implements Runnable {
   }
 
   /**
-   * Batch sends currently should not be turned on because: 1. They will be used for all sends
-   * (instead of just no-ack) and thus will break messages that wait for a response (or kill perf).
-   * 2. The buffer is not properly flushed and closed on shutdown. The code attempts to do this but
-   * must not be doing it correctly.
+   * Enables write combining on shared ordered sender connections. Messages sent on such a
+   * connection are copied into a batch buffer that is written to the socket once it holds
+   * p2p.batchFlushSize bytes, or p2p.batchFlushMicros after the first message was added to it,
+   * whichever comes first. See {@link BatchSendBuffer}.
    */
   private static final boolean BATCH_SENDS = Boolean.getBoolean("p2p.batchSends");
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024).intValue();
-  private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50).intValue();
-  private Object batchLock;
-  private ByteBuffer fillBatchBuffer;
-  private ByteBuffer sendBatchBuffer;
-  private BatchBufferFlusher batchFlusher;
+  private static final int BATCH_FLUSH_SIZE =
+      Integer.getInteger("p2p.batchFlushSize", 64 * 1024).intValue();
+  private static final long BATCH_FLUSH_NANOS = getBatchFlushNanos();
+
+  private BatchSendBuffer batchSendBuffer;
+
+  /**
+   * Returns p2p.batchFlushMicros, or the older p2p.batchFlushTime in milliseconds if only that is
+   * set, in nanoseconds.
+   */
+  static long getBatchFlushNanos() {
+    Long micros = Long.getLong("p2p.batchFlushMicros");
+    if (micros != null) {
+      return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+    Integer millis = Integer.getInteger("p2p.batchFlushTime");
+    if (millis != null) {
+      return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+    return TimeUnit.MICROSECONDS.toNanos(50);
+  }
 
   private void createBatchSendBuffer() {
-    // batch send buffer isn't needed if old-io is being used
-    if (!this.useNIO) {
+    // batch send buffer isn't needed if old-io is being used, and can't be used if the receiver
+    // lets us queue messages asynchronously since that needs each message on its own
+    if (!this.useNIO || this.asyncDistributionTimeout != 0) {
       return;
     }
-    this.batchLock = new Object();
-    if (TCPConduit.useDirectBuffers) {
-      this.fillBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-      this.sendBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-    } else {
-      this.fillBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-      this.sendBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-    }
-    this.batchFlusher = new BatchBufferFlusher();
-    this.batchFlusher.start();
+    this.batchSendBuffer = new BatchSendBuffer(this::writeBatch,
+        this.owner.getConduit().getStats(), BATCH_BUFFER_SIZE, BATCH_FLUSH_SIZE, BATCH_FLUSH_NANOS,
+        TCPConduit.useDirectBuffers, this::batchFlushFailed);
+    this.batchSendBuffer.start("P2P batch flusher for " + this.remoteAddr);
   }
 
   public void cleanUpOnIdleTaskCancel() {
@@ -1325,116 +1436,28 @@ public class Connection implements Runnable {
     }
   }
 
-  private class BatchBufferFlusher extends Thread {
-    private volatile boolean flushNeeded = false;
-    private volatile boolean timeToStop = false;
-    private DMStats stats;
-
-
-    public BatchBufferFlusher() {
-      setDaemon(true);
-      this.stats = owner.getConduit().getStats();
-    }
-
-    /**
-     * Called when a message writer needs the current fillBatchBuffer flushed
-     */
-    public void flushBuffer(ByteBuffer bb) {
-      final long start = DistributionStats.getStatTime();
-      try {
-        synchronized (this) {
-          synchronized (batchLock) {
-            if (bb != fillBatchBuffer) {
-              // it must have already been flushed. So just return
-              // and use the new fillBatchBuffer
-              return;
-            }
-          }
-          this.flushNeeded = true;
-          this.notify();
-        }
-        synchronized (batchLock) {
-          // Wait for the flusher thread
-          while (bb == fillBatchBuffer) {
-            Connection.this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
-            boolean interrupted = Thread.interrupted();
-            try {
-              batchLock.wait(); // spurious wakeup ok
-            } catch (InterruptedException ex) {
-              interrupted = true;
-            } finally {
-              if (interrupted) {
-                Thread.currentThread().interrupt();
-              }
-            }
-          } // while
-        }
-      } finally {
-        owner.getConduit().getStats().incBatchWaitTime(start);
-      }
-    }
-
-    public void close() {
-      synchronized (this) {
-        this.timeToStop = true;
-        this.flushNeeded = true;
-        this.notify();
-      }
-    }
+  private void batchFlushFailed(Exception ex) {
+    logger.fatal("Exception flushing batch send buffer", ex);
+    readerShuttingDown = true;
+    requestClose(String.format("Exception flushing batch send buffer: %s", ex));
+  }
 
-    @Override
-    public void run() {
-      try {
-        synchronized (this) {
-          while (!timeToStop) {
-            if (!this.flushNeeded && fillBatchBuffer.position() <= (BATCH_BUFFER_SIZE / 2)) {
-              wait(BATCH_FLUSH_MS); // spurious wakeup ok
-            }
-            if (this.flushNeeded || fillBatchBuffer.position() > (BATCH_BUFFER_SIZE / 2)) {
-              final long start = DistributionStats.getStatTime();
-              synchronized (batchLock) {
-                // This is the only block of code that will swap
-                // the buffer references
-                this.flushNeeded = false;
-                ByteBuffer tmp = fillBatchBuffer;
-                fillBatchBuffer = sendBatchBuffer;
-                sendBatchBuffer = tmp;
-                batchLock.notifyAll();
-              }
-              // We now own the sendBatchBuffer
-              if (sendBatchBuffer.position() > 0) {
-                final boolean origSocketInUse = socketInUse;
-                socketInUse = true;
-                try {
-                  sendBatchBuffer.flip();
-                  SocketChannel channel = getSocket().getChannel();
-                  nioWriteFully(channel, sendBatchBuffer, false, null);
-                  sendBatchBuffer.clear();
-                } catch (IOException | ConnectionException ex) {
-                  logger.fatal("Exception flushing batch send buffer: %s", ex);
-                  readerShuttingDown = true;
-                  requestClose(String.format("Exception flushing batch send buffer: %s",
-                      ex));
-                } finally {
-                  accessed();
-                  socketInUse = origSocketInUse;
-                }
-              }
-              this.stats.incBatchFlushTime(start);
-            }
-          }
-        }
-      } catch (InterruptedException ex) {
-        // time for this thread to shutdown
-        // Thread.currentThread().interrupt();
-      }
+  private void closeBatchBuffer() {
+    if (this.batchSendBuffer != null) {
+      this.batchSendBuffer.close();
     }
   }
 
-  private void closeBatchBuffer() {
-    if (this.batchFlusher != null) {
-      this.batchFlusher.close();
+  /**
+   * Writes whatever is left in the batch buffer when this connection is closed while the other
+   * member is still in the view. Gives up if another thread is already writing to the socket.
+   */
+  private void flushBatchOnClose() {
+    MembershipManager mgr = this.owner.getConduit().getMembershipManager();
+    if (mgr == null || !mgr.memberExists(this.remoteAddr) || mgr.isShunned(this.remoteAddr)) {
+      return;
     }
+    this.batchSendBuffer.flushOnClose();
   }
 
   /**
@@ -1443,31 +1466,21 @@ public class Connection implements Runnable {
    */
   private static final boolean SOCKET_WRITE_DISABLED = Boolean.getBoolean("p2p.disableSocketWrite");
 
-  private void batchSend(ByteBuffer src) throws IOException {
+  private void batchSend(ByteBuffer src) throws IOException, ConnectionException {
     if (SOCKET_WRITE_DISABLED) {
       return;
     }
-    final long start = DistributionStats.getStatTime();
+    this.batchSendBuffer.send(src);
+  }
+
+  private void writeBatch(ByteBuffer buffer) throws IOException, ConnectionException {
+    final boolean origSocketInUse = this.socketInUse;
+    this.socketInUse = true;
     try {
-      ByteBuffer dst = null;
-      Assert.assertTrue(src.remaining() <= BATCH_BUFFER_SIZE, "Message size(" + src.remaining()
-          + ") exceeded BATCH_BUFFER_SIZE(" + BATCH_BUFFER_SIZE + ")");
-      do {
-        synchronized (this.batchLock) {
-          dst = this.fillBatchBuffer;
-          if (src.remaining() <= dst.remaining()) {
-            final long copyStart = DistributionStats.getStatTime();
-            dst.put(src);
-            this.owner.getConduit().getStats().incBatchCopyTime(copyStart);
-            return;
-          }
-        }
-        // If we got this far then we do not have room in the current
-        // buffer and need the flusher thread to flush before we can fill it
-        this.batchFlusher.flushBuffer(dst);
-      } while (true);
+      nioWriteFully(getSocket().getChannel(), buffer, false, null);
     } finally {
-      this.owner.getConduit().getStats().incBatchSendTime(start);
+      accessed();
+      this.socketInUse = origSocketInUse;
     }
   }
 
@@ -1536,6 +1549,9 @@ public class Connection implements Runnable {
               } // while
             } // synchronized
           }
+          if (this.batchSendBuffer != null && !beingSick) {
+            flushBatchOnClose();
+          }
           this.connected = false;
           closeSenderSem();
           {
@@ -1559,6 +1575,12 @@ public class Connection implements Runnable {
         nioLengthSet = false;
       } // synchronized
 
+      P2PSelectorReader.Registration registration = this.selectorRegistration;
+      if (registration != null) {
+        // let the selector hand the connection to a reader thread for shutdown
+        registration.connectionClosed();
+      }
+
       // moved the call to notifyHandshakeWaiter out of the above
       // synchronized block to fix bug #42159
       // Make sure anyone waiting for a handshake stops waiting
@@ -1671,41 +1693,197 @@ public class Connection implements Runnable {
     this.readerThread.setName(p2pReaderName());
     ConnectionTable.threadWantsSharedResources();
     makeReaderThread(this.isReceiver);
+    boolean parkedInSelector = false;
     try {
       if (useNIO()) {
-        runNioReader();
+        parkedInSelector = runNioReader();
       } else {
         runOioReader();
       }
     } finally {
-      // bug36060: do the socket close within a finally block
+      if (parkedInSelector) {
+        releaseReaderThread();
+      } else {
+        stopReading();
+      }
+    }
+  }
+
+  /**
+   * Cleans up once this connection will no longer be read. Called by the thread that was reading
+   * the connection.
+   */
+  private void stopReading() {
+    // bug36060: do the socket close within a finally block
+    if (logger.isDebugEnabled()) {
+      logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
+    }
+    initiateSuspicionIfSharedUnordered();
+    if (this.isReceiver) {
+      if (!this.sharedResource) {
+        this.conduit.getStats().incThreadOwnedReceivers(-1L, dominoCount.get());
+      }
+      asyncClose(false);
+      this.owner.removeAndCloseThreadOwnedSockets();
+    }
+    ByteBuffer tmp = this.nioInputBuffer;
+    if (tmp != null) {
+      this.nioInputBuffer = null;
+      final DMStats stats = this.owner.getConduit().getStats();
+      Buffers.releaseReceiveBuffer(tmp, stats);
+    }
+    // make sure that if the reader thread exits we notify a thread waiting
+    // for the handshake.
+    // see bug 37524 for an example of listeners hung in waitForHandshake
+    notifyHandshakeWaiter(false);
+    this.readerThread.setName("unused p2p reader");
+    synchronized (this.stateLock) {
+      this.isRunning = false;
+      this.readerThread = null;
+    }
+  }
+
+  /**
+   * Releases the calling thread from reading this connection while the connection itself stays
+   * open, waiting in a {@link P2PSelectorReader}.
+   */
+  private void releaseReaderThread() {
+    Thread thread = Thread.currentThread();
+    dominoCount.remove();
+    isDominoThread.remove();
+    thread.setName("unused p2p reader");
+    synchronized (this.stateLock) {
+      if (this.readerThread == thread) {
+        this.readerThread = null;
+      }
+    }
+  }
+
+  /**
+   * Hands this receiver connection to the selector reader, if there is one, once its handshake
+   * has been read. Returns true if the connection is now waiting in the selector and the calling
+   * thread should stop reading it.
+   */
+  private boolean parkInSelector(SocketChannel channel) {
+    P2PSelectorReader selectorReader = this.owner.getSelectorReader();
+    if (selectorReader == null || this.sharedResource || !this.connected) {
+      return false;
+    }
+    // remember the reader state set up by the handshake so that the threads that read this
+    // connection from now on can take it on
+    this.selectorDominoCount = dominoCount.get();
+    this.selectorDominoThread = isDominoThread();
+    this.selectorThreadOwnsResources =
+        Boolean.TRUE.equals(ConnectionTable.getThreadOwnsResourcesRegistration());
+    this.selectorThreadOwnedConnections = this.owner.swapThreadOwnedConnections(null);
+    try {
+      channel.configureBlocking(false);
+      if (selectorReader.register(this, channel)) {
+        return true;
+      }
+      channel.configureBlocking(true);
+    } catch (IOException e) {
       if (logger.isDebugEnabled()) {
-        logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
+        logger.debug("{} unable to use the selector reader for {}", p2pReaderName(), this, e);
       }
-      initiateSuspicionIfSharedUnordered();
-      if (this.isReceiver) {
-        if (!this.sharedResource) {
-          this.conduit.getStats().incThreadOwnedReceivers(-1L, dominoCount.get());
-        }
-        asyncClose(false);
-        this.owner.removeAndCloseThreadOwnedSockets();
+    }
+    this.owner.swapThreadOwnedConnections(this.selectorThreadOwnedConnections);
+    this.selectorThreadOwnedConnections = null;
+    return false;
+  }
+
+  void setSelectorRegistration(P2PSelectorReader.Registration registration) {
+    this.selectorRegistration = registration;
+  }
+
+  /**
+   * Reads and processes the data that is available on a receiver connection waiting in a
+   * {@link P2PSelectorReader}. Called on a p2p reader thread when the selector finds the
+   * connection readable. The calling thread takes on the reader state that the original reader
+   * thread set up during the handshake, including its thread-owned connections.
+   *
+   * @return true if the connection should go back to the selector, false if it has been closed
+   */
+  boolean readFromSelector(SocketChannel channel) {
+    Thread thread = Thread.currentThread();
+    Boolean previousOwnsResources = ConnectionTable.getThreadOwnsResourcesRegistration();
+    Map<?, ?> previousThreadOwnedConnections =
+        this.owner.swapThreadOwnedConnections(this.selectorThreadOwnedConnections);
+    synchronized (this.stateLock) {
+      this.readerThread = thread;
+    }
+    makeReaderThread(true);
+    dominoCount.set(this.selectorDominoCount);
+    isDominoThread.set(this.selectorDominoThread);
+    if (this.selectorThreadOwnsResources) {
+      ConnectionTable.threadWantsOwnResources();
+    } else {
+      ConnectionTable.threadWantsSharedResources();
+    }
+    setThreadName(this.selectorDominoCount);
+    boolean keepReading = false;
+    try {
+      keepReading = readAvailable(channel);
+    } finally {
+      if (!keepReading) {
+        stopReading();
       }
-      ByteBuffer tmp = this.nioInputBuffer;
-      if (tmp != null) {
-        this.nioInputBuffer = null;
-        final DMStats stats = this.owner.getConduit().getStats();
-        Buffers.releaseReceiveBuffer(tmp, stats);
+      this.selectorThreadOwnedConnections =
+          this.owner.swapThreadOwnedConnections(previousThreadOwnedConnections);
+      if (Boolean.TRUE.equals(previousOwnsResources)) {
+        ConnectionTable.threadWantsOwnResources();
+      } else {
+        ConnectionTable.threadWantsSharedResources();
       }
-      // make sure that if the reader thread exits we notify a thread waiting
-      // for the handshake.
-      // see bug 37524 for an example of listeners hung in waitForHandshake
-      notifyHandshakeWaiter(false);
-      this.readerThread.setName("unused p2p reader");
-      synchronized (this.stateLock) {
-        this.isRunning = false;
-        this.readerThread = null;
+      if (keepReading) {
+        releaseReaderThread();
+      } else {
+        dominoCount.remove();
+        isDominoThread.remove();
       }
-    } // finally
+    }
+    return keepReading;
+  }
+
+  /**
+   * Reads from a non-blocking channel until no more data is available. Returns false if the
+   * connection has been closed or should no longer be read.
+   */
+  private boolean readAvailable(SocketChannel channel) {
+    for (;;) {
+      if (stopped) {
+        return false;
+      }
+      checkSystemFailure();
+      if (this.owner.getConduit().getCancelCriterion().isCancelInProgress()) {
+        return false;
+      }
+      int amt = readAndProcessNioBuffer(channel);
+      if (amt < 0) {
+        return false;
+      }
+      if (amt == 0) {
+        synchronized (stateLock) {
+          connectionState = STATE_IDLE;
+        }
+        return true;
+      }
+    }
+  }
+
+  private void checkSystemFailure() {
+    if (SystemFailure.getFailure() != null) {
+      // Allocate no objects here!
+      Socket s = this.socket;
+      if (s != null) {
+        try {
+          s.close();
+        } catch (IOException e) {
+          // don't care
+        }
+      }
+      SystemFailure.checkFailure(); // throws
+    }
   }
 
   private String p2pReaderName() {
@@ -1722,7 +1900,11 @@ public class Connection implements Runnable {
     return sb.toString();
   }
 
-  private void runNioReader() {
+  /**
+   * Reads the connection until it is closed. Returns true if a receiver connection was instead
+   * handed to the selector reader once its handshake was read.
+   */
+  private boolean runNioReader() {
     // take a snapshot of uniqueId to detect reconnect attempts; see bug 37592
     SocketChannel channel = null;
     try {
@@ -1736,7 +1918,7 @@ public class Connection implements Runnable {
             "runNioReader caught closed channel");
       } catch (Exception ignore) {
       }
-      return; // exit loop and thread
+      return false; // exit loop and thread
     } catch (IOException ex) {
       if (stopped || owner.getConduit().getCancelCriterion().isCancelInProgress()) {
         try {
@@ -1744,7 +1926,7 @@ public class Connection implements Runnable {
               "runNioReader caught shutdown");
         } catch (Exception ignore) {
         }
-        return; // bug37520: exit loop (and thread)
+        return false; // bug37520: exit loop (and thread)
       }
       logger.fatal("Failed setting channel to blocking mode {}", ex);
       this.readerShuttingDown = true;
@@ -1753,7 +1935,7 @@ public class Connection implements Runnable {
             ex));
       } catch (Exception ignore) {
       }
-      return;
+      return false;
     }
 
     if (!stopped) {
@@ -1771,114 +1953,32 @@ public class Connection implements Runnable {
         if (stopped) {
           break;
         }
-        if (SystemFailure.getFailure() != null) {
-          // Allocate no objects here!
-          Socket s = this.socket;
-          if (s != null) {
-            try {
-              s.close();
-            } catch (IOException e) {
-              // don't care
-            }
-          }
-          SystemFailure.checkFailure(); // throws
-        }
+        checkSystemFailure();
         if (this.owner.getConduit().getCancelCriterion().isCancelInProgress()) {
           break;
         }
 
-        try {
-          ByteBuffer buff = getNIOBuffer();
-          synchronized (stateLock) {
-            connectionState = STATE_READING;
-          }
-          int amt = channel.read(buff);
-          synchronized (stateLock) {
-            connectionState = STATE_IDLE;
-          }
-          if (amt == 0) {
-            continue;
-          }
-          if (amt < 0) {
-            this.readerShuttingDown = true;
-            try {
-              requestClose("SocketChannel.read returned EOF");
-              requestClose(
-                  "SocketChannel.read returned EOF");
-            } catch (Exception e) {
-              // ignore - shutting down
-            }
-            return;
-          }
-
-          processNIOBuffer();
-          if (!this.isReceiver && (this.handshakeRead || this.handshakeCancelled)) {
-            if (logger.isDebugEnabled()) {
-              if (this.handshakeRead) {
-                logger.debug("{} handshake has been read {}", p2pReaderName(), this);
-              } else {
-                logger.debug("{} handshake has been cancelled {}", p2pReaderName(), this);
-              }
-            }
-            isHandShakeReader = true;
-            // Once we have read the handshake the reader can go away
-            break;
-          }
-        } catch (CancelException e) {
+        int amt = readAndProcessNioBuffer(channel);
+        if (amt == 0) {
+          continue;
+        }
+        if (amt < 0) {
+          return false;
+        }
+        if (!this.isReceiver && (this.handshakeRead || this.handshakeCancelled)) {
           if (logger.isDebugEnabled()) {
-            logger.debug("{} Terminated <{}> due to cancellation", p2pReaderName(), this, e);
-          }
-          this.readerShuttingDown = true;
-          try {
-            requestClose(
-                String.format("CacheClosed in channel read: %s", e));
-          } catch (Exception ex) {
-          }
-          return;
-        } catch (ClosedChannelException e) {
-          this.readerShuttingDown = true;
-          try {
-            requestClose(String.format("ClosedChannelException in channel read: %s",
-                e));
-          } catch (Exception ex) {
-          }
-          return;
-        } catch (IOException e) {
-          if (!isSocketClosed() && !"Socket closed".equalsIgnoreCase(e.getMessage()) // needed for
-                                                                                     // Solaris jdk
-                                                                                     // 1.4.2_08
-          ) {
-            if (logger.isDebugEnabled() && !isIgnorableIOException(e)) {
-              logger.debug("{} io exception for {}", p2pReaderName(), this, e);
-            }
-            if (e.getMessage().contains("interrupted by a call to WSACancelBlockingCall")) {
-              if (logger.isDebugEnabled()) {
-                logger.debug(
-                    "{} received unexpected WSACancelBlockingCall exception, which may result in a hang",
-                    p2pReaderName());
-              }
+            if (this.handshakeRead) {
+              logger.debug("{} handshake has been read {}", p2pReaderName(), this);
+            } else {
+              logger.debug("{} handshake has been cancelled {}", p2pReaderName(), this);
             }
           }
-          this.readerShuttingDown = true;
-          try {
-            requestClose(
-                String.format("IOException in channel read: %s", e));
-          } catch (Exception ex) {
-          }
-          return;
-
-        } catch (Exception e) {
-          this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null); // bug 37101
-          if (!stopped && !isSocketClosed()) {
-            logger.fatal(String.format("%s exception in channel read", p2pReaderName()), e);
-          }
-          this.readerShuttingDown = true;
-          try {
-            requestClose(
-                String.format("%s exception in channel read", e));
-          } catch (Exception ex) {
-          }
-          return;
+          isHandShakeReader = true;
+          // Once we have read the handshake the reader can go away
+          break;
+        }
+        if (this.isReceiver && this.handshakeRead && parkInSelector(channel)) {
+          return true;
         }
       } // for
     } finally {
@@ -1892,6 +1992,95 @@ public class Connection implements Runnable {
             remoteAddr);
       }
     }
+    return false;
+  }
+
+  /**
+   * Reads from the channel and processes any complete messages. Returns the number of bytes read,
+   * which is zero if a non-blocking channel had no data, or -1 if the connection has been closed.
+   */
+  private int readAndProcessNioBuffer(SocketChannel channel) {
+    try {
+      ByteBuffer buff = getNIOBuffer();
+      synchronized (stateLock) {
+        connectionState = STATE_READING;
+      }
+      int amt = channel.read(buff);
+      synchronized (stateLock) {
+        connectionState = STATE_IDLE;
+      }
+      if (amt == 0) {
+        return 0;
+      }
+      if (amt < 0) {
+        this.readerShuttingDown = true;
+        try {
+          requestClose(
+              "SocketChannel.read returned EOF");
+        } catch (Exception e) {
+          // ignore - shutting down
+        }
+        return -1;
+      }
+
+      processNIOBuffer();
+      return amt;
+    } catch (CancelException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("{} Terminated <{}> due to cancellation", p2pReaderName(), this, e);
+      }
+      this.readerShuttingDown = true;
+      try {
+        requestClose(
+            String.format("CacheClosed in channel read: %s", e));
+      } catch (Exception ex) {
+      }
+      return -1;
+    } catch (ClosedChannelException e) {
+      this.readerShuttingDown = true;
+      try {
+        requestClose(String.format("ClosedChannelException in channel read: %s",
+            e));
+      } catch (Exception ex) {
+      }
+      return -1;
+    } catch (IOException e) {
+      if (!isSocketClosed() && !"Socket closed".equalsIgnoreCase(e.getMessage()) // needed for
+                                                                                 // Solaris jdk
+                                                                                 // 1.4.2_08
+      ) {
+        if (logger.isDebugEnabled() && !isIgnorableIOException(e)) {
+          logger.debug("{} io exception for {}", p2pReaderName(), this, e);
+        }
+        if (e.getMessage().contains("interrupted by a call to WSACancelBlockingCall")) {
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                "{} received unexpected WSACancelBlockingCall exception, which may result in a hang",
+                p2pReaderName());
+          }
+        }
+      }
+      this.readerShuttingDown = true;
+      try {
+        requestClose(
+            String.format("IOException in channel read: %s", e));
+      } catch (Exception ex) {
+      }
+      return -1;
+
+    } catch (Exception e) {
+      this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null); // bug 37101
+      if (!stopped && !isSocketClosed()) {
+        logger.fatal(String.format("%s exception in channel read", p2pReaderName()), e);
+      }
+      this.readerShuttingDown = true;
+      try {
+        requestClose(
+            String.format("%s exception in channel read", e));
+      } catch (Exception ex) {
+      }
+      return -1;
+    }
   }
 
   /**
@@ -2056,6 +2245,10 @@ public class Connection implements Runnable {
         if (myDirectAck) {
           msgType &= ~DIRECT_ACK_BIT; // clear the bit
         }
+        boolean compressed = (msgType & COMPRESSED_BIT) != 0;
+        if (compressed) {
+          msgType &= ~COMPRESSED_BIT;
+        }
         // Following validation fixes bug 31145
         if (!validMsgType(msgType)) {
           logger.fatal("Unknown P2P message type: {}", Integer.valueOf(msgType));
@@ -2071,6 +2264,18 @@ public class Connection implements Runnable {
           stopped = true;
           continue;
         }
+        if (compressed && this.handshakeRead) {
+          try {
+            bytes = decompressFrame(bytes);
+          } catch (RuntimeException e) {
+            this.owner.getConduit().getCancelCriterion().checkCancelInProgress(e);
+            logger.fatal("Error decompressing P2P message frame", e);
+            this.readerShuttingDown = true;
+            requestClose("Error decompressing P2P message frame: " + e);
+            break;
+          }
+          len = bytes.length;
+        }
         boolean interrupted = Thread.interrupted();
         try {
           if (this.handshakeRead) {
@@ -2260,6 +2465,7 @@ public class Connection implements Runnable {
                 // read the product version ordinal for on-the-fly serialization
                 // transformations (for rolling upgrades)
                 this.remoteVersion = Version.readVersion(dis, true);
+                readCompressorName(dis, dis.available());
               }
               notifyHandshakeWaiter(true);
             } else {
@@ -2299,6 +2505,7 @@ public class Connection implements Runnable {
                 // this.senderName = dis.readUTF();
                 setThreadName(dominoNumber);
               }
+              readCompressorName(dis, dis.available());
 
               if (!this.sharedResource) {
                 if (tipDomino()) {
@@ -2500,8 +2707,11 @@ public class Connection implements Runnable {
       throw new ConnectionException(
           String.format("Not connected to %s", this.remoteAddr));
     }
-    if (this.batchFlusher != null) {
+    if (this.batchSendBuffer != null) {
       batchSend(buffer);
+      if (cacheContentChanges) {
+        messagesSent++;
+      }
       return;
     }
     final boolean origSocketInUse = this.socketInUse;
@@ -3272,23 +3482,63 @@ public class Connection implements Runnable {
           }
           // fall through
         }
-        do {
-          int amtWritten = 0;
-          long start = stats.startSocketWrite(true);
-          try {
-            // this.writerThread = Thread.currentThread();
-            amtWritten = channel.write(buffer);
-          } finally {
-            stats.endSocketWrite(true, start, amtWritten, 0);
-            // this.writerThread = null;
+        Selector writeSelector = null;
+        try {
+          do {
+            int amtWritten = 0;
+            long start = stats.startSocketWrite(true);
+            try {
+              // this.writerThread = Thread.currentThread();
+              amtWritten = channel.write(buffer);
+            } finally {
+              stats.endSocketWrite(true, start, amtWritten, 0);
+              // this.writerThread = null;
+            }
+            if (amtWritten == 0 && !channel.isBlocking()) {
+              // receivers read by a P2PSelectorReader stay in non-blocking mode
+              writeSelector = waitUntilWritable(channel, writeSelector);
+              this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
+            }
+          } while (buffer.remaining() > 0);
+        } finally {
+          if (writeSelector != null) {
+            writeSelector.close();
           }
-        } while (buffer.remaining() > 0);
+        }
       } // synchronized
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
     }
   }
 
+  /**
+   * Waits until a channel in non-blocking mode can take more bytes. The channel stays registered
+   * with the selector of its {@link P2PSelectorReader}, so it is also registered for OP_WRITE with
+   * a selector owned by the writing thread, which is opened on the first write that would block.
+   *
+   * Returns after {@link #WRITE_SELECT_TIMEOUT_MS} even if the channel is still full, so the caller
+   * can check for cancellation.
+   *
+   * @return the selector to pass to the next call, to be closed by the caller once the write is
+   *         done
+   */
+  static Selector waitUntilWritable(SocketChannel channel, Selector writeSelector)
+      throws IOException {
+    if (writeSelector == null) {
+      writeSelector = Selector.open();
+      channel.register(writeSelector, SelectionKey.OP_WRITE);
+    }
+    writeSelector.select(WRITE_SELECT_TIMEOUT_MS);
+    writeSelector.selectedKeys().clear();
+    return writeSelector;
+  }
+
+  /**
+   * The longest a write on a non-blocking channel waits for OP_WRITE before checking for
+   * cancellation and trying again
+   */
+  static final long WRITE_SELECT_TIMEOUT_MS = 1000;
+
   /** gets the buffer for receiving message length bytes */
   protected ByteBuffer getNIOBuffer() {
     final DMStats stats = this.owner.getConduit().getStats();
@@ -3464,6 +3714,10 @@ public class Connection implements Runnable {
           if (directAck) {
             nioMessageType &= ~DIRECT_ACK_BIT; // clear the ack bit
           }
+          nioCompressed = (nioMessageType & COMPRESSED_BIT) != 0;
+          if (nioCompressed) {
+            nioMessageType &= ~COMPRESSED_BIT;
+          }
           // Following validation fixes bug 31145
           if (!validMsgType(nioMessageType)) {
             Integer nioMessageTypeInteger = Integer.valueOf(nioMessageType);
@@ -3488,11 +3742,27 @@ public class Connection implements Runnable {
           int oldLimit = nioInputBuffer.limit();
           nioInputBuffer.limit(startPos + nioMessageLength);
           if (this.handshakeRead) {
+            ByteBuffer payload = nioInputBuffer;
+            int payloadLength = nioMessageLength;
+            if (nioCompressed) {
+              try {
+                byte[] bytes = new byte[nioMessageLength];
+                nioInputBuffer.duplicate().get(bytes);
+                payload = ByteBuffer.wrap(decompressFrame(bytes));
+                payloadLength = payload.remaining();
+              } catch (RuntimeException e) {
+                this.owner.getConduit().getCancelCriterion().checkCancelInProgress(e);
+                logger.fatal("Error decompressing P2P message frame", e);
+                this.readerShuttingDown = true;
+                requestClose("Error decompressing P2P message frame: " + e);
+                break;
+              }
+            }
             if (nioMessageType == NORMAL_MSG_TYPE) {
-              this.owner.getConduit().getStats().incMessagesBeingReceived(true, nioMessageLength);
+              this.owner.getConduit().getStats().incMessagesBeingReceived(true, payloadLength);
               ByteBufferInputStream bbis =
-                  remoteVersion == null ? new ByteBufferInputStream(nioInputBuffer)
-                      : new VersionedByteBufferInputStream(nioInputBuffer, remoteVersion);
+                  remoteVersion == null ? new ByteBufferInputStream(payload)
+                      : new VersionedByteBufferInputStream(payload, remoteVersion);
               DistributionMessage msg = null;
               try {
                 ReplyProcessor21.initMessageRPId();
@@ -3505,7 +3775,7 @@ public class Connection implements Runnable {
                       msg, Integer.valueOf(bbis.available()));
                 }
                 try {
-                  if (!dispatchMessage(msg, nioMessageLength, directAck)) {
+                  if (!dispatchMessage(msg, payloadLength, directAck)) {
                     directAck = false;
                   }
                 } catch (MemberShunnedException e) {
@@ -3561,9 +3831,9 @@ public class Connection implements Runnable {
             } else if (nioMessageType == CHUNKED_MSG_TYPE) {
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  payloadLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(payload, payloadLength);
               } catch (IOException ex) {
                 logger.fatal("Failed handling chunk message", ex);
               }
@@ -3571,9 +3841,9 @@ public class Connection implements Runnable {
               // logger.info("END_CHUNK msgId="+nioMsgId);
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  payloadLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(payload, payloadLength);
               } catch (IOException ex) {
                 logger.fatal("Failed handling end chunk message", ex);
               }
@@ -3679,6 +3949,7 @@ public class Connection implements Runnable {
                   // read the product version ordinal for on-the-fly serialization
                   // transformations (for rolling upgrades)
                   this.remoteVersion = Version.readVersion(dis, true);
+                  readCompressorName(dis, dis.available());
                 }
               } catch (Exception e) {
                 this.owner.getConduit().getCancelCriterion().checkCancelInProgress(e);
@@ -3758,6 +4029,7 @@ public class Connection implements Runnable {
                   dominoCount.set(dominoNumber);
                   // this.senderName = dis.readUTF();
                 }
+                readCompressorName(dis, dis.available());
                 if (!this.sharedResource) {
                   if (tipDomino()) {
                     logger.info(
@@ -130,6 +130,13 @@ public class ConnectionTable {
    * Executor used by p2p reader and p2p handshaker threads.
    */
   private final Executor p2pReaderThreadPool;
+
+  /**
+   * Waits for data on idle thread-owned receivers when p2p.useSelectorReaders is set. Null
+   * otherwise.
+   */
+  private final P2PSelectorReader selectorReader;
+
   /**
    * Number of seconds to wait before timing out an unused p2p reader thread. Default is 120 (2
    * minutes).
@@ -193,10 +200,23 @@ public class ConnectionTable {
     this.threadOrderedConnMap = new ThreadLocal();
     this.threadConnMaps = new ArrayList();
     this.threadConnectionMap = new ConcurrentHashMap();
-    this.p2pReaderThreadPool = createThreadPoolForIO(conduit.getDM().getSystem().isShareSockets());
+    boolean conserveSockets = conduit.getDM().getSystem().isShareSockets();
+    this.p2pReaderThreadPool = createThreadPoolForIO(conserveSockets);
+    this.selectorReader = P2PSelectorReader.USE_SELECTOR_READERS && !conserveSockets
+        ? new P2PSelectorReader(P2PSelectorReader.SELECTOR_READER_THREADS,
+            this.p2pReaderThreadPool, conduit.getStats())
+        : null;
     this.socketCloser = new SocketCloser();
   }
 
+  /**
+   * Returns the selector reader that idle thread-owned receivers wait in, or null if receivers
+   * keep their reader thread.
+   */
+  P2PSelectorReader getSelectorReader() {
+    return this.selectorReader;
+  }
+
   private Executor createThreadPoolForIO(boolean conserveSockets) {
     if (conserveSockets) {
       return LoggingExecutors.newThreadOnEachExecute("SharedP2PReader");
@@ -425,6 +445,21 @@ public class ConnectionTable {
     return result;
   }
 
+  /**
+   * Replaces the calling thread's thread-owned connections with the given map, which may be null,
+   * and returns the map it had before. Lets a receiver read by a {@link P2PSelectorReader} keep
+   * the connections its original reader thread used, whichever thread reads it.
+   */
+  Map<?, ?> swapThreadOwnedConnections(Map<?, ?> connections) {
+    Map<?, ?> previous = this.threadOrderedConnMap.get();
+    if (connections == null) {
+      this.threadOrderedConnMap.remove();
+    } else {
+      this.threadOrderedConnMap.set(connections);
+    }
+    return previous;
+  }
+
   /**
    * Must be looking for an ordered connection that this thread owns
    *
@@ -694,6 +729,9 @@ public class ConnectionTable {
       }
     }
     closeReceivers(false);
+    if (this.selectorReader != null) {
+      this.selectorReader.close();
+    }
 
     Map m = (Map) this.threadOrderedConnMap.get();
     if (m != null) {
@@ -51,10 +51,15 @@ public abstract class MsgReader {
       // logger.info("DEBUG: msg from " + getRemoteAddress() + " is direct ack" );
       nioMessageType &= ~Connection.DIRECT_ACK_BIT; // clear the ack bit
     }
+    boolean compressed = (nioMessageType & Connection.COMPRESSED_BIT) != 0;
+    if (compressed) {
+      nioMessageType &= ~Connection.COMPRESSED_BIT;
+    }
 
     header.nioMessageLength = nioMessageLength;
     header.nioMessageType = nioMessageType;
     header.nioMsgId = nioMsgId;
+    header.compressed = compressed;
     return header;
   }
 
@@ -65,7 +70,7 @@ public abstract class MsgReader {
    */
   public DistributionMessage readMessage(Header header)
       throws IOException, ClassNotFoundException, InterruptedException {
-    ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
+    ByteBuffer nioInputBuffer = readPayload(header);
     this.getStats().incMessagesBeingReceived(true, header.nioMessageLength);
     long startSer = this.getStats().startMsgDeserialization();
     try {
@@ -83,9 +88,23 @@ public abstract class MsgReader {
 
   public void readChunk(Header header, MsgDestreamer md)
       throws IOException, ClassNotFoundException, InterruptedException {
-    ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
+    ByteBuffer nioInputBuffer = readPayload(header);
     this.getStats().incMessagesBeingReceived(md.size() == 0, header.nioMessageLength);
-    md.addChunk(nioInputBuffer, header.nioMessageLength);
+    md.addChunk(nioInputBuffer, nioInputBuffer.remaining());
+  }
+
+  /**
+   * Reads the payload of the frame with the given header, decompressing it if the sender
+   * compressed it.
+   */
+  private ByteBuffer readPayload(Header header) throws IOException {
+    ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
+    if (!header.compressed) {
+      return nioInputBuffer;
+    }
+    byte[] bytes = new byte[header.nioMessageLength];
+    nioInputBuffer.get(bytes);
+    return ByteBuffer.wrap(Connection.decompressFrame(conn.getConduit(), bytes));
   }
 
   public abstract ByteBuffer readAtLeast(int bytes) throws IOException;
@@ -99,6 +118,7 @@ public abstract class MsgReader {
     int nioMessageLength;
     byte nioMessageType;
     short nioMsgId;
+    boolean compressed;
 
     public Header() {}
 
@@ -309,10 +309,21 @@ public class MsgStreamer extends OutputStream
       conflationMsg = this.msg;
     }
     this.stats.endMsgSerialization(this.serStartTime);
+    // compressed at most once, for the first connection that wants it
+    ByteBuffer compressedBuffer = null;
     for (Iterator it = this.cons.iterator(); it.hasNext();) {
       Connection con = (Connection) it.next();
+      ByteBuffer frame = this.buffer;
+      WireCompressor compressor = con.getCompressor();
+      if (compressor != null
+          && compressor.shouldCompress(serializedBytes - Connection.MSG_HEADER_BYTES)) {
+        if (compressedBuffer == null) {
+          compressedBuffer = compressFrame(compressor);
+        }
+        frame = compressedBuffer;
+      }
       try {
-        con.sendPreserialized(this.buffer,
+        con.sendPreserialized(frame,
             lastFlushForMessage && this.msg.containsRegionContentChange(), conflationMsg);
       } catch (IOException ex) {
         it.remove();
@@ -329,13 +340,41 @@ public class MsgStreamer extends OutputStream
         con.closeForReconnect(
             String.format("closing due to %s", "ConnectionException"));
       }
-      this.buffer.rewind();
+      frame.rewind();
     }
     startSerialization();
     this.buffer.clear();
     this.buffer.position(Connection.MSG_HEADER_BYTES);
   }
 
+  /**
+   * Returns a copy of the flipped frame in {@link #buffer} with its payload compressed, or the
+   * buffer itself if compressing does not make the payload smaller.
+   */
+  private ByteBuffer compressFrame(WireCompressor compressor) {
+    byte[] payload = new byte[this.buffer.limit() - Connection.MSG_HEADER_BYTES];
+    ByteBuffer src = this.buffer.duplicate();
+    src.position(Connection.MSG_HEADER_BYTES);
+    src.get(payload);
+    long start = System.nanoTime();
+    byte[] compressed = compressor.compress(payload);
+    this.stats.incFrameCompressionTime(System.nanoTime() - start);
+    if (compressed == null) {
+      return this.buffer;
+    }
+    this.stats.incCompressedFramesSent(payload.length - compressed.length);
+    ByteBuffer frame = ByteBuffer.allocate(Connection.MSG_HEADER_BYTES + compressed.length);
+    frame.putInt(Connection.MSG_HEADER_SIZE_OFFSET, Connection.calcHdrSize(compressed.length));
+    frame.put(Connection.MSG_HEADER_TYPE_OFFSET,
+        (byte) (this.buffer.get(Connection.MSG_HEADER_TYPE_OFFSET) | Connection.COMPRESSED_BIT));
+    frame.putShort(Connection.MSG_HEADER_ID_OFFSET,
+        this.buffer.getShort(Connection.MSG_HEADER_ID_OFFSET));
+    frame.position(Connection.MSG_HEADER_BYTES);
+    frame.put(compressed);
+    frame.flip();
+    return frame;
+  }
+
   @Override
   public void close() throws IOException {
     try {
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThread;
+
+/**
+ * Waits for data on idle thread-owned receiver connections using NIO selectors, so that such a
+ * connection only holds a p2p reader thread while it has data to read.
+ * <p>
+ * Once a receiver {@link Connection} has read its handshake it hands itself to this class instead
+ * of blocking in a socket read. When a selector finds the connection readable, the connection is
+ * handed to the p2p reader thread pool, which reads and processes messages until the socket has no
+ * more data and then gives the connection back to the selector. Only one thread reads a connection
+ * at a time, so messages are still processed in order and direct replies are still written by the
+ * thread that processed the message.
+ * <p>
+ * Enabled with the p2p.useSelectorReaders system property. The number of selector threads is
+ * controlled with p2p.selectorReaderThreads.
+ */
+class P2PSelectorReader {
+  private static final Logger logger = LogService.getLogger();
+
+  static final boolean USE_SELECTOR_READERS = Boolean.getBoolean("p2p.useSelectorReaders");
+
+  static final int SELECTOR_READER_THREADS =
+      Math.max(1, Integer.getInteger("p2p.selectorReaderThreads", 1));
+
+  /**
+   * How long a selector waits before checking its parked connections for sockets that were closed
+   * while no thread was reading them.
+   */
+  private static final long SELECT_TIMEOUT_MILLIS = 1000;
+
+  private final SelectorLoop[] loops;
+
+  private final Executor readerExecutor;
+
+  private final DMStats stats;
+
+  private final AtomicInteger nextLoop = new AtomicInteger();
+
+  private volatile boolean closed;
+
+  P2PSelectorReader(int numThreads, Executor readerExecutor, DMStats stats) throws IOException {
+    this.readerExecutor = readerExecutor;
+    this.stats = stats;
+    this.loops = new SelectorLoop[numThreads];
+    try {
+      for (int i = 0; i < numThreads; i++) {
+        loops[i] = new SelectorLoop(Selector.open(), i);
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+    for (SelectorLoop loop : loops) {
+      loop.start();
+    }
+  }
+
+  /**
+   * Parks a receiver connection whose handshake has been read. The channel must already be in
+   * non-blocking mode. Returns false if this reader is closed and the caller should keep reading
+   * the connection itself.
+   */
+  boolean register(Connection connection, SocketChannel channel) {
+    if (closed) {
+      return false;
+    }
+    SelectorLoop loop =
+        loops[(nextLoop.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+    Registration registration = new Registration(connection, channel, loop);
+    connection.setSelectorRegistration(registration);
+    loop.enqueue(registration);
+    return true;
+  }
+
+  void close() {
+    closed = true;
+    for (SelectorLoop loop : loops) {
+      if (loop != null) {
+        loop.close();
+      }
+    }
+  }
+
+  /**
+   * The state of one connection in a selector. A registration is either parked in its selector
+   * waiting for data or being serviced by a reader thread.
+   */
+  static class Registration {
+    private final Connection connection;
+    private final SocketChannel channel;
+    private final SelectorLoop loop;
+    private final AtomicBoolean servicing = new AtomicBoolean();
+    private volatile boolean done;
+    private SelectionKey key;
+
+    Registration(Connection connection, SocketChannel channel, SelectorLoop loop) {
+      this.connection = connection;
+      this.channel = channel;
+      this.loop = loop;
+    }
+
+    /**
+     * Wakes up the selector so that a connection closed while parked is noticed promptly.
+     */
+    void connectionClosed() {
+      loop.requestScan();
+    }
+  }
+
+  class SelectorLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Registration> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Connection, Registration> registrations = new IdentityHashMap<>();
+    private volatile boolean loopClosed;
+    private volatile boolean scanRequested;
+    /** guarded by pending */
+    private boolean acceptingRegistrations = true;
+    private int registeredCount;
+
+    SelectorLoop(Selector selector, int id) {
+      this.selector = selector;
+      this.thread = new LoggingThread("P2P selector reader " + id, this);
+    }
+
+    void start() {
+      thread.start();
+    }
+
+    void enqueue(Registration registration) {
+      synchronized (pending) {
+        if (acceptingRegistrations) {
+          pending.add(registration);
+          selector.wakeup();
+          return;
+        }
+      }
+      if (!registration.done) {
+        terminate(registration);
+      }
+    }
+
+    void requestScan() {
+      scanRequested = true;
+      selector.wakeup();
+    }
+
+    void close() {
+      loopClosed = true;
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      long lastScan = System.currentTimeMillis();
+      try {
+        while (!loopClosed) {
+          long selectStart = System.nanoTime();
+          int selected = selector.select(SELECT_TIMEOUT_MILLIS);
+          long busyStart = System.nanoTime();
+          stats.incSelectorReaderSelectTime(busyStart - selectStart);
+          if (loopClosed) {
+            break;
+          }
+          processPending();
+          if (selected > 0) {
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+              SelectionKey key = it.next();
+              it.remove();
+              dispatch((Registration) key.attachment());
+            }
+          }
+          long now = System.currentTimeMillis();
+          if (scanRequested || now - lastScan >= SELECT_TIMEOUT_MILLIS) {
+            scanRequested = false;
+            lastScan = now;
+            dispatchClosedConnections();
+          }
+          stats.incSelectorReaderBusyTime(System.nanoTime() - busyStart);
+        }
+      } catch (IOException | ClosedSelectorException e) {
+        if (!loopClosed) {
+          logger.warn("P2P selector reader failed", e);
+        }
+      } finally {
+        shutdown();
+      }
+    }
+
+    /**
+     * Registers newly parked connections, re-enables reading on connections given back by a reader
+     * thread and drops connections that have been closed.
+     */
+    private void processPending() {
+      Registration registration;
+      while ((registration = pending.poll()) != null) {
+        if (registration.done) {
+          if (registrations.remove(registration.connection) != null) {
+            registeredCount--;
+            stats.incSelectorReaderConnections(-1);
+          }
+          if (registration.key != null) {
+            registration.key.cancel();
+          }
+          continue;
+        }
+        registration.servicing.set(false);
+        try {
+          if (registration.key == null) {
+            registration.key =
+                registration.channel.register(selector, SelectionKey.OP_READ, registration);
+            registrations.put(registration.connection, registration);
+            registeredCount++;
+            stats.incSelectorReaderConnections(1);
+          } else {
+            registration.key.interestOps(SelectionKey.OP_READ);
+          }
+        } catch (ClosedChannelException | CancelledKeyException e) {
+          // the connection was closed while it was not being read. Let a reader thread find that
+          // out so that it goes through the normal reader shutdown.
+          dispatch(registration);
+        }
+      }
+    }
+
+    private void dispatchClosedConnections() {
+      for (Registration registration : registrations.values()) {
+        if (!registration.servicing.get()
+            && (!registration.key.isValid() || !registration.channel.isOpen()
+                || registration.connection.isClosing())) {
+          dispatch(registration);
+        }
+      }
+    }
+
+    private void dispatch(Registration registration) {
+      if (!registration.servicing.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        if (registration.key != null && registration.key.isValid()) {
+          registration.key.interestOps(0);
+        }
+      } catch (CancelledKeyException ignore) {
+        // the reader thread will find the channel closed
+      }
+      stats.incSelectorReaderDispatches();
+      try {
+        readerExecutor.execute(() -> service(registration));
+      } catch (RejectedExecutionException e) {
+        // the connection table is shutting down; read on this thread so that the connection
+        // still goes through the normal reader shutdown.
+        service(registration);
+      }
+    }
+
+    /**
+     * Reads and processes the messages available on a connection. Runs on a p2p reader thread.
+     */
+    private void service(Registration registration) {
+      boolean keepReading = false;
+      try {
+        keepReading = registration.connection.readFromSelector(registration.channel);
+      } finally {
+        if (!keepReading) {
+          registration.done = true;
+        }
+        enqueue(registration);
+      }
+    }
+
+    /**
+     * Closes a connection that can no longer wait in this selector and lets it go through the
+     * normal reader shutdown on the calling thread.
+     */
+    private void terminate(Registration registration) {
+      registration.done = true;
+      registration.connection.requestClose("p2p selector reader closed");
+      registration.connection.readFromSelector(registration.channel);
+    }
+
+    /**
+     * Closes every connection parked in this selector when it stops, so that none is left without
+     * a reader. Connections being read at this time are closed when their reader gives them back.
+     */
+    private void shutdown() {
+      synchronized (pending) {
+        acceptingRegistrations = false;
+      }
+      Registration registration;
+      while ((registration = pending.poll()) != null) {
+        if (!registration.done) {
+          registrations.put(registration.connection, registration);
+          registration.servicing.set(false);
+        }
+      }
+      for (Registration parked : registrations.values()) {
+        if (parked.servicing.compareAndSet(false, true)) {
+          terminate(parked);
+        }
+      }
+      registrations.clear();
+      stats.incSelectorReaderConnections(-registeredCount);
+      registeredCount = 0;
+      try {
+        selector.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+}
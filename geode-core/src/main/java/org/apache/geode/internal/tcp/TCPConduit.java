@@ -186,6 +186,13 @@ public class TCPConduit implements Runnable {
 
   private DMStats stats;
 
+  /**
+   * Compresses message frames on connections to peers that use the same compressor. Set with the
+   * p2p.compressor and p2p.compressionThreshold system properties; null if not set.
+   */
+  private final WireCompressor compressor =
+      WireCompressor.fromProperties("p2p.compressor", "p2p.compressionThreshold");
+
   /**
    * Config from the delegate
    *
@@ -1087,6 +1094,14 @@ public class TCPConduit implements Runnable {
     return (ct != null) && ct.hasReceiversFor(endPoint);
   }
 
+  /**
+   * Returns the compressor offered to peers during the handshake, or null if frames are never
+   * compressed.
+   */
+  public WireCompressor getCompressor() {
+    return this.compressor;
+  }
+
   /**
    * Stats from the delegate
    */
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.internal.ClassPathLoader;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Compresses message payloads on the wire with a {@link Compressor}. The compressor is named by a
+ * system property that holds either "snappy" or the name of a class implementing Compressor with
+ * a public no-argument constructor. Payloads shorter than the threshold are sent raw, and so are
+ * payloads that do not get smaller.
+ *
+ * @see TCPConduit#getCompressor()
+ */
+public class WireCompressor {
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String SNAPPY = "snappy";
+
+  public static final int DEFAULT_THRESHOLD = 1024;
+
+  private final String name;
+  private final Compressor compressor;
+  private final int threshold;
+
+  WireCompressor(String name, Compressor compressor, int threshold) {
+    this.name = name;
+    this.compressor = compressor;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns the compressor named by the given system property, or null if the property is not set
+   * or the compressor can not be created.
+   */
+  public static WireCompressor fromProperties(String compressorProperty,
+      String thresholdProperty) {
+    String name = System.getProperty(compressorProperty);
+    if (name == null || name.trim().isEmpty() || name.trim().equalsIgnoreCase("none")) {
+      return null;
+    }
+    return create(name.trim(),
+        Integer.getInteger(thresholdProperty, DEFAULT_THRESHOLD).intValue());
+  }
+
+  /**
+   * Returns the compressor with the given name, or null if it can not be created.
+   */
+  public static WireCompressor create(String name, int threshold) {
+    if (SNAPPY.equalsIgnoreCase(name)) {
+      return new WireCompressor(SNAPPY, new SnappyCompressor(), threshold);
+    }
+    try {
+      Compressor compressor = ClassPathLoader.getLatest().forName(name)
+          .asSubclass(Compressor.class).getDeclaredConstructor().newInstance();
+      return new WireCompressor(name, compressor, threshold);
+    } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+      logger.warn("Unable to create compressor {}. Messages will be sent uncompressed.", name, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the name peers compare during the handshake. Both ends of a connection must use the
+   * same compressor.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  public int getThreshold() {
+    return this.threshold;
+  }
+
+  /**
+   * Returns true if a payload of the given length is long enough to be worth compressing.
+   */
+  public boolean shouldCompress(int length) {
+    return length >= this.threshold;
+  }
+
+  /**
+   * Returns the compressed form of the given bytes, or null if it is not smaller.
+   */
+  public byte[] compress(byte[] bytes) {
+    byte[] compressed = this.compressor.compress(bytes);
+    return compressed.length < bytes.length ? compressed : null;
+  }
+
+  public byte[] decompress(byte[] bytes) {
+    return this.compressor.decompress(bytes);
+  }
+
+  @Override
+  public String toString() {
+    return "WireCompressor[" + this.name + "; threshold=" + this.threshold + "]";
+  }
+}
@@ -0,0 +1,1320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.logging.LoggingThread;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntryCreator;
+
+/**
+ * A hash table of {@link HashEntry}s built like the JDK 8
+ * {@link java.util.concurrent.ConcurrentHashMap} rather than from segments like
+ * {@link CustomEntryConcurrentHashMap}. Like that map it keeps the entries made by a
+ * {@link HashEntryCreator} in its bins, so the region entries of a region map are the nodes of the
+ * table and are never copied.
+ *
+ * <p>
+ * The table is one array of bins. Retrievals take no locks at all. An entry is added to an empty
+ * bin with a compare-and-set of the bin; other updates lock the stripe of the bin. There are
+ * several bins per stripe and a bin always belongs to the same stripe, whatever the size of the
+ * table. The stripe locks are plain monitors and are never the entries themselves, since region
+ * operations synchronize on region entries.
+ *
+ * <p>
+ * The table is resized incrementally: every thread that updates the map while it is being resized
+ * moves a range of bins to the new table, leaving a forwarding node behind in each moved bin.
+ * Moving a bin relinks the entries of its chain in place, since they cannot be cloned. A reader
+ * that was walking that chain could then miss an entry, so each stripe has a sequence number that
+ * is odd while its bins are being relinked, and a retrieval that finds nothing retries if the
+ * sequence of its stripe changed meanwhile. Retrievals that find their entry never retry.
+ *
+ * <p>
+ * A bin whose chain grows longer than {@link #TREEIFY_THRESHOLD} entries in a large enough table
+ * becomes a sorted bin: an array of its entries ordered by hash, searched by binary search and
+ * replaced as a whole on every update. Sorted bins play the part of the red-black tree bins of the
+ * JDK map, which would need a tree node per entry, and keep a bin of keys with colliding hashes
+ * from being searched in turn.
+ *
+ * <p>
+ * An entry that has been removed from this map must not be put back in it, because readers may
+ * still be walking the chain it was removed from. Region maps always create new region entries.
+ *
+ * <p>
+ * Iterators are weakly consistent and reflect the state of each bin at the time it is reached.
+ * Like {@link CustomEntryConcurrentHashMap}, this map does not allow <tt>null</tt> keys or values.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class LockFreeEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
+    implements ConcurrentMapWithReusableEntries<K, V> {
+
+  /** the largest possible table capacity */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** the number of entries in a chain that turns it into a sorted bin */
+  static final int TREEIFY_THRESHOLD = 8;
+
+  /** the number of entries in a sorted bin that turns it back into a chain */
+  static final int UNTREEIFY_THRESHOLD = 6;
+
+  /** the smallest table in which bins are sorted rather than the table resized */
+  static final int MIN_TREEIFY_CAPACITY = 64;
+
+  /** the number of stripe locks for each estimated concurrently updating thread */
+  static final int STRIPES_PER_UPDATER = 4;
+
+  /** the largest number of stripe locks */
+  static final int MAXIMUM_STRIPES = 1 << 12;
+
+  /** the fewest bins moved by a thread at a time while resizing */
+  private static final int MIN_TRANSFER_STRIDE = 16;
+
+  private static final int RESIZE_STAMP_BITS = 16;
+
+  private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+  private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+  private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+  // field updaters can only be created for the raw class of a generic class
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<LockFreeEntryConcurrentHashMap> SIZE_CTL =
+      AtomicIntegerFieldUpdater.newUpdater(LockFreeEntryConcurrentHashMap.class, "sizeCtl");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<LockFreeEntryConcurrentHashMap> TRANSFER_INDEX =
+      AtomicIntegerFieldUpdater.newUpdater(LockFreeEntryConcurrentHashMap.class, "transferIndex");
+
+  private static final Comparator<HashEntry<?, ?>> HASH_ORDER =
+      (e1, e2) -> Integer.compare(e1.getEntryHash(), e2.getEntryHash());
+
+  private final HashEntryCreator<K, V> entryCreator;
+
+  /**
+   * If true then use equals for comparing key and value equality else use reference-equality like
+   * an {@link IdentityHashMap}.
+   */
+  private final boolean compareValues;
+
+  private final float loadFactor;
+
+  private final Object[] stripeLocks;
+
+  /** per stripe, odd while bins of the stripe are relinked and bumped again once they are done */
+  private final AtomicIntegerArray stripeSequences;
+
+  private final int stripeMask;
+
+  private final LongAdder count = new LongAdder();
+
+  private volatile AtomicReferenceArray<Object> table;
+
+  /** the table being resized to, only non-null while resizing */
+  private volatile AtomicReferenceArray<Object> nextTable;
+
+  /**
+   * The number of entries at which the table is resized when positive. While resizing it holds the
+   * resize stamp of the table length in its upper bits and one more than the number of resizing
+   * threads in its lower bits.
+   */
+  private volatile int sizeCtl;
+
+  /** the bins below this index remain to be claimed by resizing threads */
+  private volatile int transferIndex;
+
+  private transient Set<K> keySet;
+  private transient Set<Map.Entry<K, V>> entrySet;
+  private transient Set<Map.Entry<K, V>> reusableEntrySet;
+  private transient Collection<V> values;
+
+  /**
+   * Creates a new, empty map with the specified initial capacity, load factor, concurrency level
+   * and custom {@link HashEntryCreator}.
+   *
+   * @param initialCapacity the initial capacity. The implementation performs internal sizing to
+   *        accommodate this many elements.
+   * @param loadFactor the load factor threshold, used to control resizing. Resizing may be
+   *        performed when the average number of elements per bin exceeds this threshold.
+   * @param concurrencyLevel the estimated number of concurrently updating threads, used to size
+   *        the stripe locks
+   * @param isIdentityMap if true then this will use reference-equality instead of equals like an
+   *        {@link IdentityHashMap}
+   * @param entryCreator a custom {@link HashEntryCreator} for creating the map entries, or null
+   *        for plain entries holding the key and value
+   *
+   * @throws IllegalArgumentException if the initial capacity is negative or the load factor or
+   *         concurrencyLevel are nonpositive.
+   */
+  public LockFreeEntryConcurrentHashMap(int initialCapacity, float loadFactor,
+      int concurrencyLevel, boolean isIdentityMap, HashEntryCreator<K, V> entryCreator) {
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    int stripes = tableSizeFor(
+        (int) Math.min((long) concurrencyLevel * STRIPES_PER_UPDATER, MAXIMUM_STRIPES));
+    this.stripeLocks = new Object[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripeLocks[i] = new Object();
+    }
+    this.stripeSequences = new AtomicIntegerArray(stripes);
+    this.stripeMask = stripes - 1;
+
+    // the table is never smaller than the stripes so that each bin has its own stripe
+    int capacity = tableSizeFor((int) Math
+        .min((long) (1.0 + initialCapacity / (double) loadFactor), MAXIMUM_CAPACITY));
+    capacity = Math.max(capacity, stripes);
+    this.table = new AtomicReferenceArray<>(capacity);
+    this.loadFactor = loadFactor;
+    this.sizeCtl = threshold(capacity);
+    this.compareValues = !isIdentityMap;
+    if (entryCreator == null) {
+      entryCreator = new CustomEntryConcurrentHashMap.DefaultHashEntryCreator<>();
+    }
+    this.entryCreator = entryCreator;
+  }
+
+  /**
+   * Creates a new, empty map with the specified initial capacity, load factor and concurrency
+   * level.
+   */
+  public LockFreeEntryConcurrentHashMap(int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    this(initialCapacity, loadFactor, concurrencyLevel, false, null);
+  }
+
+  /**
+   * Creates a new, empty map with the default initial capacity, load factor and concurrency level.
+   */
+  public LockFreeEntryConcurrentHashMap() {
+    this(CustomEntryConcurrentHashMap.DEFAULT_INITIAL_CAPACITY,
+        CustomEntryConcurrentHashMap.DEFAULT_LOAD_FACTOR,
+        CustomEntryConcurrentHashMap.DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Returns the smallest power of two not less than c, or 1 for c less than 1.
+   */
+  private static int tableSizeFor(int c) {
+    int n = c <= 1 ? 1 : Integer.highestOneBit(c - 1) << 1;
+    return n < 0 || n > MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY : n;
+  }
+
+  private static int resizeStamp(int n) {
+    return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+  }
+
+  private int threshold(int capacity) {
+    if (capacity >= MAXIMUM_CAPACITY) {
+      return Integer.MAX_VALUE;
+    }
+    return (int) Math.min((long) (capacity * (double) this.loadFactor), Integer.MAX_VALUE);
+  }
+
+  private Object lockFor(int hashOrIndex) {
+    return this.stripeLocks[hashOrIndex & this.stripeMask];
+  }
+
+  private boolean keyMatches(HashEntry<K, V> e, int hash, Object key) {
+    if (e.getEntryHash() != hash) {
+      return false;
+    }
+    return this.compareValues ? e.isKeyEqual(key) : e.getKey() == key;
+  }
+
+  private boolean valueMatches(Object expected, Object value) {
+    return expected == value || (this.compareValues && expected.equals(value));
+  }
+
+  /* ---------------- Retrieval -------------- */
+
+  private HashEntry<K, V> findEntry(Object key) {
+    // throws NullPointerException if key null
+    final int hash = this.entryCreator.keyHashCode(key, this.compareValues);
+    final int stripe = hash & this.stripeMask;
+    for (;;) {
+      final int sequence = this.stripeSequences.get(stripe);
+      if ((sequence & 1) == 0) {
+        final HashEntry<K, V> e = find(this.table, hash, key);
+        if (e != null || this.stripeSequences.get(stripe) == sequence) {
+          return e;
+        }
+      } else {
+        // the bins of this stripe are being moved to a new table
+        Thread.yield();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private HashEntry<K, V> find(AtomicReferenceArray<Object> tab, int hash, Object key) {
+    for (;;) {
+      final Object f = tab.get((tab.length() - 1) & hash);
+      if (f == null) {
+        return null;
+      } else if (f instanceof ForwardingNode) {
+        tab = ((ForwardingNode) f).nextTable;
+      } else if (f instanceof SortedBin) {
+        return findSorted(((SortedBin<K, V>) f).entries, hash, key);
+      } else {
+        for (HashEntry<K, V> e = (HashEntry<K, V>) f; e != null; e = e.getNextEntry()) {
+          if (keyMatches(e, hash, key)) {
+            return e;
+          }
+        }
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the first entry of the sorted array with a hash not less than hash.
+   */
+  private static int firstIndexOf(HashEntry<?, ?>[] entries, int hash) {
+    int low = 0;
+    int high = entries.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (entries[mid].getEntryHash() < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private HashEntry<K, V> findSorted(HashEntry<K, V>[] entries, int hash, Object key) {
+    for (int i = firstIndexOf(entries, hash); i < entries.length
+        && entries[i].getEntryHash() == hash; i++) {
+      if (keyMatches(entries[i], hash, key)) {
+        return entries[i];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public V get(Object key) {
+    final HashEntry<K, V> e = findEntry(key);
+    return e != null ? e.getMapValue() : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findEntry(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    for (Iterator<HashEntry<K, V>> it = new EntryNodeIterator(); it.hasNext();) {
+      final V v = it.next().getMapValue();
+      if (v != null && valueMatches(value, v)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int size() {
+    final long n = this.count.sum();
+    return n < 0 ? 0 : n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.count.sum() <= 0;
+  }
+
+  /* ---------------- Updates -------------- */
+
+  @Override
+  public V put(K key, V value) {
+    return putVal(key, value, false);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    return putVal(key, value, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V putVal(K key, V value, boolean onlyIfAbsent) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    // throws NullPointerException if key null
+    final int hash = this.entryCreator.keyHashCode(key, this.compareValues);
+    int binCount = 0;
+    for (AtomicReferenceArray<Object> tab = this.table;;) {
+      final int i = (tab.length() - 1) & hash;
+      final Object f = tab.get(i);
+      if (f == null) {
+        if (tab.compareAndSet(i, null, this.entryCreator.newEntry(key, hash, null, value))) {
+          break;
+        }
+      } else if (f instanceof ForwardingNode) {
+        tab = helpTransfer(tab, (ForwardingNode) f);
+      } else {
+        V oldValue = null;
+        synchronized (lockFor(hash)) {
+          if (tab.get(i) == f) {
+            if (f instanceof SortedBin) {
+              binCount = 2;
+              final SortedBin<K, V> bin = (SortedBin<K, V>) f;
+              final HashEntry<K, V> e = findSorted(bin.entries, hash, key);
+              if (e != null) {
+                oldValue = e.getMapValue();
+                if (!onlyIfAbsent) {
+                  e.setMapValue(value);
+                }
+              } else {
+                bin.add(this.entryCreator.newEntry(key, hash, null, value));
+              }
+            } else {
+              binCount = 1;
+              for (HashEntry<K, V> e = (HashEntry<K, V>) f;; ++binCount) {
+                if (keyMatches(e, hash, key)) {
+                  oldValue = e.getMapValue();
+                  if (!onlyIfAbsent) {
+                    e.setMapValue(value);
+                  }
+                  break;
+                }
+                final HashEntry<K, V> next = e.getNextEntry();
+                if (next == null) {
+                  e.setNextEntry(this.entryCreator.newEntry(key, hash, null, value));
+                  // a volatile write of the bin publishes the new entry to readers
+                  tab.set(i, f);
+                  break;
+                }
+                e = next;
+              }
+            }
+          }
+        }
+        if (binCount != 0) {
+          if (binCount >= TREEIFY_THRESHOLD) {
+            treeifyBin(tab, i);
+          }
+          if (oldValue != null) {
+            return oldValue;
+          }
+          break;
+        }
+      }
+    }
+    addCount(binCount);
+    return null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    return replaceNode(key, null, null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return value != null && replaceNode(key, null, value) != null;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    if (key == null || oldValue == null || newValue == null) {
+      throw new NullPointerException();
+    }
+    return replaceNode(key, newValue, oldValue) != null;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    return replaceNode(key, value, null);
+  }
+
+  /**
+   * Replaces the value of the entry with the given value, or removes the entry if value is null,
+   * provided that its current value matches expectedValue when that is non-null.
+   *
+   * @return the previous value, or null if nothing was replaced or removed
+   */
+  @SuppressWarnings("unchecked")
+  private V replaceNode(Object key, V value, Object expectedValue) {
+    // throws NullPointerException if key null
+    final int hash = this.entryCreator.keyHashCode(key, this.compareValues);
+    for (AtomicReferenceArray<Object> tab = this.table;;) {
+      final int i = (tab.length() - 1) & hash;
+      final Object f = tab.get(i);
+      if (f == null) {
+        break;
+      } else if (f instanceof ForwardingNode) {
+        tab = helpTransfer(tab, (ForwardingNode) f);
+      } else {
+        V oldValue = null;
+        boolean validated = false;
+        synchronized (lockFor(hash)) {
+          if (tab.get(i) == f) {
+            validated = true;
+            if (f instanceof SortedBin) {
+              final SortedBin<K, V> bin = (SortedBin<K, V>) f;
+              final HashEntry<K, V> e = findSorted(bin.entries, hash, key);
+              if (e != null) {
+                final V v = e.getMapValue();
+                if (expectedValue == null || (v != null && valueMatches(expectedValue, v))) {
+                  oldValue = v;
+                  if (value != null) {
+                    e.setMapValue(value);
+                  } else if (bin.remove(e) <= UNTREEIFY_THRESHOLD) {
+                    untreeifyBin(tab, i, bin);
+                  }
+                }
+              }
+            } else {
+              HashEntry<K, V> pred = null;
+              for (HashEntry<K, V> e = (HashEntry<K, V>) f; e != null; e = e.getNextEntry()) {
+                if (keyMatches(e, hash, key)) {
+                  final V v = e.getMapValue();
+                  if (expectedValue == null || (v != null && valueMatches(expectedValue, v))) {
+                    oldValue = v;
+                    if (value != null) {
+                      e.setMapValue(value);
+                    } else if (pred != null) {
+                      // readers at e still find the rest of the chain through it
+                      pred.setNextEntry(e.getNextEntry());
+                      tab.set(i, f);
+                    } else {
+                      tab.set(i, e.getNextEntry());
+                    }
+                  }
+                  break;
+                }
+                pred = e;
+              }
+            }
+          }
+        }
+        if (validated) {
+          if (oldValue != null) {
+            if (value == null) {
+              this.count.decrement();
+            }
+            return oldValue;
+          }
+          break;
+        }
+      }
+    }
+    return null;
+  }
+
+  /* ---------------- Sorted bins -------------- */
+
+  /**
+   * Replaces the chain of the given bin with a sorted bin, unless the table is still small enough
+   * to be resized instead.
+   */
+  @SuppressWarnings("unchecked")
+  private void treeifyBin(AtomicReferenceArray<Object> tab, int index) {
+    if (tab.length() < MIN_TREEIFY_CAPACITY) {
+      tryPresize(tab);
+      return;
+    }
+    final Object f = tab.get(index);
+    if (f instanceof HashEntry) {
+      synchronized (lockFor(index)) {
+        if (tab.get(index) == f) {
+          final ArrayList<HashEntry<K, V>> chain = new ArrayList<>();
+          for (HashEntry<K, V> e = (HashEntry<K, V>) f; e != null; e = e.getNextEntry()) {
+            chain.add(e);
+          }
+          final HashEntry<K, V>[] entries = chain.toArray(newEntries(chain.size()));
+          Arrays.sort(entries, HASH_ORDER);
+          final int stripe = index & this.stripeMask;
+          this.stripeSequences.incrementAndGet(stripe);
+          try {
+            tab.set(index, new SortedBin<>(entries));
+            // entries of sorted bins are not linked, so they do not keep removed entries alive
+            for (HashEntry<K, V> e : entries) {
+              e.setNextEntry(null);
+            }
+          } finally {
+            this.stripeSequences.incrementAndGet(stripe);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Replaces a sorted bin that has become small with a chain of its entries. Must be called with
+   * the stripe of the bin locked.
+   */
+  private void untreeifyBin(AtomicReferenceArray<Object> tab, int index, SortedBin<K, V> bin) {
+    final int stripe = index & this.stripeMask;
+    this.stripeSequences.incrementAndGet(stripe);
+    try {
+      tab.set(index, link(bin.entries, 0, bin.entries.length));
+    } finally {
+      this.stripeSequences.incrementAndGet(stripe);
+    }
+  }
+
+  /**
+   * Links the given entries into a chain and returns its head, or null if there are none.
+   */
+  private static <K, V> HashEntry<K, V> link(HashEntry<K, V>[] entries, int from, int to) {
+    HashEntry<K, V> head = null;
+    for (int i = to - 1; i >= from; i--) {
+      entries[i].setNextEntry(head);
+      head = entries[i];
+    }
+    return head;
+  }
+
+  /* ---------------- Resizing -------------- */
+
+  private void addCount(int binCount) {
+    this.count.increment();
+    if (binCount > 0) {
+      checkForResize();
+    }
+  }
+
+  private void checkForResize() {
+    long s = this.count.sum();
+    int sc;
+    AtomicReferenceArray<Object> tab;
+    int n;
+    while (s >= (long) (sc = this.sizeCtl)
+        && (n = (tab = this.table).length()) < MAXIMUM_CAPACITY) {
+      final int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+      if (sc < 0) {
+        final AtomicReferenceArray<Object> nt = this.nextTable;
+        if ((sc >>> RESIZE_STAMP_SHIFT) != (rs >>> RESIZE_STAMP_SHIFT) || sc == rs + 1
+            || sc == rs + MAX_RESIZERS || nt == null || this.transferIndex <= 0) {
+          break;
+        }
+        if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+          transfer(tab, nt);
+        }
+      } else if (SIZE_CTL.compareAndSet(this, sc, rs + 2)) {
+        transfer(tab, null);
+      }
+      s = this.count.sum();
+    }
+  }
+
+  /**
+   * Starts doubling the table, unless it is already being resized.
+   */
+  private void tryPresize(AtomicReferenceArray<Object> tab) {
+    final int sc = this.sizeCtl;
+    final int n = tab.length();
+    if (sc >= 0 && tab == this.table && n < MAXIMUM_CAPACITY
+        && SIZE_CTL.compareAndSet(this, sc, (resizeStamp(n) << RESIZE_STAMP_SHIFT) + 2)) {
+      transfer(tab, null);
+    }
+  }
+
+  /**
+   * Helps move bins to the next table if a resize is in progress, and returns the table to retry
+   * in.
+   */
+  private AtomicReferenceArray<Object> helpTransfer(AtomicReferenceArray<Object> tab,
+      ForwardingNode f) {
+    final AtomicReferenceArray<Object> nextTab = f.nextTable;
+    final int rs = resizeStamp(tab.length()) << RESIZE_STAMP_SHIFT;
+    int sc;
+    while (nextTab == this.nextTable && tab == this.table && (sc = this.sizeCtl) < 0) {
+      if (sc == rs + 1 || sc == rs + MAX_RESIZERS || this.transferIndex <= 0) {
+        break;
+      }
+      if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+        transfer(tab, nextTab);
+        break;
+      }
+    }
+    return nextTab;
+  }
+
+  /**
+   * Moves the bins of tab to nextTab, claiming a range of bins at a time so that several threads
+   * can move bins at once. The first resizing thread passes a null nextTab.
+   */
+  @SuppressWarnings("unchecked")
+  private void transfer(AtomicReferenceArray<Object> tab, AtomicReferenceArray<Object> nextTab) {
+    final int n = tab.length();
+    int stride = NCPU > 1 ? (n >>> 3) / NCPU : n;
+    if (stride < MIN_TRANSFER_STRIDE) {
+      stride = MIN_TRANSFER_STRIDE;
+    }
+    if (nextTab == null) {
+      try {
+        nextTab = new AtomicReferenceArray<>(n << 1);
+      } catch (OutOfMemoryError ex) {
+        // stop trying to resize
+        this.sizeCtl = Integer.MAX_VALUE;
+        return;
+      }
+      this.nextTable = nextTab;
+      this.transferIndex = n;
+    }
+    final ForwardingNode fwd = new ForwardingNode(nextTab);
+    boolean advance = true;
+    boolean finishing = false;
+    for (int i = 0, bound = 0;;) {
+      while (advance) {
+        final int nextIndex;
+        if (--i >= bound || finishing) {
+          advance = false;
+        } else if ((nextIndex = this.transferIndex) <= 0) {
+          i = -1;
+          advance = false;
+        } else {
+          final int nextBound = nextIndex > stride ? nextIndex - stride : 0;
+          if (TRANSFER_INDEX.compareAndSet(this, nextIndex, nextBound)) {
+            bound = nextBound;
+            i = nextIndex - 1;
+            advance = false;
+          }
+        }
+      }
+      if (i < 0) {
+        if (finishing) {
+          this.nextTable = null;
+          this.table = nextTab;
+          this.sizeCtl = threshold(n << 1);
+          return;
+        }
+        final int sc = this.sizeCtl;
+        if (SIZE_CTL.compareAndSet(this, sc, sc - 1)) {
+          if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT) {
+            return;
+          }
+          // the last resizing thread checks every bin before the new table is installed
+          finishing = advance = true;
+          i = n;
+        }
+        continue;
+      }
+      final Object f = tab.get(i);
+      if (f == null) {
+        advance = tab.compareAndSet(i, null, fwd);
+      } else if (f instanceof ForwardingNode) {
+        advance = true;
+      } else {
+        synchronized (lockFor(i)) {
+          if (tab.get(i) == f) {
+            final int stripe = i & this.stripeMask;
+            this.stripeSequences.incrementAndGet(stripe);
+            try {
+              if (f instanceof SortedBin) {
+                splitSortedBin((SortedBin<K, V>) f, i, n, nextTab);
+              } else {
+                splitChain((HashEntry<K, V>) f, i, n, nextTab);
+              }
+              tab.set(i, fwd);
+            } finally {
+              this.stripeSequences.incrementAndGet(stripe);
+            }
+            advance = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Relinks the entries of the chain in bin i of a table of length n into the chains of bins i and
+   * i + n of nextTab. Must be called with the stripe of the bin locked and its sequence odd.
+   */
+  private static <K, V> void splitChain(HashEntry<K, V> first, int i, int n,
+      AtomicReferenceArray<Object> nextTab) {
+    HashEntry<K, V> loHead = null;
+    HashEntry<K, V> loTail = null;
+    HashEntry<K, V> hiHead = null;
+    HashEntry<K, V> hiTail = null;
+    for (HashEntry<K, V> e = first; e != null; e = e.getNextEntry()) {
+      if ((e.getEntryHash() & n) == 0) {
+        if (loTail == null) {
+          loHead = e;
+        } else {
+          loTail.setNextEntry(e);
+        }
+        loTail = e;
+      } else {
+        if (hiTail == null) {
+          hiHead = e;
+        } else {
+          hiTail.setNextEntry(e);
+        }
+        hiTail = e;
+      }
+    }
+    if (loTail != null) {
+      loTail.setNextEntry(null);
+    }
+    if (hiTail != null) {
+      hiTail.setNextEntry(null);
+    }
+    nextTab.set(i, loHead);
+    nextTab.set(i + n, hiHead);
+  }
+
+  /**
+   * Splits the sorted bin i of a table of length n into bins i and i + n of nextTab, which are
+   * chains if they are small. Must be called with the stripe of the bin locked and its sequence
+   * odd.
+   */
+  private static <K, V> void splitSortedBin(SortedBin<K, V> bin, int i, int n,
+      AtomicReferenceArray<Object> nextTab) {
+    final HashEntry<K, V>[] entries = bin.entries;
+    final HashEntry<K, V>[] lo = newEntries(entries.length);
+    final HashEntry<K, V>[] hi = newEntries(entries.length);
+    int loSize = 0;
+    int hiSize = 0;
+    for (HashEntry<K, V> e : entries) {
+      if ((e.getEntryHash() & n) == 0) {
+        lo[loSize++] = e;
+      } else {
+        hi[hiSize++] = e;
+      }
+    }
+    nextTab.set(i, newBin(lo, loSize));
+    nextTab.set(i + n, newBin(hi, hiSize));
+  }
+
+  /**
+   * Returns an array for length entries. An array of a generic type cannot be created directly.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, V> HashEntry<K, V>[] newEntries(int length) {
+    return (HashEntry<K, V>[]) new HashEntry<?, ?>[length];
+  }
+
+  private static <K, V> Object newBin(HashEntry<K, V>[] entries, int size) {
+    if (size == 0) {
+      return null;
+    } else if (size <= UNTREEIFY_THRESHOLD) {
+      return link(entries, 0, size);
+    } else {
+      return new SortedBin<>(Arrays.copyOf(entries, size));
+    }
+  }
+
+  /* ---------------- Clearing -------------- */
+
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    final boolean checkForGatewaySenderEvent =
+        OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+    ArrayList<HashEntry<?, ?>> clearedEntries = null;
+    long removed = 0;
+    AtomicReferenceArray<Object> tab = this.table;
+    int i = 0;
+    while (i < tab.length()) {
+      final Object f = tab.get(i);
+      if (f == null) {
+        ++i;
+      } else if (f instanceof ForwardingNode) {
+        tab = helpTransfer(tab, (ForwardingNode) f);
+        i = 0;
+      } else {
+        synchronized (lockFor(i)) {
+          if (tab.get(i) == f) {
+            for (Iterator<HashEntry<K, V>> it = binIterator(f); it.hasNext();) {
+              final HashEntry<K, V> e = it.next();
+              removed++;
+              if (checkForGatewaySenderEvent || e instanceof OffHeapRegionEntry) {
+                if (clearedEntries == null) {
+                  clearedEntries = new ArrayList<>();
+                }
+                clearedEntries.add(e);
+              }
+            }
+            tab.set(i++, null);
+          }
+        }
+      }
+    }
+    if (removed != 0) {
+      this.count.add(-removed);
+    }
+    if (clearedEntries != null) {
+      releaseClearedEntries(clearedEntries, checkForGatewaySenderEvent, executor);
+    }
+  }
+
+  private void releaseClearedEntries(final ArrayList<HashEntry<?, ?>> clearedEntries,
+      final boolean checkForGatewaySenderEvent, Executor executor) {
+    Runnable runnable = () -> {
+      for (HashEntry<?, ?> e : clearedEntries) {
+        synchronized (e) {
+          if (checkForGatewaySenderEvent) {
+            if (e instanceof RegionEntry) {
+              GatewaySenderEventImpl.release(((RegionEntry) e).getValue()); // OFFHEAP
+            }
+          } else {
+            ((OffHeapRegionEntry) e).release();
+          }
+        }
+      }
+    };
+    boolean submitted = false;
+    if (executor != null) {
+      try {
+        executor.execute(runnable);
+        submitted = true;
+      } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+        // fall through with submitted false
+      }
+    }
+    if (!submitted) {
+      String name = this.getClass().getSimpleName() + "@" + this.hashCode() + " Clear Thread";
+      Thread thread = new LoggingThread(name, runnable);
+      thread.start();
+    }
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+
+  /* ---------------- Views -------------- */
+
+  @Override
+  public Set<K> keySet() {
+    final Set<K> ks = this.keySet;
+    return ks != null ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    final Collection<V> vs = this.values;
+    return vs != null ? vs : (this.values = new Values());
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    final Set<Map.Entry<K, V>> es = this.entrySet;
+    return es != null ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySetWithReusableEntries() {
+    final Set<Map.Entry<K, V>> es = this.reusableEntrySet;
+    return es != null ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Iterator<HashEntry<K, V>> binIterator(Object bin) {
+    if (bin instanceof SortedBin) {
+      return Arrays.asList(((SortedBin<K, V>) bin).entries).iterator();
+    }
+    final ArrayList<HashEntry<K, V>> chain = new ArrayList<>();
+    for (HashEntry<K, V> e = (HashEntry<K, V>) bin; e != null; e = e.getNextEntry()) {
+      chain.add(e);
+    }
+    return chain.iterator();
+  }
+
+  /**
+   * Iterates over the entries of the table one bin at a time. The entries of a bin of the table
+   * the iterator started with are collected together, following forwarding nodes to the bins they
+   * were moved to, and collected again if the stripe of the bin was relinked meanwhile.
+   */
+  class EntryNodeIterator implements Iterator<HashEntry<K, V>> {
+
+    private final AtomicReferenceArray<Object> baseTable =
+        LockFreeEntryConcurrentHashMap.this.table;
+
+    private final ArrayList<HashEntry<K, V>> binEntries = new ArrayList<>();
+
+    private int nextBin;
+
+    private int binPosition;
+
+    private HashEntry<K, V> lastReturned;
+
+    @Override
+    public boolean hasNext() {
+      while (this.binPosition >= this.binEntries.size()) {
+        if (this.nextBin >= this.baseTable.length()) {
+          return false;
+        }
+        collectBin(this.nextBin++);
+      }
+      return true;
+    }
+
+    @Override
+    public HashEntry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.lastReturned = this.binEntries.get(this.binPosition++);
+      return this.lastReturned;
+    }
+
+    @Override
+    public void remove() {
+      if (this.lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      LockFreeEntryConcurrentHashMap.this.remove(this.lastReturned.getKey());
+      this.lastReturned = null;
+    }
+
+    private void collectBin(int index) {
+      final int stripe = index & LockFreeEntryConcurrentHashMap.this.stripeMask;
+      final AtomicIntegerArray sequences = LockFreeEntryConcurrentHashMap.this.stripeSequences;
+      for (;;) {
+        this.binEntries.clear();
+        this.binPosition = 0;
+        final int sequence = sequences.get(stripe);
+        if ((sequence & 1) == 0) {
+          collect(this.baseTable, index);
+          if (sequences.get(stripe) == sequence) {
+            return;
+          }
+        } else {
+          Thread.yield();
+        }
+      }
+    }
+
+    private void collect(AtomicReferenceArray<Object> tab, int index) {
+      final Object f = tab.get(index);
+      if (f instanceof ForwardingNode) {
+        final AtomicReferenceArray<Object> nextTab = ((ForwardingNode) f).nextTable;
+        collect(nextTab, index);
+        collect(nextTab, index + tab.length());
+      } else if (f != null) {
+        for (Iterator<HashEntry<K, V>> it = binIterator(f); it.hasNext();) {
+          this.binEntries.add(it.next());
+        }
+      }
+    }
+  }
+
+  class KeyIterator implements Iterator<K> {
+    private final EntryNodeIterator entries = new EntryNodeIterator();
+
+    @Override
+    public boolean hasNext() {
+      return this.entries.hasNext();
+    }
+
+    @Override
+    public K next() {
+      return this.entries.next().getKey();
+    }
+
+    @Override
+    public void remove() {
+      this.entries.remove();
+    }
+  }
+
+  class ValueIterator implements Iterator<V> {
+    private final EntryNodeIterator entries = new EntryNodeIterator();
+
+    @Override
+    public boolean hasNext() {
+      return this.entries.hasNext();
+    }
+
+    @Override
+    public V next() {
+      return this.entries.next().getMapValue();
+    }
+
+    @Override
+    public void remove() {
+      this.entries.remove();
+    }
+  }
+
+  class EntryIterator implements Iterator<Map.Entry<K, V>> {
+    private final EntryNodeIterator entries = new EntryNodeIterator();
+
+    /** if non-null then this single Map.Entry is returned for the entire iteration */
+    private final WriteThroughEntry reusableEntry;
+
+    EntryIterator(WriteThroughEntry reusableEntry) {
+      this.reusableEntry = reusableEntry;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.entries.hasNext();
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      final HashEntry<K, V> e = this.entries.next();
+      if (this.reusableEntry != null) {
+        this.reusableEntry.key = e.getKey();
+        this.reusableEntry.value = e.getMapValue();
+        return this.reusableEntry;
+      }
+      return new WriteThroughEntry(e.getKey(), e.getMapValue());
+    }
+
+    @Override
+    public void remove() {
+      this.entries.remove();
+    }
+  }
+
+  /**
+   * A map entry whose {@link #setValue} writes through to the map.
+   */
+  class WriteThroughEntry implements Map.Entry<K, V> {
+    K key;
+
+    V value;
+
+    WriteThroughEntry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      final V oldValue = this.value;
+      this.value = value;
+      LockFreeEntryConcurrentHashMap.this.put(this.key, value);
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(this.key, e.getKey()) && Objects.equals(this.value, e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.value;
+    }
+  }
+
+  class KeySet extends AbstractSet<K> {
+
+    @Override
+    public Iterator<K> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return LockFreeEntryConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return LockFreeEntryConcurrentHashMap.this.containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return LockFreeEntryConcurrentHashMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      LockFreeEntryConcurrentHashMap.this.clear();
+    }
+  }
+
+  class Values extends AbstractCollection<V> {
+
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return LockFreeEntryConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return LockFreeEntryConcurrentHashMap.this.containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      LockFreeEntryConcurrentHashMap.this.clear();
+    }
+  }
+
+  class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    private final boolean useReusableEntry;
+
+    EntrySet(boolean useReusableEntry) {
+      this.useReusableEntry = useReusableEntry;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new EntryIterator(this.useReusableEntry ? new WriteThroughEntry(null, null) : null);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      final V v = LockFreeEntryConcurrentHashMap.this.get(e.getKey());
+      return v != null && e.getValue() != null && valueMatches(e.getValue(), v);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return LockFreeEntryConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return LockFreeEntryConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      LockFreeEntryConcurrentHashMap.this.clear();
+    }
+  }
+
+  /* ---------------- Special bins -------------- */
+
+  /**
+   * Left in a bin of the old table once its entries have been moved to the next table.
+   */
+  static final class ForwardingNode {
+    final AtomicReferenceArray<Object> nextTable;
+
+    ForwardingNode(AtomicReferenceArray<Object> nextTable) {
+      this.nextTable = nextTable;
+    }
+  }
+
+  /**
+   * A bin of many entries kept in an array sorted by hash. The array is replaced rather than
+   * changed, with the stripe of the bin locked, so readers can search it without locking.
+   */
+  static final class SortedBin<K, V> {
+    volatile HashEntry<K, V>[] entries;
+
+    SortedBin(HashEntry<K, V>[] entries) {
+      this.entries = entries;
+    }
+
+    void add(HashEntry<K, V> entry) {
+      final HashEntry<K, V>[] current = this.entries;
+      // after the entries with the same hash
+      int position = firstIndexOf(current, entry.getEntryHash());
+      while (position < current.length
+          && current[position].getEntryHash() == entry.getEntryHash()) {
+        position++;
+      }
+      final HashEntry<K, V>[] added = Arrays.copyOf(current, current.length + 1);
+      System.arraycopy(current, position, added, position + 1, current.length - position);
+      added[position] = entry;
+      this.entries = added;
+    }
+
+    /**
+     * Removes the given entry and returns the number of entries left.
+     */
+    int remove(HashEntry<K, V> entry) {
+      final HashEntry<K, V>[] current = this.entries;
+      int index = firstIndexOf(current, entry.getEntryHash());
+      while (current[index] != entry) {
+        index++;
+      }
+      final HashEntry<K, V>[] removed = newEntries(current.length - 1);
+      System.arraycopy(current, 0, removed, 0, index);
+      System.arraycopy(current, index + 1, removed, index, current.length - index - 1);
+      this.entries = removed;
+      return removed.length;
+    }
+  }
+}
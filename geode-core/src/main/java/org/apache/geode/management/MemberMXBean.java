@@ -836,6 +836,18 @@ public interface MemberMXBean {
    */
   int getReplyWaitsInProgress();
 
+  /**
+   * Returns the number of replies and their latency percentiles, one line for each type of message
+   * this member has waited for replies to and one line for each member that replied.
+   */
+  String[] showReplyLatencies();
+
+  /**
+   * Returns the slowest replies received by this member in the last one to two minutes, slowest
+   * first.
+   */
+  String[] showSlowestReplies();
+
   /**
    * Returns total number of times waits for a reply have completed.
    */
@@ -306,6 +306,45 @@ public interface RegionMXBean {
    */
   long getEntrySize();
 
+  /**
+   * Returns the estimated number of bytes taken by the entries of this region in this member, not
+   * counting their keys and values. For partitioned regions this is the sum over the buckets hosted
+   * by the member. Returns -1 unless the gemfire.regionMemoryAccounting system property is set.
+   */
+  long getEntryOverheadBytes();
+
+  /**
+   * Returns the estimated number of bytes taken by the keys of this region in this member. Keys
+   * that are stored inline in their entry are not counted. Returns -1 unless the
+   * gemfire.regionMemoryAccounting system property is set.
+   */
+  long getKeyBytes();
+
+  /**
+   * Returns the estimated number of bytes of heap taken by the values of this region in this
+   * member. Returns -1 unless the gemfire.regionMemoryAccounting system property is set.
+   */
+  long getValueHeapBytes();
+
+  /**
+   * Returns the number of bytes of off-heap memory taken by the values of this region in this
+   * member. Returns -1 unless the gemfire.regionMemoryAccounting system property is set.
+   */
+  long getValueOffHeapBytes();
+
+  /**
+   * Returns the estimated number of bytes taken by the indexes of this region in this member,
+   * worked out from the number of keys and values of each index. Returns -1 unless the
+   * gemfire.regionMemoryAccounting system property is set.
+   */
+  long getIndexBytes();
+
+  /**
+   * Returns the estimated number of bytes taken by the tombstones of this region in this member.
+   * Returns -1 unless the gemfire.regionMemoryAccounting system property is set.
+   */
+  long getTombstoneBytes();
+
   /**
    * Returns whether this region sends data using a GatewaySender.
    */
@@ -653,6 +653,16 @@ public class MemberMBean extends NotificationBroadcasterSupport implements Membe
     return bridge.getReplyWaitsInProgress();
   }
 
+  @Override
+  public String[] showReplyLatencies() {
+    return bridge.showReplyLatencies();
+  }
+
+  @Override
+  public String[] showSlowestReplies() {
+    return bridge.showSlowestReplies();
+  }
+
   @Override
   public int getReplyWaitsCompleted() {
     return bridge.getReplyWaitsCompleted();
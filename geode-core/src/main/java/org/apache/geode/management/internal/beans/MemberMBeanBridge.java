@@ -56,6 +56,7 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.ReplyLatencyStats;
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.distributed.internal.locks.DLockStats;
 import org.apache.geode.internal.GemFireVersion;
@@ -1694,6 +1695,36 @@ public class MemberMBeanBridge {
     return getMemberLevelStatistic(StatsKey.REPLY_WAITS_IN_PROGRESS).intValue();
   }
 
+  /**
+   * @return reply latency percentiles per message type and per member
+   */
+  public String[] showReplyLatencies() {
+    ReplyLatencyStats replyLatencyStats = getReplyLatencyStats();
+    if (replyLatencyStats == null) {
+      return ManagementConstants.NO_DATA_STRING;
+    }
+    return replyLatencyStats.getLatencySummary();
+  }
+
+  /**
+   * @return the slowest recent replies
+   */
+  public String[] showSlowestReplies() {
+    ReplyLatencyStats replyLatencyStats = getReplyLatencyStats();
+    if (replyLatencyStats == null) {
+      return ManagementConstants.NO_DATA_STRING;
+    }
+    return replyLatencyStats.getSlowestReplies();
+  }
+
+  private ReplyLatencyStats getReplyLatencyStats() {
+    if (system.getDistributionManager().getStats() instanceof DistributionStats) {
+      return ((DistributionStats) system.getDistributionManager().getStats())
+          .getReplyLatencyStats();
+    }
+    return null;
+  }
+
   public int getReplyWaitsCompleted() {
     return getMemberLevelStatistic(StatsKey.REPLY_WAITS_COMPLETED).intValue();
   }
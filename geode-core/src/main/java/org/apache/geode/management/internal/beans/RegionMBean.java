@@ -290,6 +290,36 @@ public class RegionMBean<K, V> extends NotificationBroadcasterSupport implements
     return bridge.getEntrySize();
   }
 
+  @Override
+  public long getEntryOverheadBytes() {
+    return bridge.getEntryOverheadBytes();
+  }
+
+  @Override
+  public long getKeyBytes() {
+    return bridge.getKeyBytes();
+  }
+
+  @Override
+  public long getValueHeapBytes() {
+    return bridge.getValueHeapBytes();
+  }
+
+  @Override
+  public long getValueOffHeapBytes() {
+    return bridge.getValueOffHeapBytes();
+  }
+
+  @Override
+  public long getIndexBytes() {
+    return bridge.getIndexBytes();
+  }
+
+  @Override
+  public long getTombstoneBytes() {
+    return bridge.getTombstoneBytes();
+  }
+
   @Override
   public boolean isGatewayEnabled() {
     return bridge.isGatewayEnabled();
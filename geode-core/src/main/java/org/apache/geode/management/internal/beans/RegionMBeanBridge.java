@@ -29,6 +29,7 @@ import org.apache.geode.internal.cache.DiskStoreImpl;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionMemoryAccounting;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.management.EvictionAttributesData;
 import org.apache.geode.management.FixedPartitionAttributesData;
@@ -91,6 +92,8 @@ public class RegionMBeanBridge<K, V> {
 
   private CachePerfStats regionStats;
 
+  private RegionMemoryAccounting memoryAccounting;
+
   private DiskRegionBridge diskRegionBridge;
 
   private StatsRate averageWritesRate;
@@ -165,6 +168,7 @@ public class RegionMBeanBridge<K, V> {
     this.persistentEnabled = region.getAttributes().getDataPolicy().withPersistence();
 
     this.regionStats = ((LocalRegion) region).getRegionPerfStats();
+    this.memoryAccounting = ((LocalRegion) region).getMemoryAccounting();
     if (regionStats != null) {
       regionMonitor.addStatisticsToMonitor(regionStats.getStats()); // fixes 46692
     }
@@ -378,6 +382,48 @@ public class RegionMBeanBridge<K, V> {
     return ManagementConstants.NOT_AVAILABLE_LONG;
   }
 
+  public long getEntryOverheadBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getEntryOverheadBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
+  public long getKeyBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getKeyBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
+  public long getValueHeapBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getValueHeapBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
+  public long getValueOffHeapBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getValueOffHeapBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
+  public long getIndexBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getIndexBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
+  public long getTombstoneBytes() {
+    if (memoryAccounting != null) {
+      return memoryAccounting.getTombstoneBytes();
+    }
+    return ManagementConstants.NOT_AVAILABLE_LONG;
+  }
+
   public boolean isGatewayEnabled() {
     return isGatewayEnabled;
   }
@@ -67,6 +67,7 @@ public class ShowMetricsCommand extends InternalGfshCommand {
     lock,
     offheap,
     member,
+    memory,
     notification,
     partition,
     query,
@@ -76,7 +77,7 @@ public class ShowMetricsCommand extends InternalGfshCommand {
   }
 
   static final List<Category> REGION_METRIC_CATEGORIES = Arrays.asList(Category.callback,
-      Category.diskstore, Category.eviction, Category.partition, Category.region);
+      Category.diskstore, Category.eviction, Category.memory, Category.partition, Category.region);
 
   static final List<Category> SYSTEM_METRIC_CATEGORIES =
       Arrays.asList(Category.cache, Category.cluster, Category.diskstore, Category.query);
@@ -699,6 +700,18 @@ public class ShowMetricsCommand extends InternalGfshCommand {
       writeToTableAndCsv(metricsTable, "", "lruDestroyRate", regionMxBean.getLruDestroyRate(),
           csvBuilder);
     }
+    if (categoriesToDisplay.contains(Category.memory)) {
+      writeToTableAndCsv(metricsTable, "memory", "entryOverheadBytes",
+          regionMxBean.getEntryOverheadBytes(), csvBuilder);
+      writeToTableAndCsv(metricsTable, "", "keyBytes", regionMxBean.getKeyBytes(), csvBuilder);
+      writeToTableAndCsv(metricsTable, "", "valueHeapBytes", regionMxBean.getValueHeapBytes(),
+          csvBuilder);
+      writeToTableAndCsv(metricsTable, "", "valueOffHeapBytes",
+          regionMxBean.getValueOffHeapBytes(), csvBuilder);
+      writeToTableAndCsv(metricsTable, "", "indexBytes", regionMxBean.getIndexBytes(), csvBuilder);
+      writeToTableAndCsv(metricsTable, "", "tombstoneBytes", regionMxBean.getTombstoneBytes(),
+          csvBuilder);
+    }
   }
 
   private void writeToTableAndCsv(TabularResultData metricsTable, String type, String metricName,
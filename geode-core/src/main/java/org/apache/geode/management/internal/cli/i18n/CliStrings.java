@@ -2055,7 +2055,7 @@ public class CliStrings {
           + "- region specified: callback, cluster, diskstore, eviction, partition, region\n"
           + "- member specified: communication, diskstore, distribution, eviction, function, jvm, lock, member, offheap, region, serialization, transaction\n"
           + "- member and port specified: cacheserver, communication, diskstore, distribution, eviction, function, jvm, lock, member, notification, offheap, query, region, serialization, transaction\n"
-          + "- member and region specified: callback, diskstore, eviction, partition, region";
+          + "- member and region specified: callback, diskstore, eviction, memory, partition, region";
   public static final String SHOW_METRICS__FILE = "file";
   public static final String SHOW_METRICS__FILE__HELP =
       "Name of the file to which metrics will be written.";
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.statistics.LocalStatisticsFactory;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class ReplyLatencyStatsTest {
+  private LocalStatisticsFactory factory;
+  private ReplyLatencyStats replyLatencyStats;
+  private InternalDistributedMember member;
+
+  @Before
+  public void setUp() {
+    factory = new LocalStatisticsFactory(null);
+    replyLatencyStats = new ReplyLatencyStats(factory);
+    member = mock(InternalDistributedMember.class);
+  }
+
+  @After
+  public void tearDown() {
+    replyLatencyStats.close();
+    factory.close();
+  }
+
+  @Test
+  public void bucketsAreChosenByUpperLimit() {
+    assertThat(ReplyLatencyStats.getBucket(0)).isEqualTo(0);
+    assertThat(ReplyLatencyStats.getBucket(50_000L)).isEqualTo(0);
+    assertThat(ReplyLatencyStats.getBucket(50_001L)).isEqualTo(1);
+    assertThat(ReplyLatencyStats.getBucket(Long.MAX_VALUE))
+        .isEqualTo(ReplyLatencyStats.BUCKET_LIMITS.length);
+  }
+
+  @Test
+  public void percentileIsUpperLimitOfItsBucket() {
+    long[] buckets = new long[ReplyLatencyStats.BUCKET_LIMITS.length + 1];
+    buckets[0] = 98;
+    buckets[4] = 1;
+    buckets[ReplyLatencyStats.BUCKET_LIMITS.length] = 1;
+
+    assertThat(ReplyLatencyStats.getPercentile(buckets, 0.5)).isEqualTo(50_000L);
+    assertThat(ReplyLatencyStats.getPercentile(buckets, 0.99)).isEqualTo(1_000_000L);
+    assertThat(ReplyLatencyStats.getPercentile(buckets, 0.999)).isEqualTo(-1);
+  }
+
+  @Test
+  public void repliesAreRecordedPerMessageTypeAndPerMember() {
+    replyLatencyStats.record(SerialAckedMessage.class, member, 70_000L);
+    replyLatencyStats.record(SerialAckedMessage.class, member, 3_000_000L);
+
+    Statistics[] stats = factory.findStatisticsByTextId("SerialAckedMessage");
+    assertThat(stats).hasSize(1);
+    assertThat(stats[0].getLong("replies")).isEqualTo(2);
+    assertThat(stats[0].getLong("replyTime")).isEqualTo(3_070_000L);
+    assertThat(stats[0].getLong("repliesWithin100us")).isEqualTo(1);
+    assertThat(stats[0].getLong("repliesWithin5ms")).isEqualTo(1);
+    assertThat(factory.findStatisticsByTextId(member.toString())[0].getLong("replies"))
+        .isEqualTo(2);
+    assertThat(replyLatencyStats.getLatencySummary()).hasSize(2);
+  }
+
+  @Test
+  public void memberStatsAreClosedWhenMemberDeparts() {
+    replyLatencyStats.record(SerialAckedMessage.class, member, 70_000L);
+    Statistics memberStats = factory.findStatisticsByTextId(member.toString())[0];
+
+    replyLatencyStats.memberDeparted(member);
+
+    assertThat(memberStats.isClosed()).isTrue();
+    assertThat(replyLatencyStats.getLatencySummary()).hasSize(1);
+  }
+
+  @Test
+  public void slowestRepliesAreListedSlowestFirst() {
+    for (int i = 1; i <= ReplyLatencyStats.SLOWEST_REPLIES + 5; i++) {
+      replyLatencyStats.record(SerialAckedMessage.class, member, i * 1_000_000L);
+    }
+
+    String[] slowest = replyLatencyStats.getSlowestReplies();
+
+    assertThat(slowest).hasSize(ReplyLatencyStats.SLOWEST_REPLIES);
+    assertThat(slowest[0]).startsWith("25.000ms SerialAckedMessage from ");
+    assertThat(slowest[slowest.length - 1]).startsWith("6.000ms ");
+  }
+}
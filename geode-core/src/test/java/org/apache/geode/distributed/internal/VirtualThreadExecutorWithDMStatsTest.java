@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualThreadExecutorWithDMStatsTest {
+  private PoolStatHelper poolStats;
+  private QueueStatHelper queueStats;
+  private VirtualThreadExecutorWithDMStats executor;
+
+  @Before
+  public void setUp() {
+    poolStats = mock(PoolStatHelper.class);
+    queueStats = mock(QueueStatHelper.class);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Creates an executor that runs its tasks on platform threads, so that it can be tested on JVMs
+   * without virtual threads.
+   */
+  private VirtualThreadExecutorWithDMStats createExecutor(int maxConcurrency) {
+    AtomicInteger threadId = new AtomicInteger();
+    ThreadFactory threadFactory =
+        command -> new Thread(command, "test processor " + threadId.incrementAndGet());
+    executor = new VirtualThreadExecutorWithDMStats(threadFactory, null,
+        command -> command.run(), maxConcurrency, poolStats, queueStats, null);
+    return executor;
+  }
+
+  @Test
+  public void runsAtMostMaxConcurrencyTasksAtATime() throws Exception {
+    createExecutor(2);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(10);
+    AtomicInteger concurrent = new AtomicInteger();
+    AtomicInteger maxConcurrent = new AtomicInteger();
+
+    for (int i = 0; i < 10; i++) {
+      executor.execute(() -> {
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          concurrent.decrementAndGet();
+          done.countDown();
+        }
+      });
+    }
+
+    verify(poolStats, timeout(10000).times(2)).startJob();
+    assertThat(executor.getActiveCount()).isEqualTo(2);
+    release.countDown();
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxConcurrent.get()).isEqualTo(2);
+    verify(poolStats, timeout(10000).times(10)).endJob();
+    verify(queueStats, timeout(10000).times(10)).remove();
+  }
+
+  @Test
+  public void waitingTasksRunInSubmissionOrder() throws Exception {
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    ThreadFactory threadFactory = command -> {
+      Thread thread = new Thread(command, "test processor " + threads.size());
+      threads.add(thread);
+      return thread;
+    };
+    executor = new VirtualThreadExecutorWithDMStats(threadFactory, null,
+        command -> command.run(), 1, poolStats, queueStats, null);
+    CountDownLatch release = new CountDownLatch(1);
+    executor.execute(() -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    verify(poolStats, timeout(10000)).startJob();
+
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      int task = i;
+      executor.execute(() -> order.add(task));
+      Thread waiting = threads.get(threads.size() - 1);
+      await().until(() -> waiting.getState() == Thread.State.WAITING);
+    }
+    release.countDown();
+
+    await().until(() -> order.size() == 5);
+    assertThat(order).containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  public void runsTasksOnNamedVirtualThreads() throws Exception {
+    assumeTrue(VirtualThreadExecutorWithDMStats.isSupported());
+    executor = new VirtualThreadExecutorWithDMStats("test processor ", null,
+        command -> command.run(), 1, poolStats, queueStats, null);
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+
+    executor.execute(() -> {
+      thread.set(Thread.currentThread());
+      done.countDown();
+    });
+
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(thread.get().getName()).startsWith("test processor ");
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread.get())).isEqualTo(true);
+  }
+
+  @Test
+  public void nestedTaskDoesNotWaitForPermit() throws Exception {
+    createExecutor(1);
+    CountDownLatch done = new CountDownLatch(1);
+
+    executor.execute(() -> {
+      CountDownLatch nested = new CountDownLatch(1);
+      executor.execute(nested::countDown);
+      try {
+        if (nested.await(10, TimeUnit.SECONDS)) {
+          done.countDown();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    assertThat(done.await(20, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void nestedTasksAreBounded() throws Exception {
+    createExecutor(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch nestedDone = new CountDownLatch(5);
+    AtomicInteger concurrent = new AtomicInteger();
+    AtomicInteger maxConcurrent = new AtomicInteger();
+    Runnable nestedTask = () -> {
+      maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        concurrent.decrementAndGet();
+        nestedDone.countDown();
+      }
+    };
+
+    executor.execute(() -> {
+      for (int i = 0; i < 5; i++) {
+        executor.execute(nestedTask);
+      }
+      try {
+        nestedDone.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // the outer task holds the only permit, so one nested task runs on the nested permit
+    verify(poolStats, timeout(10000).times(2)).startJob();
+    verify(queueStats, timeout(10000).times(6)).add();
+    verify(queueStats, timeout(10000).times(2)).remove();
+    assertThat(executor.getActiveCount()).isEqualTo(2);
+
+    release.countDown();
+    assertThat(nestedDone.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxConcurrent.get()).isEqualTo(1);
+    verify(poolStats, timeout(10000).times(6)).endJob();
+  }
+
+  @Test
+  public void rejectsTasksAfterShutdown() throws Exception {
+    createExecutor(1);
+    executor.shutdown();
+
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(executor.isTerminated()).isTrue();
+    assertThatThrownBy(() -> executor.execute(() -> {
+    })).isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  public void shutdownNowReturnsTasksWaitingForPermit() throws Exception {
+    createExecutor(1);
+    CountDownLatch running = new CountDownLatch(1);
+    executor.execute(() -> {
+      running.countDown();
+      try {
+        Thread.sleep(60000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+    Runnable waiting = () -> {
+    };
+    executor.execute(waiting);
+
+    assertThat(executor.shutdownNow()).containsExactly(waiting);
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+  }
+}
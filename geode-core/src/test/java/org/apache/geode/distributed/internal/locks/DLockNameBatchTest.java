@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.DLockTest;
+
+@Category({DLockTest.class})
+public class DLockNameBatchTest {
+
+  @Test
+  public void namesAreSortedTheSameWayWhateverTheirOrder() {
+    List<Object> sorted = DLockNameBatch.sortNames(asList("b", 3, "a", 1L, "b"));
+
+    assertThat(sorted).hasSize(4).containsExactlyElementsOf(
+        DLockNameBatch.sortNames(asList(1L, "a", 3, "b")));
+  }
+
+  @Test
+  public void namesWithEqualHashCodesAreOrdered() {
+    // "Aa" and "BB" have the same hash code
+    assertThat(DLockNameBatch.sortNames(asList("BB", "Aa"))).containsExactly("Aa", "BB");
+  }
+
+  @Test
+  public void suspendLockingTokenCannotBeBatched() {
+    assertThatThrownBy(
+        () -> DLockNameBatch.sortNames(asList("a", DLockService.SUSPEND_LOCKING_TOKEN)))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void batchIsSerializable() throws Exception {
+    DLockNameBatch batch = new DLockNameBatch(new Object[] {"a", 1, "b"});
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(batch, out);
+
+    Object copy = DataSerializer
+        .readObject(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThat(copy).isEqualTo(batch);
+  }
+}
@@ -14,10 +14,12 @@
  */
 package org.apache.geode.distributed.internal.locks;
 
+import static java.util.Arrays.asList;
 import static org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID.system;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.After;
 import org.junit.Before;
@@ -57,4 +59,102 @@ public class DLockServiceJUnitTest {
     lockService.unlock("MyLock");
     assertThat(lockService.isHeldByCurrentThread("MyLock")).isFalse();
   }
+
+  @Test
+  public void lockAllGrantsEveryNameInOneBatch() {
+    DLockService dLockService = (DLockService) lockService;
+    int batchesGranted = dLockService.getStats().getLockBatchesGranted();
+
+    assertThat(dLockService.lockAll(asList("c", "a", "b"), 0, -1)).isTrue();
+
+    assertThat(lockService.isHeldByCurrentThread("a")).isTrue();
+    assertThat(lockService.isHeldByCurrentThread("b")).isTrue();
+    assertThat(lockService.isHeldByCurrentThread("c")).isTrue();
+    assertThat(dLockService.getStats().getLockBatchesGranted()).isEqualTo(batchesGranted + 1);
+    dLockService.unlockAll(asList("a", "b", "c"));
+    assertThat(lockService.isHeldByCurrentThread("b")).isFalse();
+  }
+
+  @Test
+  public void lockAllGrantsNoNameWhenOneIsHeldByAnotherThread() throws Exception {
+    DLockService dLockService = (DLockService) lockService;
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    Thread holder = new Thread(() -> {
+      lockService.lock("b", 0, -1);
+      locked.countDown();
+      try {
+        done.await();
+      } catch (InterruptedException ignored) {
+      }
+      lockService.unlock("b");
+    });
+    holder.start();
+    locked.await();
+
+    try {
+      assertThat(dLockService.lockAll(asList("a", "b", "c"), 0, -1)).isFalse();
+      assertThat(lockService.isHeldByCurrentThread("a")).isFalse();
+      assertThat(lockService.isHeldByCurrentThread("c")).isFalse();
+    } finally {
+      done.countDown();
+      holder.join();
+    }
+    assertThat(dLockService.lockAll(asList("a", "b", "c"), 0, -1)).isTrue();
+  }
+
+  @Test
+  public void namesLockedTogetherAreReleasedOneAtATime() {
+    DLockService dLockService = (DLockService) lockService;
+    assertThat(dLockService.lockAll(asList("a", "b", "c"), 0, -1)).isTrue();
+
+    lockService.unlock("b");
+
+    assertThat(lockService.isHeldByCurrentThread("a")).isTrue();
+    assertThat(lockService.isHeldByCurrentThread("b")).isFalse();
+    assertThat(lockService.isHeldByCurrentThread("c")).isTrue();
+    assertThat(lockService.lock("b", 0, -1)).isTrue();
+    dLockService.unlockAll(asList("a", "b", "c"));
+    assertThat(lockService.isHeldByCurrentThread("a")).isFalse();
+  }
+
+  @Test
+  public void lockAllReentersNamesHeldByCurrentThread() {
+    DLockService dLockService = (DLockService) lockService;
+    assertThat(lockService.lock("b", 0, -1)).isTrue();
+
+    assertThat(dLockService.lockAll(asList("a", "b"), 0, -1)).isTrue();
+    dLockService.unlockAll(asList("a", "b"));
+
+    assertThat(lockService.isHeldByCurrentThread("a")).isFalse();
+    assertThat(lockService.isHeldByCurrentThread("b")).isTrue();
+  }
+
+  @Test
+  public void reentryWithinHeldLeaseDoesNotRequestLocalGrantor() {
+    DLockService dLockService = (DLockService) lockService;
+    int localReentries = dLockService.getStats().getLocalLockReentries();
+    assertThat(lockService.lock("MyLock", 0, -1)).isTrue();
+
+    assertThat(lockService.lock("MyLock", 0, -1)).isTrue();
+
+    assertThat(dLockService.getStats().getLocalLockReentries()).isEqualTo(localReentries + 1);
+    lockService.unlock("MyLock");
+    assertThat(lockService.isHeldByCurrentThread("MyLock")).isTrue();
+    lockService.unlock("MyLock");
+    assertThat(lockService.isHeldByCurrentThread("MyLock")).isFalse();
+  }
+
+  @Test
+  public void reentryBeyondHeldLeaseRenewsLeaseWithGrantor() {
+    DLockService dLockService = (DLockService) lockService;
+    int localReentries = dLockService.getStats().getLocalLockReentries();
+    assertThat(lockService.lock("MyLock", 0, 60_000)).isTrue();
+
+    assertThat(lockService.lock("MyLock", 0, -1)).isTrue();
+
+    assertThat(dLockService.getStats().getLocalLockReentries()).isEqualTo(localReentries);
+    lockService.unlock("MyLock");
+    lockService.unlock("MyLock");
+  }
 }
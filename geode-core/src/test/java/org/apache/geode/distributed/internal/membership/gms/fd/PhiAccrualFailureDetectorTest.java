@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class PhiAccrualFailureDetectorTest {
+
+  @Test
+  public void phiIsNotAvailableUntilEnoughHeartbeatsAreReceived() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100, 0);
+    for (int i = 0; i < PhiAccrualFailureDetector.MIN_SAMPLES; i++) {
+      detector.heartbeat(i * 1000);
+      assertThat(detector.isAvailable()).isFalse();
+    }
+
+    detector.heartbeat(PhiAccrualFailureDetector.MIN_SAMPLES * 1000);
+
+    assertThat(detector.isAvailable()).isTrue();
+    assertThat(detector.phi(100_000)).isGreaterThan(8.0);
+  }
+
+  @Test
+  public void phiGrowsWithTimeSinceLastHeartbeat() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100, 0);
+    for (int i = 0; i <= 10; i++) {
+      detector.heartbeat(i * 1000);
+    }
+
+    assertThat(detector.phi(10_500)).isLessThan(0.1);
+    assertThat(detector.phi(11_000)).isCloseTo(Math.log10(2), within(0.01));
+    assertThat(detector.phi(11_200)).isGreaterThan(1.0);
+    assertThat(detector.phi(11_600)).isGreaterThan(8.0);
+  }
+
+  @Test
+  public void irregularHeartbeatsAreSuspectedLater() {
+    PhiAccrualFailureDetector steady = new PhiAccrualFailureDetector(10, 100, 0);
+    PhiAccrualFailureDetector irregular = new PhiAccrualFailureDetector(10, 100, 0);
+    long time = 0;
+    for (int i = 0; i <= 10; i++) {
+      steady.heartbeat(i * 1000);
+      irregular.heartbeat(time);
+      time += i % 2 == 0 ? 500 : 1500;
+    }
+
+    assertThat(irregular.getIntervalMean()).isEqualTo(steady.getIntervalMean());
+    assertThat(irregular.phi(time + 1000)).isLessThan(steady.phi(11_000 + 1000));
+  }
+
+  @Test
+  public void contactPostponesSuspicionWithoutChangingHistory() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100, 0);
+    for (int i = 0; i <= 10; i++) {
+      detector.heartbeat(i * 1000);
+    }
+
+    detector.contact(12_000);
+
+    assertThat(detector.phi(12_500)).isLessThan(0.1);
+    assertThat(detector.getIntervalMean()).isEqualTo(1000.0);
+  }
+
+  @Test
+  public void oldIntervalsAreForgotten() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(5, 1, 0);
+    long time = 0;
+    for (int i = 0; i < 5; i++) {
+      detector.heartbeat(time);
+      time += 100;
+    }
+    for (int i = 0; i <= 5; i++) {
+      detector.heartbeat(time);
+      time += 2000;
+    }
+
+    assertThat(detector.getIntervalMean()).isEqualTo(2000.0);
+    assertThat(detector.getIntervalStdDeviation()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void acceptablePauseDelaysSuspicion() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100, 0);
+    PhiAccrualFailureDetector lenient = new PhiAccrualFailureDetector(10, 100, 3000);
+    for (int i = 0; i <= 10; i++) {
+      detector.heartbeat(i * 1000);
+      lenient.heartbeat(i * 1000);
+    }
+
+    assertThat(detector.phi(13_000)).isGreaterThan(8.0);
+    assertThat(lenient.phi(13_000)).isLessThan(0.1);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachedDeserializableFactoryTest {
+
+  private boolean originalInlineSmallValues;
+
+  @Before
+  public void setup() {
+    originalInlineSmallValues = CachedDeserializableFactory.INLINE_SMALL_VALUES;
+    CachedDeserializableFactory.INLINE_SMALL_VALUES = true;
+  }
+
+  @After
+  public void tearDown() {
+    CachedDeserializableFactory.INLINE_SMALL_VALUES = originalInlineSmallValues;
+  }
+
+  private static CachedDeserializable serialized(Object value) {
+    return CachedDeserializableFactory.create(EntryEventImpl.serialize(value), null);
+  }
+
+  @Test
+  public void smallImmutableValuesAreInlined() {
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized(123456789L)))
+        .isEqualTo(123456789L);
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized(42))).isEqualTo(42);
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized(true))).isSameAs(true);
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized(1.5d))).isEqualTo(1.5d);
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized("flag"))).isEqualTo("flag");
+  }
+
+  @Test
+  public void smallIntegersAreShared() {
+    assertThat(CachedDeserializableFactory.inlineSmallValue(serialized(7)))
+        .isSameAs(CachedDeserializableFactory.inlineSmallValue(serialized(7)));
+  }
+
+  @Test
+  public void largeValuesAreNotInlined() {
+    CachedDeserializable value = serialized("a string that is too long to inline");
+
+    assertThat(CachedDeserializableFactory.inlineSmallValue(value)).isSameAs(value);
+  }
+
+  @Test
+  public void mutableValuesAreNotInlined() {
+    CachedDeserializable bytes = serialized(new byte[] {1, 2, 3});
+    CachedDeserializable date = serialized(new Date());
+
+    assertThat(CachedDeserializableFactory.inlineSmallValue(bytes)).isSameAs(bytes);
+    assertThat(CachedDeserializableFactory.inlineSmallValue(date)).isSameAs(date);
+  }
+
+  @Test
+  public void valuesAreNotInlinedWhenDisabled() {
+    CachedDeserializableFactory.INLINE_SMALL_VALUES = false;
+    CachedDeserializable value = serialized(42);
+
+    assertThat(CachedDeserializableFactory.inlineSmallValue(value)).isSameAs(value);
+  }
+
+  @Test
+  public void rawBytesAreNotInlined() {
+    byte[] value = new byte[] {1, 2, 3};
+
+    assertThat(CachedDeserializableFactory.inlineSmallValue(value)).isSameAs(value);
+  }
+}
@@ -26,6 +26,10 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -916,6 +920,86 @@ public class EntryEventImplTest {
     }
   }
 
+  @Test
+  public void recycledEventIsReusedByNextReusableEventOfThread() {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getKeyInfo(any(), any(), any())).thenReturn(new KeyInfo(key, null, null));
+    EntryEventImpl event =
+        EntryEventImpl.createReusable(region, Operation.UPDATE, key, "value1", null, null);
+    event.setVersionTag(mock(VersionTag.class));
+
+    event.recycle();
+    EntryEventImpl reused =
+        EntryEventImpl.createReusable(region, Operation.UPDATE, "key2", "value2", "arg", null);
+
+    assertThat(reused).isSameAs(event);
+    assertThat(reused.isReusable()).isTrue();
+    assertThat(reused.getKey()).isEqualTo("key2");
+    assertThat(reused.getRawNewValue()).isEqualTo("value2");
+    assertThat(reused.getRawCallbackArgument()).isEqualTo("arg");
+    assertThat(reused.getVersionTag()).isNull();
+    assertThat(reused.getOperation()).isEqualTo(Operation.UPDATE);
+    reused.recycle();
+  }
+
+  @Test
+  public void eventThatIsNotReusableIsNotRecycled() {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getKeyInfo(any(), any(), any())).thenReturn(new KeyInfo(key, null, null));
+    EntryEventImpl event = createEntryEvent(region, "value1");
+
+    event.recycle();
+    EntryEventImpl other =
+        EntryEventImpl.createReusable(region, Operation.UPDATE, key, "value2", null, null);
+
+    assertThat(other).isNotSameAs(event);
+    assertThat(event.getKey()).isEqualTo(key);
+    other.recycle();
+  }
+
+  @Test
+  public void clearForReuseResetsEveryField() throws Exception {
+    EntryEventImpl event = new EntryEventImpl(key);
+    EntryEventImpl fresh = new EntryEventImpl(key);
+    List<Field> fields = new ArrayList<>();
+    for (Field field : EntryEventImpl.class.getDeclaredFields()) {
+      if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+          && !field.getName().equals("keyInfo")) {
+        field.setAccessible(true);
+        field.set(event, nonDefaultValue(field.getType()));
+        fields.add(field);
+      }
+    }
+
+    event.clearForReuse();
+
+    for (Field field : fields) {
+      assertThat(field.get(event)).as(field.getName()).isEqualTo(field.get(fresh));
+    }
+    assertThat(event.getKey()).isNull();
+  }
+
+  private static Object nonDefaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return true;
+    } else if (type == short.class) {
+      return (short) 7;
+    } else if (type == int.class) {
+      return 7;
+    } else if (type == long.class || type == Long.class) {
+      return 7L;
+    } else if (type == byte[].class) {
+      return new byte[] {7};
+    } else if (type == Object.class) {
+      return new Object();
+    } else if (type == Operation.class) {
+      return Operation.DESTROY;
+    } else if (type == Thread.class) {
+      return Thread.currentThread();
+    }
+    return mock(type);
+  }
+
   private static EventID createEventID() {
     byte[] memId = {1, 2, 3};
     return new EventID(memId, 11, 12, 13);
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpiryTimingWheelTest {
+
+  private static final long TICK_MILLIS = 100;
+
+  private long nanoTime;
+  private List<Runnable> batches;
+  private ExpiryTimingWheel wheel;
+
+  @Before
+  public void setup() {
+    nanoTime = 1234567;
+    batches = new ArrayList<>();
+    Executor executor = batches::add;
+    wheel = new ExpiryTimingWheel(TICK_MILLIS, () -> nanoTime, executor);
+  }
+
+  private static ExpiryTask newTask() {
+    ExpiryTask task =
+        mock(ExpiryTask.class, withSettings().useConstructor((LocalRegion) null));
+    doCallRealMethod().when(task).cancel();
+    return task;
+  }
+
+  private void advanceMillis(long millis) {
+    nanoTime += MILLISECONDS.toNanos(millis);
+  }
+
+  private void runBatches() {
+    batches.forEach(Runnable::run);
+    batches.clear();
+  }
+
+  @Test
+  public void tickMustBePositive() {
+    assertThatThrownBy(() -> new ExpiryTimingWheel(0, () -> nanoTime, batches::add))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void taskRunsOnceDueButNotBefore() {
+    ExpiryTask task = newTask();
+    assertThat(wheel.addTask(task, 1000)).isTrue();
+
+    advanceMillis(999);
+    assertThat(wheel.expireDueTasks()).isZero();
+    advanceMillis(TICK_MILLIS);
+    assertThat(wheel.expireDueTasks()).isEqualTo(1);
+    runBatches();
+
+    verify(task).run();
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void tasksDueFarAwayAreCascadedToFinerWheels() {
+    long[] delays = {50, 6_400, 409_600, 26_214_400, DAYS.toMillis(30), DAYS.toMillis(365)};
+    List<ExpiryTask> tasks = new ArrayList<>();
+    for (long delay : delays) {
+      ExpiryTask task = newTask();
+      tasks.add(task);
+      wheel.addTask(task, delay);
+    }
+
+    long elapsed = 0;
+    for (int i = 0; i < delays.length; i++) {
+      long delay = delays[i];
+      advanceMillis(delay - elapsed - 1);
+      wheel.expireDueTasks();
+      runBatches();
+      verify(tasks.get(i), never()).run();
+
+      advanceMillis(TICK_MILLIS + 1);
+      elapsed = delay + TICK_MILLIS;
+      wheel.expireDueTasks();
+      runBatches();
+      verify(tasks.get(i)).run();
+    }
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void cancelledTaskDoesNotRun() {
+    ExpiryTask task = newTask();
+    wheel.addTask(task, 1000);
+
+    assertThat(task.cancel()).isTrue();
+    advanceMillis(2000);
+
+    assertThat(wheel.expireDueTasks()).isZero();
+    verify(task, never()).run();
+    assertThat(task.cancel()).isFalse();
+  }
+
+  @Test
+  public void taskCancelledBeforeBeingAddedIsRefused() {
+    ExpiryTask task = newTask();
+    task.cancel();
+
+    assertThat(wheel.addTask(task, 1000)).isFalse();
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void taskThatRanCannotBeCancelled() {
+    ExpiryTask task = newTask();
+    wheel.addTask(task, 0);
+    advanceMillis(TICK_MILLIS);
+    wheel.expireDueTasks();
+
+    assertThat(task.cancel()).isFalse();
+  }
+
+  @Test
+  public void dueTasksAreRunInBatches() {
+    int taskCount = ExpiryTimingWheel.BATCH_SIZE * 2 + 1;
+    List<ExpiryTask> tasks = new ArrayList<>();
+    for (int i = 0; i < taskCount; i++) {
+      ExpiryTask task = newTask();
+      tasks.add(task);
+      wheel.addTask(task, i);
+    }
+    advanceMillis(taskCount + TICK_MILLIS);
+
+    assertThat(wheel.expireDueTasks()).isEqualTo(taskCount);
+    assertThat(batches).hasSize(3);
+    runBatches();
+    for (ExpiryTask task : tasks) {
+      verify(task, times(1)).run();
+    }
+  }
+
+  @Test
+  public void cancelledWheelRefusesTasks() {
+    wheel.cancel();
+
+    assertThat(wheel.addTask(newTask(), 1000)).isFalse();
+  }
+}
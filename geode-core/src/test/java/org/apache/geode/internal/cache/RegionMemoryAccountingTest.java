@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexStatistics;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+
+public class RegionMemoryAccountingTest {
+
+  private static final int ENTRY_OVERHEAD = 40;
+
+  private boolean originalEnabled;
+  private LocalRegion region;
+  private RegionMap regionMap;
+  private RegionMemoryAccounting accounting;
+
+  @Before
+  public void setup() {
+    originalEnabled = RegionMemoryAccounting.ENABLED;
+    region = mock(LocalRegion.class);
+    regionMap = mock(RegionMap.class);
+    when(region.getRegionMap()).thenReturn(regionMap);
+    when(regionMap.getEntryOverhead()).thenReturn(ENTRY_OVERHEAD);
+    accounting = new RegionMemoryAccounting(region);
+  }
+
+  @After
+  public void tearDown() {
+    RegionMemoryAccounting.ENABLED = originalEnabled;
+  }
+
+  @Test
+  public void isNotCreatedUnlessEnabled() {
+    RegionMemoryAccounting.ENABLED = false;
+    assertThat(RegionMemoryAccounting.create(region, null)).isNull();
+
+    RegionMemoryAccounting.ENABLED = true;
+    assertThat(RegionMemoryAccounting.create(region, null)).isNotNull();
+  }
+
+  @Test
+  public void inlinedKeysTakeNoBytes() {
+    boolean originalInline = InlineKeyHelper.INLINE_REGION_KEYS;
+    InlineKeyHelper.INLINE_REGION_KEYS = true;
+    try {
+      assertThat(RegionMemoryAccounting.sizeOfKey(1L)).isZero();
+      assertThat(RegionMemoryAccounting.sizeOfKey("key")).isZero();
+
+      String longKey = "a key too long to be inlined in its entry";
+      assertThat(RegionMemoryAccounting.sizeOfKey(longKey))
+          .isEqualTo(CachedDeserializableFactory.calcMemSize(longKey, null, false));
+    } finally {
+      InlineKeyHelper.INLINE_REGION_KEYS = originalInline;
+    }
+  }
+
+  @Test
+  public void tokensTakeNoBytes() {
+    assertThat(RegionMemoryAccounting.sizeOfValue(null)).isZero();
+    assertThat(RegionMemoryAccounting.sizeOfValue(Token.INVALID)).isZero();
+    assertThat(RegionMemoryAccounting.sizeOfValue(new byte[100]))
+        .isEqualTo(CachedDeserializableFactory.calcMemSize(new byte[100]));
+  }
+
+  @Test
+  public void keysAndValuesAreCountedAsEntriesChange() {
+    String key = "a key too long to be inlined in its entry";
+    int keySize = RegionMemoryAccounting.sizeOfKey(key);
+
+    accounting.created(key, 100);
+    accounting.updated(100, 150);
+    assertThat(accounting.getKeyBytes()).isEqualTo(keySize);
+    assertThat(accounting.getValueHeapBytes()).isEqualTo(150);
+    assertThat(accounting.getValueOffHeapBytes()).isZero();
+
+    accounting.evicted(150);
+    assertThat(accounting.getValueHeapBytes()).isZero();
+    accounting.faultedIn(150);
+
+    accounting.removed(key, 150);
+    assertThat(accounting.getKeyBytes()).isZero();
+    assertThat(accounting.getValueHeapBytes()).isZero();
+  }
+
+  @Test
+  public void valuesOfOffHeapRegionAreCountedOffHeap() {
+    when(region.getOffHeap()).thenReturn(true);
+
+    accounting.created(1, 100);
+
+    assertThat(accounting.getValueOffHeapBytes()).isEqualTo(100);
+    assertThat(accounting.getValueHeapBytes()).isZero();
+  }
+
+  @Test
+  public void entryAndTombstoneBytesUseEntryClassSizedOnce() {
+    when(regionMap.size()).thenReturn(10);
+    when(region.getTombstoneCount()).thenReturn(2);
+
+    assertThat(accounting.getEntryOverheadBytes()).isEqualTo(8 * ENTRY_OVERHEAD);
+    assertThat(accounting.getTombstoneBytes())
+        .isEqualTo(2 * (ENTRY_OVERHEAD + TombstoneService.Tombstone.PER_TOMBSTONE_OVERHEAD));
+    verify(regionMap, times(1)).getEntryOverhead();
+  }
+
+  @Test
+  public void indexBytesAreEstimatedFromIndexStatistics() {
+    IndexManager indexManager = mock(IndexManager.class);
+    Index index = mock(Index.class);
+    IndexStatistics statistics = mock(IndexStatistics.class);
+    when(region.getIndexManager()).thenReturn(indexManager);
+    when(indexManager.getIndexes()).thenReturn(Arrays.asList(index));
+    when(index.getStatistics()).thenReturn(statistics);
+    when(statistics.getNumberOfKeys()).thenReturn(3L);
+    when(statistics.getNumberOfValues()).thenReturn(5L);
+
+    assertThat(accounting.getIndexBytes())
+        .isEqualTo(3 * RegionMemoryAccounting.PER_INDEX_KEY_OVERHEAD
+            + 5 * RegionMemoryAccounting.PER_INDEX_VALUE_OVERHEAD);
+  }
+
+  @Test
+  public void partitionedRegionSumsItsLocalBuckets() {
+    PartitionedRegion partitionedRegion = mock(PartitionedRegion.class);
+    PartitionedRegionDataStore dataStore = mock(PartitionedRegionDataStore.class);
+    when(partitionedRegion.getDataStore()).thenReturn(dataStore);
+    BucketRegion bucket1 = mock(BucketRegion.class);
+    BucketRegion bucket2 = mock(BucketRegion.class);
+    RegionMemoryAccounting accounting1 = new RegionMemoryAccounting(bucket1);
+    RegionMemoryAccounting accounting2 = new RegionMemoryAccounting(bucket2);
+    when(bucket1.getMemoryAccounting()).thenReturn(accounting1);
+    when(bucket2.getMemoryAccounting()).thenReturn(accounting2);
+    when(dataStore.getAllLocalBucketRegions())
+        .thenReturn(new HashSet<>(Arrays.asList(bucket1, bucket2)));
+
+    accounting1.created(1, 100);
+    accounting2.created(2, 200);
+
+    RegionMemoryAccounting partitionedAccounting = new RegionMemoryAccounting(partitionedRegion);
+    assertThat(partitionedAccounting.getValueHeapBytes()).isEqualTo(300);
+  }
+}
@@ -15,19 +15,180 @@
 package org.apache.geode.internal.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.geode.cache.CacheClosedException;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.InitialImageOperation.Entry;
 import org.apache.geode.internal.cache.InitialImageOperation.RequestImageMessage;
+import org.apache.geode.internal.cache.versions.RegionVersionHolder;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.cache.versions.VersionSource;
 
 public class RequestImageMessageTest {
+  private static final int NUM_ENTRIES = 1000;
+
+  private ExecutorService waitingPool;
+  private ClusterDistributionManager dm;
+  private DistributedRegion region;
+  private InitialImageFlowControl flowControl;
+  private Map<VersionSource, Long> gcVersions;
+  private RecordingRequestImageMessage message;
+
+  @Before
+  public void setUp() {
+    waitingPool = Executors.newCachedThreadPool();
+    dm = mock(ClusterDistributionManager.class);
+    when(dm.getWaitingThreadPool()).thenReturn(waitingPool);
+
+    List<RegionEntry> entries = new ArrayList<>();
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      RegionEntry entry = mock(RegionEntry.class);
+      when(entry.getKey()).thenReturn(i);
+      when(entry.fillInValue(any(), any(), any(), any(), any())).thenReturn(true);
+      entries.add(entry);
+    }
+    gcVersions = new HashMap<>();
+    RegionVersionVector versionVector = mock(RegionVersionVector.class);
+    when(versionVector.getMemberToGCVersion()).thenReturn(gcVersions);
+    region = mock(DistributedRegion.class);
+    when(region.getBestIterator(true)).thenAnswer(invocation -> entries.iterator());
+    when(region.getDistributionManager()).thenReturn(dm);
+    when(region.getCache()).thenReturn(mock(InternalCache.class));
+    when(region.getVersionVector()).thenReturn(versionVector);
+
+    flowControl = mock(InitialImageFlowControl.class);
+
+    InternalDistributedMember sender = mock(InternalDistributedMember.class);
+    when(sender.getVersionObject()).thenReturn(Version.CURRENT);
+    message = new RecordingRequestImageMessage();
+    message.setSender(sender);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    waitingPool.shutdownNow();
+    waitingPool.awaitTermination(10, TimeUnit.SECONDS);
+  }
 
   @Test
-  public void shouldBeMockable() throws Exception {
-    RequestImageMessage mockRequestImageMessage = mock(RequestImageMessage.class);
-    when(mockRequestImageMessage.getProcessorType()).thenReturn(1);
-    assertThat(mockRequestImageMessage.getProcessorType()).isEqualTo(1);
+  public void everyEntryIsSentOnceWhenAllSeriesFinish() throws Exception {
+    boolean finished = message.chunkEntriesInParallel(dm, region, 4, flowControl,
+        mock(RegionVersionHolder.class), false);
+
+    assertThat(finished).isTrue();
+    List<Object> keys = new ArrayList<>();
+    Set<Integer> lastSeries = new HashSet<>();
+    for (Chunk chunk : message.chunks) {
+      keys.addAll(chunk.keys);
+      if (chunk.lastInSeries) {
+        assertThat(lastSeries.add(chunk.seriesNum)).isTrue();
+      }
+      assertThat(chunk.numSeries).isEqualTo(4);
+    }
+    assertThat(keys).hasSize(NUM_ENTRIES);
+    assertThat(new HashSet<>(keys)).hasSize(NUM_ENTRIES);
+    assertThat(lastSeries).containsExactlyInAnyOrder(0, 1, 2, 3);
+  }
+
+  @Test
+  public void gcVersionsAreSentWithTheLastChunkOfTheLastSeries() throws Exception {
+    message.chunkEntriesInParallel(dm, region, 4, flowControl, mock(RegionVersionHolder.class),
+        false);
+
+    List<Chunk> withGCVersions = new ArrayList<>();
+    for (Chunk chunk : message.chunks) {
+      if (chunk.gcVersions != null) {
+        withGCVersions.add(chunk);
+      }
+    }
+    assertThat(withGCVersions).hasSize(1);
+    assertThat(withGCVersions.get(0).lastInSeries).isTrue();
+    assertThat(withGCVersions.get(0).gcVersions).isSameAs(gcVersions);
+  }
+
+  @Test
+  public void seriesThatAbortsStopsTheImage() throws Exception {
+    message.failingSeries = 1;
+    message.failure = new CacheClosedException("closing");
+
+    boolean finished = message.chunkEntriesInParallel(dm, region, 4, flowControl,
+        mock(RegionVersionHolder.class), false);
+
+    assertThat(finished).isFalse();
+    for (Chunk chunk : message.chunks) {
+      assertThat(chunk.seriesNum).isNotEqualTo(1);
+      assertThat(chunk.gcVersions).isNull();
+    }
+  }
+
+  @Test
+  public void exceptionThrownByASeriesIsRethrown() throws Exception {
+    message.failingSeries = 2;
+    message.failure = new IllegalStateException("failed series");
+
+    assertThatThrownBy(() -> message.chunkEntriesInParallel(dm, region, 4, flowControl,
+        mock(RegionVersionHolder.class), false)).isSameAs(message.failure);
+    for (Chunk chunk : message.chunks) {
+      assertThat(chunk.gcVersions).isNull();
+    }
+  }
+
+  private static class Chunk {
+    private final int seriesNum;
+    private final int numSeries;
+    private final List<Object> keys = new ArrayList<>();
+    private final boolean lastInSeries;
+    private final Map<VersionSource, Long> gcVersions;
+
+    Chunk(List<?> entries, int seriesNum, int numSeries, boolean lastInSeries,
+        Map<VersionSource, Long> gcVersions) {
+      for (Object entry : entries) {
+        keys.add(((Entry) entry).key);
+      }
+      this.seriesNum = seriesNum;
+      this.numSeries = numSeries;
+      this.lastInSeries = lastInSeries;
+      this.gcVersions = gcVersions;
+    }
+  }
+
+  /**
+   * Records the chunks it would send, and fails the chunks of one series if asked to.
+   */
+  private static class RecordingRequestImageMessage extends RequestImageMessage {
+    private final List<Chunk> chunks = Collections.synchronizedList(new ArrayList<>());
+    private volatile int failingSeries = -1;
+    private volatile RuntimeException failure;
+
+    @Override
+    protected void replyWithData(ClusterDistributionManager dm, List entries, int seriesNum,
+        int msgNum, int numSeries, boolean lastInSeries, int flowControlId, boolean isDeltaGII,
+        RegionVersionHolder holderToSend, Map<VersionSource, Long> gcVersions) {
+      if (seriesNum == failingSeries) {
+        throw failure;
+      }
+      chunks.add(new Chunk(entries, seriesNum, numSeries, lastInSeries, gcVersions));
+    }
   }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SerializedValueCacheTest {
+
+  private static final int VALUE_LENGTH = 100;
+
+  private static final int VALUE_SIZE =
+      CachedDeserializableFactory.getByteSize(new byte[VALUE_LENGTH])
+          + SerializedValueCache.CachedValue.OVERHEAD;
+
+  private static VMCachedDeserializable newValue() {
+    return new VMCachedDeserializable(new byte[VALUE_LENGTH]);
+  }
+
+  @Test
+  public void keptValueIsFoundByIdentity() {
+    SerializedValueCache cache = new SerializedValueCache(100 * VALUE_SIZE);
+    VMCachedDeserializable value = newValue();
+    byte[] serializedValue = new byte[VALUE_LENGTH];
+
+    cache.put(value, serializedValue);
+
+    assertThat(cache.get(value)).isSameAs(serializedValue);
+    assertThat(cache.get(newValue())).isNull();
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getBytes()).isEqualTo(VALUE_SIZE);
+  }
+
+  @Test
+  public void valuesAreAgedOutOnceFull() {
+    SerializedValueCache cache = new SerializedValueCache(10 * VALUE_SIZE);
+    List<VMCachedDeserializable> values = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      VMCachedDeserializable value = newValue();
+      values.add(value);
+      cache.put(value, new byte[VALUE_LENGTH]);
+    }
+
+    assertThat(cache.size()).isEqualTo(10);
+    assertThat(cache.getBytes()).isEqualTo(10 * VALUE_SIZE);
+    assertThat(cache.get(values.get(0))).isNull();
+    assertThat(cache.get(values.get(19))).isNotNull();
+  }
+
+  @Test
+  public void usedValuesAreKeptForAnotherRound() {
+    SerializedValueCache cache = new SerializedValueCache(10 * VALUE_SIZE);
+    VMCachedDeserializable used = newValue();
+    cache.put(used, new byte[VALUE_LENGTH]);
+    for (int i = 0; i < 9; i++) {
+      cache.put(newValue(), new byte[VALUE_LENGTH]);
+    }
+
+    cache.get(used);
+    cache.put(newValue(), new byte[VALUE_LENGTH]);
+
+    assertThat(cache.get(used)).isNotNull();
+    assertThat(cache.size()).isEqualTo(10);
+  }
+
+  @Test
+  public void valueTooLargeForTheCacheIsNotKept() {
+    SerializedValueCache cache = new SerializedValueCache(10 * VALUE_SIZE);
+    VMCachedDeserializable value = new VMCachedDeserializable(new byte[5 * VALUE_SIZE]);
+
+    cache.put(value, new byte[5 * VALUE_SIZE]);
+
+    assertThat(cache.get(value)).isNull();
+    assertThat(cache.getBytes()).isZero();
+  }
+}
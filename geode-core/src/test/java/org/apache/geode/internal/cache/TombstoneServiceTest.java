@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.cache.versions.VersionHolder;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+import org.apache.geode.internal.cache.versions.VersionTag;
+
+public class TombstoneServiceTest {
+
+  private int originalGCThreads;
+  private ExecutorService waitingThreadPool;
+  private TombstoneService tombstoneService;
+
+  @Before
+  public void setup() {
+    originalGCThreads = TombstoneService.TOMBSTONE_GC_THREADS;
+    TombstoneService.TOMBSTONE_GC_THREADS = 4;
+    waitingThreadPool = Executors.newSingleThreadExecutor();
+
+    InternalCache cache = mock(InternalCache.class);
+    DistributionManager distributionManager = mock(DistributionManager.class);
+    when(cache.getCachePerfStats()).thenReturn(mock(CachePerfStats.class));
+    when(cache.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(cache.getDistributionManager()).thenReturn(distributionManager);
+    when(distributionManager.getWaitingThreadPool()).thenReturn(waitingThreadPool);
+    tombstoneService = TombstoneService.initialize(cache);
+  }
+
+  @After
+  public void tearDown() {
+    tombstoneService.stop();
+    waitingThreadPool.shutdownNow();
+    TombstoneService.TOMBSTONE_GC_THREADS = originalGCThreads;
+  }
+
+  private static DistributedRegion newRegion() {
+    DistributedRegion region = mock(DistributedRegion.class);
+    when(region.getScope()).thenReturn(Scope.DISTRIBUTED_ACK);
+    when(region.getDataPolicy()).thenReturn(DataPolicy.REPLICATE);
+    when(region.getVersionVector()).thenReturn(mock(RegionVersionVector.class));
+    RegionMap regionMap = mock(RegionMap.class);
+    when(regionMap.removeTombstone(any(), any(), anyBoolean(), anyBoolean())).thenReturn(true);
+    when(region.getRegionMap()).thenReturn(regionMap);
+    return region;
+  }
+
+  private void scheduleTombstone(DistributedRegion region, Object key) {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getKey()).thenReturn(key);
+    when(entry.getVersionStamp()).thenReturn(mock(VersionStamp.class));
+    tombstoneService.scheduleTombstone(region, entry, mock(VersionTag.class));
+  }
+
+  @Test
+  public void expiredBatchIsRemovedFromEachRegionAndDistributed() throws Exception {
+    List<DistributedRegion> regions = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      DistributedRegion region = newRegion();
+      regions.add(region);
+      for (int j = 0; j < 10; j++) {
+        scheduleTombstone(region, "key" + j);
+      }
+    }
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isEqualTo(50);
+
+    assertThat(tombstoneService.forceBatchExpirationForTests(50)).isTrue();
+    waitingThreadPool.submit(() -> {
+    }).get();
+
+    for (DistributedRegion region : regions) {
+      verify(region.getRegionMap(), times(10)).removeTombstone(any(), any(VersionHolder.class),
+          eq(false), eq(true));
+      verify(region.getVersionVector()).pruneOldExceptions();
+      verify(region).distributeTombstoneGC(any());
+    }
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isZero();
+  }
+
+  @Test
+  public void unscheduledTombstonesAreNotExpired() throws Exception {
+    DistributedRegion kept = newRegion();
+    DistributedRegion destroyed = newRegion();
+    scheduleTombstone(kept, "key");
+    scheduleTombstone(destroyed, "key");
+
+    tombstoneService.unscheduleTombstones(destroyed);
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isEqualTo(1);
+
+    assertThat(tombstoneService.forceBatchExpirationForTests(1)).isTrue();
+    waitingThreadPool.submit(() -> {
+    }).get();
+
+    verify(kept.getRegionMap()).removeTombstone(any(), any(VersionHolder.class), eq(false),
+        eq(true));
+    verify(destroyed.getRegionMap(), times(0)).removeTombstone(any(), any(VersionHolder.class),
+        anyBoolean(), anyBoolean());
+  }
+}
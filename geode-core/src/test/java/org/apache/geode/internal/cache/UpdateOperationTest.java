@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.UpdateOperation.UpdateMessage;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.OffHeapMemoryStats;
+import org.apache.geode.internal.offheap.OutOfOffHeapMemoryListener;
+import org.apache.geode.internal.offheap.SlabImpl;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.tcp.ByteBufferInputStream;
+
+public class UpdateOperationTest {
+
+  private static final int SLAB_SIZE = 64 * 1024;
+
+  private MemoryAllocatorImpl allocator;
+
+  @Before
+  public void setUp() {
+    allocator = MemoryAllocatorImpl.createForUnitTest(mock(OutOfOffHeapMemoryListener.class),
+        mock(OffHeapMemoryStats.class), new SlabImpl[] {new SlabImpl(SLAB_SIZE)});
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  private static byte[] createValue(int size) {
+    byte[] value = new byte[size];
+    for (int i = 0; i < size; i++) {
+      value[i] = (byte) i;
+    }
+    return value;
+  }
+
+  private static ByteBufferInputStream serialize(byte[] value) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeByteArray(value, out);
+    return new ByteBufferInputStream(ByteBuffer.wrap(out.toByteArray()));
+  }
+
+  @Test
+  public void largeValueIsReadOffHeapAndReleasedByTheMessage() throws Exception {
+    byte[] value = createValue(4096);
+    UpdateMessage message = new UpdateMessage();
+
+    message.readNewValue(serialize(value));
+
+    StoredObject offHeapValue = message.getOffHeapNewValue();
+    assertThat(offHeapValue).isNotNull();
+    assertThat(offHeapValue.getRefCount()).isEqualTo(1);
+    assertThat(message.newValue).isNull();
+    byte[] copied = new byte[offHeapValue.getDataSize()];
+    offHeapValue.readDataBytes(0, copied);
+    assertThat(copied).isEqualTo(value);
+
+    // the event created from the message holds its own reference
+    assertThat(offHeapValue.retain()).isTrue();
+    message.release();
+    assertThat(message.getOffHeapNewValue()).isNull();
+    assertThat(offHeapValue.getRefCount()).isEqualTo(1);
+
+    offHeapValue.release();
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void releaseAfterFailedProcessingFreesTheValueOnce() throws Exception {
+    UpdateMessage message = new UpdateMessage();
+    message.readNewValue(serialize(createValue(4096)));
+    assertThat(allocator.getUsedMemory()).isGreaterThan(0);
+
+    message.release();
+    message.release();
+
+    assertThat(message.getOffHeapNewValue()).isNull();
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void smallValueIsReadOnTheHeap() throws Exception {
+    byte[] value = createValue(16);
+    UpdateMessage message = new UpdateMessage();
+
+    message.readNewValue(serialize(value));
+
+    assertThat(message.getOffHeapNewValue()).isNull();
+    assertThat(message.newValue).isEqualTo(value);
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void valueIsReadOnTheHeapWhenOffHeapMemoryIsExhausted() throws Exception {
+    byte[] value = createValue(2 * SLAB_SIZE);
+    UpdateMessage message = new UpdateMessage();
+
+    message.readNewValue(serialize(value));
+
+    assertThat(message.getOffHeapNewValue()).isNull();
+    assertThat(message.newValue).isEqualTo(value);
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void valueMovedToHeapForHeapRegionIsReleased() throws Exception {
+    byte[] value = createValue(4096);
+    UpdateMessage message = new UpdateMessage();
+    message.readNewValue(serialize(value));
+    StoredObject offHeapValue = message.getOffHeapNewValue();
+    assertThat(offHeapValue.retain()).isTrue();
+
+    message.moveNewValueToHeap();
+
+    assertThat(message.getOffHeapNewValue()).isNull();
+    assertThat(message.newValue).isEqualTo(value);
+    assertThat(offHeapValue.getRefCount()).isEqualTo(1);
+    offHeapValue.release();
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class TenuredGrowthRateTest {
+
+  private static final long MB = 1024 * 1024;
+
+  private final TenuredGrowthRate growthRate = new TenuredGrowthRate();
+
+  private void sampleEverySecond(long startBytes, long bytesPerSecond, int samples) {
+    for (int i = 0; i < samples; i++) {
+      growthRate.sample(SECONDS.toNanos(i), startBytes + i * bytesPerSecond);
+    }
+  }
+
+  @Test
+  public void rateIsZeroBeforeTwoSamples() {
+    growthRate.sample(0, 100 * MB);
+
+    assertThat(growthRate.getBytesPerSecond()).isZero();
+    assertThat(growthRate.project(100 * MB, 10_000)).isEqualTo(100 * MB);
+  }
+
+  @Test
+  public void steadyGrowthConvergesOnItsRate() {
+    sampleEverySecond(100 * MB, 10 * MB, 50);
+
+    assertThat(growthRate.getBytesPerSecond()).isBetween(9 * MB, 10 * MB);
+    assertThat(growthRate.project(600 * MB, 5_000)).isBetween(645 * MB, 650 * MB);
+  }
+
+  @Test
+  public void collectionDoesNotLowerTheRate() {
+    sampleEverySecond(100 * MB, 10 * MB, 50);
+    long rate = growthRate.getBytesPerSecond();
+
+    growthRate.sample(SECONDS.toNanos(50), 50 * MB);
+
+    assertThat(growthRate.getBytesPerSecond()).isEqualTo(rate);
+  }
+
+  @Test
+  public void samplesTooCloseTogetherAreIgnored() {
+    growthRate.sample(0, 100 * MB);
+    growthRate.sample(TenuredGrowthRate.MINIMUM_SAMPLE_INTERVAL_NANOS - 1, 200 * MB);
+    assertThat(growthRate.getBytesPerSecond()).isZero();
+
+    growthRate.sample(SECONDS.toNanos(1), 100 * MB);
+    assertThat(growthRate.getBytesPerSecond()).isZero();
+  }
+
+  @Test
+  public void rateDecaysWhenGrowthStops() {
+    sampleEverySecond(100 * MB, 10 * MB, 50);
+    long rate = growthRate.getBytesPerSecond();
+
+    for (int i = 50; i < 60; i++) {
+      growthRate.sample(SECONDS.toNanos(i), 590 * MB);
+    }
+
+    assertThat(growthRate.getBytesPerSecond()).isLessThan(rate / 10);
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_LIST_SHARDS;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SCAN_ASYNC;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -28,9 +29,11 @@ import org.apache.geode.cache.EvictionAlgorithm;
 
 public class EvictionListBuilderTest {
   private static final String EVICTION_PROPERTY_NAME = "geode." + EVICTION_SCAN_ASYNC;
+  private static final String SHARDS_PROPERTY_NAME = "geode." + EVICTION_LIST_SHARDS;
 
   @Rule
-  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME);
+  public ClearSystemProperties clearProperties =
+      new ClearSystemProperties(EVICTION_PROPERTY_NAME, SHARDS_PROPERTY_NAME);
 
   private EvictionListBuilder builder;
   private EvictionController controller;
@@ -74,4 +77,31 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LRUListWithSyncSorting.class);
 
   }
+
+  @Test
+  public void createsShardedLruWhenSystemConfiguredWithShards() {
+    System.setProperty(SHARDS_PROPERTY_NAME, "4");
+    builder = new EvictionListBuilder(controller);
+
+    EvictionList list = builder.create();
+
+    assertThat(list).isInstanceOf(ShardedEvictionList.class);
+    assertThat(((ShardedEvictionList) list).getShardCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void doesNotShardLifoList() {
+    System.setProperty(SHARDS_PROPERTY_NAME, "4");
+    when(controller.getEvictionAlgorithm()).thenReturn(EvictionAlgorithm.LIFO_ENTRY);
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(LIFOList.class);
+  }
+
+  @Test
+  public void createsTinyLFUListWhenAlgorithmIsLfu() {
+    when(controller.getEvictionAlgorithm()).thenReturn(EvictionAlgorithm.LFU_ENTRY);
+
+    assertThat(builder.create()).isInstanceOf(TinyLFUList.class);
+  }
 }
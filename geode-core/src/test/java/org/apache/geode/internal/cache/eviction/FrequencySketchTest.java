@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+  @Test
+  public void unrecordedHashHasNoFrequency() {
+    FrequencySketch sketch = new FrequencySketch();
+
+    assertThat(sketch.frequency(42)).isZero();
+  }
+
+  @Test
+  public void frequencyCountsIncrements() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(1024);
+
+    for (int i = 0; i < 5; i++) {
+      sketch.increment(42);
+    }
+
+    assertThat(sketch.frequency(42)).isEqualTo(5);
+  }
+
+  @Test
+  public void frequencyStopsAtMaximum() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(1024);
+
+    for (int i = 0; i < 100; i++) {
+      sketch.increment(42);
+    }
+
+    assertThat(sketch.frequency(42)).isEqualTo(FrequencySketch.MAXIMUM_FREQUENCY);
+  }
+
+  @Test
+  public void frequenciesAreHalvedAfterSampleSize() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(64);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment(42);
+    }
+
+    for (int i = 1; i <= 10 * sketch.getTableLength(); i++) {
+      sketch.increment(-i);
+    }
+
+    assertThat(sketch.frequency(42)).isBetween(1, 7);
+  }
+
+  @Test
+  public void ensureCapacityGrowsToPowerOfTwoAndForgets() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.increment(42);
+
+    sketch.ensureCapacity(1000);
+
+    assertThat(sketch.getTableLength()).isEqualTo(1024);
+    assertThat(sketch.frequency(42)).isZero();
+  }
+
+  @Test
+  public void ensureCapacityDoesNotShrink() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(1000);
+    sketch.increment(42);
+
+    sketch.ensureCapacity(10);
+
+    assertThat(sketch.getTableLength()).isEqualTo(1024);
+    assertThat(sketch.frequency(42)).isEqualTo(1);
+  }
+}
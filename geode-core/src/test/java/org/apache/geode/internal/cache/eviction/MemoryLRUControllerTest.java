@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.size.SizeClassOnceObjectSizer;
+
+public class MemoryLRUControllerTest {
+
+  private static final String SAMPLE_INTERVAL_PROPERTY_NAME =
+      SystemPropertyHelper.GEODE_PREFIX + SystemPropertyHelper.EVICTION_SIZING_SAMPLE_INTERVAL;
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private MemoryLRUController createController(ObjectSizer sizer) {
+    return new MemoryLRUController(mock(EvictionCounters.class), 10, sizer,
+        EvictionAction.DEFAULT_EVICTION_ACTION, false, EvictionAlgorithm.LRU_MEMORY);
+  }
+
+  @Test
+  public void sizesExactlyByDefault() {
+    MemoryLRUController controller = createController(ObjectSizer.REFLECTION_SIZE);
+
+    assertThat(controller.getSizer()).isSameAs(ObjectSizer.REFLECTION_SIZE);
+    assertThat(controller.keepsSerializedSize()).isFalse();
+  }
+
+  @Test
+  public void samplesBuiltInSizersWhenSampleIntervalIsSet() {
+    System.setProperty(SAMPLE_INTERVAL_PROPERTY_NAME, "100");
+
+    MemoryLRUController reflectionController = createController(ObjectSizer.REFLECTION_SIZE);
+    MemoryLRUController defaultController = createController(null);
+
+    assertThat(reflectionController.getSizer()).isInstanceOf(SizeClassOnceObjectSizer.class)
+        .isNotSameAs(ObjectSizer.SIZE_CLASS_ONCE);
+    assertThat(defaultController.getSizer()).isInstanceOf(SizeClassOnceObjectSizer.class)
+        .isNotSameAs(ObjectSizer.SIZE_CLASS_ONCE);
+    assertThat(reflectionController.keepsSerializedSize()).isTrue();
+  }
+
+  @Test
+  public void keepsCustomSizerWhenSampleIntervalIsSet() {
+    System.setProperty(SAMPLE_INTERVAL_PROPERTY_NAME, "100");
+    ObjectSizer sizer = object -> 42;
+
+    MemoryLRUController controller = createController(sizer);
+
+    assertThat(controller.getSizer()).isSameAs(sizer);
+    assertThat(controller.entrySize("key", new Object()))
+        .isEqualTo(controller.getPerEntryOverhead() + controller.sizeof("key") + 42);
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+
+public class ShardedEvictionListTest {
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private ShardedEvictionList list;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+    list = new ShardedEvictionList(controller, 4, () -> new LRUListWithSyncSorting(controller));
+  }
+
+  private static EvictableEntry newEntry() {
+    return mock(EvictableEntry.class, delegatesTo(new LinkableEvictionNode()));
+  }
+
+  @Test
+  public void shardCountIsRoundedUpToPowerOfTwo() {
+    assertThat(new ShardedEvictionList(controller, 3, () -> new LIFOList(controller))
+        .getShardCount()).isEqualTo(4);
+    assertThat(new ShardedEvictionList(controller, 1, () -> new LIFOList(controller))
+        .getShardCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void entriesWithTheSameHashUseTheSameShard() {
+    EvictionNode first = mock(EvictableEntry.class, withSettings().extraInterfaces(HashEntry.class)
+        .defaultAnswer(delegatesTo(new LinkableEvictionNode())));
+    EvictionNode second = mock(EvictableEntry.class, withSettings().extraInterfaces(HashEntry.class)
+        .defaultAnswer(delegatesTo(new LinkableEvictionNode())));
+    doReturn(12345).when((HashEntry<?, ?>) first).getEntryHash();
+    doReturn(12345).when((HashEntry<?, ?>) second).getEntryHash();
+
+    assertThat(list.getShard(first)).isSameAs(list.getShard(second));
+  }
+
+  @Test
+  public void sizeIsTheSumOfAllShards() {
+    Set<AbstractEvictionList> usedShards = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      EvictionNode node = new LinkableEvictionNode();
+      list.appendEntry(node);
+      usedShards.add(list.getShard(node));
+    }
+
+    assertThat(list.size()).isEqualTo(100);
+    assertThat(usedShards).hasSize(4);
+  }
+
+  @Test
+  public void destroyEntryRemovesItFromItsShard() {
+    EvictionNode node = new LinkableEvictionNode();
+    list.appendEntry(node);
+
+    list.destroyEntry(node);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getShard(node).size()).isZero();
+    verify(stats).incDestroys();
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void evictsFromShardWhoseHeadIsNotRecentlyUsed() {
+    EvictableEntry recentlyUsed = null;
+    EvictableEntry unused = null;
+    while (unused == null) {
+      EvictableEntry entry = newEntry();
+      if (recentlyUsed == null) {
+        recentlyUsed = entry;
+        when(recentlyUsed.isRecentlyUsed()).thenReturn(true);
+      } else if (list.getShard(entry) != list.getShard(recentlyUsed)) {
+        unused = entry;
+      }
+    }
+    list.appendEntry(recentlyUsed);
+    list.appendEntry(unused);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(list.chooseShard()).isEqualTo(list.shardIndex(unused));
+    }
+    assertThat(list.getEvictableEntry()).isSameAs(unused);
+    assertThat(list.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsFromLongestShardWhenHeadsAreAlike() {
+    EvictableEntry single = newEntry();
+    list.appendEntry(single);
+    EvictableEntry other = null;
+    int added = 0;
+    while (added < 3) {
+      EvictableEntry entry = newEntry();
+      if (other == null && list.shardIndex(entry) != list.shardIndex(single)) {
+        other = entry;
+      }
+      if (other != null && list.shardIndex(entry) == list.shardIndex(other)) {
+        list.appendEntry(entry);
+        added++;
+      }
+    }
+
+    assertThat(list.chooseShard()).isEqualTo(list.shardIndex(other));
+  }
+
+  @Test
+  public void clearResetsCountersOnceAndEmptiesAllShards() {
+    for (int i = 0; i < 100; i++) {
+      list.appendEntry(new LinkableEvictionNode());
+    }
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    verify(stats, times(1)).resetCounter();
+  }
+
+  @Test
+  public void clearResetsBucketCounter() {
+    BucketRegion bucketRegion = mock(BucketRegion.class);
+    when(bucketRegion.getCounter()).thenReturn(5L);
+    list.appendEntry(new LinkableEvictionNode());
+
+    list.clear(null, bucketRegion);
+
+    assertThat(list.size()).isZero();
+    verify(stats).decrementCounter(5L);
+    verify(bucketRegion).resetCounter();
+  }
+
+  @Test
+  public void clearWithVersionVectorKeepsEntries() {
+    list.appendEntry(new LinkableEvictionNode());
+
+    list.clear(mock(RegionVersionVector.class), null);
+
+    assertThat(list.size()).isEqualTo(1);
+  }
+}
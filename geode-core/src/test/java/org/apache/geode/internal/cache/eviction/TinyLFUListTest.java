@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+
+public class TinyLFUListTest {
+
+  private static final int MAXIMUM_ENTRIES = 100;
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private TinyLFUList list;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+    list = new TinyLFUList(controller);
+  }
+
+  private static EvictableEntry newEntry() {
+    return mock(EvictableEntry.class, delegatesTo(new RecentlyUsedNode()));
+  }
+
+  /**
+   * Appends the entry and evicts until the list is back within its maximum.
+   */
+  private List<EvictableEntry> create(EvictableEntry entry) {
+    List<EvictableEntry> evicted = new ArrayList<>();
+    list.appendEntry(entry);
+    while (list.size() > MAXIMUM_ENTRIES) {
+      evicted.add(list.getEvictableEntry());
+    }
+    return evicted;
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void evictsOnlyEntry() {
+    EvictableEntry entry = newEntry();
+    list.appendEntry(entry);
+
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void appendRecordsFrequencyOnce() {
+    EvictableEntry entry = newEntry();
+    entry.setRecentlyUsed(null);
+
+    list.appendEntry(entry);
+    list.appendEntry(entry);
+
+    assertThat(list.size()).isEqualTo(1);
+    assertThat(list.frequency(entry)).isEqualTo(1);
+    assertThat(entry.isRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void windowHoldsOnePercentOfEntries() {
+    for (int i = 0; i < 1000; i++) {
+      list.appendEntry(newEntry());
+    }
+
+    assertThat(list.size()).isEqualTo(1000);
+    assertThat(list.getWindowMaximum()).isEqualTo(10);
+  }
+
+  @Test
+  public void rejectsCandidateUsedAsOftenAsVictim() {
+    EvictableEntry victim = newEntry();
+    list.appendEntry(victim);
+    EvictableEntry candidate = newEntry();
+    list.appendEntry(candidate);
+    // pushes the candidate out of the window
+    list.appendEntry(newEntry());
+
+    assertThat(list.getEvictableEntry()).isSameAs(candidate);
+    verify(stats).incGreedyReturns(1);
+  }
+
+  @Test
+  public void admitsCandidateUsedMoreThanVictim() {
+    EvictableEntry victim = newEntry();
+    list.appendEntry(victim);
+    EvictableEntry candidate = newEntry();
+    list.appendEntry(candidate);
+    list.appendEntry(newEntry());
+    candidate.setRecentlyUsed(null);
+
+    assertThat(list.getEvictableEntry()).isSameAs(victim);
+    assertThat(list.frequency(candidate)).isEqualTo(2);
+  }
+
+  @Test
+  public void recentlyUsedVictimGetsSecondChance() {
+    EvictableEntry first = newEntry();
+    EvictableEntry second = newEntry();
+    list.appendEntry(first);
+    list.appendEntry(second);
+    list.appendEntry(newEntry());
+    first.setRecentlyUsed(null);
+
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(first.isRecentlyUsed()).isFalse();
+    assertThat(list.frequency(first)).isEqualTo(2);
+  }
+
+  @Test
+  public void scanDoesNotEvictFrequentlyUsedEntries() {
+    List<EvictableEntry> hot = new ArrayList<>();
+    for (int i = 0; i < MAXIMUM_ENTRIES; i++) {
+      EvictableEntry entry = newEntry();
+      hot.add(entry);
+      create(entry);
+    }
+    for (EvictableEntry entry : hot) {
+      entry.setRecentlyUsed(null);
+    }
+
+    // a scan of three times as many entries while the others are still being used
+    List<EvictableEntry> evicted = new ArrayList<>();
+    for (int i = 0; i < 3 * MAXIMUM_ENTRIES; i++) {
+      if (i % 10 == 0) {
+        for (EvictableEntry entry : hot) {
+          entry.setRecentlyUsed(null);
+        }
+      }
+      evicted.addAll(create(newEntry()));
+    }
+
+    assertThat(evicted).hasSize(3 * MAXIMUM_ENTRIES);
+    long hotEvicted = evicted.stream().filter(hot::contains).count();
+    assertThat(hotEvicted).isLessThanOrEqualTo(MAXIMUM_ENTRIES / 10);
+  }
+
+  @Test
+  public void destroyEntryRemovesFromWindowOrMain() {
+    EvictableEntry inMain = newEntry();
+    EvictableEntry inWindow = newEntry();
+    list.appendEntry(inMain);
+    list.appendEntry(inWindow);
+
+    list.destroyEntry(inWindow);
+    list.destroyEntry(inMain);
+    list.destroyEntry(inMain);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats, times(2)).incDestroys();
+  }
+
+  @Test
+  public void clearEmptiesBothLists() {
+    for (int i = 0; i < 10; i++) {
+      list.appendEntry(newEntry());
+    }
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).resetCounter();
+  }
+
+  private static class RecentlyUsedNode extends LinkableEvictionNode {
+    private boolean recentlyUsed;
+
+    @Override
+    public void setRecentlyUsed(RegionEntryContext context) {
+      recentlyUsed = true;
+    }
+
+    @Override
+    public boolean isRecentlyUsed() {
+      return recentlyUsed;
+    }
+
+    @Override
+    public void unsetRecentlyUsed() {
+      recentlyUsed = false;
+    }
+  }
+}
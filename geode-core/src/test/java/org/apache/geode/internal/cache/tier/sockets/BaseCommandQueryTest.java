@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.internal.cache.tier.sockets.BaseCommand.MAXIMUM_CHUNK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.internal.CqEntry;
+import org.apache.geode.cache.query.internal.cq.ServerCQ;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class BaseCommandQueryTest {
+
+  private BaseCommandQuery command;
+  private ServerConnection serverConnection;
+  private ChunkedMessage queryResponseMessage;
+  private CollectionType collectionType;
+  private SecurityService securityService;
+
+  @Before
+  public void setUp() {
+    command = new BaseCommandQuery() {
+      @Override
+      public void cmdExecute(Message clientMessage, ServerConnection serverConnection,
+          SecurityService securityService, long start) {}
+    };
+    queryResponseMessage = mock(ChunkedMessage.class);
+    serverConnection = mock(ServerConnection.class);
+    when(serverConnection.getQueryResponseMessage()).thenReturn(queryResponseMessage);
+    when(serverConnection.getName()).thenReturn("serverConnection");
+    collectionType = mock(CollectionType.class);
+    securityService = mock(SecurityService.class);
+    when(securityService.postProcess(any(), any(), any(), anyBoolean()))
+        .thenAnswer(invocation -> invocation.getArgument(2));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SelectResults<Object> selectResults(List<?> results) {
+    SelectResults<Object> selectResults = mock(SelectResults.class);
+    when(selectResults.iterator()).thenAnswer(invocation -> results.iterator());
+    when(selectResults.size()).thenReturn(results.size());
+    when(selectResults.isEmpty()).thenReturn(results.isEmpty());
+    return selectResults;
+  }
+
+  private static List<Object> integers(int count) {
+    List<Object> results = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      results.add(i);
+    }
+    return results;
+  }
+
+  private void sendQueryResults(List<?> results, boolean isStructs, ServerCQ cqQuery,
+      boolean sendCqResultsWithKey, boolean hasSerializedObjects) throws Exception {
+    command.sendQueryResults(selectResults(results), serverConnection, isStructs, collectionType,
+        "query", cqQuery, sendCqResultsWithKey, true, hasSerializedObjects, securityService);
+  }
+
+  /**
+   * Returns the last chunk flag of each chunk sent.
+   */
+  private List<Boolean> sentLastChunkFlags() throws Exception {
+    ArgumentCaptor<Boolean> lastChunk = ArgumentCaptor.forClass(Boolean.class);
+    verify(queryResponseMessage, atLeastOnce()).setLastChunk(lastChunk.capture());
+    verify(queryResponseMessage, times(lastChunk.getAllValues().size()))
+        .sendChunk(serverConnection);
+    return lastChunk.getAllValues();
+  }
+
+  /**
+   * Returns the results part of each chunk sent, which follows the collection type.
+   */
+  private List<Object> sentChunks() {
+    ArgumentCaptor<Object> parts = ArgumentCaptor.forClass(Object.class);
+    verify(queryResponseMessage, atLeastOnce()).addObjPart(parts.capture(), anyBoolean());
+    List<Object> chunks = new ArrayList<>();
+    for (int i = 0; i < parts.getAllValues().size(); i += 2) {
+      assertThat(parts.getAllValues().get(i)).isSameAs(collectionType);
+      chunks.add(parts.getAllValues().get(i + 1));
+    }
+    return chunks;
+  }
+
+  @Test
+  public void emptyResultsAreSentAsOneEmptyLastChunk() throws Exception {
+    sendQueryResults(integers(0), false, null, false, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(true);
+    assertThat(sentChunks()).hasSize(1);
+    assertThat((Object[]) sentChunks().get(0)).isEmpty();
+  }
+
+  @Test
+  public void emptySerializedResultsAreSentAsOneEmptyLastChunk() throws Exception {
+    sendQueryResults(integers(0), false, null, false, true);
+
+    assertThat(sentLastChunkFlags()).containsExactly(true);
+    assertThat((Object[]) sentChunks().get(0)).isEmpty();
+  }
+
+  @Test
+  public void resultsFillingChunksExactlyEndWithFullLastChunk() throws Exception {
+    List<Object> results = integers(MAXIMUM_CHUNK_SIZE * 2);
+
+    sendQueryResults(results, false, null, false, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(false, true);
+    List<Object> chunks = sentChunks();
+    assertThat((Object[]) chunks.get(0)).containsExactlyElementsOf(
+        results.subList(0, MAXIMUM_CHUNK_SIZE));
+    assertThat((Object[]) chunks.get(1)).containsExactlyElementsOf(
+        results.subList(MAXIMUM_CHUNK_SIZE, MAXIMUM_CHUNK_SIZE * 2));
+  }
+
+  @Test
+  public void serializedResultsFillingChunksExactlyEndWithFullLastChunk() throws Exception {
+    List<Object> results = integers(MAXIMUM_CHUNK_SIZE * 2);
+
+    sendQueryResults(results, false, null, false, true);
+
+    assertThat(sentLastChunkFlags()).containsExactly(false, true);
+    List<Object> chunks = sentChunks();
+    assertThat(((ObjectPartList) chunks.get(0)).getObjects())
+        .containsExactlyElementsOf(results.subList(0, MAXIMUM_CHUNK_SIZE));
+    assertThat(((ObjectPartList) chunks.get(1)).getObjects())
+        .containsExactlyElementsOf(results.subList(MAXIMUM_CHUNK_SIZE, MAXIMUM_CHUNK_SIZE * 2));
+  }
+
+  @Test
+  public void resultsSpanningChunksEndWithPartialLastChunk() throws Exception {
+    List<Object> results = integers(MAXIMUM_CHUNK_SIZE + 1);
+
+    sendQueryResults(results, false, null, false, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(false, true);
+    List<Object> chunks = sentChunks();
+    assertThat((Object[]) chunks.get(0)).hasSize(MAXIMUM_CHUNK_SIZE);
+    assertThat((Object[]) chunks.get(1)).containsExactly(MAXIMUM_CHUNK_SIZE);
+  }
+
+  @Test
+  public void structsAreSentAsTheirFieldValues() throws Exception {
+    Struct struct = mock(Struct.class);
+    when(struct.getFieldValues()).thenReturn(new Object[] {"field1", "field2"});
+    List<Object> results = new ArrayList<>();
+    results.add(struct);
+
+    sendQueryResults(results, true, null, false, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(true);
+    Object[] chunk = (Object[]) sentChunks().get(0);
+    assertThat((Object[]) chunk[0]).containsExactly("field1", "field2");
+  }
+
+  @Test
+  public void serializedStructsAreSentAsObjectPartLists() throws Exception {
+    Struct struct = mock(Struct.class);
+    when(struct.getFieldValues()).thenReturn(new Object[] {"field1", "field2"});
+    List<Object> results = new ArrayList<>();
+    results.add(struct);
+
+    sendQueryResults(results, true, null, false, true);
+
+    ObjectPartList chunk = (ObjectPartList) sentChunks().get(0);
+    ObjectPartList fields = (ObjectPartList) chunk.getObjects().get(0);
+    assertThat(fields.getObjects()).containsExactly("field1", "field2");
+  }
+
+  @Test
+  public void cqKeyValueResultsSpanningChunksAreAllSent() throws Exception {
+    ServerCQ cqQuery = mock(ServerCQ.class);
+    List<Object> results = new ArrayList<>();
+    for (int i = 0; i < MAXIMUM_CHUNK_SIZE + 1; i++) {
+      results.add(new CqEntry("key" + i, "value" + i));
+    }
+
+    sendQueryResults(results, true, cqQuery, true, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(false, true);
+    List<Object> chunks = sentChunks();
+    assertThat((Object[]) chunks.get(0)).hasSize(MAXIMUM_CHUNK_SIZE);
+    Object[] lastChunk = (Object[]) chunks.get(1);
+    assertThat(lastChunk).hasSize(1);
+    assertThat((Object[]) lastChunk[0]).containsExactly("key" + MAXIMUM_CHUNK_SIZE,
+        "value" + MAXIMUM_CHUNK_SIZE);
+    verify(cqQuery, times(MAXIMUM_CHUNK_SIZE + 1)).addToCqResultKeys(any());
+  }
+
+  @Test
+  public void serializedCqKeyValueResultsSpanningChunksAreAllSent() throws Exception {
+    ServerCQ cqQuery = mock(ServerCQ.class);
+    List<Object> results = new ArrayList<>();
+    for (int i = 0; i < MAXIMUM_CHUNK_SIZE + 1; i++) {
+      results.add(new CqEntry("key" + i, "value" + i));
+    }
+
+    sendQueryResults(results, true, cqQuery, true, true);
+
+    assertThat(sentLastChunkFlags()).containsExactly(false, true);
+    List<Object> chunks = sentChunks();
+    assertThat(((ObjectPartList) chunks.get(0)).size()).isEqualTo(MAXIMUM_CHUNK_SIZE);
+    ObjectPartList keyValue =
+        (ObjectPartList) ((ObjectPartList) chunks.get(1)).getObjects().get(0);
+    assertThat(keyValue.getObjects()).containsExactly("key" + MAXIMUM_CHUNK_SIZE,
+        "value" + MAXIMUM_CHUNK_SIZE);
+  }
+
+  @Test
+  public void invalidatedCqEntriesAreSkipped() throws Exception {
+    ServerCQ cqQuery = mock(ServerCQ.class);
+    List<Object> results = new ArrayList<>();
+    results.add(new CqEntry("key1", "value1"));
+    results.add(new CqEntry("key2", null));
+
+    sendQueryResults(results, false, cqQuery, false, false);
+
+    assertThat(sentLastChunkFlags()).containsExactly(true);
+    assertThat((Object[]) sentChunks().get(0)).containsExactly("value1");
+  }
+}
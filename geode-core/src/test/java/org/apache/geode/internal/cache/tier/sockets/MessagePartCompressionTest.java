@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.tcp.WireCompressor;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class MessagePartCompressionTest {
+  private static final int THRESHOLD = 1024;
+  /** the length of the header before the first part */
+  private static final int HEADER_LENGTH = 17;
+  /** the length of the length and type code before the bytes of each part */
+  private static final int PART_HEADER_LENGTH = 5;
+  private static final byte PART_IS_COMPRESSED = 0x10;
+
+  private WireCompressor compressor;
+  private Socket socket;
+
+  @Before
+  public void setUp() {
+    compressor = WireCompressor.create(WireCompressor.SNAPPY, THRESHOLD);
+    socket = mock(Socket.class);
+  }
+
+  private static byte[] compressibleBytes(int length) {
+    byte[] bytes = new byte[length];
+    Arrays.fill(bytes, (byte) 'a');
+    return bytes;
+  }
+
+  /**
+   * Sends a message with the given byte parts and returns the bytes written to the socket.
+   */
+  private byte[] send(WireCompressor senderCompressor, ServerConnection serverConnection,
+      boolean compressParts, byte[]... parts) throws Exception {
+    Message message = new Message(parts.length, Version.CURRENT, senderCompressor);
+    message.setMessageType(MessageType.PUT);
+    for (byte[] part : parts) {
+      message.addBytesPart(part);
+    }
+    message.setCompressParts(compressParts);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (serverConnection != null) {
+      message.setComms(serverConnection, socket, ByteBuffer.allocate(1000),
+          mock(MessageStats.class));
+    }
+    message.setComms(socket, new ByteArrayInputStream(new byte[0]), out,
+        ByteBuffer.allocate(1000), mock(MessageStats.class));
+    message.send();
+    return out.toByteArray();
+  }
+
+  private Message receive(byte[] wire, int numberOfParts, ServerConnection serverConnection)
+      throws Exception {
+    Message message = new Message(numberOfParts, Version.CURRENT, compressor);
+    if (serverConnection != null) {
+      message.setComms(serverConnection, socket, ByteBuffer.allocate(1000),
+          mock(MessageStats.class));
+    }
+    message.setComms(socket, new ByteArrayInputStream(wire), new ByteArrayOutputStream(),
+        ByteBuffer.allocate(1000), mock(MessageStats.class));
+    message.receive();
+    return message;
+  }
+
+  /**
+   * Returns the type codes of the parts of a message as written to the socket.
+   */
+  private static List<Byte> partTypeCodes(byte[] wire) {
+    ByteBuffer buffer = ByteBuffer.wrap(wire);
+    int numberOfParts = buffer.getInt(8);
+    buffer.position(HEADER_LENGTH);
+    List<Byte> typeCodes = new ArrayList<>();
+    for (int i = 0; i < numberOfParts; i++) {
+      int length = buffer.getInt();
+      typeCodes.add(buffer.get());
+      buffer.position(buffer.position() + length);
+    }
+    return typeCodes;
+  }
+
+  private static boolean isCompressed(byte typeCode) {
+    return (typeCode & PART_IS_COMPRESSED) != 0;
+  }
+
+  @Test
+  public void compressedAndUncompressedPartsRoundTrip() throws Exception {
+    byte[] large = compressibleBytes(THRESHOLD * 4);
+    byte[] small = "small".getBytes();
+
+    byte[] wire = send(compressor, null, true, large, small);
+
+    List<Byte> typeCodes = partTypeCodes(wire);
+    assertThat(isCompressed(typeCodes.get(0))).isTrue();
+    assertThat(isCompressed(typeCodes.get(1))).isFalse();
+    assertThat(wire.length)
+        .isLessThan(HEADER_LENGTH + 2 * PART_HEADER_LENGTH + large.length + small.length);
+
+    Message received = receive(wire, 2, null);
+    assertThat(received.getPart(0).getSerializedForm()).isEqualTo(large);
+    assertThat(received.getPart(1).getSerializedForm()).isEqualTo(small);
+    assertThat(received.getPart(0).isBytes()).isTrue();
+    assertThat(received.getPeerAcceptsCompressedParts()).isTrue();
+  }
+
+  @Test
+  public void partsBelowThresholdAreNotCompressed() throws Exception {
+    byte[] belowThreshold = compressibleBytes(THRESHOLD - 1);
+
+    byte[] wire = send(compressor, null, true, belowThreshold);
+
+    assertThat(isCompressed(partTypeCodes(wire).get(0))).isFalse();
+    assertThat(receive(wire, 1, null).getPart(0).getSerializedForm()).isEqualTo(belowThreshold);
+  }
+
+  @Test
+  public void clientMessageIsNotCompressedUntilServerAcceptsCompressedParts() throws Exception {
+    byte[] large = compressibleBytes(THRESHOLD * 4);
+
+    byte[] wire = send(compressor, null, false, large);
+
+    assertThat(isCompressed(partTypeCodes(wire).get(0))).isFalse();
+  }
+
+  @Test
+  public void clientThatDidNotAdvertiseGetsUncompressedParts() throws Exception {
+    ServerConnection serverConnection = mock(ServerConnection.class);
+    byte[] large = compressibleBytes(THRESHOLD * 4);
+
+    // a client without a compressor does not set the flag on its request
+    byte[] request = send(null, null, false, large);
+    Message received = receive(request, 1, serverConnection);
+    assertThat(received.getPeerAcceptsCompressedParts()).isFalse();
+    verify(serverConnection).setClientAcceptsCompressedParts(false);
+
+    when(serverConnection.getClientAcceptsCompressedParts()).thenReturn(false);
+    byte[] reply = send(compressor, serverConnection, false, large);
+
+    assertThat(isCompressed(partTypeCodes(reply).get(0))).isFalse();
+    assertThat(receive(reply, 1, null).getPart(0).getSerializedForm()).isEqualTo(large);
+  }
+
+  @Test
+  public void clientThatAdvertisedGetsCompressedParts() throws Exception {
+    ServerConnection serverConnection = mock(ServerConnection.class);
+    byte[] large = compressibleBytes(THRESHOLD * 4);
+
+    byte[] request = send(compressor, null, false, large);
+    receive(request, 1, serverConnection);
+    verify(serverConnection).setClientAcceptsCompressedParts(true);
+
+    when(serverConnection.getClientAcceptsCompressedParts()).thenReturn(true);
+    byte[] reply = send(compressor, serverConnection, false, large);
+
+    assertThat(isCompressed(partTypeCodes(reply).get(0))).isTrue();
+    assertThat(receive(reply, 1, null).getPart(0).getSerializedForm()).isEqualTo(large);
+  }
+}
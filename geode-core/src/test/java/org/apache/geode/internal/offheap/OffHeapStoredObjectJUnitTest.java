@@ -610,6 +610,35 @@ public class OffHeapStoredObjectJUnitTest extends AbstractStoredObjectTestBase {
     chunk.release();
   }
 
+  @Test
+  public void writeDataBytesShouldCopyFromDirectByteBuffer() {
+    writeDataBytesShouldCopyFromByteBuffer(ByteBuffer.allocateDirect(1024));
+  }
+
+  @Test
+  public void writeDataBytesShouldCopyFromHeapByteBuffer() {
+    writeDataBytesShouldCopyFromByteBuffer(ByteBuffer.allocate(1024));
+  }
+
+  private void writeDataBytesShouldCopyFromByteBuffer(ByteBuffer buffer) {
+    byte[] value = new byte[100];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) i;
+    }
+    buffer.put((byte) -1).put(value).put((byte) -1).flip();
+    buffer.get();
+    OffHeapStoredObject chunk = (OffHeapStoredObject) ma.allocate(value.length);
+
+    chunk.writeDataBytes(0, buffer, value.length);
+
+    byte[] actual = new byte[value.length];
+    chunk.readDataBytes(0, actual);
+    assertArrayEquals(value, actual);
+    assertEquals(value.length + 1, buffer.position());
+
+    chunk.release();
+  }
+
   @Test
   public void createDirectByteBufferShouldCreateAByteBuffer() {
     byte[] regionEntryValue = getValueAsByteArray();
@@ -17,7 +17,10 @@ package org.apache.geode.internal.size;
 import static org.apache.geode.internal.size.SizeTestUtil.OBJECT_SIZE;
 import static org.apache.geode.internal.size.SizeTestUtil.REFERENCE_SIZE;
 import static org.apache.geode.internal.size.SizeTestUtil.roundup;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -57,6 +60,48 @@ public class SizeClassOnceObjectSizerJUnitTest {
     assertEquals(t1Size, ObjectSizer.SIZE_CLASS_ONCE.sizeof(t2));
   }
 
+  @Test
+  public void samplingSizerAveragesTheSizesOfSampledInstances() {
+    SizeClassOnceObjectSizer sizer = SizeClassOnceObjectSizer.withSampleInterval(1);
+    int t1Size = sizer.sizeof(new TestObject(8));
+    int t2Size = sizer.sizeof(new TestObject(24));
+
+    assertEquals(roundup(OBJECT_SIZE + REFERENCE_SIZE) + roundup(OBJECT_SIZE + 4 + 8), t1Size);
+    assertEquals(roundup(OBJECT_SIZE + REFERENCE_SIZE) + roundup(OBJECT_SIZE + 4 + 24), t2Size);
+    assertEquals((t1Size + t2Size) / 2, sizer.getAverageSize(TestObject.class));
+  }
+
+  @Test
+  public void samplingSizerReturnsTheAverageForInstancesThatAreNotSampled() {
+    SizeClassOnceObjectSizer sizer = SizeClassOnceObjectSizer.withSampleInterval(Integer.MAX_VALUE);
+    int t1Size = sizer.sizeof(new TestObject(5));
+
+    assertEquals(t1Size, sizer.sizeof(new TestObject(500)));
+    assertEquals(t1Size, sizer.getAverageSize(TestObject.class));
+  }
+
+  @Test
+  public void samplingSizerFollowsRecentSizes() {
+    SizeClassOnceObjectSizer sizer = SizeClassOnceObjectSizer.withSampleInterval(1);
+    int smallSize = sizer.sizeof(new TestObject(0));
+    int largeSize = 0;
+    for (int i = 0; i < SizeClassOnceObjectSizer.MAXIMUM_SAMPLES * 4; i++) {
+      largeSize = sizer.sizeof(new TestObject(1000));
+    }
+
+    // the small size has been halved away until it weighs less than one byte in the average
+    assertTrue(smallSize < largeSize);
+    assertTrue(largeSize - sizer.getAverageSize(TestObject.class) <= 1);
+    assertEquals(-1, sizer.getAverageSize(String.class));
+  }
+
+  @Test
+  public void samplingSizersAreSeparateFromTheDefault() {
+    assertNotSame(ObjectSizer.SIZE_CLASS_ONCE, SizeClassOnceObjectSizer.withSampleInterval(10));
+    assertThatThrownBy(() -> SizeClassOnceObjectSizer.withSampleInterval(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   private static class TestObject {
     private final byte[] field;
 
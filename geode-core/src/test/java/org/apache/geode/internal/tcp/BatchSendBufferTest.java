@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class BatchSendBufferTest {
+  private static final int BUFFER_SIZE = 1024;
+  private static final int FLUSH_SIZE = 100;
+
+  private DMStats stats;
+  /** the contents of each buffer written to the socket */
+  private List<byte[]> writes;
+  private AtomicReference<Exception> flushFailure;
+  private BatchSendBuffer batchSendBuffer;
+
+  @Before
+  public void setUp() {
+    stats = mock(DMStats.class);
+    writes = new CopyOnWriteArrayList<>();
+    flushFailure = new AtomicReference<>();
+  }
+
+  @After
+  public void tearDown() {
+    if (batchSendBuffer != null) {
+      batchSendBuffer.close();
+    }
+  }
+
+  private BatchSendBuffer createBatchSendBuffer(long flushNanos,
+      BatchSendBuffer.SocketWriter writer) {
+    batchSendBuffer = new BatchSendBuffer(writer, stats, BUFFER_SIZE, FLUSH_SIZE, flushNanos,
+        false, flushFailure::set);
+    return batchSendBuffer;
+  }
+
+  /**
+   * Creates a buffer that is only flushed by size, unless its flusher is started.
+   */
+  private BatchSendBuffer createBatchSendBuffer() {
+    return createBatchSendBuffer(TimeUnit.HOURS.toNanos(1), this::write);
+  }
+
+  private void write(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    writes.add(bytes);
+  }
+
+  private static ByteBuffer message(int length, int fill) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) fill;
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static byte[] concat(ByteBuffer... messages) {
+    int length = 0;
+    for (ByteBuffer message : messages) {
+      length += message.remaining();
+    }
+    ByteBuffer all = ByteBuffer.allocate(length);
+    for (ByteBuffer message : messages) {
+      all.put(message.duplicate());
+    }
+    return all.array();
+  }
+
+  @Test
+  public void messagesBelowFlushSizeAreNotWritten() throws Exception {
+    createBatchSendBuffer();
+
+    batchSendBuffer.send(message(60, 1));
+
+    assertThat(writes).isEmpty();
+  }
+
+  @Test
+  public void batchIsWrittenOnceItReachesFlushSize() throws Exception {
+    createBatchSendBuffer();
+    ByteBuffer first = message(60, 1);
+    ByteBuffer second = message(40, 2);
+    byte[] expected = concat(first, second);
+
+    batchSendBuffer.send(first);
+    batchSendBuffer.send(second);
+
+    assertThat(writes).containsExactly(expected);
+  }
+
+  @Test
+  public void batchIsWrittenAfterFlushTime() throws Exception {
+    createBatchSendBuffer(TimeUnit.MILLISECONDS.toNanos(1), this::write);
+    batchSendBuffer.start("test batch flusher");
+    ByteBuffer first = message(10, 1);
+    ByteBuffer second = message(20, 2);
+    byte[] expected = concat(first, second);
+
+    batchSendBuffer.send(first);
+    batchSendBuffer.send(second);
+
+    await().until(() -> !writes.isEmpty());
+    assertThat(concat(writes.stream().map(ByteBuffer::wrap).toArray(ByteBuffer[]::new)))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  public void messageLargerThanFlushSizeIsWrittenAfterBatch() throws Exception {
+    createBatchSendBuffer();
+    ByteBuffer small = message(10, 1);
+    ByteBuffer large = message(FLUSH_SIZE + 1, 2);
+    byte[] expectedSmall = concat(small);
+    byte[] expectedLarge = concat(large);
+
+    batchSendBuffer.send(small);
+    batchSendBuffer.send(large);
+
+    assertThat(writes).containsExactly(expectedSmall, expectedLarge);
+  }
+
+  @Test
+  public void messageLargerThanBufferIsWritten() throws Exception {
+    createBatchSendBuffer();
+    ByteBuffer large = message(BUFFER_SIZE * 2, 3);
+    byte[] expected = concat(large);
+
+    batchSendBuffer.send(large);
+
+    assertThat(writes).containsExactly(expected);
+  }
+
+  @Test
+  public void flushOnCloseWritesRemainingMessages() throws Exception {
+    createBatchSendBuffer();
+    ByteBuffer message = message(10, 1);
+    byte[] expected = concat(message);
+    batchSendBuffer.send(message);
+
+    batchSendBuffer.flushOnClose();
+
+    assertThat(writes).containsExactly(expected);
+  }
+
+  @Test
+  public void flushOnCloseOfEmptyBufferWritesNothing() {
+    createBatchSendBuffer();
+
+    batchSendBuffer.flushOnClose();
+
+    assertThat(writes).isEmpty();
+  }
+
+  @Test
+  public void writeFailureReachesSenderThatFillsBatch() {
+    IOException failure = new IOException("broken pipe");
+    createBatchSendBuffer(TimeUnit.HOURS.toNanos(1), buffer -> {
+      throw failure;
+    });
+
+    assertThatThrownBy(() -> batchSendBuffer.send(message(FLUSH_SIZE, 1))).isSameAs(failure);
+  }
+
+  @Test
+  public void timedWriteFailureIsReportedAndFailsLaterSends() throws Exception {
+    IOException failure = new IOException("broken pipe");
+    createBatchSendBuffer(TimeUnit.MILLISECONDS.toNanos(1), buffer -> {
+      throw failure;
+    });
+    batchSendBuffer.start("test batch flusher");
+
+    batchSendBuffer.send(message(10, 1));
+
+    await().until(() -> flushFailure.get() != null);
+    assertThat(flushFailure.get()).isSameAs(failure);
+    assertThatThrownBy(() -> batchSendBuffer.send(message(10, 2)))
+        .isInstanceOf(ConnectionException.class).hasCause(failure);
+  }
+}
@@ -14,14 +14,18 @@
  */
 package org.apache.geode.internal.tcp;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.distributed.internal.DistributionMessage;
@@ -30,6 +34,9 @@ import org.apache.geode.test.junit.categories.MembershipTest;
 @Category({MembershipTest.class})
 public class ConnectionTest {
 
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
   @Test
   public void shouldBeMockable() throws Exception {
     Connection mockConnection = mock(Connection.class);
@@ -43,4 +50,28 @@ public class ConnectionTest {
     verify(mockConnection, times(1)).nioWriteFully(channel, buffer, forceAsync,
         mockDistributionMessage);
   }
+
+  @Test
+  public void batchFlushTimeDefaultsTo50Micros() {
+    System.clearProperty("p2p.batchFlushMicros");
+    System.clearProperty("p2p.batchFlushTime");
+
+    assertThat(Connection.getBatchFlushNanos()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(50));
+  }
+
+  @Test
+  public void batchFlushTimeInMillisIsHonoured() {
+    System.clearProperty("p2p.batchFlushMicros");
+    System.setProperty("p2p.batchFlushTime", "5");
+
+    assertThat(Connection.getBatchFlushNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+  }
+
+  @Test
+  public void batchFlushMicrosTakesPrecedence() {
+    System.setProperty("p2p.batchFlushMicros", "20");
+    System.setProperty("p2p.batchFlushTime", "5");
+
+    assertThat(Connection.getBatchFlushNanos()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(20));
+  }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class MsgReaderTest {
+  private WireCompressor compressor;
+  private Connection connection;
+
+  @Before
+  public void setUp() {
+    compressor = WireCompressor.create(WireCompressor.SNAPPY, WireCompressor.DEFAULT_THRESHOLD);
+    TCPConduit conduit = mock(TCPConduit.class);
+    when(conduit.getCompressor()).thenReturn(compressor);
+    when(conduit.getStats()).thenReturn(mock(DMStats.class));
+    connection = mock(Connection.class);
+    when(connection.getConduit()).thenReturn(conduit);
+  }
+
+  /**
+   * Returns a frame as written by a MsgStreamer for a direct ack reply on a connection that
+   * compresses its frames.
+   */
+  private static ByteBuffer createFrame(byte[] payload, int messageType) {
+    ByteBuffer frame = ByteBuffer.allocate(Connection.MSG_HEADER_BYTES + payload.length);
+    frame.putInt(Connection.calcHdrSize(payload.length));
+    frame.put((byte) messageType);
+    frame.putShort((short) 0);
+    frame.put(payload);
+    frame.flip();
+    return frame;
+  }
+
+  private MsgReader createReader(ByteBuffer frame) {
+    return new MsgReader(connection, null) {
+      @Override
+      public ByteBuffer readAtLeast(int bytes) {
+        ByteBuffer result = frame.slice();
+        result.limit(bytes);
+        frame.position(frame.position() + bytes);
+        return result;
+      }
+    };
+  }
+
+  private static byte[] serialize(DistributionMessage message) throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    InternalDataSerializer.writeDSFID(message, out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void readsLargeCompressedDirectAckReply() throws Exception {
+    byte[] returnValue = new byte[64 * 1024];
+    Arrays.fill(returnValue, (byte) 3);
+    ReplyMessage reply = new ReplyMessage();
+    reply.setReturnValue(returnValue);
+    byte[] compressed = compressor.compress(serialize(reply));
+    assertThat(compressed).isNotNull();
+    MsgReader reader = createReader(createFrame(compressed,
+        Connection.NORMAL_MSG_TYPE | Connection.DIRECT_ACK_BIT | Connection.COMPRESSED_BIT));
+
+    MsgReader.Header header = reader.readHeader();
+    assertThat(header.getNioMessageType()).isEqualTo((byte) Connection.NORMAL_MSG_TYPE);
+    DistributionMessage message = reader.readMessage(header);
+
+    assertThat(message).isInstanceOf(ReplyMessage.class);
+    assertThat((byte[]) ((ReplyMessage) message).getReturnValue()).isEqualTo(returnValue);
+  }
+
+  @Test
+  public void readsUncompressedDirectAckReply() throws Exception {
+    ReplyMessage reply = new ReplyMessage();
+    reply.setReturnValue("done");
+    MsgReader reader = createReader(createFrame(serialize(reply),
+        Connection.NORMAL_MSG_TYPE | Connection.DIRECT_ACK_BIT));
+
+    MsgReader.Header header = reader.readHeader();
+    assertThat(header.getNioMessageType()).isEqualTo((byte) Connection.NORMAL_MSG_TYPE);
+    DistributionMessage message = reader.readMessage(header);
+
+    assertThat(((ReplyMessage) message).getReturnValue()).isEqualTo("done");
+  }
+}
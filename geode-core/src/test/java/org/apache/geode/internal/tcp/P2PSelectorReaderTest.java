@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class P2PSelectorReaderTest {
+  private ServerSocketChannel server;
+  private SocketChannel sender;
+  private SocketChannel receiver;
+  private ExecutorService executor;
+  private DMStats stats;
+  private P2PSelectorReader selectorReader;
+
+  @Before
+  public void setUp() throws Exception {
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    sender = SocketChannel.open(server.getLocalAddress());
+    receiver = server.accept();
+    receiver.configureBlocking(false);
+    executor = Executors.newCachedThreadPool();
+    stats = mock(DMStats.class);
+    selectorReader = new P2PSelectorReader(1, executor, stats);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    selectorReader.close();
+    executor.shutdownNow();
+    sender.close();
+    receiver.close();
+    server.close();
+  }
+
+  @Test
+  public void readableConnectionIsHandedToReaderThread() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(connection.readFromSelector(receiver)).thenAnswer(invocation -> {
+      try {
+        return receiver.read(ByteBuffer.allocate(16)) >= 0;
+      } catch (ClosedChannelException e) {
+        // closed by tearDown before the selector reader finished closing
+        return false;
+      }
+    });
+
+    assertTrue(selectorReader.register(connection, receiver));
+    verify(stats, timeout(10000)).incSelectorReaderConnections(1);
+    verify(connection, after(200).never()).readFromSelector(any());
+
+    sender.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    verify(connection, timeout(10000)).readFromSelector(receiver);
+    verify(stats, timeout(10000)).incSelectorReaderDispatches();
+  }
+
+  @Test
+  public void connectionThatStopsReadingIsRemoved() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(connection.readFromSelector(receiver)).thenReturn(false);
+
+    assertTrue(selectorReader.register(connection, receiver));
+    sender.write(ByteBuffer.wrap(new byte[] {1}));
+
+    verify(connection, timeout(10000)).readFromSelector(receiver);
+    verify(stats, timeout(10000)).incSelectorReaderConnections(-1);
+  }
+
+  @Test
+  public void closeTerminatesParkedConnections() throws Exception {
+    Connection connection = mock(Connection.class);
+
+    assertTrue(selectorReader.register(connection, receiver));
+    verify(stats, timeout(10000)).incSelectorReaderConnections(1);
+
+    selectorReader.close();
+
+    verify(connection, timeout(10000)).requestClose("p2p selector reader closed");
+    verify(connection, timeout(10000)).readFromSelector(receiver);
+    verify(stats, timeout(10000)).incSelectorReaderConnections(-1);
+    assertFalse(selectorReader.register(mock(Connection.class), receiver));
+  }
+
+  @Test
+  public void fullConnectionWaitsForOpWriteWhileRegistered() throws Exception {
+    Connection connection = mock(Connection.class);
+    assertTrue(selectorReader.register(connection, receiver));
+    verify(stats, timeout(10000)).incSelectorReaderConnections(1);
+
+    ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+    while (receiver.write(chunk) > 0) {
+      chunk.clear();
+    }
+
+    long start = System.nanoTime();
+    Selector writeSelector = Connection.waitUntilWritable(receiver, null);
+    try {
+      // the full connection parked in the selector instead of returning straight away
+      long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue(waitedMs >= Connection.WRITE_SELECT_TIMEOUT_MS / 2);
+
+      executor.execute(() -> {
+        ByteBuffer drain = ByteBuffer.allocate(64 * 1024);
+        try {
+          while (sender.read(drain) >= 0) {
+            drain.clear();
+          }
+        } catch (IOException ignored) {
+          // closed by tearDown
+        }
+      });
+      Connection.waitUntilWritable(receiver, writeSelector);
+      assertTrue(receiver.write(ByteBuffer.wrap(new byte[] {1})) > 0);
+    } finally {
+      writeSelector.close();
+    }
+  }
+
+  @Test
+  public void selectTimeIsRecorded() throws Exception {
+    verify(stats, timeout(10000)).incSelectorReaderSelectTime(anyLong());
+    verify(stats, never()).incSelectorReaderDispatches();
+  }
+}
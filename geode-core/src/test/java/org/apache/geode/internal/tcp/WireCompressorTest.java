@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class WireCompressorTest {
+  private static final String COMPRESSOR_PROPERTY = "WireCompressorTest.compressor";
+  private static final String THRESHOLD_PROPERTY = "WireCompressorTest.threshold";
+
+  @After
+  public void clearProperties() {
+    System.clearProperty(COMPRESSOR_PROPERTY);
+    System.clearProperty(THRESHOLD_PROPERTY);
+  }
+
+  @Test
+  public void noCompressorWhenPropertyIsNotSet() {
+    assertThat(WireCompressor.fromProperties(COMPRESSOR_PROPERTY, THRESHOLD_PROPERTY)).isNull();
+  }
+
+  @Test
+  public void noCompressorWhenPropertyIsNone() {
+    System.setProperty(COMPRESSOR_PROPERTY, "none");
+    assertThat(WireCompressor.fromProperties(COMPRESSOR_PROPERTY, THRESHOLD_PROPERTY)).isNull();
+  }
+
+  @Test
+  public void snappyCompressorUsesThresholdProperty() {
+    System.setProperty(COMPRESSOR_PROPERTY, "snappy");
+    System.setProperty(THRESHOLD_PROPERTY, "100");
+
+    WireCompressor compressor =
+        WireCompressor.fromProperties(COMPRESSOR_PROPERTY, THRESHOLD_PROPERTY);
+
+    assertThat(compressor.getName()).isEqualTo(WireCompressor.SNAPPY);
+    assertThat(compressor.shouldCompress(99)).isFalse();
+    assertThat(compressor.shouldCompress(100)).isTrue();
+  }
+
+  @Test
+  public void compressorCanBeNamedByClass() {
+    WireCompressor compressor = WireCompressor.create(SnappyCompressor.class.getName(), 10);
+
+    assertThat(compressor.getName()).isEqualTo(SnappyCompressor.class.getName());
+  }
+
+  @Test
+  public void unknownCompressorClassIsIgnored() {
+    assertThat(WireCompressor.create("org.apache.geode.NoSuchCompressor", 10)).isNull();
+  }
+
+  @Test
+  public void classThatIsNotACompressorIsIgnored() {
+    assertThat(WireCompressor.create(String.class.getName(), 10)).isNull();
+  }
+
+  @Test
+  public void compressedBytesDecompressToOriginal() {
+    WireCompressor compressor = WireCompressor.create(WireCompressor.SNAPPY, 10);
+    byte[] bytes = new byte[4096];
+    Arrays.fill(bytes, (byte) 7);
+
+    byte[] compressed = compressor.compress(bytes);
+
+    assertThat(compressed.length).isLessThan(bytes.length);
+    assertThat(compressor.decompress(compressed)).isEqualTo(bytes);
+  }
+
+  @Test
+  public void compressReturnsNullWhenBytesDoNotShrink() {
+    WireCompressor compressor = WireCompressor.create(WireCompressor.SNAPPY, 1);
+
+    assertThat(compressor.compress(new byte[] {1, 2, 3})).isNull();
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntryCreator;
+
+public class LockFreeEntryConcurrentHashMapJUnitTest {
+
+  @Rule
+  public Timeout timeout = new Timeout(60, TimeUnit.SECONDS);
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static LockFreeEntryConcurrentHashMap<Integer, String> newMap() {
+    return new LockFreeEntryConcurrentHashMap<>(16, 0.75f, 16);
+  }
+
+  /**
+   * Creates a map whose keys all have hashes that differ only above the bits of the table index,
+   * so that they all land in the first bin.
+   */
+  private static LockFreeEntryConcurrentHashMap<Integer, String> newCollidingMap() {
+    HashEntryCreator<Integer, String> creator = new HashEntryCreator<Integer, String>() {
+      @Override
+      public HashEntry<Integer, String> newEntry(Integer key, int hash,
+          HashEntry<Integer, String> next, String value) {
+        return new CustomEntryConcurrentHashMap.HashEntryImpl<>(key, hash, next, value, null);
+      }
+
+      @Override
+      public int keyHashCode(Object key, boolean compareValues) {
+        return (Integer) key << 20;
+      }
+    };
+    return new LockFreeEntryConcurrentHashMap<>(100, 0.75f, 16, false, creator);
+  }
+
+  @Test
+  public void putGetAndRemove() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+
+    assertThat(map.put(1, "one")).isNull();
+    assertThat(map.put(1, "uno")).isEqualTo("one");
+    assertThat(map.putIfAbsent(1, "eins")).isEqualTo("uno");
+    assertThat(map.putIfAbsent(2, "two")).isNull();
+
+    assertThat(map.get(1)).isEqualTo("uno");
+    assertThat(map.containsKey(2)).isTrue();
+    assertThat(map.containsValue("two")).isTrue();
+    assertThat(map).hasSize(2);
+
+    assertThat(map.remove(1, "one")).isFalse();
+    assertThat(map.remove(1, "uno")).isTrue();
+    assertThat(map.remove(2)).isEqualTo("two");
+    assertThat(map.remove(3)).isNull();
+    assertThat(map).isEmpty();
+  }
+
+  @Test
+  public void replaceOnlyReplacesExistingEntries() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+
+    assertThat(map.replace(1, "one")).isNull();
+    assertThat(map).isEmpty();
+
+    map.put(1, "one");
+    assertThat(map.replace(1, "two", "three")).isFalse();
+    assertThat(map.replace(1, "one", "two")).isTrue();
+    assertThat(map.replace(1, "uno")).isEqualTo("two");
+    assertThat(map.get(1)).isEqualTo("uno");
+  }
+
+  @Test
+  public void identityMapComparesKeysByReference() {
+    LockFreeEntryConcurrentHashMap<String, String> map =
+        new LockFreeEntryConcurrentHashMap<>(16, 0.75f, 16, true, null);
+    String key = new String("key");
+
+    map.put(key, "value");
+
+    assertThat(map.get(key)).isEqualTo("value");
+    assertThat(map.get(new String("key"))).isNull();
+  }
+
+  @Test
+  public void growingKeepsAllEntries() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+
+    for (int i = 0; i < 100_000; i++) {
+      map.put(i, "value" + i);
+    }
+
+    assertThat(map).hasSize(100_000);
+    for (int i = 0; i < 100_000; i++) {
+      assertThat(map.get(i)).isEqualTo("value" + i);
+    }
+  }
+
+  @Test
+  public void collidingEntriesAreFoundInSortedBin() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newCollidingMap();
+
+    for (int i = 0; i < 100; i++) {
+      map.put(i, "value" + i);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertThat(map.get(i)).isEqualTo("value" + i);
+    }
+    assertThat(map.get(100)).isNull();
+
+    // shrinking the bin turns it back into a chain
+    for (int i = 0; i < 98; i++) {
+      assertThat(map.remove(i)).isEqualTo("value" + i);
+    }
+    assertThat(map).hasSize(2);
+    assertThat(map.get(98)).isEqualTo("value98");
+    assertThat(map.get(99)).isEqualTo("value99");
+    assertThat(map.get(0)).isNull();
+  }
+
+  @Test
+  public void iteratorReturnsEachEntryOnce() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, "value" + i);
+    }
+
+    List<Integer> keys = new ArrayList<>();
+    for (Map.Entry<Integer, String> entry : map.entrySetWithReusableEntries()) {
+      assertThat(entry.getValue()).isEqualTo("value" + entry.getKey());
+      keys.add(entry.getKey());
+    }
+
+    assertThat(keys).hasSize(1000).doesNotHaveDuplicates();
+    assertThat(new HashSet<>(map.values())).hasSize(1000);
+  }
+
+  @Test
+  public void iteratorRemovesFromMap() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+    for (int i = 0; i < 10; i++) {
+      map.put(i, "value" + i);
+    }
+
+    for (Iterator<Integer> it = map.keySet().iterator(); it.hasNext();) {
+      if (it.next() % 2 == 0) {
+        it.remove();
+      }
+    }
+
+    assertThat(map.keySet()).containsOnly(1, 3, 5, 7, 9);
+  }
+
+  @Test
+  public void clearRemovesAllEntries() {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, "value" + i);
+    }
+
+    map.clearWithExecutor(null);
+
+    assertThat(map).isEmpty();
+    assertThat(map.get(1)).isNull();
+    assertThat(map.put(1, "one")).isNull();
+    assertThat(map).hasSize(1);
+  }
+
+  @Test
+  public void readersFindEntriesWhileTableIsResized() throws Exception {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, "value" + i);
+    }
+    AtomicBoolean writing = new AtomicBoolean(true);
+    CountDownLatch started = new CountDownLatch(4);
+
+    List<Future<Integer>> readers = new ArrayList<>();
+    for (int r = 0; r < 4; r++) {
+      readers.add(executor.submit(() -> {
+        started.countDown();
+        int misses = 0;
+        while (writing.get()) {
+          for (int i = 0; i < 1000; i++) {
+            if (map.get(i) == null) {
+              misses++;
+            }
+          }
+        }
+        return misses;
+      }));
+    }
+    started.await();
+    List<Future<?>> writers = new ArrayList<>();
+    for (int w = 0; w < 2; w++) {
+      int first = 1000 + w * 200_000;
+      writers.add(executor.submit(() -> {
+        for (int i = first; i < first + 200_000; i++) {
+          map.put(i, "value" + i);
+        }
+      }));
+    }
+    for (Future<?> writer : writers) {
+      writer.get();
+    }
+    writing.set(false);
+
+    for (Future<Integer> reader : readers) {
+      assertThat(reader.get()).isZero();
+    }
+    assertThat(map).hasSize(401_000);
+  }
+
+  @Test
+  public void concurrentCreatesAndRemovesKeepCount() throws Exception {
+    LockFreeEntryConcurrentHashMap<Integer, String> map = newMap();
+    Set<Integer> expected = new HashSet<>();
+    List<Future<?>> tasks = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int first = t * 50_000;
+      for (int i = first; i < first + 50_000; i += 2) {
+        expected.add(i);
+      }
+      tasks.add(executor.submit(() -> {
+        for (int i = first; i < first + 50_000; i++) {
+          assertThat(map.putIfAbsent(i, "value" + i)).isNull();
+        }
+        for (int i = first + 1; i < first + 50_000; i += 2) {
+          assertThat(map.remove(i)).isEqualTo("value" + i);
+        }
+      }));
+    }
+    for (Future<?> task : tasks) {
+      task.get();
+    }
+
+    assertThat(map).hasSize(expected.size());
+    assertThat(new HashSet<>(map.keySet())).isEqualTo(expected);
+  }
+}